@@ -3,6 +3,7 @@ import RoutesTab from './components/routes/RoutesTab';
 import EnvoyTab from './components/envoy/EnvoyTab';
 import EnvoyMetricsTab from './components/envoy/EnvoyMetricsTab';
 import PodRoutesTab from './components/podRoutes/PodRoutesTab';
+import SearchBox from './components/SearchBox';
 import './App.css';
 
 const TABS = {
@@ -17,6 +18,7 @@ export default function App() {
   const [namespaceInput, setNamespaceInput] = useState('default');
   const [activeNamespace, setActiveNamespace] = useState('default');
   const [refreshToken, setRefreshToken] = useState(0);
+  const [focus, setFocus] = useState(null);
 
   const handleNamespaceInputChange = (value) => {
     setNamespaceInput(value);
@@ -42,6 +44,16 @@ export default function App() {
     setRefreshToken((token) => token + 1);
   };
 
+  const handleSearchSelect = (hit) => {
+    if (hit.kind === 'Pod') {
+      setActiveTab(TABS.POD_ROUTES);
+      setFocus({ text: hit.name });
+    } else {
+      setActiveTab(TABS.ROUTES);
+      setFocus({ text: hit.field === 'host' ? hit.value : hit.name });
+    }
+  };
+
   return (
     <div className="app-background">
       <header className="app-header">
@@ -53,6 +65,7 @@ export default function App() {
             </p>
           </div>
           <div className="global-action-bar">
+            <SearchBox namespace={activeNamespace} onSelect={handleSearchSelect} />
             <button type="button" className="primary-button" onClick={handleLoadClick}>
               Load
             </button>
@@ -101,6 +114,7 @@ export default function App() {
           onNamespaceInputChange={handleNamespaceInputChange}
           onNamespaceSubmit={handleNamespaceSubmit}
           refreshToken={refreshToken}
+          focus={focus}
         />
       )}
 
@@ -131,8 +145,9 @@ export default function App() {
           onNamespaceInputChange={handleNamespaceInputChange}
           onNamespaceSubmit={handleNamespaceSubmit}
           refreshToken={refreshToken}
+          focus={focus}
         />
       )}
     </div>
   );
-}
+}
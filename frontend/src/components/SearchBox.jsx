@@ -0,0 +1,77 @@
+import React, { useEffect, useState } from 'react';
+
+const SEARCH_DELAY_MS = 120;
+
+const SearchBox = ({ namespace, onSelect }) => {
+  const [query, setQuery] = useState('');
+  const [hits, setHits] = useState([]);
+  const [open, setOpen] = useState(false);
+
+  useEffect(() => {
+    const trimmed = query.trim();
+    if (trimmed.length === 0) {
+      setHits([]);
+      return undefined;
+    }
+    const controller = new AbortController();
+    const timer = setTimeout(async () => {
+      const params = new URLSearchParams({ q: trimmed, limit: '10' });
+      if (namespace.trim().length > 0) {
+        params.set('namespace', namespace.trim());
+      }
+      try {
+        const response = await fetch(`/api/search?${params}`, { signal: controller.signal });
+        if (!response.ok) {
+          throw new Error(`Search failed with status ${response.status}`);
+        }
+        const data = await response.json();
+        setHits(Array.isArray(data.hits) ? data.hits : []);
+      } catch (err) {
+        if (err.name !== 'AbortError') {
+          setHits([]);
+        }
+      }
+    }, SEARCH_DELAY_MS);
+    return () => {
+      clearTimeout(timer);
+      controller.abort();
+    };
+  }, [query, namespace]);
+
+  const handleSelect = (hit) => {
+    setOpen(false);
+    setQuery('');
+    onSelect(hit);
+  };
+
+  return (
+    <div className="search-box">
+      <input
+        type="search"
+        value={query}
+        placeholder="Search hosts, names, labels..."
+        onChange={(event) => {
+          setQuery(event.target.value);
+          setOpen(true);
+        }}
+        onFocus={() => setOpen(true)}
+        onBlur={() => setTimeout(() => setOpen(false), 150)}
+      />
+      {open && hits.length > 0 && (
+        <ul className="search-results">
+          {hits.map((hit) => (
+            <li key={`${hit.kind}/${hit.namespace}/${hit.name}`}>
+              <button type="button" onMouseDown={() => handleSelect(hit)}>
+                <span className="search-kind">{hit.kind}</span>
+                <span className="search-name">{hit.name}</span>
+                {hit.value !== hit.name && <span className="search-value">{hit.value}</span>}
+              </button>
+            </li>
+          ))}
+        </ul>
+      )}
+    </div>
+  );
+};
+
+export default SearchBox;
@@ -9,6 +9,7 @@ const PodRoutesTab = ({
   onNamespaceInputChange,
   onNamespaceSubmit,
   refreshToken,
+  focus,
 }) => {
   const [pods, setPods] = useState([]);
   const [podsLoading, setPodsLoading] = useState(false);
@@ -24,6 +25,12 @@ const PodRoutesTab = ({
   const [expandedConfigId, setExpandedConfigId] = useState(null);
   const [expandedRouteIds, setExpandedRouteIds] = useState(new Set());
 
+  useEffect(() => {
+    if (focus) {
+      setPodFilter(focus.text);
+    }
+  }, [focus]);
+
   useEffect(() => {
     const controller = new AbortController();
     async function fetchPods() {
@@ -286,5 +293,5 @@ const PodRoutesTab = ({
   );
 };
 
-export default PodRoutesTab;
-
+export default PodRoutesTab;
+
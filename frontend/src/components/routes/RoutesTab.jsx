@@ -7,7 +7,14 @@ import { buildLinkLabel } from '../../utils/formatters';
 
 const NODE_TYPE_OPTIONS = ['SERVICE_ENTRY', 'POD', 'DEPLOYMENT', 'MESH', 'UNKNOWN'];
 
-const RoutesTab = ({\n  namespace,\n  namespaceInput,\n  onNamespaceInputChange,\n  onNamespaceSubmit,\n  refreshToken,\n}) => {
+const RoutesTab = ({
+  namespace,
+  namespaceInput,
+  onNamespaceInputChange,
+  onNamespaceSubmit,
+  refreshToken,
+  focus,
+}) => {
   const [routes, setRoutes] = useState([]);
   const [loading, setLoading] = useState(false);
   const [error, setError] = useState(null);
@@ -17,35 +24,44 @@ const RoutesTab = ({\n  namespace,\n  namespaceInput,\n  onNamespaceInputChange,
   const [selectedNode, setSelectedNode] = useState(null);
 
   useEffect(() => {
-    const controller = new AbortController();
-    async function fetchRoutes() {
-      setLoading(true);
+    if (focus) {
+      setNameFilter(focus.text);
+    }
+  }, [focus]);
+
+  useEffect(() => {
+    setLoading(true);
+    setError(null);
+    setSelectedNode(null);
+    const namespaceQuery = namespace.trim();
+    const query = namespaceQuery.length > 0 ? `?namespace=${encodeURIComponent(namespaceQuery)}` : '';
+    const source = new EventSource(`/api/routes/stream${query}`);
+    source.addEventListener('graph', (event) => {
+      const data = JSON.parse(event.data);
+      setRoutes(Array.isArray(data.routes) ? data.routes : []);
       setError(null);
-      setSelectedNode(null);
-      const namespaceQuery = namespace.trim();
-      const query = namespaceQuery.length > 0 ? `?namespace=${encodeURIComponent(namespaceQuery)}` : '';
-      try {
-        const response = await fetch(`/api/routes${query}`, { signal: controller.signal });
-        if (!response.ok) {
-          throw new Error(`Request failed with status ${response.status}`);
-        }
-        const data = await response.json();
-        setRoutes(Array.isArray(data.routes) ? data.routes : []);
-      } catch (err) {
-        if (controller.signal.aborted) {
-          return;
-        }
-        setError(err.message || 'Failed to load routes');
+      setLoading(false);
+    });
+    source.addEventListener('delta', (event) => {
+      const delta = JSON.parse(event.data);
+      const upserted = Array.isArray(delta.upserted) ? delta.upserted : [];
+      const removed = new Set([
+        ...(Array.isArray(delta.removed) ? delta.removed : []),
+        ...upserted.map((route) => route.destinationHost),
+      ]);
+      setRoutes((current) => [
+        ...current.filter((route) => !removed.has(route.destinationHost)),
+        ...upserted,
+      ]);
+    });
+    source.onerror = () => {
+      if (source.readyState === EventSource.CLOSED) {
+        setError('Failed to load routes');
         setRoutes([]);
-      } finally {
-        if (!controller.signal.aborted) {
-          setLoading(false);
-        }
+        setLoading(false);
       }
-    }
-
-    fetchRoutes();
-    return () => controller.abort();
+    };
+    return () => source.close();
   }, [namespace, refreshToken]);
 
   const normalizedRoutes = useMemo(() => (
@@ -153,5 +169,5 @@ const RoutesTab = ({\n  namespace,\n  namespaceInput,\n  onNamespaceInputChange,
   );
 };
 
-export default RoutesTab;
-
+export default RoutesTab;
+
@@ -0,0 +1,82 @@
+package io.github.istiorouteexplorer.kube;
+
+import io.github.istiorouteexplorer.SyntheticMeshGenerator;
+import io.github.istiorouteexplorer.SyntheticMeshGenerator.Shape;
+import io.github.istiorouteexplorer.SyntheticMeshGenerator.SyntheticMesh;
+import io.github.istiorouteexplorer.config.AppProperties;
+import io.github.istiorouteexplorer.config.KubernetesClientConfig;
+import io.github.istiorouteexplorer.model.istio.DestinationRuleDto;
+import io.github.istiorouteexplorer.model.istio.VirtualServiceDto;
+import io.github.istiorouteexplorer.model.kubernetes.DeploymentDto;
+import io.github.istiorouteexplorer.model.kubernetes.PodDto;
+import io.github.istiorouteexplorer.telemetry.RouteExplorerMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of mapping fabric8 resources into DTOs with {@link IstioResourceLoader#listOrEmpty}, which runs for
+ * every list call of a namespace load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResourceMappingBenchmark {
+
+    @Param({"small", "medium", "large"})
+    public String shape;
+
+    private IstioResourceLoader loader;
+    private SyntheticMesh mesh;
+
+    @Setup
+    public void setUp() {
+        loader = new IstioResourceLoader(new AppProperties(), null, null, new KubernetesClientConfig().modelMapper(),
+                new RouteExplorerMetrics(new SimpleMeterRegistry(), new AppProperties()));
+        mesh = SyntheticMeshGenerator.generate("bench", Shape.named(shape), 42L);
+    }
+
+    @Benchmark
+    public List<VirtualServiceDto> mapVirtualServices() {
+        return loader.listOrEmpty(mesh.virtualServices(), VirtualServiceDto.class);
+    }
+
+    @Benchmark
+    public List<DestinationRuleDto> mapDestinationRules() {
+        return loader.listOrEmpty(mesh.destinationRules(), DestinationRuleDto.class);
+    }
+
+    @Benchmark
+    public List<DeploymentDto> mapDeployments() {
+        return loader.listOrEmpty(mesh.deployments(), DeploymentDto.class);
+    }
+
+    @Benchmark
+    public List<PodDto> mapPods() {
+        return loader.listOrEmpty(mesh.pods(), PodDto.class);
+    }
+
+    @Benchmark
+    public List<PodDto> mapAndProjectPods() {
+        MetadataProjection projection = new MetadataProjection(new AppProperties().getAnnotationAllowList(),
+                new AppProperties().getAnnotationDenyList());
+        List<PodDto> pods = loader.listOrEmpty(mesh.pods(), PodDto.class);
+        pods.forEach(pod -> projection.apply(pod.getMetadata()));
+        return pods;
+    }
+}
@@ -0,0 +1,77 @@
+package io.github.istiorouteexplorer.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.istiorouteexplorer.SyntheticMeshGenerator;
+import io.github.istiorouteexplorer.SyntheticMeshGenerator.Shape;
+import io.github.istiorouteexplorer.config.KubernetesClientConfig;
+import io.github.istiorouteexplorer.model.ResourceCollection;
+import io.github.istiorouteexplorer.model.Route;
+import io.github.istiorouteexplorer.model.RoutesResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Route-building pipeline over a synthetic namespace: indexing resources in {@link RouteExplorer}, building
+ * routes and serializing the response the way the REST endpoint does. Run with {@code -prof gc} (the
+ * {@code benchmark} profile default) to get the allocation rate next to the throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RouteBuildBenchmark {
+
+    @Param({"small", "medium", "large"})
+    public String shape;
+
+    private ResourceCollection resources;
+    private RouteExplorer explorer;
+    private RoutesResponse response;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        resources = new ResourceCollection(SyntheticMeshGenerator.generate("bench", Shape.named(shape), 42L)
+                .toNamespaceResources(new KubernetesClientConfig().modelMapper()), Map.of());
+        explorer = new RouteExplorer(resources);
+        response = new RoutesResponse(explorer.buildRoutes());
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @Benchmark
+    public RouteExplorer createExplorer() {
+        return new RouteExplorer(resources);
+    }
+
+    @Benchmark
+    public List<Route> buildRoutes() {
+        return explorer.buildRoutes();
+    }
+
+    @Benchmark
+    public List<Route> createExplorerAndBuildRoutes() {
+        return new RouteExplorer(resources).buildRoutes();
+    }
+
+    @Benchmark
+    public byte[] serializeResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 @ConfigurationProperties(prefix = "app")
 public class AppProperties {
@@ -39,6 +40,152 @@ public class AppProperties {
      */
     private boolean skipTlsVerify = false;
 
+    /**
+     * Number of recent graph versions kept per namespace for diffs.
+     */
+    private int graphHistorySize = 10;
+
+    /**
+     * Upper bound of the estimated heap retained by cached and historical graphs across all namespaces.
+     * Oldest graph versions are evicted first when it is exceeded. Zero disables the limit.
+     */
+    private DataSize maxRetainedSize = DataSize.ofMegabytes(256);
+
+    /**
+     * Maximum number of namespaces with retained graphs; the least recently built namespace is evicted when
+     * it is exceeded. Zero disables the limit.
+     */
+    private int maxRetainedNamespaces = 0;
+
+    /**
+     * Annotation keys kept on loaded resources; entries ending in {@code *} match a prefix. An empty list
+     * keeps every annotation that is not denied, so the UI shows all of them.
+     */
+    private List<String> annotationAllowList = new ArrayList<>();
+
+    /**
+     * Annotation keys dropped from loaded resources, applied after the allow list.
+     */
+    private List<String> annotationDenyList = new ArrayList<>(List.of(
+            "sidecar.istio.io/status", "kubectl.kubernetes.io/last-applied-configuration"));
+
+    /**
+     * Label selector applied server-side when listing pods, e.g. {@code security.istio.io/tlsMode=istio}
+     * to skip pods without a sidecar. Empty lists all pods.
+     */
+    private String podLabelSelector = "";
+
+    /**
+     * Objects requested per LIST page with {@code limit}/{@code continue}. Each page is mapped before the
+     * next one is fetched. Zero lists every kind in a single response.
+     */
+    private int listPageSize = 500;
+
+    /**
+     * Directory or zip archive of {@code kubectl get -o yaml|json} dumps. When set, resources are read from
+     * the dump instead of the cluster.
+     */
+    private String offlineDump = "";
+
+    /**
+     * Directory where namespace snapshots and their route graphs are persisted for warm restarts. Empty
+     * disables persistence.
+     */
+    private String snapshotDir = "";
+
+    /**
+     * How long the resourceVersion watches of a restored snapshot must stay quiet for it to count as current.
+     */
+    private Duration snapshotRevalidationWindow = Duration.ofSeconds(2);
+
+    /**
+     * Directory of the on-disk route history queried with {@code at=}. Empty disables the history.
+     */
+    private String historyDir = "";
+
+    /**
+     * How long history is kept; older segments are deleted when a new segment is started.
+     */
+    private Duration historyRetention = Duration.ofDays(7);
+
+    /**
+     * Records per history segment: one full state followed by deltas.
+     */
+    private int historySegmentRecords = 64;
+
+    /**
+     * Quiet period after the latest resource change before a graph is rebuilt.
+     */
+    private Duration rebuildDebounce = Duration.ofMillis(500);
+
+    /**
+     * Longest a rebuild is postponed by a continuous stream of changes, counted from the first one.
+     */
+    private Duration rebuildMaxDelay = Duration.ofSeconds(5);
+
+    /**
+     * Rebuilds running at once across all namespaces.
+     */
+    private int maxConcurrentRebuilds = 2;
+
+    /**
+     * Delay before a failed rebuild is retried; it doubles with every further failure.
+     */
+    private Duration rebuildRetryDelay = Duration.ofSeconds(5);
+
+    /**
+     * Longest delay between two retries of a failed rebuild.
+     */
+    private Duration rebuildMaxRetryDelay = Duration.ofMinutes(5);
+
+    /**
+     * Attempts of a rebuild, the first one included, before it is given up until the next change.
+     */
+    private int rebuildMaxAttempts = 6;
+
+    /**
+     * Deltas queued for one live subscriber before they are dropped in favour of a full graph event.
+     */
+    private int liveMaxPendingEvents = 16;
+
+    /**
+     * Namespaces besides the configured ones that metrics are tagged with; further ones are tagged "other".
+     */
+    private int metricsMaxNamespaces = 100;
+
+    /**
+     * Lifetime of a live stream connection; clients reconnect and start from a full graph again.
+     */
+    private Duration liveStreamTimeout = Duration.ofMinutes(30);
+
+    /**
+     * Threads building the namespace graphs of the all-namespaces view ({@code namespace=*}) at once. Zero uses
+     * one per available processor.
+     */
+    private int clusterBuildParallelism = 0;
+
+    /**
+     * Most routing objects the all-namespaces view loads; a larger cluster fails the load instead of exhausting
+     * the heap. Zero disables the limit.
+     */
+    private int clusterMaxObjects = 200_000;
+
+    /**
+     * Clusters of a multi-cluster mesh, each loaded through its own client. Empty inspects the single cluster
+     * of {@code kube-config}.
+     */
+    private List<Cluster> clusters = new ArrayList<>();
+
+    /**
+     * Namespace loads and graph builds running at once, and the requests allowed to wait for one.
+     */
+    private BulkheadLimits loadBulkhead = new BulkheadLimits(4, 16, Duration.ofSeconds(10));
+
+    /**
+     * Envoy config fetches running at once, and the requests allowed to wait for one.
+     */
+    private BulkheadLimits envoyBulkhead = new BulkheadLimits(4, 8, Duration.ofSeconds(5));
+
     public String getNamespace() {
         return namespace;
     }
@@ -86,4 +233,333 @@ public class AppProperties {
     public void setSkipTlsVerify(boolean skipTlsVerify) {
         this.skipTlsVerify = skipTlsVerify;
     }
-}
+
+    public int getGraphHistorySize() {
+        return graphHistorySize;
+    }
+
+    public void setGraphHistorySize(int graphHistorySize) {
+        this.graphHistorySize = graphHistorySize;
+    }
+
+    public DataSize getMaxRetainedSize() {
+        return maxRetainedSize;
+    }
+
+    public void setMaxRetainedSize(DataSize maxRetainedSize) {
+        this.maxRetainedSize = maxRetainedSize;
+    }
+
+    public int getMaxRetainedNamespaces() {
+        return maxRetainedNamespaces;
+    }
+
+    public void setMaxRetainedNamespaces(int maxRetainedNamespaces) {
+        this.maxRetainedNamespaces = maxRetainedNamespaces;
+    }
+
+    public List<String> getAnnotationAllowList() {
+        return annotationAllowList;
+    }
+
+    public void setAnnotationAllowList(List<String> annotationAllowList) {
+        this.annotationAllowList = annotationAllowList;
+    }
+
+    public List<String> getAnnotationDenyList() {
+        return annotationDenyList;
+    }
+
+    public void setAnnotationDenyList(List<String> annotationDenyList) {
+        this.annotationDenyList = annotationDenyList;
+    }
+
+    public String getPodLabelSelector() {
+        return podLabelSelector;
+    }
+
+    public void setPodLabelSelector(String podLabelSelector) {
+        this.podLabelSelector = podLabelSelector;
+    }
+
+    public int getListPageSize() {
+        return listPageSize;
+    }
+
+    public void setListPageSize(int listPageSize) {
+        this.listPageSize = listPageSize;
+    }
+
+    public String getOfflineDump() {
+        return offlineDump;
+    }
+
+    public void setOfflineDump(String offlineDump) {
+        this.offlineDump = offlineDump;
+    }
+
+    public String getSnapshotDir() {
+        return snapshotDir;
+    }
+
+    public void setSnapshotDir(String snapshotDir) {
+        this.snapshotDir = snapshotDir;
+    }
+
+    public Duration getSnapshotRevalidationWindow() {
+        return snapshotRevalidationWindow;
+    }
+
+    public void setSnapshotRevalidationWindow(Duration snapshotRevalidationWindow) {
+        this.snapshotRevalidationWindow = snapshotRevalidationWindow;
+    }
+
+    public String getHistoryDir() {
+        return historyDir;
+    }
+
+    public void setHistoryDir(String historyDir) {
+        this.historyDir = historyDir;
+    }
+
+    public Duration getHistoryRetention() {
+        return historyRetention;
+    }
+
+    public void setHistoryRetention(Duration historyRetention) {
+        this.historyRetention = historyRetention;
+    }
+
+    public int getHistorySegmentRecords() {
+        return historySegmentRecords;
+    }
+
+    public void setHistorySegmentRecords(int historySegmentRecords) {
+        this.historySegmentRecords = historySegmentRecords;
+    }
+
+    public Duration getRebuildDebounce() {
+        return rebuildDebounce;
+    }
+
+    public void setRebuildDebounce(Duration rebuildDebounce) {
+        this.rebuildDebounce = rebuildDebounce;
+    }
+
+    public Duration getRebuildMaxDelay() {
+        return rebuildMaxDelay;
+    }
+
+    public void setRebuildMaxDelay(Duration rebuildMaxDelay) {
+        this.rebuildMaxDelay = rebuildMaxDelay;
+    }
+
+    public int getMaxConcurrentRebuilds() {
+        return maxConcurrentRebuilds;
+    }
+
+    public void setMaxConcurrentRebuilds(int maxConcurrentRebuilds) {
+        this.maxConcurrentRebuilds = maxConcurrentRebuilds;
+    }
+
+    public Duration getRebuildRetryDelay() {
+        return rebuildRetryDelay;
+    }
+
+    public void setRebuildRetryDelay(Duration rebuildRetryDelay) {
+        this.rebuildRetryDelay = rebuildRetryDelay;
+    }
+
+    public Duration getRebuildMaxRetryDelay() {
+        return rebuildMaxRetryDelay;
+    }
+
+    public void setRebuildMaxRetryDelay(Duration rebuildMaxRetryDelay) {
+        this.rebuildMaxRetryDelay = rebuildMaxRetryDelay;
+    }
+
+    public int getRebuildMaxAttempts() {
+        return rebuildMaxAttempts;
+    }
+
+    public void setRebuildMaxAttempts(int rebuildMaxAttempts) {
+        this.rebuildMaxAttempts = rebuildMaxAttempts;
+    }
+
+    public int getMetricsMaxNamespaces() {
+        return metricsMaxNamespaces;
+    }
+
+    public void setMetricsMaxNamespaces(int metricsMaxNamespaces) {
+        this.metricsMaxNamespaces = metricsMaxNamespaces;
+    }
+
+    public int getLiveMaxPendingEvents() {
+        return liveMaxPendingEvents;
+    }
+
+    public void setLiveMaxPendingEvents(int liveMaxPendingEvents) {
+        this.liveMaxPendingEvents = liveMaxPendingEvents;
+    }
+
+    public Duration getLiveStreamTimeout() {
+        return liveStreamTimeout;
+    }
+
+    public void setLiveStreamTimeout(Duration liveStreamTimeout) {
+        this.liveStreamTimeout = liveStreamTimeout;
+    }
+
+    public int getClusterBuildParallelism() {
+        return clusterBuildParallelism;
+    }
+
+    public void setClusterBuildParallelism(int clusterBuildParallelism) {
+        this.clusterBuildParallelism = clusterBuildParallelism;
+    }
+
+    public int getClusterMaxObjects() {
+        return clusterMaxObjects;
+    }
+
+    public void setClusterMaxObjects(int clusterMaxObjects) {
+        this.clusterMaxObjects = clusterMaxObjects;
+    }
+
+    public List<Cluster> getClusters() {
+        return clusters;
+    }
+
+    public void setClusters(List<Cluster> clusters) {
+        this.clusters = clusters;
+    }
+
+    public BulkheadLimits getLoadBulkhead() {
+        return loadBulkhead;
+    }
+
+    public void setLoadBulkhead(BulkheadLimits loadBulkhead) {
+        this.loadBulkhead = loadBulkhead;
+    }
+
+    public BulkheadLimits getEnvoyBulkhead() {
+        return envoyBulkhead;
+    }
+
+    public void setEnvoyBulkhead(BulkheadLimits envoyBulkhead) {
+        this.envoyBulkhead = envoyBulkhead;
+    }
+
+    /**
+     * One member cluster of a multi-cluster mesh.
+     */
+    public static class Cluster {
+
+        /**
+         * Name qualifying the nodes of the cluster in the merged graph.
+         */
+        private String name;
+
+        /**
+         * Path to the kubeconfig of the cluster. When empty the default kubeconfig is used.
+         */
+        private String kubeConfig = "";
+
+        /**
+         * Kubeconfig context of the cluster. When empty the current context is used.
+         */
+        private String context = "";
+
+        /**
+         * How long a load of the cluster may take before the graph is built without it.
+         */
+        private Duration loadTimeout = Duration.ofSeconds(15);
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getKubeConfig() {
+            return kubeConfig;
+        }
+
+        public void setKubeConfig(String kubeConfig) {
+            this.kubeConfig = kubeConfig;
+        }
+
+        public String getContext() {
+            return context;
+        }
+
+        public void setContext(String context) {
+            this.context = context;
+        }
+
+        public Duration getLoadTimeout() {
+            return loadTimeout;
+        }
+
+        public void setLoadTimeout(Duration loadTimeout) {
+            this.loadTimeout = loadTimeout;
+        }
+    }
+
+    /**
+     * Limits of a bulkhead around heavy operations. Requests beyond both limits are rejected right away.
+     */
+    public static class BulkheadLimits {
+
+        /**
+         * Operations running at once.
+         */
+        private int maxConcurrent;
+
+        /**
+         * Requests waiting for a running operation to finish. Zero rejects as soon as all slots are taken.
+         */
+        private int maxQueued;
+
+        /**
+         * Longest a queued request waits before it is rejected; also sent as {@code Retry-After}.
+         */
+        private Duration maxWait;
+
+        public BulkheadLimits() {
+            this(1, 0, Duration.ofSeconds(1));
+        }
+
+        public BulkheadLimits(int maxConcurrent, int maxQueued, Duration maxWait) {
+            this.maxConcurrent = maxConcurrent;
+            this.maxQueued = maxQueued;
+            this.maxWait = maxWait;
+        }
+
+        public int getMaxConcurrent() {
+            return maxConcurrent;
+        }
+
+        public void setMaxConcurrent(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+
+        public int getMaxQueued() {
+            return maxQueued;
+        }
+
+        public void setMaxQueued(int maxQueued) {
+            this.maxQueued = maxQueued;
+        }
+
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+        }
+    }
+}
@@ -12,15 +12,24 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import io.github.istiorouteexplorer.kube.IstioResourceLoader;
+import io.github.istiorouteexplorer.kube.MultiClusterResourceLoader;
 import io.github.istiorouteexplorer.model.istio.*;
 import io.github.istiorouteexplorer.model.kubernetes.*;
+import io.github.istiorouteexplorer.telemetry.KubernetesResponseRecorder;
+import io.github.istiorouteexplorer.telemetry.RouteExplorerMetrics;
 import org.modelmapper.Converter;
 import org.modelmapper.ModelMapper;
 import org.modelmapper.config.Configuration.AccessLevel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 
 @Configuration
 public class KubernetesClientConfig {
@@ -29,16 +38,30 @@ public class KubernetesClientConfig {
 
     @Bean
     public Config fabric8Config(AppProperties properties) throws IOException {
+        return clientConfig(properties.getKubeConfig(), null, properties);
+    }
+
+    /**
+     * Client configuration for {@code context} of the kubeconfig at {@code kubeConfigPath}; an empty path uses
+     * the in-cluster or default kubeconfig and an empty context the current one.
+     */
+    public static Config clientConfig(String kubeConfigPath, String context, AppProperties properties) throws IOException {
         Config baseConfig;
-        String kubeConfigPath = properties.getKubeConfig();
+        String contextName = context == null || context.isBlank() ? null : context;
         if (kubeConfigPath != null && !kubeConfigPath.isBlank()) {
             Path path = Path.of(kubeConfigPath);
-            log.info("Loading kubeconfig from {}", path.toAbsolutePath());
-            String kubeConfigContent = Files.readString(path);
-            baseConfig = Config.fromKubeconfig(kubeConfigContent);
+            log.info("Loading kubeconfig from {}{}", path.toAbsolutePath(),
+                    contextName != null ? " with context " + contextName : "");
+            if (contextName != null) {
+                baseConfig = Config.fromKubeconfig(contextName, path.toFile());
+            } else {
+                String kubeConfigContent = Files.readString(path);
+                baseConfig = Config.fromKubeconfig(kubeConfigContent);
+            }
         } else {
-            log.info("Using automatic Kubernetes configuration (in-cluster or default kubeconfig)");
-            baseConfig = Config.autoConfigure(null);
+            log.info("Using automatic Kubernetes configuration (in-cluster or default kubeconfig){}",
+                    contextName != null ? " with context " + contextName : "");
+            baseConfig = Config.autoConfigure(contextName);
         }
         ConfigBuilder builder = new ConfigBuilder(baseConfig);
         applyTimeout(builder, properties.getRequestTimeout());
@@ -46,7 +69,7 @@ public class KubernetesClientConfig {
         return builder.build();
     }
 
-    private void applyTimeout(ConfigBuilder builder, Duration timeout) {
+    private static void applyTimeout(ConfigBuilder builder, Duration timeout) {
         if (timeout == null || timeout.isZero() || timeout.isNegative()) {
             return;
         }
@@ -57,7 +80,18 @@ public class KubernetesClientConfig {
 
     @Bean(destroyMethod = "close")
     public KubernetesClient kubernetesClient(Config config) {
-        return new KubernetesClientBuilder().withConfig(config).build();
+        return client(config);
+    }
+
+    /**
+     * Client for {@code config} recording its API responses for the metrics.
+     */
+    public static KubernetesClient client(Config config) {
+        return new KubernetesClientBuilder()
+                .withConfig(config)
+                .withHttpClientBuilderConsumer(builder -> builder.addOrReplaceInterceptor(
+                        KubernetesResponseRecorder.NAME, new KubernetesResponseRecorder()))
+                .build();
     }
 
     @Bean
@@ -65,6 +99,41 @@ public class KubernetesClientConfig {
         return kubernetesClient.adapt(IstioClient.class);
     }
 
+    /**
+     * Loader of the multi-cluster mesh in {@code app.clusters}, with a client per cluster; replaces the single
+     * cluster loader for routes while Envoy inspection keeps using the default client.
+     */
+    @Bean(destroyMethod = "close")
+    @Primary
+    @ConditionalOnExpression("'${app.offline-dump:}'.isBlank() && !'${app.clusters[0].name:}'.isBlank()")
+    public MultiClusterResourceLoader multiClusterResourceLoader(AppProperties properties, ModelMapper modelMapper,
+                                                                 RouteExplorerMetrics metrics) throws IOException {
+        List<MultiClusterResourceLoader.Member> members = new ArrayList<>();
+        for (AppProperties.Cluster cluster : properties.getClusters()) {
+            Config config = clientConfig(cluster.getKubeConfig(), cluster.getContext(), properties);
+            KubernetesClient client = client(withinLoadTimeout(config, cluster.getLoadTimeout()));
+            IstioResourceLoader loader = new IstioResourceLoader(properties, client, client.adapt(IstioClient.class),
+                    modelMapper, metrics);
+            members.add(new MultiClusterResourceLoader.Member(cluster.getName(), loader, cluster.getLoadTimeout(), client));
+        }
+        log.info("Loading routes from clusters {}", members.stream().map(MultiClusterResourceLoader.Member::name).toList());
+        return new MultiClusterResourceLoader(members, metrics);
+    }
+
+    /**
+     * Caps the request timeout of a member client at the load timeout of its cluster, so requests of a load that
+     * was given up on do not keep running.
+     */
+    private static Config withinLoadTimeout(Config config, Duration loadTimeout) {
+        if (loadTimeout == null || !loadTimeout.isPositive()
+                || (config.getRequestTimeout() > 0 && config.getRequestTimeout() <= loadTimeout.toMillis())) {
+            return config;
+        }
+        ConfigBuilder builder = new ConfigBuilder(config);
+        applyTimeout(builder, loadTimeout);
+        return builder.build();
+    }
+
     @Bean
     public ModelMapper modelMapper() {
         ModelMapper modelMapper = new ModelMapper();
@@ -92,6 +161,19 @@ public class KubernetesClientConfig {
         modelMapper.createTypeMap(io.fabric8.istio.api.networking.v1beta1.VirtualService.class, VirtualServiceDto.class);
         modelMapper.createTypeMap(io.fabric8.istio.api.api.networking.v1alpha3.VirtualService.class, VirtualServiceSpecDto.class);
         modelMapper.createTypeMap(io.fabric8.istio.api.api.networking.v1alpha3.HTTPRoute.class, HttpRouteDto.class);
+        modelMapper.createTypeMap(StringMatch.class, StringMatchDto.class)
+                .setConverter(ctx -> {
+                    StringMatch source = ctx.getSource();
+                    if (source == null) {
+                        return null;
+                    }
+                    return switch (source.getMatchType()) {
+                        case StringMatchExact exact -> StringMatchDto.fromExact(exact.getExact());
+                        case StringMatchPrefix prefix -> StringMatchDto.fromPrefix(prefix.getPrefix());
+                        case StringMatchRegex regex -> StringMatchDto.fromRegex(regex.getRegex());
+                        case null, default -> null;
+                    };
+                });
         modelMapper.createTypeMap(HTTPMatchRequest.class, HttpMatchRequestDto.class);
         modelMapper.createTypeMap(io.fabric8.istio.api.api.networking.v1alpha3.HTTPRouteDestination.class, HttpRouteDestinationDto.class);
         modelMapper.createTypeMap(io.fabric8.istio.api.api.networking.v1alpha3.Destination.class, DestinationDto.class)
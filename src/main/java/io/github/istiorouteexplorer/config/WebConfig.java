@@ -0,0 +1,16 @@
+package io.github.istiorouteexplorer.config;
+
+import io.github.istiorouteexplorer.telemetry.ServerTimingInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ServerTimingInterceptor())
+                .addPathPatterns("/api/routes/**", "/api/envoy/**", "/api/search/**");
+    }
+}
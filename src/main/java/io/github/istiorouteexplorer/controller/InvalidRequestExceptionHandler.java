@@ -0,0 +1,24 @@
+package io.github.istiorouteexplorer.controller;
+
+import io.github.istiorouteexplorer.service.InvalidRequestException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+/**
+ * Answers requests with invalid parameters, such as a malformed namespace, cursor or node id, with 400. The
+ * error is always JSON, whatever representation the request accepts.
+ */
+@RestControllerAdvice
+public class InvalidRequestExceptionHandler {
+
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidRequest(InvalidRequestException e) {
+        return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("error", e.getMessage()));
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.istiorouteexplorer.controller;
+
+import io.github.istiorouteexplorer.model.graph.GraphSummary;
+import io.github.istiorouteexplorer.model.graph.PathsResponse;
+import io.github.istiorouteexplorer.model.graph.ReachabilityResponse;
+import io.github.istiorouteexplorer.model.graph.TraversalDirection;
+import io.github.istiorouteexplorer.service.MeshGraph;
+import io.github.istiorouteexplorer.service.RouteExplorerService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/graph")
+@RequiredArgsConstructor
+@CrossOrigin
+public class MeshGraphController {
+
+    private static final int MAX_PATHS = 100;
+    private static final int MAX_PATH_DEPTH = 32;
+
+    private final RouteExplorerService routeExplorerService;
+
+    @GetMapping
+    public GraphSummary summary(@RequestParam(value = "namespace", required = false) String namespace) {
+        MeshGraph graph = routeExplorerService.graph(namespace);
+        return new GraphSummary(routeExplorerService.resolveNamespace(namespace), graph.getVersion(),
+                graph.nodeCount(), graph.linkCount());
+    }
+
+    @GetMapping("/reachable")
+    public ReachabilityResponse reachable(@RequestParam(value = "namespace", required = false) String namespace,
+                                          @RequestParam("node") String node,
+                                          @RequestParam(value = "direction", defaultValue = "FORWARD") TraversalDirection direction,
+                                          @RequestParam(value = "maxDepth", defaultValue = "2147483647") int maxDepth) {
+        MeshGraph graph = routeExplorerService.graph(namespace);
+        return new ReachabilityResponse(routeExplorerService.resolveNamespace(namespace), graph.getVersion(),
+                node, direction, graph.reachable(node, direction, maxDepth));
+    }
+
+    @GetMapping("/paths")
+    public PathsResponse paths(@RequestParam(value = "namespace", required = false) String namespace,
+                               @RequestParam("from") String from,
+                               @RequestParam("to") String to,
+                               @RequestParam(value = "k", defaultValue = "5") int k) {
+        MeshGraph graph = routeExplorerService.graph(namespace);
+        return new PathsResponse(routeExplorerService.resolveNamespace(namespace), graph.getVersion(),
+                from, to, graph.shortestPaths(from, to, Math.min(k, MAX_PATHS)));
+    }
+
+    @GetMapping("/paths/all")
+    public PathsResponse allPaths(@RequestParam(value = "namespace", required = false) String namespace,
+                                  @RequestParam("from") String from,
+                                  @RequestParam("to") String to,
+                                  @RequestParam(value = "maxDepth", defaultValue = "16") int maxDepth,
+                                  @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        MeshGraph graph = routeExplorerService.graph(namespace);
+        return new PathsResponse(routeExplorerService.resolveNamespace(namespace), graph.getVersion(),
+                from, to, graph.allPaths(from, to, Math.min(maxDepth, MAX_PATH_DEPTH), Math.min(limit, MAX_PATHS)));
+    }
+}
@@ -1,13 +1,33 @@
 package io.github.istiorouteexplorer.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.github.istiorouteexplorer.model.Route;
+import io.github.istiorouteexplorer.model.RouteNode;
 import io.github.istiorouteexplorer.model.RoutesResponse;
+import io.github.istiorouteexplorer.model.analysis.MatchAnalysisResponse;
+import io.github.istiorouteexplorer.model.diff.GraphVersion;
+import io.github.istiorouteexplorer.model.diff.RouteDiffResponse;
+import io.github.istiorouteexplorer.model.query.RouteQuery;
+import io.github.istiorouteexplorer.service.InvalidRequestException;
+import io.github.istiorouteexplorer.service.LiveGraphService;
 import io.github.istiorouteexplorer.service.RouteExplorerService;
+import io.github.istiorouteexplorer.telemetry.ServerTiming;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Instant;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/routes")
@@ -15,10 +35,119 @@ import org.springframework.web.bind.annotation.RestController;
 @CrossOrigin
 public class RouteExplorerController {
 
+    private static final int NDJSON_FLUSH_INTERVAL = 64;
+    private static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final RouteExplorerService routeExplorerService;
+    private final LiveGraphService liveGraphService;
+    private final ObjectMapper objectMapper;
 
+    /**
+     * Routes of the namespace. Without filter, sort or paging parameters this is the whole graph; otherwise
+     * the routes matching all given filters (any value of a repeated parameter), sorted by {@code sort}
+     * ({@code host}, {@code nodes} or {@code links}, a leading {@code -} reverses it) and cut into pages of
+     * {@code limit} routes, continued with the returned {@code nextCursor}.
+     */
     @GetMapping
-    public RoutesResponse getRoutes(@RequestParam(value = "namespace", required = false) String namespace) {
-        return routeExplorerService.buildRoutes(namespace);
+    public RoutesResponse getRoutes(@RequestParam(value = "namespace", required = false) String namespace,
+                                    @RequestParam(value = "at", required = false) Instant at,
+                                    @RequestParam(value = "host", required = false) String host,
+                                    @RequestParam(value = "hostMatch", required = false) String hostMatch,
+                                    @RequestParam(value = "protocol", required = false) List<String> protocols,
+                                    @RequestParam(value = "port", required = false) List<Long> ports,
+                                    @RequestParam(value = "gateway", required = false) List<String> gateways,
+                                    @RequestParam(value = "nodeType", required = false) List<RouteNode.Type> nodeTypes,
+                                    @RequestParam(value = "sort", required = false) String sort,
+                                    @RequestParam(value = "limit", required = false) Integer limit,
+                                    @RequestParam(value = "cursor", required = false) String cursor) {
+        return routeExplorerService.queryRoutes(namespace, at,
+                query(host, hostMatch, protocols, ports, gateways, nodeTypes, sort, limit, cursor));
+    }
+
+    /**
+     * Routes as newline-delimited JSON, one {@code Route} per line. Each route is serialized straight to the
+     * response, so neither a JSON document of the whole graph nor a buffer of it is held. The graph is built
+     * in full before the response starts: routes only become final once the DestinationRules have been
+     * applied after every VirtualService, so this does not bring the first byte forward, and failures still
+     * map to an error status. Takes the same filter, sort and paging parameters as {@link #getRoutes}; the
+     * total and the next cursor of a filtered or paged request are sent as {@code X-Total-Count} and
+     * {@code X-Next-Cursor} headers.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamRoutesAsNdjson(
+            @RequestParam(value = "namespace", required = false) String namespace,
+            @RequestParam(value = "at", required = false) Instant at,
+            @RequestParam(value = "host", required = false) String host,
+            @RequestParam(value = "hostMatch", required = false) String hostMatch,
+            @RequestParam(value = "protocol", required = false) List<String> protocols,
+            @RequestParam(value = "port", required = false) List<Long> ports,
+            @RequestParam(value = "gateway", required = false) List<String> gateways,
+            @RequestParam(value = "nodeType", required = false) List<RouteNode.Type> nodeTypes,
+            @RequestParam(value = "sort", required = false) String sort,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+        RoutesResponse result = routeExplorerService.queryRoutes(namespace, at,
+                query(host, hostMatch, protocols, ports, gateways, nodeTypes, sort, limit, cursor));
+        List<Route> routes = result.getRoutes();
+        ObjectWriter writer = objectMapper.writerFor(Route.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = writer.createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+                int written = 0;
+                for (Route route : routes) {
+                    writer.writeValue(generator, route);
+                    generator.writeRaw('\n');
+                    if (++written % NDJSON_FLUSH_INTERVAL == 0) {
+                        generator.flush();
+                    }
+                }
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON);
+        if (result.getTotal() != null) {
+            response.header(TOTAL_COUNT_HEADER, result.getTotal().toString());
+        }
+        if (result.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, result.getNextCursor());
+        }
+        String timing = ServerTiming.currentHeader();
+        if (timing != null) {
+            response.header(ServerTiming.HEADER, timing);
+        }
+        return response.body(body);
+    }
+
+    private static RouteQuery query(String host, String hostMatch, List<String> protocols, List<Long> ports,
+                                    List<String> gateways, List<RouteNode.Type> nodeTypes, String sort,
+                                    Integer limit, String cursor) {
+        try {
+            return RouteQuery.of(host, hostMatch, protocols, ports, gateways, nodeTypes, sort, limit, cursor);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException(e.getMessage(), e);
+        }
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamRoutes(@RequestParam(value = "namespace", required = false) String namespace) {
+        return liveGraphService.stream(namespace);
+    }
+
+    @GetMapping("/analysis")
+    public MatchAnalysisResponse getAnalysis(@RequestParam(value = "namespace", required = false) String namespace,
+                                             @RequestParam(value = "at", required = false) Instant at) {
+        return routeExplorerService.analyzeMatches(namespace, at);
+    }
+
+    @GetMapping("/versions")
+    public List<GraphVersion> getVersions(@RequestParam(value = "namespace", required = false) String namespace) {
+        return routeExplorerService.versions(namespace);
+    }
+
+    @GetMapping("/diff")
+    public RouteDiffResponse getDiff(@RequestParam(value = "namespace", required = false) String namespace,
+                                     @RequestParam(value = "from", required = false) Long from,
+                                     @RequestParam(value = "to", required = false) Long to) {
+        return routeExplorerService.diff(namespace, from, to);
     }
-}
+}
@@ -0,0 +1,28 @@
+package io.github.istiorouteexplorer.controller;
+
+import io.github.istiorouteexplorer.model.search.SearchResponse;
+import io.github.istiorouteexplorer.service.RouteExplorerService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+@CrossOrigin
+public class SearchController {
+
+    private static final int MAX_HITS = 50;
+
+    private final RouteExplorerService routeExplorerService;
+
+    @GetMapping
+    public SearchResponse search(@RequestParam(value = "namespace", required = false) String namespace,
+                                 @RequestParam("q") String query,
+                                 @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return routeExplorerService.search(namespace, query, Math.max(1, Math.min(limit, MAX_HITS)));
+    }
+}
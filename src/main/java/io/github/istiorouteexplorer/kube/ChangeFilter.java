@@ -0,0 +1,88 @@
+package io.github.istiorouteexplorer.kube;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.client.Watcher.Action;
+import io.fabric8.kubernetes.client.utils.KubernetesSerialization;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Drops watch events of one kind that cannot change routing. Every object is remembered by uid with a
+ * fingerprint of its routing-relevant content: the object without {@code status} and bookkeeping metadata
+ * such as resourceVersion and managedFields, with annotations filtered like {@link MetadataProjection}. For
+ * kinds listed as metadata only (Pods and ReplicaSets) the fingerprint covers the name, labels, annotations and
+ * owner references alone. A modification leaving the fingerprint unchanged, such as a pod status update during
+ * a rollout, is not relevant; so is an ADDED event repeating a known object after a watch restart. The first
+ * modification of an object not seen before is relevant, as its previous content is unknown.
+ */
+public final class ChangeFilter {
+
+    private static final KubernetesSerialization SERIALIZATION = new KubernetesSerialization();
+    private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+
+    private final boolean metadataOnly;
+    private final MetadataProjection projection;
+    private final Map<String, Long> fingerprints = new ConcurrentHashMap<>();
+
+    public ChangeFilter(boolean metadataOnly, MetadataProjection projection) {
+        this.metadataOnly = metadataOnly;
+        this.projection = projection;
+    }
+
+    public boolean relevant(Action action, HasMetadata resource) {
+        String uid = resource == null || resource.getMetadata() == null ? null : resource.getMetadata().getUid();
+        if (uid == null || action == Action.ERROR) {
+            return true;
+        }
+        if (action == Action.DELETED) {
+            fingerprints.remove(uid);
+            return true;
+        }
+        long fingerprint = fingerprint(resource);
+        Long previous = fingerprints.put(uid, fingerprint);
+        return previous == null || previous != fingerprint;
+    }
+
+    long fingerprint(HasMetadata resource) {
+        ObjectNode node = SERIALIZATION.convertValue(resource, ObjectNode.class);
+        JsonNode metadata = node.path("metadata");
+        if (metadataOnly) {
+            ObjectNode kept = node.objectNode();
+            for (String field : List.of("name", "labels", "annotations", "ownerReferences")) {
+                if (metadata.hasNonNull(field)) {
+                    kept.set(field, metadata.get(field));
+                }
+            }
+            node = kept;
+            metadata = kept;
+        } else {
+            node.remove("status");
+            if (metadata instanceof ObjectNode fields) {
+                fields.remove(List.of("resourceVersion", "managedFields", "generation"));
+            }
+        }
+        if (metadata.path("annotations") instanceof ObjectNode annotations) {
+            for (Iterator<String> keys = annotations.fieldNames(); keys.hasNext(); ) {
+                if (!projection.keepAnnotation(keys.next())) {
+                    keys.remove();
+                }
+            }
+            if (annotations.isEmpty()) {
+                ((ObjectNode) metadata).remove("annotations");
+            }
+        }
+        long hash = OFFSET_BASIS;
+        for (byte b : node.toString().getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= PRIME;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,376 @@
+package io.github.istiorouteexplorer.kube;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import io.fabric8.istio.api.networking.v1alpha3.EnvoyFilter;
+import io.fabric8.istio.api.networking.v1beta1.DestinationRule;
+import io.fabric8.istio.api.networking.v1beta1.Gateway;
+import io.fabric8.istio.api.networking.v1beta1.ServiceEntry;
+import io.fabric8.istio.api.networking.v1beta1.VirtualService;
+import io.fabric8.istio.api.networking.v1beta1.WorkloadEntry;
+import io.fabric8.kubernetes.api.model.Endpoints;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.apps.Deployment;
+import io.fabric8.kubernetes.api.model.apps.ReplicaSet;
+import io.fabric8.kubernetes.client.utils.KubernetesSerialization;
+import io.github.istiorouteexplorer.config.AppProperties;
+import io.github.istiorouteexplorer.model.NamespaceResources;
+import io.github.istiorouteexplorer.model.ResourceCollection;
+import io.github.istiorouteexplorer.model.istio.*;
+import io.github.istiorouteexplorer.model.kubernetes.*;
+import io.github.istiorouteexplorer.telemetry.ServerTiming;
+import lombok.RequiredArgsConstructor;
+import org.modelmapper.ModelMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+import org.yaml.snakeyaml.LoaderOptions;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Loads resources from {@code kubectl get -o yaml|json} dumps instead of the cluster. {@code app.offline-dump}
+ * names a directory, searched recursively for {@code .yaml}, {@code .yml} and {@code .json} files, or a
+ * {@code .zip} archive of such files. Files hold single resources, {@code List} documents or several
+ * {@code ---} separated documents and are stream-parsed through memory-mapped windows, in parallel across
+ * files. Every resource is mapped to its DTO as soon as it is read and dispatched by kind and namespace.
+ * The parsed dump is cached until a file of it changes.
+ */
+@Component
+@ConditionalOnExpression("!'${app.offline-dump:}'.isBlank()")
+@RequiredArgsConstructor
+public class DumpResourceLoader implements ResourceLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(DumpResourceLoader.class);
+
+    private static final String ISTIO = "networking.istio.io";
+    private static final String STAMP = "dump";
+
+    private static final List<Kind<?, ?>> KINDS = List.of(
+            new Kind<>(ISTIO, "VirtualService", VirtualService.class, VirtualServiceDto.class, VirtualServiceDto::getMetadata),
+            new Kind<>(ISTIO, "DestinationRule", DestinationRule.class, DestinationRuleDto.class, DestinationRuleDto::getMetadata),
+            new Kind<>(ISTIO, "Gateway", Gateway.class, GatewayDto.class, GatewayDto::getMetadata),
+            new Kind<>(ISTIO, "ServiceEntry", ServiceEntry.class, ServiceEntryDto.class, ServiceEntryDto::getMetadata),
+            new Kind<>(ISTIO, "EnvoyFilter", EnvoyFilter.class, EnvoyFilterDto.class, EnvoyFilterDto::getMetadata),
+            new Kind<>(ISTIO, "WorkloadEntry", WorkloadEntry.class, WorkloadEntryDto.class, WorkloadEntryDto::getMetadata),
+            new Kind<>("", "Service", Service.class, ServiceDto.class, ServiceDto::getMetadata),
+            new Kind<>("", "Endpoints", Endpoints.class, EndpointDto.class, EndpointDto::getMetadata),
+            new Kind<>("apps", "Deployment", Deployment.class, DeploymentDto.class, DeploymentDto::getMetadata),
+            new Kind<>("apps", "ReplicaSet", ReplicaSet.class, ReplicaSetDto.class, ReplicaSetDto::getMetadata),
+            new Kind<>("", "Pod", Pod.class, PodDto.class, PodDto::getMetadata));
+
+    private static final Map<String, Kind<?, ?>> KINDS_BY_KEY = KINDS.stream()
+            .collect(Collectors.toMap(kind -> kind.group() + "/" + kind.name(), Function.identity()));
+
+    private final AppProperties properties;
+    private final ModelMapper modelMapper;
+    private final KubernetesSerialization serialization = new KubernetesSerialization();
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+    private final ObjectMapper yamlMapper = new ObjectMapper(YAMLFactory.builder()
+            .loaderOptions(unlimitedLoaderOptions())
+            .build());
+    private volatile Dump dump;
+
+    @Override
+    public ResourceCollection load(String namespace, List<String> extraNamespaces) throws IOException {
+        Dump current = current();
+        Map<String, NamespaceResources> extras = new HashMap<>();
+        for (String extra : extraNamespaces) {
+            if (extra == null || extra.isBlank() || extra.equals(namespace)) {
+                continue;
+            }
+            extras.put(extra, current.namespace(extra));
+        }
+        return new ResourceCollection(current.namespace(namespace), extras);
+    }
+
+    /**
+     * Every namespace of the dump, as already partitioned when it was parsed.
+     */
+    @Override
+    public ResourceCollection loadCluster() throws IOException {
+        Dump current = current();
+        return new ResourceCollection(current.namespace(ALL_NAMESPACES), current.namespaces());
+    }
+
+    /**
+     * Dumps carry no resourceVersions; every namespace records the stamp of the parsed dump instead.
+     */
+    @Override
+    public boolean unchangedSince(String namespace, Map<String, String> resourceVersions) {
+        try {
+            return resourceVersions != null && current().stamp().equals(resourceVersions.get(STAMP));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * The cached dump, re-parsed when the set of dump files or one of their modification times changed.
+     */
+    private Dump current() throws IOException {
+        Path root = Path.of(properties.getOfflineDump());
+        List<Source> sources = sources(root);
+        String stamp = stamp(sources);
+        Dump cached = dump;
+        if (cached != null && cached.stamp().equals(stamp)) {
+            return cached;
+        }
+        synchronized (this) {
+            cached = dump;
+            if (cached == null || !cached.stamp().equals(stamp)) {
+                try {
+                    cached = ServerTiming.time("dump-parse", () -> parse(root, sources, stamp));
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+                dump = cached;
+            }
+            return cached;
+        }
+    }
+
+    private Dump parse(Path root, List<Source> sources, String stamp) {
+        long started = System.nanoTime();
+        MetadataProjection projection = new MetadataProjection(properties.getAnnotationAllowList(),
+                properties.getAnnotationDenyList());
+        List<Parsed> files;
+        try (ZipFile archive = isZip(root) ? new ZipFile(root.toFile()) : null) {
+            files = sources.parallelStream()
+                    .map(source -> parse(source, archive, projection))
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read dump " + root + ": " + e.getMessage(), e);
+        }
+        Map<String, Map<String, List<Object>>> merged = new LinkedHashMap<>();
+        int resources = 0;
+        int skipped = 0;
+        for (Parsed file : files) {
+            file.byNamespace().forEach((namespace, byKind) -> byKind.forEach((kind, items) ->
+                    merged.computeIfAbsent(namespace, key -> new HashMap<>())
+                            .computeIfAbsent(kind, key -> new ArrayList<>())
+                            .addAll(items)));
+            resources += file.resources();
+            skipped += file.skipped();
+        }
+        Map<String, NamespaceResources> namespaces = new HashMap<>();
+        merged.forEach((namespace, byKind) -> namespaces.put(namespace, resources(stamp, new NamespaceResources(
+                namespace,
+                items(byKind, "VirtualService"),
+                items(byKind, "DestinationRule"),
+                items(byKind, "Gateway"),
+                items(byKind, "ServiceEntry"),
+                items(byKind, "EnvoyFilter"),
+                items(byKind, "WorkloadEntry"),
+                items(byKind, "Service"),
+                items(byKind, "Endpoints"),
+                items(byKind, "Deployment"),
+                items(byKind, "ReplicaSet"),
+                items(byKind, "Pod")))));
+        log.info("Parsed {} resources in {} namespaces from {} files of {} in {} ms, skipped {} documents",
+                resources, namespaces.size(), sources.size(), root, (System.nanoTime() - started) / 1_000_000, skipped);
+        return new Dump(stamp, Map.copyOf(namespaces));
+    }
+
+    private Parsed parse(Source source, ZipFile archive, MetadataProjection projection) {
+        Parsed parsed = new Parsed(new HashMap<>(), new int[2]);
+        ObjectMapper mapper = source.name().toLowerCase(Locale.ROOT).endsWith(".json") ? jsonMapper : yamlMapper;
+        try (InputStream in = archive != null
+                ? archive.getInputStream(archive.getEntry(source.name()))
+                : new MappedFileInputStream(source.path())) {
+            readDocuments(mapper, in, node -> dispatch(node, parsed, projection));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to parse " + source.name() + ": " + e.getMessage(), e);
+        }
+        return parsed;
+    }
+
+    /**
+     * Streams every document of {@code in} to {@code sink}. The items of {@code List} documents are passed
+     * one by one while the array is read, so a list is never materialized as a whole; kubectl writes
+     * {@code items} before {@code kind}, hence any top-level {@code items} array is treated as a list.
+     */
+    static void readDocuments(ObjectMapper mapper, InputStream in, Consumer<JsonNode> sink) throws IOException {
+        try (JsonParser parser = mapper.createParser(in)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    continue;
+                }
+                ObjectNode head = mapper.createObjectNode();
+                boolean list = false;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    if (parser.nextToken() == JsonToken.START_ARRAY && "items".equals(field)) {
+                        list = true;
+                        while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+                            if (token == JsonToken.START_OBJECT) {
+                                sink.accept(parser.readValueAsTree());
+                            } else {
+                                parser.skipChildren();
+                            }
+                        }
+                    } else {
+                        head.set(field, parser.readValueAsTree());
+                    }
+                }
+                if (!list) {
+                    sink.accept(head);
+                }
+            }
+        }
+    }
+
+    private void dispatch(JsonNode node, Parsed parsed, MetadataProjection projection) {
+        Kind<?, ?> kind = KINDS_BY_KEY.get(key(node.path("apiVersion").asText(), node.path("kind").asText()));
+        ObjectMetadataDto metadata = null;
+        Object dto = null;
+        if (kind != null) {
+            dto = kind.map(node, serialization, modelMapper);
+            metadata = projection.apply(kind.metadataOf(dto));
+        }
+        if (metadata == null || metadata.getNamespace() == null) {
+            parsed.counts()[1]++;
+            return;
+        }
+        parsed.byNamespace().computeIfAbsent(metadata.getNamespace(), key -> new HashMap<>())
+                .computeIfAbsent(kind.name(), key -> new ArrayList<>())
+                .add(dto);
+        parsed.counts()[0]++;
+    }
+
+    private static List<Source> sources(Path root) throws IOException {
+        if (isZip(root)) {
+            try (ZipFile archive = new ZipFile(root.toFile())) {
+                long modified = Files.getLastModifiedTime(root).toMillis();
+                long size = Files.size(root);
+                return archive.stream()
+                        .filter(entry -> !entry.isDirectory() && isDumpFile(entry.getName()))
+                        .map(ZipEntry::getName)
+                        .sorted()
+                        .map(name -> new Source(name, null, modified, size))
+                        .toList();
+            }
+        }
+        if (!Files.isDirectory(root)) {
+            throw new IOException("Offline dump " + root + " is neither a directory nor a zip archive");
+        }
+        try (Stream<Path> files = Files.walk(root)) {
+            List<Path> paths = files.filter(Files::isRegularFile)
+                    .filter(path -> isDumpFile(path.getFileName().toString()))
+                    .sorted()
+                    .toList();
+            List<Source> sources = new ArrayList<>(paths.size());
+            for (Path path : paths) {
+                sources.add(new Source(root.relativize(path).toString(), path,
+                        Files.getLastModifiedTime(path).toMillis(), Files.size(path)));
+            }
+            return sources;
+        }
+    }
+
+    private static NamespaceResources resources(String stamp, NamespaceResources resources) {
+        resources.setResourceVersions(Map.of(STAMP, stamp));
+        return resources;
+    }
+
+    private static String stamp(List<Source> sources) {
+        long hash = 17;
+        for (Source source : sources) {
+            hash = 31 * hash + source.name().hashCode();
+            hash = 31 * hash + source.modified();
+            hash = 31 * hash + source.size();
+        }
+        return sources.size() + ":" + Long.toHexString(hash);
+    }
+
+    private static boolean isZip(Path root) {
+        return Files.isRegularFile(root) && root.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".zip");
+    }
+
+    private static boolean isDumpFile(String name) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        return lower.endsWith(".yaml") || lower.endsWith(".yml") || lower.endsWith(".json");
+    }
+
+    private static String key(String apiVersion, String kind) {
+        int slash = apiVersion.indexOf('/');
+        return (slash < 0 ? "" : apiVersion.substring(0, slash)) + "/" + kind;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R> List<R> items(Map<String, List<Object>> byKind, String kind) {
+        List<Object> items = byKind.get(kind);
+        return items == null ? List.of() : (List<R>) (List<?>) List.copyOf(items);
+    }
+
+    private static LoaderOptions unlimitedLoaderOptions() {
+        LoaderOptions options = new LoaderOptions();
+        options.setCodePointLimit(Integer.MAX_VALUE);
+        return options;
+    }
+
+    private record Kind<T, R>(String group, String name, Class<T> source, Class<R> target,
+                              Function<R, ObjectMetadataDto> metadata) {
+
+        R map(JsonNode node, KubernetesSerialization serialization, ModelMapper modelMapper) {
+            return modelMapper.map(serialization.convertValue(node, source), target);
+        }
+
+        ObjectMetadataDto metadataOf(Object dto) {
+            return metadata.apply(target.cast(dto));
+        }
+    }
+
+    /**
+     * A dump file; {@code path} is null for archive entries, which are read by {@code name}.
+     */
+    private record Source(String name, Path path, long modified, long size) {
+    }
+
+    /**
+     * DTOs of one file by namespace and kind, with counts of dispatched and skipped documents.
+     */
+    private record Parsed(Map<String, Map<String, List<Object>>> byNamespace, int[] counts) {
+
+        int resources() {
+            return counts[0];
+        }
+
+        int skipped() {
+            return counts[1];
+        }
+    }
+
+    private record Dump(String stamp, Map<String, NamespaceResources> namespaces) {
+
+        NamespaceResources namespace(String namespace) {
+            NamespaceResources resources = namespaces.get(namespace);
+            return resources != null ? resources : resources(stamp, new NamespaceResources(namespace, List.of(),
+                    List.of(), List.of(), List.of(), List.of(), List.of(), List.of(), List.of(), List.of(), List.of(), List.of()));
+        }
+    }
+}
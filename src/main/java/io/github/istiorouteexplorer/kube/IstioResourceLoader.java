@@ -1,34 +1,64 @@
 package io.github.istiorouteexplorer.kube;
 
 import io.fabric8.istio.client.IstioClient;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.KubernetesResourceList;
+import io.fabric8.kubernetes.api.model.ListOptions;
+import io.fabric8.kubernetes.api.model.ListOptionsBuilder;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.WatcherException;
+import io.fabric8.kubernetes.client.dsl.Watchable;
+import io.github.istiorouteexplorer.config.AppProperties;
 import io.github.istiorouteexplorer.model.NamespaceResources;
 import io.github.istiorouteexplorer.model.ResourceCollection;
 import io.github.istiorouteexplorer.model.istio.*;
 import io.github.istiorouteexplorer.model.kubernetes.*;
+import io.github.istiorouteexplorer.telemetry.NamespaceLoadEvent;
+import io.github.istiorouteexplorer.telemetry.RouteExplorerMetrics;
+import io.github.istiorouteexplorer.telemetry.ServerTiming;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Component
+@ConditionalOnExpression("'${app.offline-dump:}'.isBlank()")
 @RequiredArgsConstructor
-public class IstioResourceLoader {
+public class IstioResourceLoader implements ResourceLoader {
 
     private static final Logger log = LoggerFactory.getLogger(IstioResourceLoader.class);
 
+    private static final int MAX_LIST_RESTARTS = 3;
+
+    private final AppProperties properties;
     private final KubernetesClient kubernetesClient;
     private final IstioClient istioClient;
     private final ModelMapper modelMapper;
+    private final RouteExplorerMetrics metrics;
 
+    @Override
     public ResourceCollection load(String namespace, List<String> extraNamespaces) throws IOException {
         NamespaceResources primary = loadNamespace(namespace);
         Map<String, NamespaceResources> extras = new HashMap<>();
@@ -44,26 +74,256 @@ public class IstioResourceLoader {
     private NamespaceResources loadNamespace(String namespace) throws IOException {
         try {
             log.debug("Loading Istio resources for namespace {}", namespace);
-            return new NamespaceResources(
+            MetadataProjection projection = new MetadataProjection(properties.getAnnotationAllowList(),
+                    properties.getAnnotationDenyList());
+            Map<String, String> versions = new HashMap<>();
+            NamespaceResources resources = new NamespaceResources(
                     namespace,
-                    listOrEmpty(istioClient.v1beta1().virtualServices().inNamespace(namespace).list().getItems(), VirtualServiceDto.class),
-                    listOrEmpty(istioClient.v1beta1().destinationRules().inNamespace(namespace).list().getItems(), DestinationRuleDto.class),
-                    listOrEmpty(istioClient.v1beta1().gateways().inNamespace(namespace).list().getItems(), GatewayDto.class),
-                    listOrEmpty(istioClient.v1beta1().serviceEntries().inNamespace(namespace).list().getItems(), ServiceEntryDto.class),
-                    listOrEmpty(istioClient.v1alpha3().envoyFilters().inNamespace(namespace).list().getItems(), EnvoyFilterDto.class),
-                    listOrEmpty(istioClient.v1beta1().workloadEntries().inNamespace(namespace).list().getItems(), WorkloadEntryDto.class),
-                    listOrEmpty(kubernetesClient.services().inNamespace(namespace).list().getItems(), ServiceDto.class),
-                    listOrEmpty(kubernetesClient.endpoints().inNamespace(namespace).list().getItems(), EndpointDto.class),
-                    listOrEmpty(kubernetesClient.apps().deployments().inNamespace(namespace).list().getItems(), DeploymentDto.class),
-                    listOrEmpty(kubernetesClient.apps().replicaSets().inNamespace(namespace).list().getItems(), ReplicaSetDto.class),
-                    listOrEmpty(kubernetesClient.pods().inNamespace(namespace).list().getItems(), PodDto.class)
+                    list(namespace, "VirtualService", options -> istioClient.v1beta1().virtualServices().inNamespace(namespace).list(options), VirtualServiceDto.class, VirtualServiceDto::getMetadata, projection, versions),
+                    list(namespace, "DestinationRule", options -> istioClient.v1beta1().destinationRules().inNamespace(namespace).list(options), DestinationRuleDto.class, DestinationRuleDto::getMetadata, projection, versions),
+                    list(namespace, "Gateway", options -> istioClient.v1beta1().gateways().inNamespace(namespace).list(options), GatewayDto.class, GatewayDto::getMetadata, projection, versions),
+                    list(namespace, "ServiceEntry", options -> istioClient.v1beta1().serviceEntries().inNamespace(namespace).list(options), ServiceEntryDto.class, ServiceEntryDto::getMetadata, projection, versions),
+                    list(namespace, "EnvoyFilter", options -> istioClient.v1alpha3().envoyFilters().inNamespace(namespace).list(options), EnvoyFilterDto.class, EnvoyFilterDto::getMetadata, projection, versions),
+                    list(namespace, "WorkloadEntry", options -> istioClient.v1beta1().workloadEntries().inNamespace(namespace).list(options), WorkloadEntryDto.class, WorkloadEntryDto::getMetadata, projection, versions),
+                    list(namespace, "Service", options -> kubernetesClient.services().inNamespace(namespace).list(options), ServiceDto.class, ServiceDto::getMetadata, projection, versions),
+                    list(namespace, "Endpoints", options -> kubernetesClient.endpoints().inNamespace(namespace).list(options), EndpointDto.class, EndpointDto::getMetadata, projection, versions),
+                    list(namespace, "Deployment", options -> kubernetesClient.apps().deployments().inNamespace(namespace).list(options), DeploymentDto.class, DeploymentDto::getMetadata, projection, versions),
+                    list(namespace, "ReplicaSet", options -> MetadataLister.list(kubernetesClient, "apis/apps/v1", "replicasets", namespace, null, options, timeout()), ReplicaSetDto.class, ReplicaSetDto::getMetadata, projection, versions),
+                    list(namespace, "Pod", options -> MetadataLister.list(kubernetesClient, "api/v1", "pods", namespace, properties.getPodLabelSelector(), options, timeout()), PodDto.class, PodDto::getMetadata, projection, versions)
             );
+            resources.setResourceVersions(Map.copyOf(versions));
+            return resources;
         } catch (KubernetesClientException e) {
             throw new IOException("Failed to load resources for namespace " + namespace + ": " + e.getMessage(), e);
         }
     }
 
-    private <T,R> List<R> listOrEmpty(List<T> items, Class<R> targetClass) {
+    /**
+     * Lists every kind the route build reads with one cluster-scoped LIST, paged like a namespace load, and
+     * partitions the objects by namespace in memory. Endpoints, ReplicaSets and Pods are not listed: routes are
+     * built from the Istio resources, Services and Deployments alone, while pods make up most objects of a large
+     * cluster. The load fails once more than {@code app.cluster-max-objects} objects were mapped.
+     */
+    @Override
+    public ResourceCollection loadCluster() throws IOException {
+        try {
+            log.debug("Loading Istio resources of all namespaces");
+            MetadataProjection projection = new MetadataProjection(properties.getAnnotationAllowList(),
+                    properties.getAnnotationDenyList());
+            Map<String, String> versions = new HashMap<>();
+            ObjectBudget budget = new ObjectBudget(properties.getClusterMaxObjects());
+            Map<String, List<VirtualServiceDto>> virtualServices = byNamespace(list(ALL_NAMESPACES, "VirtualService", options -> istioClient.v1beta1().virtualServices().inAnyNamespace().list(options), VirtualServiceDto.class, VirtualServiceDto::getMetadata, projection, versions, budget), VirtualServiceDto::getMetadata);
+            Map<String, List<DestinationRuleDto>> destinationRules = byNamespace(list(ALL_NAMESPACES, "DestinationRule", options -> istioClient.v1beta1().destinationRules().inAnyNamespace().list(options), DestinationRuleDto.class, DestinationRuleDto::getMetadata, projection, versions, budget), DestinationRuleDto::getMetadata);
+            Map<String, List<GatewayDto>> gateways = byNamespace(list(ALL_NAMESPACES, "Gateway", options -> istioClient.v1beta1().gateways().inAnyNamespace().list(options), GatewayDto.class, GatewayDto::getMetadata, projection, versions, budget), GatewayDto::getMetadata);
+            Map<String, List<ServiceEntryDto>> serviceEntries = byNamespace(list(ALL_NAMESPACES, "ServiceEntry", options -> istioClient.v1beta1().serviceEntries().inAnyNamespace().list(options), ServiceEntryDto.class, ServiceEntryDto::getMetadata, projection, versions, budget), ServiceEntryDto::getMetadata);
+            Map<String, List<EnvoyFilterDto>> envoyFilters = byNamespace(list(ALL_NAMESPACES, "EnvoyFilter", options -> istioClient.v1alpha3().envoyFilters().inAnyNamespace().list(options), EnvoyFilterDto.class, EnvoyFilterDto::getMetadata, projection, versions, budget), EnvoyFilterDto::getMetadata);
+            Map<String, List<WorkloadEntryDto>> workloadEntries = byNamespace(list(ALL_NAMESPACES, "WorkloadEntry", options -> istioClient.v1beta1().workloadEntries().inAnyNamespace().list(options), WorkloadEntryDto.class, WorkloadEntryDto::getMetadata, projection, versions, budget), WorkloadEntryDto::getMetadata);
+            Map<String, List<ServiceDto>> services = byNamespace(list(ALL_NAMESPACES, "Service", options -> kubernetesClient.services().inAnyNamespace().list(options), ServiceDto.class, ServiceDto::getMetadata, projection, versions, budget), ServiceDto::getMetadata);
+            Map<String, List<DeploymentDto>> deployments = byNamespace(list(ALL_NAMESPACES, "Deployment", options -> kubernetesClient.apps().deployments().inAnyNamespace().list(options), DeploymentDto.class, DeploymentDto::getMetadata, projection, versions, budget), DeploymentDto::getMetadata);
+
+            Set<String> namespaces = new TreeSet<>();
+            for (Map<String, ?> kind : List.of(virtualServices, destinationRules, gateways, serviceEntries,
+                    envoyFilters, workloadEntries, services, deployments)) {
+                namespaces.addAll(kind.keySet());
+            }
+            Map<String, NamespaceResources> partitions = new HashMap<>();
+            for (String namespace : namespaces) {
+                partitions.put(namespace, new NamespaceResources(
+                        namespace,
+                        virtualServices.getOrDefault(namespace, List.of()),
+                        destinationRules.getOrDefault(namespace, List.of()),
+                        gateways.getOrDefault(namespace, List.of()),
+                        serviceEntries.getOrDefault(namespace, List.of()),
+                        envoyFilters.getOrDefault(namespace, List.of()),
+                        workloadEntries.getOrDefault(namespace, List.of()),
+                        services.getOrDefault(namespace, List.of()),
+                        List.of(),
+                        deployments.getOrDefault(namespace, List.of()),
+                        List.of(),
+                        List.of()));
+            }
+            NamespaceResources all = NamespaceResources.empty(ALL_NAMESPACES);
+            all.setResourceVersions(Map.copyOf(versions));
+            log.info("Loaded {} routing objects in {} namespaces", budget.used(), partitions.size());
+            return new ResourceCollection(all, partitions);
+        } catch (KubernetesClientException e) {
+            throw new IOException("Failed to load resources of all namespaces: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Opens a watch per kind from the recorded list {@code resourceVersion} and waits
+     * {@code app.snapshot-revalidation-window} for events. The API server replays every change made after that
+     * version, so a quiet window means nothing changed; an expired version closes the watch with HTTP 410 and
+     * counts as a change.
+     */
+    @Override
+    public boolean unchangedSince(String namespace, Map<String, String> resourceVersions) {
+        if (resourceVersions == null || !resourceVersions.keySet().containsAll(watchables(namespace).keySet())) {
+            return false;
+        }
+        CountDownLatch changed = new CountDownLatch(1);
+        try (ResourceWatch ignored = watch(namespace, resourceVersions, changed::countDown, changed::countDown)) {
+            Duration window = properties.getSnapshotRevalidationWindow();
+            return !changed.await(window == null ? 2000 : window.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (IOException e) {
+            log.debug("Revalidation watch for namespace {} failed: {}", namespace, e.getMessage());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    public ResourceWatch watch(String namespace, Map<String, String> resourceVersions,
+                               Runnable onChange, Runnable onClose) throws IOException {
+        List<Watch> watches = new ArrayList<>();
+        MetadataProjection projection = new MetadataProjection(properties.getAnnotationAllowList(),
+                properties.getAnnotationDenyList());
+        try {
+            for (Map.Entry<String, Watchable<?>> entry : watchables(namespace).entrySet()) {
+                String kind = entry.getKey();
+                String selector = "Pod".equals(kind) ? properties.getPodLabelSelector() : null;
+                String resourceVersion = resourceVersions == null ? null : resourceVersions.get(kind);
+                ChangeFilter filter = new ChangeFilter("Pod".equals(kind) || "ReplicaSet".equals(kind), projection);
+                watches.add(watch(namespace, kind, entry.getValue(), resourceVersion, selector, filter, onChange, onClose));
+            }
+        } catch (KubernetesClientException e) {
+            watches.forEach(Watch::close);
+            throw new IOException("Failed to watch namespace " + namespace + ": " + e.getMessage(), e);
+        }
+        return () -> watches.forEach(Watch::close);
+    }
+
+    private Map<String, Watchable<?>> watchables(String namespace) {
+        Map<String, Watchable<?>> watchables = new LinkedHashMap<>();
+        if (ALL_NAMESPACES.equals(namespace)) {
+            watchables.put("VirtualService", istioClient.v1beta1().virtualServices().inAnyNamespace());
+            watchables.put("DestinationRule", istioClient.v1beta1().destinationRules().inAnyNamespace());
+            watchables.put("Gateway", istioClient.v1beta1().gateways().inAnyNamespace());
+            watchables.put("ServiceEntry", istioClient.v1beta1().serviceEntries().inAnyNamespace());
+            watchables.put("EnvoyFilter", istioClient.v1alpha3().envoyFilters().inAnyNamespace());
+            watchables.put("WorkloadEntry", istioClient.v1beta1().workloadEntries().inAnyNamespace());
+            watchables.put("Service", kubernetesClient.services().inAnyNamespace());
+            watchables.put("Deployment", kubernetesClient.apps().deployments().inAnyNamespace());
+            return watchables;
+        }
+        watchables.put("VirtualService", istioClient.v1beta1().virtualServices().inNamespace(namespace));
+        watchables.put("DestinationRule", istioClient.v1beta1().destinationRules().inNamespace(namespace));
+        watchables.put("Gateway", istioClient.v1beta1().gateways().inNamespace(namespace));
+        watchables.put("ServiceEntry", istioClient.v1beta1().serviceEntries().inNamespace(namespace));
+        watchables.put("EnvoyFilter", istioClient.v1alpha3().envoyFilters().inNamespace(namespace));
+        watchables.put("WorkloadEntry", istioClient.v1beta1().workloadEntries().inNamespace(namespace));
+        watchables.put("Service", kubernetesClient.services().inNamespace(namespace));
+        watchables.put("Endpoints", kubernetesClient.endpoints().inNamespace(namespace));
+        watchables.put("Deployment", kubernetesClient.apps().deployments().inNamespace(namespace));
+        watchables.put("ReplicaSet", kubernetesClient.apps().replicaSets().inNamespace(namespace));
+        watchables.put("Pod", kubernetesClient.pods().inNamespace(namespace));
+        return watchables;
+    }
+
+    private <T> Watch watch(String namespace, String kind, Watchable<T> watchable, String resourceVersion,
+                            String labelSelector, ChangeFilter filter, Runnable onChange, Runnable onClose) {
+        ListOptions options = new ListOptionsBuilder()
+                .withResourceVersion(resourceVersion)
+                .withLabelSelector(labelSelector == null || labelSelector.isBlank() ? null : labelSelector)
+                .withAllowWatchBookmarks(true)
+                .build();
+        return watchable.watch(options, new Watcher<>() {
+            @Override
+            public void eventReceived(Action action, T resource) {
+                if (action == Action.BOOKMARK) {
+                    return;
+                }
+                boolean relevant = !(resource instanceof HasMetadata object) || filter.relevant(action, object);
+                metrics.recordWatchEvent(namespace, kind, relevant);
+                if (relevant) {
+                    onChange.run();
+                }
+            }
+
+            @Override
+            public void onClose(WatcherException cause) {
+                onClose.run();
+            }
+        });
+    }
+
+    /**
+     * Lists one kind page by page. With a positive {@code app.list-page-size} every page is requested with
+     * {@code limit}/{@code continue} and mapped to DTOs before the next one is fetched, so only one page of raw
+     * objects is alive at a time. An expired continue token (HTTP 410) restarts the list from the beginning.
+     * Every page is counted against the object budget of the load before it is mapped.
+     */
+    private <T extends HasMetadata, R> List<R> list(String namespace, String kind, Function<ListOptions, ? extends KubernetesResourceList<T>> lister,
+                               Class<R> targetClass, Function<R, ObjectMetadataDto> metadata, MetadataProjection projection,
+                               Map<String, String> resourceVersions) throws IOException {
+        return list(namespace, kind, lister, targetClass, metadata, projection, resourceVersions, new ObjectBudget(0));
+    }
+
+    private <T extends HasMetadata, R> List<R> list(String namespace, String kind, Function<ListOptions, ? extends KubernetesResourceList<T>> lister,
+                               Class<R> targetClass, Function<R, ObjectMetadataDto> metadata, MetadataProjection projection,
+                               Map<String, String> resourceVersions, ObjectBudget budget) throws IOException {
+        NamespaceLoadEvent event = new NamespaceLoadEvent();
+        event.begin();
+        Long limit = properties.getListPageSize() > 0 ? (long) properties.getListPageSize() : null;
+        List<R> mapped = new ArrayList<>();
+        String continueToken = null;
+        int restarts = 0;
+        while (true) {
+            ListOptions options = new ListOptionsBuilder().withLimit(limit).withContinue(continueToken).build();
+            KubernetesResourceList<T> page;
+            try {
+                page = ServerTiming.time("kube-list", () -> metrics.timeList(namespace, kind, () -> lister.apply(options)));
+            } catch (KubernetesClientException e) {
+                if (e.getCode() != HttpURLConnection.HTTP_GONE || continueToken == null || restarts >= MAX_LIST_RESTARTS) {
+                    throw e;
+                }
+                restarts++;
+                log.warn("Continue token for {} in namespace {} expired after {} objects, restarting the list",
+                        kind, namespace, mapped.size());
+                budget.release(mapped.size());
+                mapped.clear();
+                continueToken = null;
+                continue;
+            }
+            List<T> items = page == null ? null : page.getItems();
+            budget.take(kind, items == null ? 0 : items.size());
+            mapped.addAll(ServerTiming.time("mapping",
+                    () -> metrics.timeMapping(namespace, kind, () -> project(listOrEmpty(items, targetClass), metadata, projection))));
+            if (page != null && page.getMetadata() != null && page.getMetadata().getResourceVersion() != null) {
+                resourceVersions.put(kind, page.getMetadata().getResourceVersion());
+            }
+            continueToken = page == null || page.getMetadata() == null ? null : page.getMetadata().getContinue();
+            if (limit == null || continueToken == null || continueToken.isEmpty()) {
+                break;
+            }
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.namespace = namespace;
+            event.kind = kind;
+            event.objectCount = mapped.size();
+            event.commit();
+        }
+        return mapped;
+    }
+
+    private static <R> List<R> project(List<R> items, Function<R, ObjectMetadataDto> metadata, MetadataProjection projection) {
+        items.forEach(item -> projection.apply(metadata.apply(item)));
+        return items;
+    }
+
+    private static <R> Map<String, List<R>> byNamespace(List<R> items, Function<R, ObjectMetadataDto> metadata) {
+        return items.stream().collect(Collectors.groupingBy(item -> Objects.requireNonNullElse(metadata.apply(item).getNamespace(), "")));
+    }
+
+    private Duration timeout() {
+        return properties.getRequestTimeout() == null ? Duration.ofSeconds(10) : properties.getRequestTimeout();
+    }
+
+    <T,R> List<R> listOrEmpty(List<T> items, Class<R> targetClass) {
         if (items == null) {
             return Collections.emptyList();
         }
@@ -72,4 +332,33 @@ public class IstioResourceLoader {
                 .toList();
     }
 
+
+    /**
+     * Objects a load may still map; a limit of zero or less is unlimited.
+     */
+    private static final class ObjectBudget {
+
+        private final int limit;
+        private int used;
+
+        ObjectBudget(int limit) {
+            this.limit = limit;
+        }
+
+        void take(String kind, int count) throws IOException {
+            used += count;
+            if (limit > 0 && used > limit) {
+                throw new IOException("More than " + limit + " objects listed at " + kind
+                        + ", raise app.cluster-max-objects to load them");
+            }
+        }
+
+        void release(int count) {
+            used -= count;
+        }
+
+        int used() {
+            return used;
+        }
+    }
 }
@@ -0,0 +1,76 @@
+package io.github.istiorouteexplorer.kube;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a file through memory-mapped windows of at most 1 GiB, mapped one after another as the stream
+ * advances. Pages are filled by the kernel on access and shared with the page cache, so large dumps are
+ * parsed without copying them through a read buffer and without holding them on the heap.
+ */
+final class MappedFileInputStream extends InputStream {
+
+    static final long WINDOW = 1L << 30;
+
+    private final FileChannel channel;
+    private final long size;
+    private final long window;
+    private long mapped;
+    private MappedByteBuffer buffer;
+
+    MappedFileInputStream(Path file) throws IOException {
+        this(file, WINDOW);
+    }
+
+    MappedFileInputStream(Path file, long window) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.window = window;
+    }
+
+    @Override
+    public int read() throws IOException {
+        return nextWindow() ? buffer.get() & 0xff : -1;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!nextWindow()) {
+            return -1;
+        }
+        int count = Math.min(length, buffer.remaining());
+        buffer.get(bytes, offset, count);
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return buffer == null ? 0 : buffer.remaining();
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer = null;
+        channel.close();
+    }
+
+    private boolean nextWindow() throws IOException {
+        if (buffer != null && buffer.hasRemaining()) {
+            return true;
+        }
+        if (mapped >= size) {
+            return false;
+        }
+        long length = Math.min(window, size - mapped);
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, mapped, length);
+        mapped += length;
+        return true;
+    }
+}
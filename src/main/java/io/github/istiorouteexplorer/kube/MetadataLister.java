@@ -0,0 +1,76 @@
+package io.github.istiorouteexplorer.kube;
+
+import io.fabric8.kubernetes.api.model.GenericKubernetesResourceList;
+import io.fabric8.kubernetes.api.model.ListOptions;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.http.HttpRequest;
+import io.fabric8.kubernetes.client.http.HttpResponse;
+import io.fabric8.kubernetes.client.utils.URLUtils;
+
+import java.io.ByteArrayInputStream;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Metadata-only LIST calls. The API server is asked for a {@code PartialObjectMetadataList}, which carries
+ * no spec or status; servers that cannot serve it fall back to the full list through the second media type,
+ * and both shapes are read as generic resources of which only the metadata is used.
+ */
+final class MetadataLister {
+
+    static final String ACCEPT = "application/json;as=PartialObjectMetadataList;g=meta.k8s.io;v=v1,application/json";
+
+    private MetadataLister() {
+    }
+
+    /**
+     * Lists metadata of {@code resource} in {@code namespace}, e.g. {@code api/v1} and {@code pods}.
+     * {@code labelSelector} may be empty; {@code limit} and {@code continue} of {@code options} are honoured.
+     */
+    static GenericKubernetesResourceList list(KubernetesClient client, String apiPath, String resource,
+                                              String namespace, String labelSelector, ListOptions options,
+                                              Duration timeout) {
+        StringJoiner query = new StringJoiner("&", "?", "").setEmptyValue("");
+        if (labelSelector != null && !labelSelector.isBlank()) {
+            query.add("labelSelector=" + URLEncoder.encode(labelSelector, StandardCharsets.UTF_8));
+        }
+        if (options != null && options.getLimit() != null) {
+            query.add("limit=" + options.getLimit());
+        }
+        if (options != null && options.getContinue() != null) {
+            query.add("continue=" + URLEncoder.encode(options.getContinue(), StandardCharsets.UTF_8));
+        }
+        String url = URLUtils.join(client.getMasterUrl().toString(), apiPath, "namespaces", namespace, resource) + query;
+        HttpRequest request = client.getHttpClient().newHttpRequestBuilder()
+                .uri(url)
+                .header("Accept", ACCEPT)
+                .build();
+        CompletableFuture<HttpResponse<byte[]>> call = client.getHttpClient().sendAsync(request, byte[].class);
+        try {
+            HttpResponse<byte[]> response = call.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            if (!response.isSuccessful()) {
+                throw new KubernetesClientException("Metadata list of " + resource + " in namespace " + namespace
+                        + " failed with HTTP " + response.code(), response.code(), null);
+            }
+            return client.getKubernetesSerialization()
+                    .unmarshal(new ByteArrayInputStream(response.body()), GenericKubernetesResourceList.class);
+        } catch (InterruptedException e) {
+            // the HTTP client aborts the underlying call when its future is cancelled
+            call.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new KubernetesClientException("Interrupted while listing " + resource + " metadata", e);
+        } catch (TimeoutException e) {
+            call.cancel(true);
+            throw new KubernetesClientException("Listing " + resource + " metadata timed out after " + timeout, e);
+        } catch (ExecutionException e) {
+            throw new KubernetesClientException("Failed to list " + resource + " metadata: " + e.getMessage(), e);
+        }
+    }
+}
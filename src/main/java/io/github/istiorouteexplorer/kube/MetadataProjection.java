@@ -0,0 +1,78 @@
+package io.github.istiorouteexplorer.kube;
+
+import io.github.istiorouteexplorer.model.kubernetes.ObjectMetadataDto;
+import io.github.istiorouteexplorer.model.kubernetes.OwnerReferenceDto;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Trims object metadata of loaded resources to what the graph builder and the UI use. Annotations are
+ * filtered by allow and deny lists, where an entry ending in {@code *} matches a key prefix and the deny
+ * list wins. Names, label and annotation strings are interned and the resulting maps are immutable and
+ * shared between objects with identical metadata, e.g. the replicas of a workload. One projection is used
+ * per namespace load, so its map pool lives only as long as the load.
+ */
+public final class MetadataProjection {
+
+    private final List<String> annotationAllowList;
+    private final List<String> annotationDenyList;
+    private final Map<Map<String, String>, Map<String, String>> sharedMaps = new HashMap<>();
+
+    public MetadataProjection(List<String> annotationAllowList, List<String> annotationDenyList) {
+        this.annotationAllowList = annotationAllowList == null ? List.of() : List.copyOf(annotationAllowList);
+        this.annotationDenyList = annotationDenyList == null ? List.of() : List.copyOf(annotationDenyList);
+    }
+
+    public ObjectMetadataDto apply(ObjectMetadataDto metadata) {
+        if (metadata == null) {
+            return null;
+        }
+        metadata.setName(intern(metadata.getName()));
+        metadata.setNamespace(intern(metadata.getNamespace()));
+        metadata.setLabels(share(metadata.getLabels(), key -> true));
+        metadata.setAnnotations(share(metadata.getAnnotations(), this::keepAnnotation));
+        if (metadata.getOwnerReferences() != null) {
+            for (OwnerReferenceDto owner : metadata.getOwnerReferences()) {
+                owner.setKind(intern(owner.getKind()));
+                owner.setName(intern(owner.getName()));
+            }
+        }
+        return metadata;
+    }
+
+    boolean keepAnnotation(String key) {
+        return (annotationAllowList.isEmpty() || matches(annotationAllowList, key)) && !matches(annotationDenyList, key);
+    }
+
+    private synchronized Map<String, String> share(Map<String, String> source, Predicate<String> keep) {
+        if (source == null) {
+            return null;
+        }
+        Map<String, String> projected = new HashMap<>();
+        source.forEach((key, value) -> {
+            if (key != null && value != null && keep.test(key)) {
+                projected.put(intern(key), intern(value));
+            }
+        });
+        if (projected.isEmpty()) {
+            return Map.of();
+        }
+        return sharedMaps.computeIfAbsent(Map.copyOf(projected), map -> map);
+    }
+
+    private static boolean matches(List<String> patterns, String key) {
+        for (String pattern : patterns) {
+            if (pattern.endsWith("*") ? key.startsWith(pattern.substring(0, pattern.length() - 1)) : key.equals(pattern)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String intern(String value) {
+        return value == null ? null : value.intern();
+    }
+}
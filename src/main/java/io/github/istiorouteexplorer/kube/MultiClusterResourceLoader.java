@@ -0,0 +1,275 @@
+package io.github.istiorouteexplorer.kube;
+
+import io.github.istiorouteexplorer.model.NamespaceResources;
+import io.github.istiorouteexplorer.model.ResourceCollection;
+import io.github.istiorouteexplorer.telemetry.RouteExplorerMetrics;
+import io.github.istiorouteexplorer.telemetry.ServerTiming;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Loads the resources of a multi-cluster mesh configured with {@code app.clusters}. Every member cluster has its
+ * own client and loader and is loaded on its own virtual thread. A cluster that fails or exceeds its
+ * {@code load-timeout} is replaced by the resources it last returned for the namespace, or left out when there
+ * are none, so one slow cluster never holds up the others; the load only fails when no cluster answers. A load
+ * that times out is cancelled, and a cluster is not asked again for a namespace while its previous load is still
+ * running.
+ * <p>
+ * The result is partitioned like the all-namespaces view: the primary namespace is an empty entry carrying the
+ * resourceVersions of all clusters as {@code cluster/kind}, and the extras hold every loaded namespace of every
+ * cluster under {@code cluster/namespace}, tagged with {@link NamespaceResources#getCluster()}.
+ */
+public class MultiClusterResourceLoader implements ResourceLoader, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(MultiClusterResourceLoader.class);
+
+    private final List<Member> members;
+    private final RouteExplorerMetrics metrics;
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+    // last resources loaded per cluster and namespace, served while a cluster does not answer; dropped through
+    // forget() when the service evicts the graphs of the namespace
+    private final Map<String, ResourceCollection> lastLoaded = new ConcurrentHashMap<>();
+    // loads still running per cluster and namespace, including those cancelled after a timeout until their
+    // thread gives up; a cluster is not asked again for the namespace meanwhile
+    private final Map<String, FutureTask<ResourceCollection>> inFlight = new ConcurrentHashMap<>();
+
+    public MultiClusterResourceLoader(List<Member> members, RouteExplorerMetrics metrics) {
+        if (members.isEmpty()) {
+            throw new IllegalArgumentException("A multi-cluster mesh needs at least one cluster");
+        }
+        HashSet<String> names = new HashSet<>();
+        for (Member member : members) {
+            if (member.name() == null || member.name().isBlank() || member.name().contains("/")
+                    || !names.add(member.name())) {
+                throw new IllegalArgumentException("Cluster names must be unique, non-empty and without '/': "
+                        + member.name());
+            }
+        }
+        this.members = List.copyOf(members);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public ResourceCollection load(String namespace, List<String> extraNamespaces) throws IOException {
+        return merge(namespace, loadAll(namespace, loader -> loader.load(namespace, extraNamespaces)));
+    }
+
+    @Override
+    public ResourceCollection loadCluster() throws IOException {
+        return merge(ALL_NAMESPACES, loadAll(ALL_NAMESPACES, ResourceLoader::loadCluster));
+    }
+
+    /**
+     * Asks every cluster in parallel whether its part of {@code resourceVersions} is current; a cluster without
+     * recorded versions, left out of the last load, counts as changed.
+     */
+    @Override
+    public boolean unchangedSince(String namespace, Map<String, String> resourceVersions) {
+        if (resourceVersions == null) {
+            return false;
+        }
+        List<CompletableFuture<Boolean>> checks = new ArrayList<>();
+        for (Member member : members) {
+            Map<String, String> versions = versionsOf(member, resourceVersions);
+            if (versions.isEmpty()) {
+                return false;
+            }
+            checks.add(CompletableFuture.supplyAsync(() -> member.loader().unchangedSince(namespace, versions), workers));
+        }
+        return checks.stream().allMatch(CompletableFuture::join);
+    }
+
+    /**
+     * Watches the namespace in every cluster. A cluster whose watch cannot be opened is logged and left
+     * unwatched; the watch only fails when no cluster can be watched.
+     */
+    @Override
+    public ResourceWatch watch(String namespace, Map<String, String> resourceVersions,
+                               Runnable onChange, Runnable onClose) throws IOException {
+        List<ResourceWatch> watches = new ArrayList<>();
+        IOException failure = null;
+        for (Member member : members) {
+            try {
+                watches.add(member.loader().watch(namespace, versionsOf(member, resourceVersions), onChange, onClose));
+            } catch (IOException e) {
+                log.warn("Cannot watch namespace {} in cluster {}: {}", namespace, member.name(), e.getMessage());
+                failure = e;
+            }
+        }
+        if (watches.isEmpty() && failure != null) {
+            throw failure;
+        }
+        return () -> watches.forEach(ResourceWatch::close);
+    }
+
+    /**
+     * Drops the resources last loaded for {@code namespace} in every cluster, so they are retained no longer
+     * than the graphs built from them.
+     */
+    @Override
+    public void forget(String namespace) {
+        for (Member member : members) {
+            lastLoaded.remove(member.name() + "/" + namespace);
+        }
+    }
+
+    @Override
+    public void close() {
+        workers.shutdownNow();
+        for (Member member : members) {
+            if (member.client() != null) {
+                try {
+                    member.client().close();
+                } catch (Exception e) {
+                    log.debug("Failed to close the client of cluster {}", member.name(), e);
+                }
+            }
+        }
+    }
+
+    private Map<String, ResourceCollection> loadAll(String namespace, Load load) throws IOException {
+        long started = System.nanoTime();
+        Map<Member, FutureTask<ResourceCollection>> loads = new LinkedHashMap<>();
+        for (Member member : members) {
+            String key = member.name() + "/" + namespace;
+            FutureTask<ResourceCollection> task = new FutureTask<>(() -> load.apply(member.loader()));
+            if (inFlight.putIfAbsent(key, task) != null) {
+                loads.put(member, null);
+                continue;
+            }
+            workers.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    inFlight.remove(key, task);
+                }
+            });
+            loads.put(member, task);
+        }
+        Map<String, ResourceCollection> loaded = new LinkedHashMap<>();
+        for (Map.Entry<Member, FutureTask<ResourceCollection>> entry : loads.entrySet()) {
+            Member member = entry.getKey();
+            String cluster = member.name();
+            String key = cluster + "/" + namespace;
+            FutureTask<ResourceCollection> task = entry.getValue();
+            String outcome;
+            String reason = null;
+            if (task == null) {
+                reason = "the previous load is still running";
+            } else {
+                try {
+                    ResourceCollection collection = await(task, member.loadTimeout(), started);
+                    lastLoaded.put(key, collection);
+                    loaded.put(cluster, collection);
+                } catch (TimeoutException e) {
+                    task.cancel(true);
+                    reason = "no answer within " + member.loadTimeout();
+                } catch (ExecutionException e) {
+                    reason = String.valueOf(e.getCause().getMessage());
+                } catch (InterruptedException e) {
+                    loads.values().stream().filter(Objects::nonNull).forEach(running -> running.cancel(true));
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while loading namespace " + namespace);
+                }
+            }
+            if (reason == null) {
+                outcome = "ok";
+            } else {
+                ResourceCollection stale = lastLoaded.get(key);
+                if (stale != null) {
+                    loaded.put(cluster, stale);
+                    outcome = "stale";
+                    log.warn("Serving the last loaded resources of namespace {} in cluster {}: {}", namespace, cluster, reason);
+                } else {
+                    outcome = "failed";
+                    log.warn("Leaving cluster {} out of namespace {}: {}", cluster, namespace, reason);
+                }
+                ServerTiming.describe("cluster-" + cluster, outcome);
+            }
+            long nanos = System.nanoTime() - started;
+            metrics.recordClusterLoad(cluster, outcome, nanos);
+            ServerTiming.add("cluster-" + cluster, nanos);
+        }
+        if (loaded.isEmpty()) {
+            throw new IOException("No cluster answered for namespace " + namespace);
+        }
+        return loaded;
+    }
+
+    /**
+     * Waits for a load until {@code timeout} after {@code started}, or for as long as it takes without a timeout.
+     */
+    private static ResourceCollection await(Future<ResourceCollection> task, Duration timeout, long started)
+            throws TimeoutException, ExecutionException, InterruptedException {
+        if (timeout == null || !timeout.isPositive()) {
+            return task.get();
+        }
+        long remaining = timeout.toNanos() - (System.nanoTime() - started);
+        return task.get(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+    }
+
+    private static ResourceCollection merge(String namespace, Map<String, ResourceCollection> loaded) {
+        Map<String, String> versions = new HashMap<>();
+        Map<String, NamespaceResources> partitions = new HashMap<>();
+        loaded.forEach((cluster, collection) -> {
+            collection.primary().getResourceVersions()
+                    .forEach((kind, version) -> versions.put(cluster + "/" + kind, version));
+            if (!ALL_NAMESPACES.equals(namespace)) {
+                add(partitions, cluster, collection.primary());
+            }
+            collection.extras().values().forEach(resources -> add(partitions, cluster, resources));
+        });
+        NamespaceResources primary = NamespaceResources.empty(namespace);
+        primary.setResourceVersions(Map.copyOf(versions));
+        return new ResourceCollection(primary, partitions);
+    }
+
+    private static void add(Map<String, NamespaceResources> partitions, String cluster, NamespaceResources resources) {
+        resources.setCluster(cluster);
+        partitions.put(cluster + "/" + resources.getNamespace(), resources);
+    }
+
+    private static Map<String, String> versionsOf(Member member, Map<String, String> resourceVersions) {
+        Map<String, String> versions = new HashMap<>();
+        if (resourceVersions != null) {
+            String prefix = member.name() + "/";
+            resourceVersions.forEach((key, version) -> {
+                if (key.startsWith(prefix)) {
+                    versions.put(key.substring(prefix.length()), version);
+                }
+            });
+        }
+        return versions;
+    }
+
+    /**
+     * One member cluster: its loader, how long a load may take and the client to close on shutdown, if any.
+     */
+    public record Member(String name, ResourceLoader loader, Duration loadTimeout, AutoCloseable client) {
+    }
+
+    @FunctionalInterface
+    private interface Load {
+        ResourceCollection apply(ResourceLoader loader) throws IOException;
+    }
+}
@@ -0,0 +1,68 @@
+package io.github.istiorouteexplorer.kube;
+
+import io.github.istiorouteexplorer.model.ResourceCollection;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Source of the Istio and Kubernetes resources a route graph is built from: the live cluster through
+ * {@link IstioResourceLoader} or, with {@code app.offline-dump} set, a dump on disk through
+ * {@link DumpResourceLoader}.
+ */
+public interface ResourceLoader {
+
+    /**
+     * Namespace name selecting the all-namespaces view, loaded through {@link #loadCluster()}.
+     */
+    String ALL_NAMESPACES = "*";
+
+    ResourceCollection load(String namespace, List<String> extraNamespaces) throws IOException;
+
+    /**
+     * Resources of every namespace for the all-namespaces view. The primary namespace is an empty
+     * {@link #ALL_NAMESPACES} entry carrying the resourceVersions of the whole load, which {@link #unchangedSince}
+     * and {@link #watch} accept for {@link #ALL_NAMESPACES}; the extras hold the resources partitioned by
+     * namespace.
+     */
+    default ResourceCollection loadCluster() throws IOException {
+        throw new IOException("Loading all namespaces is not supported by " + getClass().getSimpleName());
+    }
+
+    /**
+     * Whether the resources of {@code namespace} are still those recorded by
+     * {@link io.github.istiorouteexplorer.model.NamespaceResources#getResourceVersions()}. Any doubt, such as a
+     * missing version or a failed check, answers {@code false}.
+     */
+    boolean unchangedSince(String namespace, Map<String, String> resourceVersions);
+
+    /**
+     * Watches the resources of {@code namespace} from {@code resourceVersions} and calls {@code onChange} for
+     * every change after them. A missing version starts that kind at its current state, which may report
+     * existing objects once. When the watch ends on its own, for instance because a version expired,
+     * {@code onClose} is called and the caller re-opens it from fresh versions. Sources that cannot watch
+     * never report changes.
+     */
+    default ResourceWatch watch(String namespace, Map<String, String> resourceVersions,
+                                Runnable onChange, Runnable onClose) throws IOException {
+        return () -> {
+        };
+    }
+
+    /**
+     * Drops whatever the loader keeps about {@code namespace} once its graphs were evicted. Loaders that keep
+     * nothing between loads ignore it.
+     */
+    default void forget(String namespace) {
+    }
+
+    /**
+     * Open watch of {@link #watch}; closing it stops the change notifications.
+     */
+    interface ResourceWatch extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
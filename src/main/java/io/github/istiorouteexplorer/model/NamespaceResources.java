@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Aggregates all Kubernetes and Istio resources discovered within a namespace so the graph builder
@@ -16,6 +17,10 @@ import java.util.List;
 public class NamespaceResources {
 
     private String namespace;
+    /**
+     * Cluster the resources were loaded from in a multi-cluster mesh; {@code null} with a single cluster.
+     */
+    private String cluster;
     private List<VirtualServiceDto> virtualServices;
     private List<DestinationRuleDto> destinationRules;
     private List<GatewayDto> gateways;
@@ -27,6 +32,10 @@ public class NamespaceResources {
     private List<DeploymentDto> deployments;
     private List<ReplicaSetDto> replicaSets;
     private List<PodDto> pods;
+    /**
+     * List {@code resourceVersion} per kind at load time; persisted snapshots are revalidated from these.
+     */
+    private Map<String, String> resourceVersions = Map.of();
 
     public NamespaceResources(
             String namespace,
@@ -56,4 +65,11 @@ public class NamespaceResources {
         this.pods = List.copyOf(pods);
     }
 
+    /**
+     * Namespace without resources, e.g. the entry carrying the resourceVersions of a partitioned load.
+     */
+    public static NamespaceResources empty(String namespace) {
+        return new NamespaceResources(namespace, List.of(), List.of(), List.of(), List.of(), List.of(), List.of(),
+                List.of(), List.of(), List.of(), List.of(), List.of());
+    }
 }
@@ -1,16 +1,32 @@
 package io.github.istiorouteexplorer.model;
 
-import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
 
+/**
+ * Routes of a namespace. Filtered or paged requests also carry the number of matching routes and, when more
+ * pages follow, the cursor of the next page.
+ */
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class RoutesResponse {
 
     private List<Route> routes;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer total;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
 
+    public RoutesResponse(List<Route> routes) {
+        this.routes = routes;
+    }
+
+    public RoutesResponse(List<Route> routes, Integer total, String nextCursor) {
+        this.routes = routes;
+        this.total = total;
+        this.nextCursor = nextCursor;
+    }
 }
@@ -0,0 +1,9 @@
+package io.github.istiorouteexplorer.model.analysis;
+
+import java.util.List;
+
+/**
+ * Match analysis of all VirtualServices in a namespace for one graph version.
+ */
+public record MatchAnalysisResponse(String namespace, long graphVersion, List<MatchFinding> findings) {
+}
@@ -0,0 +1,19 @@
+package io.github.istiorouteexplorer.model.analysis;
+
+import java.util.List;
+
+/**
+ * Finding for one http route of a VirtualService. Rule indexes are zero-based positions in {@code spec.http};
+ * {@code byRule} is the earlier rule responsible for the finding.
+ */
+public record MatchFinding(
+        MatchFindingType type,
+        String virtualService,
+        List<String> hosts,
+        int rule,
+        String ruleName,
+        int byRule,
+        String byRuleName,
+        String detail
+) {
+}
@@ -0,0 +1,23 @@
+package io.github.istiorouteexplorer.model.analysis;
+
+/**
+ * Problems detected in the ordered http routes of a VirtualService.
+ */
+public enum MatchFindingType {
+    /**
+     * Every request matched by the rule is already matched by earlier rules.
+     */
+    SHADOWED,
+    /**
+     * The rule follows a catch-all rule without match conditions and can never be selected.
+     */
+    UNREACHABLE,
+    /**
+     * Some requests matched by the rule are captured by an earlier rule that is not a special case of it.
+     */
+    OVERLAPPING,
+    /**
+     * A regex condition uses syntax that Envoy's RE2 engine rejects.
+     */
+    INVALID_REGEX
+}
@@ -0,0 +1,10 @@
+package io.github.istiorouteexplorer.model.diff;
+
+/**
+ * Kind of change between two graph versions.
+ */
+public enum ChangeType {
+    ADDED,
+    REMOVED,
+    MODIFIED
+}
@@ -0,0 +1,9 @@
+package io.github.istiorouteexplorer.model.diff;
+
+import java.time.Instant;
+
+/**
+ * Graph version kept in the recent history of a namespace.
+ */
+public record GraphVersion(long version, Instant generatedAt, int routes, String hash) {
+}
@@ -0,0 +1,9 @@
+package io.github.istiorouteexplorer.model.diff;
+
+import io.github.istiorouteexplorer.model.RouteLink;
+
+/**
+ * Change of a link between two nodes. A link whose match conditions changed is reported as modified.
+ */
+public record LinkChange(ChangeType type, RouteLink before, RouteLink after) {
+}
@@ -0,0 +1,11 @@
+package io.github.istiorouteexplorer.model.diff;
+
+import io.github.istiorouteexplorer.model.RouteNode;
+
+import java.util.List;
+
+/**
+ * Change of a single route node. For modified nodes {@code fields} lists the properties that differ.
+ */
+public record NodeChange(String id, ChangeType type, List<String> fields, RouteNode before, RouteNode after) {
+}
@@ -0,0 +1,16 @@
+package io.github.istiorouteexplorer.model.diff;
+
+import java.util.List;
+
+/**
+ * Structural change of one route, identified by its destination host.
+ */
+public record RouteChange(
+        String destinationHost,
+        ChangeType type,
+        List<Long> portsBefore,
+        List<Long> portsAfter,
+        List<NodeChange> nodes,
+        List<LinkChange> links
+) {
+}
@@ -0,0 +1,18 @@
+package io.github.istiorouteexplorer.model.diff;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Routes that changed between two graph versions of a namespace. Unchanged routes are only counted.
+ */
+public record RouteDiffResponse(
+        String namespace,
+        long fromVersion,
+        long toVersion,
+        Instant fromGeneratedAt,
+        Instant toGeneratedAt,
+        int unchangedRoutes,
+        List<RouteChange> changes
+) {
+}
@@ -0,0 +1,15 @@
+package io.github.istiorouteexplorer.model.footprint;
+
+import java.util.List;
+
+/**
+ * Estimated memory footprint of the route caches, largest namespace first. Limits of zero are disabled.
+ */
+public record FootprintReport(
+        long retainedBytes,
+        long maxRetainedBytes,
+        int maxRetainedNamespaces,
+        long evictions,
+        List<NamespaceFootprint> namespaces
+) {
+}
@@ -0,0 +1,18 @@
+package io.github.istiorouteexplorer.model.footprint;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Retained graphs of one namespace, oldest version first. {@code cacheExpiresAt} is null when the
+ * namespace has no live cache entry.
+ */
+public record NamespaceFootprint(
+        String namespace,
+        long retainedBytes,
+        Map<String, Long> bytesByKind,
+        Instant cacheExpiresAt,
+        List<SnapshotFootprint> snapshots
+) {
+}
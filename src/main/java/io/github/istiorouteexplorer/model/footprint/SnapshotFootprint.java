@@ -0,0 +1,19 @@
+package io.github.istiorouteexplorer.model.footprint;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Estimated heap retained by one graph version. {@code bytesByKind} splits it into route nodes by node type,
+ * links, route structure, match findings, host index and the merged graph once it has been built.
+ */
+public record SnapshotFootprint(
+        long version,
+        Instant generatedAt,
+        long ageSeconds,
+        int routes,
+        boolean cached,
+        long retainedBytes,
+        Map<String, Long> bytesByKind
+) {
+}
@@ -0,0 +1,9 @@
+package io.github.istiorouteexplorer.model.graph;
+
+import io.github.istiorouteexplorer.model.RouteNode;
+
+/**
+ * Node reached by a graph traversal together with its hop distance from the query origin.
+ */
+public record GraphNodeHit(String id, String name, RouteNode.Type type, int depth) {
+}
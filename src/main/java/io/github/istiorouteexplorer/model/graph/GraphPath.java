@@ -0,0 +1,15 @@
+package io.github.istiorouteexplorer.model.graph;
+
+import io.github.istiorouteexplorer.model.RouteLink;
+
+import java.util.List;
+
+/**
+ * Loop-free path through the mesh graph: visited node ids and the links taken between them.
+ */
+public record GraphPath(List<String> nodeIds, List<RouteLink> links) {
+
+    public int hops() {
+        return links.size();
+    }
+}
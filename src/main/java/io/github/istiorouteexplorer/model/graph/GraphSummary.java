@@ -0,0 +1,7 @@
+package io.github.istiorouteexplorer.model.graph;
+
+/**
+ * Size and version of the namespace-wide mesh graph.
+ */
+public record GraphSummary(String namespace, long graphVersion, int nodes, int links) {
+}
@@ -0,0 +1,15 @@
+package io.github.istiorouteexplorer.model.graph;
+
+import java.util.List;
+
+/**
+ * Result of a path query between two nodes of the mesh graph.
+ */
+public record PathsResponse(
+        String namespace,
+        long graphVersion,
+        String from,
+        String to,
+        List<GraphPath> paths
+) {
+}
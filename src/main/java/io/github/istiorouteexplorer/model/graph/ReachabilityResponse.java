@@ -0,0 +1,15 @@
+package io.github.istiorouteexplorer.model.graph;
+
+import java.util.List;
+
+/**
+ * Result of a forward or reverse reachability query from a single node.
+ */
+public record ReachabilityResponse(
+        String namespace,
+        long graphVersion,
+        String origin,
+        TraversalDirection direction,
+        List<GraphNodeHit> nodes
+) {
+}
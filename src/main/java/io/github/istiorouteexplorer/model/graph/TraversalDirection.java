@@ -0,0 +1,9 @@
+package io.github.istiorouteexplorer.model.graph;
+
+/**
+ * Direction of a graph traversal: along links (downstream) or against them (upstream).
+ */
+public enum TraversalDirection {
+    FORWARD,
+    REVERSE
+}
@@ -12,6 +12,7 @@ import java.util.List;
 @NoArgsConstructor(force = true)
 public class HttpRouteDto implements IstioRoute {
 
+    private String name;
     private List<HttpMatchRequestDto> match;
     private HttpRouteDestinationDto mirror;
     private List<HttpRouteDestinationDto> route;
@@ -0,0 +1,23 @@
+package io.github.istiorouteexplorer.model.live;
+
+import io.github.istiorouteexplorer.model.Route;
+import io.github.istiorouteexplorer.model.diff.RouteChange;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Incremental {@code delta} event of a live stream. Applying it to the graph of {@code fromVersion} means
+ * replacing the {@code upserted} routes by destination host and dropping the {@code removed} hosts;
+ * {@code changes} details which nodes and links moved.
+ */
+public record GraphDelta(
+        String namespace,
+        long fromVersion,
+        long toVersion,
+        Instant generatedAt,
+        List<Route> upserted,
+        List<String> removed,
+        List<RouteChange> changes
+) {
+}
@@ -0,0 +1,18 @@
+package io.github.istiorouteexplorer.model.live;
+
+import io.github.istiorouteexplorer.model.Route;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Full graph of a namespace sent as the first {@code graph} event of a live stream, and again whenever a
+ * subscriber fell too far behind to be sent deltas.
+ */
+public record LiveGraph(
+        String namespace,
+        long version,
+        Instant generatedAt,
+        List<Route> routes
+) {
+}
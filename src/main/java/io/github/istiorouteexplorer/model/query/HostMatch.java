@@ -0,0 +1,23 @@
+package io.github.istiorouteexplorer.model.query;
+
+import java.util.Locale;
+
+/**
+ * How the {@code host} filter of a {@link RouteQuery} is compared with destination hosts.
+ */
+public enum HostMatch {
+    SUBSTRING,
+    PREFIX,
+    /**
+     * Glob where {@code *} matches any run of characters and {@code ?} a single character.
+     */
+    WILDCARD;
+
+    public static HostMatch parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown host match " + value + ", expected substring, prefix or wildcard");
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package io.github.istiorouteexplorer.model.query;
+
+import io.github.istiorouteexplorer.model.RouteNode;
+
+import java.util.List;
+
+/**
+ * Filters, sort order and page of a routes request. Values within one filter are alternatives; different
+ * filters must all match. An empty query selects every route in the default order without paging.
+ *
+ * @param host      destination host to match, compared case-insensitively according to {@code hostMatch}
+ * @param protocols link protocols, e.g. {@code HTTP}
+ * @param ports     destination or link ports
+ * @param gateways  names of link source nodes: {@code mesh} or a gateway deployment
+ * @param nodeTypes types of any node of the route
+ * @param limit     page size; {@code null} returns all remaining routes
+ * @param cursor    {@code nextCursor} of the previous page
+ */
+public record RouteQuery(
+        String host,
+        HostMatch hostMatch,
+        List<String> protocols,
+        List<Long> ports,
+        List<String> gateways,
+        List<RouteNode.Type> nodeTypes,
+        RouteSort sort,
+        boolean descending,
+        Integer limit,
+        String cursor
+) {
+
+    public RouteQuery {
+        host = host == null || host.isBlank() ? null : host.trim();
+        hostMatch = hostMatch == null ? HostMatch.SUBSTRING : hostMatch;
+        protocols = protocols == null ? List.of() : List.copyOf(protocols);
+        ports = ports == null ? List.of() : List.copyOf(ports);
+        gateways = gateways == null ? List.of() : List.copyOf(gateways);
+        nodeTypes = nodeTypes == null ? List.of() : List.copyOf(nodeTypes);
+        sort = sort == null ? RouteSort.HOST : sort;
+        if (limit != null && limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        cursor = cursor == null || cursor.isBlank() ? null : cursor;
+    }
+
+    /**
+     * Query from request parameters. Host match and sort are case-insensitive; a sort such as {@code -links}
+     * with a leading {@code -} sorts descending.
+     */
+    public static RouteQuery of(String host, String hostMatch, List<String> protocols, List<Long> ports,
+                                List<String> gateways, List<RouteNode.Type> nodeTypes, String sort,
+                                Integer limit, String cursor) {
+        boolean descending = sort != null && sort.startsWith("-");
+        RouteSort key = sort == null || sort.isBlank() ? null : RouteSort.parse(descending ? sort.substring(1) : sort);
+        HostMatch match = hostMatch == null || hostMatch.isBlank() ? null : HostMatch.parse(hostMatch);
+        return new RouteQuery(host, match, protocols, ports, gateways, nodeTypes, key, descending, limit, cursor);
+    }
+
+    public boolean isEmpty() {
+        return host == null && protocols.isEmpty() && ports.isEmpty() && gateways.isEmpty() && nodeTypes.isEmpty()
+                && sort == RouteSort.HOST && !descending && limit == null && cursor == null;
+    }
+}
@@ -0,0 +1,20 @@
+package io.github.istiorouteexplorer.model.query;
+
+import java.util.Locale;
+
+/**
+ * Sort keys of a {@link RouteQuery}. Ties are broken by destination host.
+ */
+public enum RouteSort {
+    HOST,
+    NODES,
+    LINKS;
+
+    public static RouteSort parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown sort key " + value + ", expected host, nodes or links");
+        }
+    }
+}
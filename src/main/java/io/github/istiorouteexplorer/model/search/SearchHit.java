@@ -0,0 +1,19 @@
+package io.github.istiorouteexplorer.model.search;
+
+/**
+ * One resource matching a search, with the field and value that matched best.
+ *
+ * @param kind  resource kind, e.g. {@code VirtualService}, or {@code Route} for a destination host
+ * @param field matched field: {@code name}, {@code host}, {@code label}, {@code gateway}, {@code subset} or
+ *              {@code match}
+ * @param score relevance; higher is better
+ */
+public record SearchHit(
+        String kind,
+        String namespace,
+        String name,
+        String field,
+        String value,
+        int score
+) {
+}
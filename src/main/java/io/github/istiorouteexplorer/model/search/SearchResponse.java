@@ -0,0 +1,16 @@
+package io.github.istiorouteexplorer.model.search;
+
+import java.util.List;
+
+/**
+ * Best hits of a search across all resource kinds of a namespace and its extra namespaces.
+ *
+ * @param total number of resources matching the query, of which at most the requested limit are returned
+ */
+public record SearchResponse(
+        String namespace,
+        String query,
+        int total,
+        List<SearchHit> hits
+) {
+}
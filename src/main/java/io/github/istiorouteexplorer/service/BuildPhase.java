@@ -0,0 +1,20 @@
+package io.github.istiorouteexplorer.service;
+
+/**
+ * Phases of a route build measured by {@link RouteExplorer}.
+ */
+public enum BuildPhase {
+
+    INDEXING("indexing"),
+    NODE_RESOLUTION("node-resolution"),
+    LINK_CREATION("link-creation"),
+    DESTINATION_RULES("destination-rules")
+    ;
+    private final String key;
+    BuildPhase(String key) {
+        this.key = key;
+    }
+    public String getKey() {
+        return key;
+    }
+}
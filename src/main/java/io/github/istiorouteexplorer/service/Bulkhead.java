@@ -0,0 +1,99 @@
+package io.github.istiorouteexplorer.service;
+
+import io.github.istiorouteexplorer.config.AppProperties;
+import io.github.istiorouteexplorer.telemetry.RouteExplorerMetrics;
+import io.github.istiorouteexplorer.telemetry.ServerTiming;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps how many heavy operations of one kind run at once. Requests run right away while a slot is free, wait
+ * in FIFO order for up to {@code max-wait} while fewer than {@code max-queued} are waiting, and are rejected
+ * with a {@link BulkheadFullException} otherwise, so excess load fails fast instead of piling up threads and
+ * memory behind a slow cluster or pod.
+ */
+public final class Bulkhead {
+
+    private final String name;
+    private final Semaphore slots;
+    private final int maxQueued;
+    private final Duration maxWait;
+    private final RouteExplorerMetrics metrics;
+    private final AtomicInteger queued = new AtomicInteger();
+
+    public Bulkhead(String name, AppProperties.BulkheadLimits limits, RouteExplorerMetrics metrics) {
+        this.name = name;
+        this.slots = new Semaphore(Math.max(1, limits.getMaxConcurrent()), true);
+        this.maxQueued = Math.max(0, limits.getMaxQueued());
+        this.maxWait = limits.getMaxWait() == null || limits.getMaxWait().isNegative() ? Duration.ZERO : limits.getMaxWait();
+        this.metrics = metrics;
+    }
+
+    /**
+     * Runs {@code operation} in a slot of the bulkhead.
+     *
+     * @throws BulkheadFullException when no slot frees up in time
+     */
+    public <T, E extends Exception> T call(Operation<T, E> operation) throws E {
+        acquire();
+        try {
+            return operation.call();
+        } finally {
+            slots.release();
+        }
+    }
+
+    /**
+     * Requests waiting for a slot right now.
+     */
+    public int queued() {
+        return queued.get();
+    }
+
+    private void acquire() {
+        long started = System.nanoTime();
+        try {
+            if (slots.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+                metrics.recordBulkhead(name, "admitted", 0);
+                return;
+            }
+            if (queued.incrementAndGet() > maxQueued) {
+                queued.decrementAndGet();
+                throw reject("all " + name + " slots are busy and " + maxQueued + " requests are waiting", started);
+            }
+            try {
+                if (!slots.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS)) {
+                    throw reject("no " + name + " slot freed up within " + maxWait, started);
+                }
+            } finally {
+                queued.decrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw reject("interrupted while waiting for a " + name + " slot", started);
+        }
+        long waited = System.nanoTime() - started;
+        metrics.recordBulkhead(name, "admitted", waited);
+        ServerTiming.add("queue-" + name, waited);
+    }
+
+    private BulkheadFullException reject(String reason, long started) {
+        long waited = System.nanoTime() - started;
+        metrics.recordBulkhead(name, "rejected", waited);
+        ServerTiming.add("queue-" + name, waited);
+        Duration retryAfter = maxWait.compareTo(Duration.ofSeconds(1)) < 0 ? Duration.ofSeconds(1) : maxWait;
+        return new BulkheadFullException("Too many concurrent requests: " + reason, retryAfter);
+    }
+
+    /**
+     * An operation run in a slot of the bulkhead.
+     */
+    @FunctionalInterface
+    public interface Operation<T, E extends Exception> {
+
+        T call() throws E;
+    }
+}
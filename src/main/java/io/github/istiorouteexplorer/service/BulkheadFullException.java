@@ -0,0 +1,20 @@
+package io.github.istiorouteexplorer.service;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a {@link Bulkhead} has no slot for an operation; answered with 429 and {@code Retry-After}.
+ */
+public class BulkheadFullException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public BulkheadFullException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,448 @@
+package io.github.istiorouteexplorer.service;
+
+import io.github.istiorouteexplorer.model.NamespaceResources;
+import io.github.istiorouteexplorer.model.ResourceCollection;
+import io.github.istiorouteexplorer.model.ResourcePrefix;
+import io.github.istiorouteexplorer.model.Route;
+import io.github.istiorouteexplorer.model.RouteLink;
+import io.github.istiorouteexplorer.model.RouteNode;
+import io.github.istiorouteexplorer.model.istio.GatewayDto;
+import io.github.istiorouteexplorer.model.istio.ServerDto;
+import io.github.istiorouteexplorer.model.istio.ServerTlsMode;
+import io.github.istiorouteexplorer.model.kubernetes.DeploymentDto;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Builds one mesh view from resources partitioned by namespace and, in a multi-cluster mesh, by cluster: the
+ * all-namespaces view and every multi-cluster graph. Each routed partition gets its own {@link RouteExplorer},
+ * and the explorers run in parallel on a fork-join pool; the other partitions only resolve hosts. The routes
+ * are then joined:
+ * <ul>
+ *     <li>node ids are qualified with the cluster and namespace of their resource, as in
+ *     {@code east/team-a/deployment:web}, so same-named workloads stay apart; the mesh and unknown hosts keep
+ *     their ids;</li>
+ *     <li>destinations a partition could not resolve are looked up in the partitions owning the host, named by
+ *     a {@code name.namespace.svc.cluster.local} host or by the ServiceEntry declaring it, which links the route
+ *     to the workloads of other namespaces and clusters;</li>
+ *     <li>a ServiceEntry for {@code name.namespace.global} or {@code name.namespace.svc.cluster.local} is linked
+ *     to the workloads serving that service in the other clusters;</li>
+ *     <li>links into another cluster pass through its east-west gateway, the deployment selected by a Gateway
+ *     with an {@code AUTO_PASSTHROUGH} server, when one was loaded;</li>
+ *     <li>short destination hosts are qualified to their FQDN, and routes of several partitions to the same host
+ *     are merged into one.</li>
+ * </ul>
+ * A partition whose routes fail to build is logged and left out instead of failing the whole view.
+ */
+@Slf4j
+final class ClusterRouteBuilder {
+
+    private static final String CLUSTER_POSTFIX = ".svc.cluster.local";
+    private static final String GLOBAL_POSTFIX = ".global";
+
+    private final List<Partition> partitions;
+    private final String namespace;
+    private final int parallelism;
+    private final EnumMap<BuildPhase, Long> phaseNanos = new EnumMap<>(BuildPhase.class);
+    private long linkingNanos;
+
+    /**
+     * Builds the routes of the partitions of {@code namespace}, or of every partition when it is {@code null}.
+     */
+    ClusterRouteBuilder(Collection<NamespaceResources> partitions, String namespace, int parallelism) {
+        this.partitions = partitions.stream()
+                .map(Partition::new)
+                .sorted(Comparator.comparing(Partition::key))
+                .toList();
+        this.namespace = namespace;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Time spent in each phase summed over the partition builds, which overlap in wall-clock time.
+     */
+    Map<BuildPhase, Long> getPhaseNanos() {
+        return Collections.unmodifiableMap(phaseNanos);
+    }
+
+    /**
+     * Time spent linking and merging the partition routes after they were built.
+     */
+    long getLinkingNanos() {
+        return linkingNanos;
+    }
+
+    List<Route> buildRoutes() {
+        List<Partition> routed = partitions.stream()
+                .filter(partition -> namespace == null || namespace.equals(partition.namespace()))
+                .toList();
+        buildAll(routed);
+        long started = System.nanoTime();
+        Map<String, EastWestGateway> eastWest = eastWestGateways();
+        Map<String, List<Partition>> byNamespace = new HashMap<>();
+        Map<String, List<Partition>> byServiceEntryHost = new HashMap<>();
+        for (Partition partition : partitions) {
+            byNamespace.computeIfAbsent(partition.namespace(), key -> new ArrayList<>()).add(partition);
+            partition.serviceEntryHosts().forEach(host ->
+                    byServiceEntryHost.computeIfAbsent(host, key -> new ArrayList<>()).add(partition));
+        }
+        Map<String, List<Resolved>> resolvedHosts = new HashMap<>();
+        Map<String, List<Resolved>> resolvedServices = new HashMap<>();
+        for (Partition partition : routed) {
+            for (Route route : partition.routes) {
+                linkUnknownHosts(partition, route, host -> resolvedHosts.computeIfAbsent(host, key -> resolve(key,
+                        key.endsWith(CLUSTER_POSTFIX)
+                                ? byNamespace.getOrDefault(namespaceOf(key), List.of())
+                                : byServiceEntryHost.getOrDefault(key, List.of()))), eastWest);
+                if (partition.cluster() != null) {
+                    linkServiceEntries(partition, route, host -> resolvedServices.computeIfAbsent(host, key -> resolve(key,
+                            byNamespace.getOrDefault(namespaceOf(key), List.of()))), eastWest);
+                }
+            }
+        }
+        List<Route> routes = merge(routed);
+        linkingNanos = System.nanoTime() - started;
+        return routes;
+    }
+
+    private void buildAll(List<Partition> routed) {
+        List<Callable<Partition>> tasks = routed.stream()
+                .map(partition -> (Callable<Partition>) () -> partition.build())
+                .toList();
+        try (ForkJoinPool pool = new ForkJoinPool(parallelism)) {
+            for (Future<Partition> future : pool.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RouteExplorerException("Interrupted while building the routes of all partitions", e);
+        } catch (ExecutionException e) {
+            throw new RouteExplorerException("Failed to build the routes of all partitions", e.getCause());
+        }
+        routed.stream()
+                .filter(partition -> partition.explorer != null)
+                .forEach(partition -> partition.explorer.getPhaseNanos()
+                        .forEach((phase, nanos) -> phaseNanos.merge(phase, nanos, Long::sum)));
+    }
+
+    /**
+     * Replaces the unknown destination nodes of a route by the nodes the partitions owning the host resolve it
+     * to. Each host is resolved once; explorers are not thread-safe, so this runs after the parallel builds.
+     */
+    private static void linkUnknownHosts(Partition partition, Route route, Function<String, List<Resolved>> resolved,
+                                         Map<String, EastWestGateway> eastWest) {
+        for (RouteNode node : List.copyOf(route.getNodes().values())) {
+            if (node.getType() != RouteNode.Type.UNKNOWN) {
+                continue;
+            }
+            String host = node.getName();
+            List<Resolved> targets = resolved.apply(host).stream()
+                    .filter(target -> target.partition() != partition)
+                    .toList();
+            if (targets.isEmpty()) {
+                continue;
+            }
+            route.getNodes().remove(node.getId());
+            List<RouteLink> incoming = new ArrayList<>();
+            for (Iterator<RouteLink> links = route.getLinks().iterator(); links.hasNext(); ) {
+                RouteLink link = links.next();
+                if (link.getToId().equals(node.getId())) {
+                    incoming.add(link);
+                    links.remove();
+                }
+            }
+            for (RouteLink link : incoming) {
+                for (Resolved target : targets) {
+                    hop(route, link.getFromId(), partition, target, link, eastWest);
+                }
+            }
+        }
+    }
+
+    /**
+     * Links ServiceEntries naming a service of the mesh to the workloads serving it in the other clusters.
+     */
+    private static void linkServiceEntries(Partition partition, Route route, Function<String, List<Resolved>> resolved,
+                                           Map<String, EastWestGateway> eastWest) {
+        String prefix = ResourcePrefix.SERVICE_ENTRY.getPrefix();
+        for (RouteNode node : List.copyOf(route.getNodes().values())) {
+            int start = node.getId().indexOf(prefix);
+            if (node.getType() != RouteNode.Type.SERVICE_ENTRY || start < 0) {
+                continue;
+            }
+            String service = serviceOf(node.getId().substring(start + prefix.length()));
+            if (service == null) {
+                continue;
+            }
+            List<Resolved> targets = resolved.apply(service + CLUSTER_POSTFIX).stream()
+                    .filter(target -> target.partition().cluster() != null
+                            && !target.partition().cluster().equals(partition.cluster()))
+                    .toList();
+            RouteLink incoming = route.getLinks().stream()
+                    .filter(link -> link.getToId().equals(node.getId()))
+                    .findFirst()
+                    .orElse(null);
+            if (incoming == null) {
+                continue;
+            }
+            for (Resolved target : targets) {
+                hop(route, node.getId(), partition, target, new RouteLink(node.getId(), target.node().getId(),
+                        incoming.getProtocol(), incoming.getPort(), null), eastWest);
+            }
+        }
+    }
+
+    /**
+     * Adds a link from {@code fromId} to the resolved node, passing through the east-west gateway of its cluster
+     * when it lies in another cluster than {@code source}.
+     */
+    private static void hop(Route route, String fromId, Partition source, Resolved target, RouteLink link,
+                            Map<String, EastWestGateway> eastWest) {
+        RouteNode node = target.node();
+        route.getNodes().put(node.getId(), node);
+        String cluster = target.partition().cluster();
+        EastWestGateway gateway = cluster == null || cluster.equals(source.cluster()) ? null : eastWest.get(cluster);
+        if (gateway == null) {
+            route.getLinks().add(new RouteLink(fromId, node.getId(), link.getProtocol(), link.getPort(), link.getMatches()));
+            return;
+        }
+        route.getNodes().put(gateway.node().getId(), gateway.node());
+        route.getLinks().add(new RouteLink(fromId, gateway.node().getId(), "TLS", gateway.port(), link.getMatches()));
+        route.getLinks().add(new RouteLink(gateway.node().getId(), node.getId(), link.getProtocol(), link.getPort(), null));
+    }
+
+    private static List<Resolved> resolve(String host, List<Partition> owners) {
+        List<Resolved> resolved = new ArrayList<>();
+        for (Partition owner : owners) {
+            RouteNode node = owner.resolve(host);
+            if (node != null) {
+                resolved.add(new Resolved(owner, node));
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * The east-west gateway of every cluster: the first deployment selected by a Gateway with an
+     * {@code AUTO_PASSTHROUGH} server, which forwards mTLS traffic from other clusters by SNI.
+     */
+    private Map<String, EastWestGateway> eastWestGateways() {
+        Map<String, EastWestGateway> gateways = new HashMap<>();
+        for (Partition partition : partitions) {
+            if (partition.cluster() == null || gateways.containsKey(partition.cluster())) {
+                continue;
+            }
+            for (GatewayDto gateway : partition.resources().getGateways()) {
+                Long port = autoPassthroughPort(gateway);
+                if (port == null || gateway.getSpec().getSelector() == null) {
+                    continue;
+                }
+                DeploymentDto deployment = partition.resources().getDeployments().stream()
+                        .filter(candidate -> candidate.getMetadata() != null && candidate.getMetadata().getLabels() != null)
+                        .filter(candidate -> gateway.getSpec().getSelector().entrySet().stream()
+                                .allMatch(entry -> entry.getValue().equals(candidate.getMetadata().getLabels().get(entry.getKey()))))
+                        .findFirst()
+                        .orElse(null);
+                if (deployment != null) {
+                    String name = deployment.getMetadata().getName();
+                    RouteNode node = partition.qualify(new RouteNode(ResourcePrefix.DEPLOYMENT.getPrefix() + name, name,
+                            RouteNode.Type.DEPLOYMENT, deployment.getMetadata()));
+                    gateways.put(partition.cluster(), new EastWestGateway(node, port));
+                    break;
+                }
+            }
+        }
+        return gateways;
+    }
+
+    private static Long autoPassthroughPort(GatewayDto gateway) {
+        if (gateway.getSpec() == null || gateway.getSpec().getServers() == null) {
+            return null;
+        }
+        return gateway.getSpec().getServers().stream()
+                .filter(server -> server.getTls() != null && server.getTls().getMode() == ServerTlsMode.AUTO_PASSTHROUGH)
+                .map(ServerDto::getPort)
+                .filter(Objects::nonNull)
+                .map(port -> port.getNumber())
+                .filter(Objects::nonNull)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static List<Route> merge(List<Partition> routed) {
+        Map<String, Route> merged = new TreeMap<>();
+        for (Partition partition : routed) {
+            for (Route route : partition.routes) {
+                String host = qualifyHost(route.getDestinationHost(), partition.namespace());
+                Route existing = merged.get(host);
+                if (existing == null) {
+                    route.setDestinationHost(host);
+                    merged.put(host, route);
+                } else {
+                    existing.getNodes().putAll(route.getNodes());
+                    existing.getLinks().addAll(route.getLinks());
+                    existing.setDestinationPorts(union(existing.getDestinationPorts(), route.getDestinationPorts()));
+                }
+            }
+        }
+        return new ArrayList<>(merged.values());
+    }
+
+    private static String qualifyHost(String host, String namespace) {
+        return host == null || host.contains(".") ? host : host + "." + namespace + CLUSTER_POSTFIX;
+    }
+
+    private static String namespaceOf(String host) {
+        String name = host.substring(0, host.length() - CLUSTER_POSTFIX.length());
+        int separator = name.lastIndexOf('.');
+        return separator >= 0 ? name.substring(separator + 1) : "";
+    }
+
+    /**
+     * {@code name.namespace} of a {@code name.namespace.global} or {@code name.namespace.svc.cluster.local} host.
+     */
+    private static String serviceOf(String host) {
+        String service;
+        if (host.endsWith(GLOBAL_POSTFIX)) {
+            service = host.substring(0, host.length() - GLOBAL_POSTFIX.length());
+        } else if (host.endsWith(CLUSTER_POSTFIX)) {
+            service = host.substring(0, host.length() - CLUSTER_POSTFIX.length());
+        } else {
+            return null;
+        }
+        return service.indexOf('.') > 0 && service.indexOf('.') == service.lastIndexOf('.') ? service : null;
+    }
+
+    private static List<Long> union(List<Long> left, List<Long> right) {
+        if (left == null || right == null) {
+            return left == null ? right : left;
+        }
+        List<Long> ports = new ArrayList<>(left);
+        right.stream().filter(port -> !ports.contains(port)).forEach(ports::add);
+        return ports;
+    }
+
+    /**
+     * Resources of one namespace of one cluster with the explorer built or resolving hosts over them.
+     */
+    private static final class Partition {
+
+        private final NamespaceResources resources;
+        private final Set<RouteNode> qualified = Collections.newSetFromMap(new IdentityHashMap<>());
+        private RouteExplorer explorer;
+        private boolean broken;
+        private List<Route> routes = List.of();
+
+        Partition(NamespaceResources resources) {
+            this.resources = resources;
+        }
+
+        NamespaceResources resources() {
+            return resources;
+        }
+
+        String cluster() {
+            return resources.getCluster();
+        }
+
+        String namespace() {
+            return resources.getNamespace();
+        }
+
+        /**
+         * Hosts of the ServiceEntries of the partition outside {@code .svc.cluster.local}.
+         */
+        List<String> serviceEntryHosts() {
+            return resources.getServiceEntries().stream()
+                    .filter(serviceEntry -> serviceEntry.getSpec() != null && serviceEntry.getSpec().getHosts() != null)
+                    .flatMap(serviceEntry -> serviceEntry.getSpec().getHosts().stream())
+                    .filter(host -> !host.endsWith(CLUSTER_POSTFIX))
+                    .distinct()
+                    .toList();
+        }
+
+        String key() {
+            return cluster() == null ? namespace() : cluster() + "/" + namespace();
+        }
+
+        Partition build() {
+            try {
+                explorer = new RouteExplorer(new ResourceCollection(resources, Map.of()));
+                List<Route> built = explorer.buildRoutes();
+                built.forEach(this::qualify);
+                routes = built;
+            } catch (RuntimeException e) {
+                broken = true;
+                log.warn("Leaving {} out of the merged view, its routes failed to build", key(), e);
+            }
+            return this;
+        }
+
+        RouteNode resolve(String host) {
+            if (broken) {
+                return null;
+            }
+            try {
+                if (explorer == null) {
+                    explorer = new RouteExplorer(new ResourceCollection(resources, Map.of()));
+                }
+                RouteNode node = explorer.resolveHost(host);
+                return node == null ? null : qualify(node);
+            } catch (RuntimeException e) {
+                broken = true;
+                log.warn("Cannot resolve hosts in {}", key(), e);
+                return null;
+            }
+        }
+
+        /**
+         * Qualifies the id of a node of this partition once; nodes are shared by the routes of a partition.
+         */
+        RouteNode qualify(RouteNode node) {
+            String namespace = node.getMetadata() == null ? null : node.getMetadata().getNamespace();
+            if (qualified.add(node) && namespace != null && !namespace.isBlank()) {
+                node.setId((cluster() == null ? "" : cluster() + "/") + namespace + "/" + node.getId());
+            }
+            return node;
+        }
+
+        private void qualify(Route route) {
+            Map<String, RouteNode> nodes = new HashMap<>();
+            Map<String, String> ids = new HashMap<>();
+            route.getNodes().forEach((id, node) -> {
+                qualify(node);
+                ids.put(id, node.getId());
+                nodes.put(node.getId(), node);
+            });
+            route.setNodes(nodes);
+            for (RouteLink link : route.getLinks()) {
+                link.setFromId(ids.getOrDefault(link.getFromId(), link.getFromId()));
+                link.setToId(ids.getOrDefault(link.getToId(), link.getToId()));
+            }
+        }
+    }
+
+    private record Resolved(Partition partition, RouteNode node) {
+    }
+
+    private record EastWestGateway(RouteNode node, Long port) {
+    }
+}
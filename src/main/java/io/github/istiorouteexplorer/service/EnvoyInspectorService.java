@@ -16,7 +16,9 @@ import io.github.istiorouteexplorer.model.envoy.EnvoyConfigSection;
 import io.github.istiorouteexplorer.model.envoy.EnvoyPodSummary;
 import io.github.istiorouteexplorer.model.envoy.EnvoyPodSummary.EnvoyContainerStatus;
 import io.github.istiorouteexplorer.model.envoy.EnvoyPodsResponse;
-import lombok.RequiredArgsConstructor;
+import io.github.istiorouteexplorer.telemetry.EnvoyAdminEvent;
+import io.github.istiorouteexplorer.telemetry.RouteExplorerMetrics;
+import io.github.istiorouteexplorer.telemetry.ServerTiming;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -38,7 +40,6 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
 @Service
-@RequiredArgsConstructor
 public class EnvoyInspectorService {
 
     private static final Logger log = LoggerFactory.getLogger(EnvoyInspectorService.class);
@@ -48,6 +49,17 @@ public class EnvoyInspectorService {
     private final KubernetesClient kubernetesClient;
     private final AppProperties properties;
     private final ObjectMapper objectMapper;
+    private final RouteExplorerMetrics metrics;
+    private final Bulkhead fetches;
+
+    public EnvoyInspectorService(KubernetesClient kubernetesClient, AppProperties properties, ObjectMapper objectMapper,
+                                 RouteExplorerMetrics metrics) {
+        this.kubernetesClient = kubernetesClient;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.metrics = metrics;
+        this.fetches = new Bulkhead("envoy", properties.getEnvoyBulkhead(), metrics);
+    }
 
     private record ExecResult(String stdout, String stderr) {
     }
@@ -56,7 +68,7 @@ public class EnvoyInspectorService {
         String ns = resolveNamespace(namespace);
         PodList podList;
         try {
-            podList = kubernetesClient.pods().inNamespace(ns).list();
+            podList = ServerTiming.time("kube-list", () -> kubernetesClient.pods().inNamespace(ns).list());
         } catch (KubernetesClientException e) {
             throw new IOException("Failed to list pods in namespace " + ns + ": " + e.getMessage(), e);
         }
@@ -71,14 +83,22 @@ public class EnvoyInspectorService {
         return new EnvoyPodsResponse(pods);
     }
 
+    /**
+     * Reads the config dump and stats of the Envoy in the pod. Fetches run in the Envoy bulkhead, as each holds
+     * two exec sessions for up to the request timeout.
+     */
     public EnvoyConfigResponse fetchEnvoyConfig(String namespace, String podName) throws IOException {
         String ns = resolveNamespace(namespace);
         if (podName == null || podName.isBlank()) {
             throw new IllegalArgumentException("Pod name must be provided");
         }
+        return fetches.call(() -> fetch(ns, podName));
+    }
+
+    private EnvoyConfigResponse fetch(String ns, String podName) throws IOException {
         Pod pod;
         try {
-            pod = kubernetesClient.pods().inNamespace(ns).withName(podName).get();
+            pod = ServerTiming.time("kube-get", () -> kubernetesClient.pods().inNamespace(ns).withName(podName).get());
         } catch (KubernetesClientException e) {
             throw new IOException("Failed to load pod " + podName + ": " + e.getMessage(), e);
         }
@@ -190,6 +210,11 @@ public class EnvoyInspectorService {
         CountDownLatch latch = new CountDownLatch(1);
         AtomicReference<Throwable> failureRef = new AtomicReference<>();
         Duration timeout = Optional.ofNullable(properties.getRequestTimeout()).orElse(DEFAULT_EXEC_TIMEOUT);
+        String adminPath = path.contains("?") ? path.substring(0, path.indexOf('?')) : path;
+        long started = System.nanoTime();
+        boolean success = false;
+        EnvoyAdminEvent event = new EnvoyAdminEvent();
+        event.begin();
 
         try (ExecWatch execWatch = kubernetesClient.pods()
                 .inNamespace(namespace)
@@ -218,12 +243,26 @@ public class EnvoyInspectorService {
             if (failure != null) {
                 throw new IOException("Curl execution failed: " + failure.getMessage(), failure);
             }
+            success = true;
             return new ExecResult(stdout.toString(StandardCharsets.UTF_8), stderr.toString(StandardCharsets.UTF_8));
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new IOException("Command execution interrupted", e);
         } catch (KubernetesClientException e) {
             throw new IOException("Failed to execute curl in pod " + podName + ": " + e.getMessage(), e);
+        } finally {
+            long elapsed = System.nanoTime() - started;
+            metrics.recordEnvoyAdmin(namespace, adminPath, elapsed, stdout.size(), success);
+            ServerTiming.add("envoy-exec", elapsed);
+            event.end();
+            if (event.shouldCommit()) {
+                event.namespace = namespace;
+                event.pod = podName;
+                event.path = adminPath;
+                event.bytes = stdout.size();
+                event.success = success;
+                event.commit();
+            }
         }
     }
 
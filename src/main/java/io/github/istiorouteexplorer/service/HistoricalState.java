@@ -0,0 +1,14 @@
+package io.github.istiorouteexplorer.service;
+
+import io.github.istiorouteexplorer.model.ResourceCollection;
+import io.github.istiorouteexplorer.model.RoutesResponse;
+
+import java.time.Instant;
+
+/**
+ * Routes and resources of a namespace as recorded by {@link HistoryStore} at {@code recordedAt}, the latest
+ * change at or before the requested time.
+ */
+public record HistoricalState(String namespace, Instant recordedAt, long version, ResourceCollection resources,
+                              RoutesResponse routes) {
+}
@@ -0,0 +1,356 @@
+package io.github.istiorouteexplorer.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.istiorouteexplorer.config.AppProperties;
+import io.github.istiorouteexplorer.model.NamespaceResources;
+import io.github.istiorouteexplorer.model.ResourceCollection;
+import io.github.istiorouteexplorer.model.Route;
+import io.github.istiorouteexplorer.model.RoutesResponse;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only history of routes and resources per namespace under {@code app.history-dir}. Each namespace
+ * directory holds segments named by the epoch millis of their first record. A segment starts with a full state
+ * followed by deltas, one per build that changed anything; after {@code app.history-segment-records} records
+ * the next build starts a new segment. The state is keyed by destination host for routes and by
+ * {@code namespace/kind/name} for resources, so a delta lists only changed and removed entries.
+ * <p>
+ * Builds hand their result to a single writer thread, so the live path only enqueues. Reads map the one
+ * segment covering the requested time and replay it up to that time. Segments whose successor starts before
+ * the {@code app.history-retention} cutoff are deleted when a segment is rolled.
+ */
+@Component
+public class HistoryStore {
+
+    static final int SCHEMA_VERSION = 1;
+    private static final String SUFFIX = ".seg";
+    private static final byte FULL = 1;
+    private static final byte DELTA = 2;
+    private static final int RECORD_HEADER = 1 + 8 + 8 + 4;
+    private static final String ROUTES = "routes";
+    private static final String RESOURCES = "resources";
+    private static final List<String> SECTIONS = List.of(ROUTES, RESOURCES);
+
+    private static final Logger log = LoggerFactory.getLogger(HistoryStore.class);
+
+    private final AppProperties properties;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().daemon().name("history-writer").factory());
+    /**
+     * Open segment per namespace; only touched by the writer thread.
+     */
+    private final Map<String, OpenSegment> segments = new HashMap<>();
+
+    public HistoryStore(AppProperties properties) {
+        this.properties = properties;
+    }
+
+    public boolean isEnabled() {
+        return properties.getHistoryDir() != null && !properties.getHistoryDir().isBlank();
+    }
+
+    /**
+     * Queues a build of {@code namespace} to be recorded; a no-op when history is disabled.
+     */
+    public void append(String namespace, Instant builtAt, long version, ResourceCollection resources,
+                       RoutesResponse routes) {
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            writer.execute(() -> {
+                try {
+                    write(namespace, builtAt, version, state(resources, routes));
+                } catch (IOException | RuntimeException e) {
+                    segments.remove(namespace);
+                    log.warn("Failed to record history of namespace {}: {}", namespace, e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("History writer stopped, dropping build of namespace {}", namespace);
+        }
+    }
+
+    /**
+     * State of {@code namespace} as of the latest recorded build at or before {@code at}.
+     */
+    public Optional<HistoricalState> stateAt(String namespace, Instant at) throws IOException {
+        if (!isEnabled()) {
+            return Optional.empty();
+        }
+        Path segment = null;
+        for (Map.Entry<Long, Path> entry : segments(namespace).entrySet()) {
+            if (entry.getKey() <= at.toEpochMilli()) {
+                segment = entry.getValue();
+            }
+        }
+        return segment == null ? Optional.empty() : replay(namespace, segment, at);
+    }
+
+    /**
+     * Waits until queued builds are written and stops the writer.
+     */
+    @PreDestroy
+    public void close() throws InterruptedException {
+        writer.shutdown();
+        writer.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private void write(String namespace, Instant builtAt, long version, ObjectNode state) throws IOException {
+        OpenSegment segment = segments.get(namespace);
+        if (segment == null || segment.records >= Math.max(1, properties.getHistorySegmentRecords())) {
+            Path directory = directory(namespace);
+            Files.createDirectories(directory);
+            long start = builtAt.toEpochMilli();
+            while (Files.exists(directory.resolve(start + SUFFIX))) {
+                start++;
+            }
+            segment = new OpenSegment(directory.resolve(start + SUFFIX));
+            append(segment.file, FULL, builtAt, version, state);
+            segments.put(namespace, segment);
+            compact(namespace, builtAt);
+        } else {
+            ObjectNode delta = delta(segment.state, state);
+            if (delta == null) {
+                return;
+            }
+            append(segment.file, DELTA, builtAt, version, delta);
+        }
+        segment.state = state;
+        segment.records++;
+    }
+
+    private static void append(Path file, byte type, Instant at, long version, JsonNode payload) throws IOException {
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        SnapshotCodec.write(payload, SCHEMA_VERSION, encoded);
+        ByteArrayOutputStream record = new ByteArrayOutputStream(RECORD_HEADER + encoded.size());
+        DataOutputStream out = new DataOutputStream(record);
+        out.writeByte(type);
+        out.writeLong(at.toEpochMilli());
+        out.writeLong(version);
+        out.writeInt(encoded.size());
+        encoded.writeTo(out);
+        Files.write(file, record.toByteArray(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Replays {@code segment} up to {@code at}. A record cut short by a crash ends the replay.
+     */
+    private Optional<HistoricalState> replay(String namespace, Path segment, Instant at) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            ObjectNode state = null;
+            long recordedAt = 0;
+            long version = 0;
+            while (buffer.remaining() >= RECORD_HEADER) {
+                byte type = buffer.get();
+                long millis = buffer.getLong();
+                long recordVersion = buffer.getLong();
+                int length = buffer.getInt();
+                if (millis > at.toEpochMilli() || length < 0 || length > buffer.remaining()) {
+                    break;
+                }
+                ByteBuffer payload = buffer.slice(buffer.position(), length);
+                buffer.position(buffer.position() + length);
+                if (SnapshotCodec.schemaVersion(payload) != SCHEMA_VERSION) {
+                    log.info("Ignoring history segment {} of another schema version", segment);
+                    return Optional.empty();
+                }
+                JsonNode node = SnapshotCodec.read(payload);
+                if (type == FULL) {
+                    state = (ObjectNode) node;
+                } else if (state != null) {
+                    apply(state, node);
+                }
+                recordedAt = millis;
+                version = recordVersion;
+            }
+            if (state == null) {
+                return Optional.empty();
+            }
+            return Optional.of(new HistoricalState(namespace, Instant.ofEpochMilli(recordedAt), version,
+                    resources(namespace, (ObjectNode) state.get(RESOURCES)), routes((ObjectNode) state.get(ROUTES))));
+        }
+    }
+
+    /**
+     * Deletes segments that are entirely older than the retention: those followed by a segment that itself
+     * starts before the cutoff. The open segment is never deleted.
+     */
+    private void compact(String namespace, Instant now) throws IOException {
+        Duration retention = properties.getHistoryRetention();
+        if (retention == null || retention.isZero() || retention.isNegative()) {
+            return;
+        }
+        long cutoff = now.minus(retention).toEpochMilli();
+        List<Map.Entry<Long, Path>> ordered = new ArrayList<>(segments(namespace).entrySet());
+        for (int i = 0; i + 1 < ordered.size() && ordered.get(i + 1).getKey() <= cutoff; i++) {
+            Files.deleteIfExists(ordered.get(i).getValue());
+            log.debug("Deleted history segment {} past retention", ordered.get(i).getValue());
+        }
+    }
+
+    /**
+     * Segments of {@code namespace} by start millis, oldest first.
+     */
+    private Map<Long, Path> segments(String namespace) throws IOException {
+        Map<Long, Path> segments = new TreeMap<>();
+        Path directory = directory(namespace);
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    segments.put(Long.parseLong(name.substring(0, name.length() - SUFFIX.length())), file);
+                } catch (NumberFormatException e) {
+                    log.debug("Ignoring unexpected file {} in history", file);
+                }
+            }
+        }
+        return segments;
+    }
+
+    private static ObjectNode state(ResourceCollection resources, RoutesResponse routes) {
+        ObjectNode state = SnapshotCodec.MAPPER.createObjectNode();
+        ObjectNode routeNodes = state.putObject(ROUTES);
+        for (Route route : routes.getRoutes()) {
+            routeNodes.set(route.getDestinationHost(), SnapshotCodec.MAPPER.valueToTree(route));
+        }
+        ObjectNode resourceNodes = state.putObject(RESOURCES);
+        addResources(resourceNodes, resources.primary());
+        resources.extras().values().forEach(extra -> addResources(resourceNodes, extra));
+        return state;
+    }
+
+    private static void addResources(ObjectNode target, NamespaceResources resources) {
+        ObjectNode tree = SnapshotCodec.MAPPER.valueToTree(resources);
+        for (Iterator<Map.Entry<String, JsonNode>> fields = tree.fields(); fields.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (!field.getValue().isArray()) {
+                continue;
+            }
+            int index = 0;
+            for (JsonNode item : field.getValue()) {
+                String name = item.path("metadata").path("name").asText("#" + index++);
+                target.set(resources.getNamespace() + "/" + field.getKey() + "/" + name, item);
+            }
+        }
+    }
+
+    private static RoutesResponse routes(ObjectNode routes) throws IOException {
+        List<Route> list = new ArrayList<>(routes.size());
+        for (JsonNode route : routes) {
+            list.add(SnapshotCodec.MAPPER.treeToValue(route, Route.class));
+        }
+        return new RoutesResponse(list);
+    }
+
+    private static ResourceCollection resources(String namespace, ObjectNode resources) throws IOException {
+        Map<String, ObjectNode> byNamespace = new LinkedHashMap<>();
+        byNamespace.put(namespace, emptyNamespace(namespace));
+        for (Iterator<Map.Entry<String, JsonNode>> entries = resources.fields(); entries.hasNext(); ) {
+            Map.Entry<String, JsonNode> entry = entries.next();
+            String[] key = entry.getKey().split("/", 3);
+            if (key.length == 3) {
+                byNamespace.computeIfAbsent(key[0], HistoryStore::emptyNamespace).withArray(key[1]).add(entry.getValue());
+            }
+        }
+        Map<String, NamespaceResources> extras = new HashMap<>();
+        for (Map.Entry<String, ObjectNode> entry : byNamespace.entrySet()) {
+            if (!entry.getKey().equals(namespace)) {
+                extras.put(entry.getKey(), SnapshotCodec.MAPPER.treeToValue(entry.getValue(), NamespaceResources.class));
+            }
+        }
+        return new ResourceCollection(SnapshotCodec.MAPPER.treeToValue(byNamespace.get(namespace),
+                NamespaceResources.class), extras);
+    }
+
+    private static ObjectNode emptyNamespace(String namespace) {
+        return SnapshotCodec.MAPPER.valueToTree(new NamespaceResources(namespace, List.of(), List.of(), List.of(),
+                List.of(), List.of(), List.of(), List.of(), List.of(), List.of(), List.of(), List.of()));
+    }
+
+    /**
+     * Changed and removed entries per section, or {@code null} when nothing changed.
+     */
+    private static ObjectNode delta(ObjectNode previous, ObjectNode next) {
+        ObjectNode delta = SnapshotCodec.MAPPER.createObjectNode();
+        boolean changed = false;
+        for (String section : SECTIONS) {
+            JsonNode before = previous.path(section);
+            JsonNode after = next.path(section);
+            ObjectNode set = SnapshotCodec.MAPPER.createObjectNode();
+            ArrayNode removed = SnapshotCodec.MAPPER.createArrayNode();
+            after.fields().forEachRemaining(entry -> {
+                if (!entry.getValue().equals(before.get(entry.getKey()))) {
+                    set.set(entry.getKey(), entry.getValue());
+                }
+            });
+            before.fieldNames().forEachRemaining(key -> {
+                if (!after.has(key)) {
+                    removed.add(key);
+                }
+            });
+            ObjectNode changes = delta.putObject(section);
+            changes.set("set", set);
+            changes.set("removed", removed);
+            changed |= !set.isEmpty() || !removed.isEmpty();
+        }
+        return changed ? delta : null;
+    }
+
+    private static void apply(ObjectNode state, JsonNode delta) {
+        for (String section : SECTIONS) {
+            ObjectNode target = (ObjectNode) state.get(section);
+            JsonNode changes = delta.path(section);
+            changes.path("removed").forEach(key -> target.remove(key.asText()));
+            changes.path("set").fields().forEachRemaining(entry -> target.set(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    private Path directory(String namespace) throws IOException {
+        return NamespaceNames.resolve(Path.of(properties.getHistoryDir()), namespace, "");
+    }
+
+    private static final class OpenSegment {
+
+        private final Path file;
+        private ObjectNode state;
+        private int records;
+
+        OpenSegment(Path file) {
+            this.file = file;
+        }
+    }
+}
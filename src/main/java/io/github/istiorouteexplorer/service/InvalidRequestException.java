@@ -0,0 +1,16 @@
+package io.github.istiorouteexplorer.service;
+
+/**
+ * A request parameter is malformed or names something that does not exist; answered with 400. Other
+ * {@link IllegalArgumentException}s are programming errors and stay server errors.
+ */
+public class InvalidRequestException extends IllegalArgumentException {
+
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+
+    public InvalidRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,453 @@
+package io.github.istiorouteexplorer.service;
+
+import io.github.istiorouteexplorer.config.AppProperties;
+import io.github.istiorouteexplorer.kube.ResourceLoader;
+import io.github.istiorouteexplorer.kube.ResourceLoader.ResourceWatch;
+import io.github.istiorouteexplorer.model.Route;
+import io.github.istiorouteexplorer.model.diff.ChangeType;
+import io.github.istiorouteexplorer.model.diff.RouteChange;
+import io.github.istiorouteexplorer.model.diff.RouteDiffResponse;
+import io.github.istiorouteexplorer.model.live.GraphDelta;
+import io.github.istiorouteexplorer.model.live.LiveGraph;
+import io.github.istiorouteexplorer.telemetry.RouteExplorerMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes graph changes of a namespace to live subscribers. While a namespace has subscribers its resources
+ * (and those of the extra namespaces) are watched from the resourceVersions the current graph was loaded at,
+ * and changes request an interactive rebuild from the {@link RebuildScheduler}. Watches that end or fail to
+ * open are re-opened by the next build, or after the rebuild retry delay when no build comes. Every graph
+ * built for the namespace, by that rebuild or by a regular request, is diffed against the graph last
+ * published and sent as a single {@code delta} event.
+ * <p>
+ * Every subscriber has its own bounded queue drained by a virtual thread, so a slow client only blocks
+ * itself. When its queue is full the queued deltas are dropped and the subscriber is sent one full
+ * {@code graph} event instead, keeping the memory held for it bounded by {@code app.live-max-pending-events}.
+ */
+@Slf4j
+@Service
+public class LiveGraphService {
+
+    static final String GRAPH_EVENT = "graph";
+    static final String DELTA_EVENT = "delta";
+
+    private final AppProperties properties;
+    private final RouteExplorerService routeExplorerService;
+    private final ResourceLoader loader;
+    private final RouteExplorerMetrics metrics;
+    private final Map<String, Channel> channels = new ConcurrentHashMap<>();
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().daemon().name("live-rewatch").factory());
+
+    public LiveGraphService(AppProperties properties, RouteExplorerService routeExplorerService,
+                            ResourceLoader loader, RouteExplorerMetrics metrics) {
+        this.properties = properties;
+        this.routeExplorerService = routeExplorerService;
+        this.loader = loader;
+        this.metrics = metrics;
+        routeExplorerService.addBuildListener(this::built);
+    }
+
+    /**
+     * Receives the events of one subscriber, in order and from one thread at a time.
+     */
+    @FunctionalInterface
+    public interface EventSink {
+
+        void send(String event, long version, Object data) throws IOException;
+    }
+
+    /**
+     * Registration of a subscriber; closing it stops its events.
+     */
+    public interface Subscription extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+
+    /**
+     * Server-Sent Events stream of the namespace: a {@code graph} event with the current routes followed by
+     * {@code delta} events. Event ids are graph versions.
+     */
+    public SseEmitter stream(String namespace) {
+        Duration timeout = properties.getLiveStreamTimeout();
+        SseEmitter emitter = new SseEmitter(timeout == null ? 0L : timeout.toMillis());
+        Subscription subscription = subscribe(namespace, (event, version, data) -> emitter.send(SseEmitter.event()
+                .name(event)
+                .id(Long.toString(version))
+                .data(data, MediaType.APPLICATION_JSON)));
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(error -> subscription.close());
+        return emitter;
+    }
+
+    /**
+     * Subscribes {@code sink} to the graph of the namespace. The current graph is built first, so a failing
+     * load is thrown here rather than sent.
+     */
+    public Subscription subscribe(String namespace, EventSink sink) {
+        String ns = routeExplorerService.resolveNamespace(namespace);
+        RouteSnapshot current = routeExplorerService.currentSnapshot(ns);
+        while (true) {
+            Channel channel = channels.computeIfAbsent(ns, Channel::new);
+            Subscriber subscriber = channel.add(sink, current);
+            if (subscriber != null) {
+                return subscriber;
+            }
+        }
+    }
+
+    /**
+     * Number of subscribers of the namespace.
+     */
+    public int subscribers(String namespace) {
+        Channel channel = channels.get(routeExplorerService.resolveNamespace(namespace));
+        if (channel == null) {
+            return 0;
+        }
+        synchronized (channel) {
+            return channel.subscribers.size();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        channels.values().forEach(Channel::close);
+        workers.shutdownNow();
+        timer.shutdownNow();
+    }
+
+    static GraphDelta delta(String namespace, RouteSnapshot from, RouteSnapshot to) {
+        RouteDiffResponse diff = RouteDiffer.diff(namespace, from, to);
+        List<Route> upserted = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        for (RouteChange change : diff.changes()) {
+            if (change.type() == ChangeType.REMOVED) {
+                removed.add(change.destinationHost());
+            } else {
+                upserted.add(to.getRoutesByHost().get(change.destinationHost()));
+            }
+        }
+        return new GraphDelta(namespace, from.getVersion(), to.getVersion(), to.getGeneratedAt(),
+                upserted, removed, diff.changes());
+    }
+
+    private static LiveGraph graph(String namespace, RouteSnapshot snapshot) {
+        return new LiveGraph(namespace, snapshot.getVersion(), snapshot.getGeneratedAt(),
+                snapshot.getResponse().getRoutes());
+    }
+
+    private void built(String namespace, RouteSnapshot snapshot) {
+        Channel channel = channels.get(namespace);
+        if (channel != null) {
+            channel.publish(snapshot);
+        }
+    }
+
+    /**
+     * Subscribers and watches of one namespace. Its state is guarded by the channel's monitor; the watches
+     * themselves are opened and closed outside of it by one thread at a time, since that calls the API server
+     * and would otherwise hold up subscribers and watch callbacks waiting for the monitor.
+     */
+    private final class Channel {
+
+        private final String namespace;
+        private final List<Subscriber> subscribers = new ArrayList<>();
+        // requested watch updates; only the thread that raised it from zero touches the watches
+        private final AtomicInteger watchUpdates = new AtomicInteger();
+        private final List<ResourceWatch> watches = new ArrayList<>();
+        private RouteSnapshot latest;
+        private boolean rewatch;
+        private boolean closed;
+        // consecutive watch closes and open failures without an event in between
+        private int watchFailures;
+        private ScheduledFuture<?> rewatchTimer;
+
+        Channel(String namespace) {
+            this.namespace = namespace;
+        }
+
+        Subscriber add(EventSink sink, RouteSnapshot current) {
+            Subscriber subscriber;
+            synchronized (this) {
+                if (closed) {
+                    return null;
+                }
+                if (latest == null) {
+                    latest = current;
+                    rewatch = true;
+                }
+                subscriber = new Subscriber(this, sink);
+                subscribers.add(subscriber);
+                subscriber.resync();
+            }
+            updateWatches();
+            return subscriber;
+        }
+
+        void remove(Subscriber subscriber) {
+            synchronized (this) {
+                if (!subscribers.remove(subscriber) || !subscribers.isEmpty()) {
+                    return;
+                }
+                channels.remove(namespace, this);
+                closed = true;
+            }
+            routeExplorerService.cancelRebuild(namespace);
+            updateWatches();
+        }
+
+        synchronized LiveGraph current() {
+            return graph(namespace, latest);
+        }
+
+        void close() {
+            synchronized (this) {
+                closed = true;
+            }
+            routeExplorerService.cancelRebuild(namespace);
+            updateWatches();
+        }
+
+        void changed() {
+            routeExplorerService.requestRebuild(namespace, RebuildScheduler.Priority.INTERACTIVE);
+        }
+
+        void watchEvent() {
+            synchronized (this) {
+                watchFailures = 0;
+            }
+            changed();
+        }
+
+        /**
+         * Re-opens the watches from the versions of the rebuild requested here. Should that rebuild fail, the
+         * retry scheduled alongside re-opens them from the versions at hand.
+         */
+        void watchClosed() {
+            synchronized (this) {
+                rewatch = true;
+                scheduleRewatch();
+            }
+            changed();
+        }
+
+        /**
+         * Arms the timer that brings the watches up again, with the delays of a failing rebuild. Called with the
+         * monitor held.
+         */
+        private void scheduleRewatch() {
+            if (closed || rewatchTimer != null) {
+                return;
+            }
+            Duration delay = RebuildScheduler.retryDelay(properties, ++watchFailures);
+            try {
+                rewatchTimer = timer.schedule(() -> {
+                    synchronized (this) {
+                        rewatchTimer = null;
+                    }
+                    updateWatches();
+                }, delay.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                log.debug("Not re-opening the watches of namespace {}: shutting down", namespace);
+            }
+        }
+
+        /**
+         * Sends the delta to {@code next} when it is newer than the graph last published. Builds may finish
+         * out of order, so older graphs are ignored.
+         */
+        void publish(RouteSnapshot next) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (next.getVersion() > latest.getVersion()) {
+                    GraphDelta delta = delta(namespace, latest, next);
+                    latest = next;
+                    subscribers.forEach(subscriber -> subscriber.offer(delta));
+                }
+            }
+            updateWatches();
+        }
+
+        /**
+         * Brings the watches in line with the channel: re-opens them when they ended or were never opened and
+         * closes them once the channel is closed. When another thread is already updating them it returns at
+         * once and that thread makes another pass for this change.
+         */
+        private void updateWatches() {
+            if (watchUpdates.getAndIncrement() > 0) {
+                return;
+            }
+            do {
+                boolean reopen;
+                boolean close;
+                synchronized (this) {
+                    reopen = rewatch && !closed;
+                    close = closed;
+                    if (reopen) {
+                        rewatch = false;
+                    }
+                    if (close && rewatchTimer != null) {
+                        rewatchTimer.cancel(false);
+                        rewatchTimer = null;
+                    }
+                }
+                if (reopen) {
+                    closeWatches();
+                    openWatches();
+                } else if (close) {
+                    closeWatches();
+                }
+            } while (watchUpdates.decrementAndGet() > 0);
+        }
+
+        private void openWatches() {
+            Set<String> watched = new LinkedHashSet<>();
+            watched.add(namespace);
+            // the cluster-wide watches of the all-namespaces view cover the extra namespaces
+            if (properties.getExtraNamespaces() != null && !ResourceLoader.ALL_NAMESPACES.equals(namespace)) {
+                watched.addAll(properties.getExtraNamespaces());
+            }
+            try {
+                for (String ns : watched) {
+                    watches.add(loader.watch(ns, routeExplorerService.resourceVersions(ns),
+                            this::watchEvent, this::watchClosed));
+                }
+            } catch (IOException e) {
+                log.warn("Watching namespace {} for live updates failed: {}", namespace, e.getMessage());
+                closeWatches();
+                synchronized (this) {
+                    rewatch = true;
+                    scheduleRewatch();
+                }
+            }
+        }
+
+        private void closeWatches() {
+            watches.forEach(ResourceWatch::close);
+            watches.clear();
+        }
+    }
+
+    /**
+     * Queue of one subscriber. Deltas are shared between subscribers; a pending resync replaces the queue
+     * with a single full graph taken when it is sent.
+     */
+    private final class Subscriber implements Subscription {
+
+        private final Channel channel;
+        private final EventSink sink;
+        private final Deque<GraphDelta> queue = new ArrayDeque<>();
+        private boolean resync;
+        private boolean draining;
+        private boolean closed;
+        private long sentVersion = -1;
+
+        Subscriber(Channel channel, EventSink sink) {
+            this.channel = channel;
+            this.sink = sink;
+        }
+
+        synchronized void offer(GraphDelta delta) {
+            if (closed || resync) {
+                return;
+            }
+            if (queue.size() >= Math.max(1, properties.getLiveMaxPendingEvents())) {
+                metrics.recordLiveResync(channel.namespace);
+                resync();
+                return;
+            }
+            queue.addLast(delta);
+            startDrain();
+        }
+
+        synchronized void resync() {
+            queue.clear();
+            resync = true;
+            startDrain();
+        }
+
+        private void startDrain() {
+            if (!draining && !closed) {
+                draining = true;
+                try {
+                    workers.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining = false;
+                }
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                GraphDelta delta;
+                boolean full;
+                synchronized (this) {
+                    full = resync;
+                    resync = false;
+                    delta = full ? null : queue.pollFirst();
+                    if (closed || (!full && delta == null)) {
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    if (full) {
+                        LiveGraph graph = channel.current();
+                        sink.send(GRAPH_EVENT, graph.version(), graph);
+                        sentVersion = graph.version();
+                    } else if (delta.toVersion() > sentVersion) {
+                        sink.send(DELTA_EVENT, delta.toVersion(), delta);
+                        sentVersion = delta.toVersion();
+                    }
+                } catch (IOException | RuntimeException e) {
+                    log.debug("Live subscriber of namespace {} went away: {}", channel.namespace, e.getMessage());
+                    synchronized (this) {
+                        draining = false;
+                    }
+                    close();
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                queue.clear();
+            }
+            channel.remove(this);
+        }
+    }
+}
@@ -0,0 +1,492 @@
+package io.github.istiorouteexplorer.service;
+
+import io.github.istiorouteexplorer.model.NamespaceResources;
+import io.github.istiorouteexplorer.model.analysis.MatchFinding;
+import io.github.istiorouteexplorer.model.analysis.MatchFindingType;
+import io.github.istiorouteexplorer.model.istio.HttpMatchRequestDto;
+import io.github.istiorouteexplorer.model.istio.HttpRouteDto;
+import io.github.istiorouteexplorer.model.istio.StringMatchDto;
+import io.github.istiorouteexplorer.model.istio.VirtualServiceDto;
+
+import java.util.*;
+
+/**
+ * Detects shadowed, unreachable and overlapping http routes of VirtualServices.
+ * Istio selects the first http route whose match applies, so a broad rule placed early hides later ones.
+ * <p>
+ * Earlier uri conditions are indexed in a prefix trie holding prefix and exact values, so a rule is only
+ * compared with earlier rules whose uri can contain, or be contained in, its own; regular expressions are
+ * evaluated only against exact uris. Match entries without uri condition are indexed separately by their
+ * other conditions, since those alone decide how they relate to any other entry. The cost per VirtualService
+ * is linear in the total length of its uri conditions plus the number of candidate pairs.
+ */
+public final class MatchAnalyzer {
+
+    private static final String REGEX_SPECIALS = "\\^$.|?*+()[]{}";
+
+    private MatchAnalyzer() {
+    }
+
+    public static List<MatchFinding> analyze(NamespaceResources resources) {
+        List<MatchFinding> findings = new ArrayList<>();
+        for (VirtualServiceDto virtualService : resources.getVirtualServices()) {
+            if (virtualService.getSpec() != null && virtualService.getSpec().getHttp() != null) {
+                findings.addAll(analyze(virtualService));
+            }
+        }
+        return findings;
+    }
+
+    public static List<MatchFinding> analyze(VirtualServiceDto virtualService) {
+        List<HttpRouteDto> rules = virtualService.getSpec().getHttp();
+        String name = virtualService.getMetadata() == null ? null : virtualService.getMetadata().getName();
+        List<String> hosts = Optional.ofNullable(virtualService.getSpec().getHosts()).orElse(List.of());
+        List<MatchFinding> findings = new ArrayList<>();
+        UriIndex index = new UriIndex();
+        int catchAll = -1;
+        for (int rule = 0; rule < rules.size(); rule++) {
+            HttpRouteDto route = rules.get(rule);
+            if (catchAll >= 0) {
+                findings.add(new MatchFinding(MatchFindingType.UNREACHABLE, name, hosts, rule, route.getName(),
+                        catchAll, rules.get(catchAll).getName(),
+                        "rule #" + catchAll + " has no match conditions and captures all traffic"));
+                continue;
+            }
+            List<Request> requests = requests(rule, route);
+            for (Request request : requests) {
+                String error = request.regexError();
+                if (error != null) {
+                    findings.add(new MatchFinding(MatchFindingType.INVALID_REGEX, name, hosts, rule, route.getName(),
+                            -1, null, error));
+                }
+            }
+            if (requests.isEmpty()) {
+                catchAll = rule;
+                continue;
+            }
+            int shadowedBy = -1;
+            boolean shadowed = true;
+            Request overlap = null;
+            Request overlapWith = null;
+            for (Request request : requests) {
+                Request cover = null;
+                for (Request candidate : index.candidates(request)) {
+                    if (candidate.covers(request)) {
+                        cover = candidate;
+                        break;
+                    }
+                    // an earlier rule that is a special case of this one is a deliberate exception
+                    if (overlap == null && candidate.intersects(request) && !request.covers(candidate)) {
+                        overlap = candidate;
+                        overlapWith = request;
+                    }
+                }
+                if (cover == null) {
+                    shadowed = false;
+                } else {
+                    shadowedBy = Math.max(shadowedBy, cover.rule());
+                }
+            }
+            if (shadowed) {
+                findings.add(new MatchFinding(MatchFindingType.SHADOWED, name, hosts, rule, route.getName(),
+                        shadowedBy, rules.get(shadowedBy).getName(),
+                        "all match conditions are already covered by earlier rules"));
+            } else if (overlap != null) {
+                findings.add(new MatchFinding(MatchFindingType.OVERLAPPING, name, hosts, rule, route.getName(),
+                        overlap.rule(), rules.get(overlap.rule()).getName(),
+                        "requests matching " + overlapWith.describe() + " and " + overlap.describe()
+                                + " are routed by rule #" + overlap.rule()));
+            }
+            requests.forEach(index::add);
+        }
+        return findings;
+    }
+
+    private static List<Request> requests(int rule, HttpRouteDto route) {
+        if (route.getMatch() == null) {
+            return List.of();
+        }
+        List<Request> requests = new ArrayList<>();
+        for (HttpMatchRequestDto match : route.getMatch()) {
+            if (match != null) {
+                requests.add(Request.of(rule, match));
+            }
+        }
+        return requests;
+    }
+
+    enum Kind {
+        EXACT,
+        PREFIX,
+        REGEX
+    }
+
+    /**
+     * String condition with its kind resolved from whichever value is set.
+     */
+    record Condition(Kind kind, String value) {
+
+        static Condition of(StringMatchDto match) {
+            if (match == null) {
+                return null;
+            }
+            if (match.getExact() != null) {
+                return new Condition(Kind.EXACT, match.getExact());
+            }
+            if (match.getPrefix() != null) {
+                return new Condition(Kind.PREFIX, match.getPrefix());
+            }
+            if (match.getRegex() != null) {
+                return new Condition(Kind.REGEX, match.getRegex());
+            }
+            return null;
+        }
+
+        /**
+         * Whether every value accepted by {@code other} is accepted by this condition. A prefix covers a regular
+         * expression whose literal start begins with it; since uri paths start with {@code /}, an empty prefix
+         * or {@code /} covers every regular expression.
+         */
+        boolean covers(Condition other) {
+            return switch (kind) {
+                case EXACT -> other.kind == Kind.EXACT && value.equals(other.value);
+                case PREFIX -> other.kind != Kind.REGEX ? other.value.startsWith(value)
+                        : matchesAnyPath() || other.literalPrefix().startsWith(value);
+                case REGEX -> other.kind == Kind.REGEX ? value.equals(other.value)
+                        : other.kind == Kind.EXACT && regexMatches(value, other.value);
+            };
+        }
+
+        /**
+         * Whether some value may be accepted by both conditions. A regular expression is only compared with a
+         * prefix or another regular expression by its literal start, ignoring case, so the answer errs towards
+         * intersecting.
+         */
+        boolean intersects(Condition other) {
+            if (kind == Kind.EXACT) {
+                return other.covers(this);
+            }
+            if (other.kind == Kind.EXACT) {
+                return covers(other);
+            }
+            String start = kind == Kind.REGEX ? literalPrefix() : value;
+            String otherStart = other.kind == Kind.REGEX ? other.literalPrefix() : other.value;
+            return startsWithIgnoreCase(start, otherStart) || startsWithIgnoreCase(otherStart, start);
+        }
+
+        /**
+         * Literal text every value accepted by this regular expression starts with; empty when the expression
+         * has a top-level alternative or starts with a special character.
+         */
+        String literalPrefix() {
+            if (value.indexOf('|') >= 0) {
+                return "";
+            }
+            int start = value.startsWith("^") ? 1 : 0;
+            int end = start;
+            while (end < value.length() && REGEX_SPECIALS.indexOf(value.charAt(end)) < 0) {
+                end++;
+            }
+            // a quantifier allowing zero repetitions makes the last literal character optional
+            if (end > start && end < value.length() && "?*{".indexOf(value.charAt(end)) >= 0) {
+                end--;
+            }
+            return value.substring(start, end);
+        }
+
+        boolean matchesAnyPath() {
+            return kind == Kind.PREFIX && (value.isEmpty() || value.equals("/"));
+        }
+
+        /**
+         * The condition as compared when case is ignored; regular expressions keep their case.
+         */
+        Condition lowerCase() {
+            return kind == Kind.REGEX ? this : new Condition(kind, value.toLowerCase(Locale.ROOT));
+        }
+
+        boolean caseless() {
+            return value.equals(value.toLowerCase(Locale.ROOT)) && value.equals(value.toUpperCase(Locale.ROOT));
+        }
+
+        @Override
+        public String toString() {
+            return kind.name().toLowerCase(Locale.ROOT) + " " + value;
+        }
+    }
+
+    /**
+     * One {@code match} entry of an http route: conditions are combined with AND. Attributes the analyzer
+     * cannot reason about are folded into {@code opaque} and must be equal for one request to cover another.
+     * {@code ignoreUriCase} is only set for exact and prefix uris, the only ones Istio matches without case.
+     */
+    record Request(int rule, Condition uri, boolean ignoreUriCase, Map<String, Condition> conditions,
+                   Set<String> gateways, Long port, String opaque) {
+
+        static Request of(int rule, HttpMatchRequestDto match) {
+            Map<String, Condition> conditions = new TreeMap<>();
+            put(conditions, "method", match.getMethod());
+            put(conditions, "scheme", match.getScheme());
+            put(conditions, "header:host", match.getAuthority());
+            if (match.getHeaders() != null) {
+                match.getHeaders().forEach((name, value) ->
+                        put(conditions, "header:" + name.toLowerCase(Locale.ROOT), value));
+            }
+            if (match.getQueryParams() != null) {
+                match.getQueryParams().forEach((name, value) -> put(conditions, "query:" + name, value));
+            }
+            Set<String> gateways = match.getGateways() == null ? Set.of() : Set.copyOf(match.getGateways());
+            Condition uri = Condition.of(match.getUri());
+            boolean ignoreUriCase = Boolean.TRUE.equals(match.getIgnoreUriCase()) && uri != null
+                    && uri.kind() != Kind.REGEX;
+            StringBuilder opaque = new StringBuilder();
+            if (match.getSourceLabels() != null && !match.getSourceLabels().isEmpty()) {
+                opaque.append("sourceLabels=").append(new TreeMap<>(match.getSourceLabels())).append(';');
+            }
+            if (match.getSourceNamespace() != null) {
+                opaque.append("sourceNamespace=").append(match.getSourceNamespace()).append(';');
+            }
+            if (match.getWithoutHeaders() != null && !match.getWithoutHeaders().isEmpty()) {
+                opaque.append("withoutHeaders=").append(match.getWithoutHeaders()).append(';');
+            }
+            return new Request(rule, uri, ignoreUriCase, conditions, gateways, match.getPort(), opaque.toString());
+        }
+
+        /**
+         * Everything but the uri: all that decides how a request without uri relates to another request.
+         */
+        Key key() {
+            return new Key(conditions, gateways, port, opaque);
+        }
+
+        private static void put(Map<String, Condition> conditions, String field, StringMatchDto match) {
+            Condition condition = Condition.of(match);
+            if (condition != null) {
+                conditions.put(field, condition);
+            }
+        }
+
+        boolean covers(Request other) {
+            if (!opaque.isEmpty() && !opaque.equals(other.opaque)) {
+                return false;
+            }
+            if (port != null && !port.equals(other.port)) {
+                return false;
+            }
+            if (!gateways.isEmpty() && (other.gateways.isEmpty() || !gateways.containsAll(other.gateways))) {
+                return false;
+            }
+            if (uri != null && (other.uri == null || !coversUri(other))) {
+                return false;
+            }
+            for (Map.Entry<String, Condition> entry : conditions.entrySet()) {
+                Condition otherCondition = other.conditions.get(entry.getKey());
+                if (otherCondition == null || !entry.getValue().covers(otherCondition)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        boolean intersects(Request other) {
+            if (port != null && other.port != null && !port.equals(other.port)) {
+                return false;
+            }
+            if (!gateways.isEmpty() && !other.gateways.isEmpty()
+                    && Collections.disjoint(gateways, other.gateways)) {
+                return false;
+            }
+            if (uri != null && other.uri != null && !(ignoreUriCase || other.ignoreUriCase
+                    ? uri.lowerCase().intersects(other.uri.lowerCase()) : uri.intersects(other.uri))) {
+                return false;
+            }
+            for (Map.Entry<String, Condition> entry : conditions.entrySet()) {
+                Condition otherCondition = other.conditions.get(entry.getKey());
+                if (otherCondition != null && !entry.getValue().intersects(otherCondition)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Whether the uri of this request accepts every uri accepted by {@code other}, taking the case flags of
+         * both into account. A case-sensitive uri only covers a case-insensitive one when it has no letters.
+         */
+        private boolean coversUri(Request other) {
+            if (uri.matchesAnyPath()) {
+                return true;
+            }
+            if (!ignoreUriCase && !other.ignoreUriCase) {
+                return uri.covers(other.uri);
+            }
+            if (!ignoreUriCase && !uri.caseless()) {
+                return false;
+            }
+            return uri.lowerCase().covers(other.uri.lowerCase());
+        }
+
+        /**
+         * First regex condition of the request that Envoy would reject, described with the reason.
+         */
+        String regexError() {
+            List<Map.Entry<String, Condition>> all = new ArrayList<>(conditions.entrySet());
+            if (uri != null) {
+                all.add(0, Map.entry("uri", uri));
+            }
+            for (Map.Entry<String, Condition> entry : all) {
+                Condition condition = entry.getValue();
+                if (condition.kind() == Kind.REGEX) {
+                    RegexCache.CompiledRegex compiled = RegexCache.shared().compile(condition.value());
+                    if (!compiled.isValid()) {
+                        return entry.getKey() + " regex " + condition.value() + ": " + compiled.error();
+                    }
+                }
+            }
+            return null;
+        }
+
+        String describe() {
+            StringJoiner joiner = new StringJoiner(", ", "[", "]");
+            if (uri != null) {
+                joiner.add("uri " + uri);
+            }
+            conditions.forEach((field, condition) -> joiner.add(field + " " + condition));
+            if (port != null) {
+                joiner.add("port " + port);
+            }
+            return joiner.toString();
+        }
+    }
+
+    record Key(Map<String, Condition> conditions, Set<String> gateways, Long port, String opaque) {
+    }
+
+    /**
+     * Index of the match entries of earlier rules. Entries without uri, and the entries with uri when the
+     * later entry has none, are kept once per {@link Key}: entries sharing it relate alike to such an entry, so
+     * the earliest decides. Case-insensitive uris are indexed lower case and looked up both ways.
+     */
+    static final class UriIndex {
+
+        private final TrieNode root = new TrieNode();
+        private final List<Request> regex = new ArrayList<>();
+        private final Map<Key, Request> withoutUri = new LinkedHashMap<>();
+        private final Map<Key, Request> withUri = new LinkedHashMap<>();
+
+        void add(Request request) {
+            if (request.uri() == null) {
+                withoutUri.putIfAbsent(request.key(), request);
+                return;
+            }
+            withUri.putIfAbsent(request.key(), request);
+            Condition uri = request.ignoreUriCase() ? request.uri().lowerCase() : request.uri();
+            switch (uri.kind()) {
+                case EXACT -> root.descend(uri.value(), true).exacts.add(request);
+                case PREFIX -> root.descend(uri.value(), true).prefixes.add(request);
+                case REGEX -> regex.add(request);
+            }
+        }
+
+        /**
+         * Earlier requests whose uri condition may cover or intersect the uri of {@code request}, in rule order.
+         */
+        List<Request> candidates(Request request) {
+            Condition uri = request.uri();
+            List<Request> result = new ArrayList<>(withoutUri.values());
+            if (uri == null) {
+                result.addAll(withUri.values());
+            } else {
+                collect(uri, result);
+                Condition lower = uri.lowerCase();
+                if (!lower.equals(uri)) {
+                    collect(lower, result);
+                }
+            }
+            return result.stream().distinct().sorted(Comparator.comparingInt(Request::rule)).toList();
+        }
+
+        private void collect(Condition uri, List<Request> result) {
+            switch (uri.kind()) {
+                case EXACT -> {
+                    root.collectAlong(uri.value(), result);
+                    TrieNode node = root.descend(uri.value(), false);
+                    if (node != null) {
+                        result.addAll(node.exacts);
+                    }
+                    // regular expressions are only evaluated when they can decide coverage
+                    result.addAll(regex);
+                }
+                case PREFIX -> {
+                    root.collectAlong(uri.value(), result);
+                    TrieNode node = root.descend(uri.value(), false);
+                    if (node != null) {
+                        result.addAll(node.exacts);
+                        node.collectBelow(result);
+                    }
+                    result.addAll(regex);
+                }
+                case REGEX -> {
+                    // prefixes of its literal start cover a regular expression, and so does the root path
+                    String literal = uri.literalPrefix();
+                    root.collectAlong(literal, result);
+                    if (!literal.startsWith("/")) {
+                        root.collectAlong("/", result);
+                    }
+                    result.addAll(regex.stream().filter(r -> r.uri().equals(uri)).toList());
+                }
+            }
+        }
+    }
+
+    private static final class TrieNode {
+
+        private final Map<Character, TrieNode> children = new HashMap<>();
+        private final List<Request> prefixes = new ArrayList<>(1);
+        private final List<Request> exacts = new ArrayList<>(1);
+
+        TrieNode descend(String key, boolean create) {
+            TrieNode node = this;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = create
+                        ? node.children.computeIfAbsent(key.charAt(i), c -> new TrieNode())
+                        : node.children.get(key.charAt(i));
+            }
+            return node;
+        }
+
+        /**
+         * Prefix requests stored on the path of {@code key}: prefixes of {@code key}, including {@code key} itself.
+         */
+        void collectAlong(String key, List<Request> result) {
+            TrieNode node = this;
+            result.addAll(node.prefixes);
+            for (int i = 0; i < key.length(); i++) {
+                node = node.children.get(key.charAt(i));
+                if (node == null) {
+                    return;
+                }
+                result.addAll(node.prefixes);
+            }
+        }
+
+        /**
+         * Requests stored strictly below this node: longer prefixes and exact values that start with the node key.
+         */
+        void collectBelow(List<Request> result) {
+            for (TrieNode child : children.values()) {
+                result.addAll(child.prefixes);
+                result.addAll(child.exacts);
+                child.collectBelow(result);
+            }
+        }
+    }
+
+    private static boolean startsWithIgnoreCase(String value, String prefix) {
+        return value.regionMatches(true, 0, prefix, 0, prefix.length());
+    }
+
+    private static boolean regexMatches(String regex, String value) {
+        return RegexCache.shared().matches(regex, value);
+    }
+}
@@ -0,0 +1,407 @@
+package io.github.istiorouteexplorer.service;
+
+import io.github.istiorouteexplorer.model.Route;
+import io.github.istiorouteexplorer.model.RouteLink;
+import io.github.istiorouteexplorer.model.RouteNode;
+import io.github.istiorouteexplorer.model.graph.GraphNodeHit;
+import io.github.istiorouteexplorer.model.graph.GraphPath;
+import io.github.istiorouteexplorer.model.graph.TraversalDirection;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Namespace-wide routing graph merged from all {@link Route} fragments.
+ * Nodes are addressed by dense indexes and adjacency is stored in compressed arrays, so traversals
+ * only allocate their result. The graph is immutable; query results are memoized per instance and
+ * therefore per graph version.
+ */
+public class MeshGraph {
+
+    private static final int QUERY_CACHE_LIMIT = 1024;
+    // nodes entered by one enumeration of all paths; the number of paths grows exponentially with depth
+    private static final int PATH_VISIT_BUDGET = 1_000_000;
+
+    private final long version;
+    private final String[] ids;
+    private final RouteNode[] nodes;
+    private final Map<String, Integer> indexById;
+    // outgoing edges of node i are outTargets[outOffsets[i] .. outOffsets[i + 1])
+    private final int[] outOffsets;
+    private final int[] outTargets;
+    private final RouteLink[] outLinks;
+    // incoming edges of node i are inSources[inOffsets[i] .. inOffsets[i + 1])
+    private final int[] inOffsets;
+    private final int[] inSources;
+    private final Map<Object, Object> queryCache = new ConcurrentHashMap<>();
+
+    private MeshGraph(long version, String[] ids, RouteNode[] nodes, Map<String, Integer> indexById,
+                      int[] edgeFrom, int[] edgeTo, RouteLink[] edgeLinks) {
+        this.version = version;
+        this.ids = ids;
+        this.nodes = nodes;
+        this.indexById = indexById;
+        int n = ids.length;
+        int m = edgeFrom.length;
+
+        this.outOffsets = new int[n + 1];
+        this.inOffsets = new int[n + 1];
+        for (int e = 0; e < m; e++) {
+            outOffsets[edgeFrom[e] + 1]++;
+            inOffsets[edgeTo[e] + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            outOffsets[i + 1] += outOffsets[i];
+            inOffsets[i + 1] += inOffsets[i];
+        }
+        this.outTargets = new int[m];
+        this.outLinks = new RouteLink[m];
+        this.inSources = new int[m];
+        int[] outFill = Arrays.copyOf(outOffsets, n);
+        int[] inFill = Arrays.copyOf(inOffsets, n);
+        for (int e = 0; e < m; e++) {
+            int out = outFill[edgeFrom[e]]++;
+            outTargets[out] = edgeTo[e];
+            outLinks[out] = edgeLinks[e];
+            inSources[inFill[edgeTo[e]]++] = edgeFrom[e];
+        }
+    }
+
+    /**
+     * Merges route fragments into one graph. Nodes are identified by id; parallel links between the
+     * same pair of nodes collapse into one edge that keeps the first link seen.
+     */
+    public static MeshGraph build(long version, Collection<Route> routes) {
+        Map<String, Integer> indexById = new HashMap<>();
+        List<String> ids = new ArrayList<>();
+        List<RouteNode> nodes = new ArrayList<>();
+        for (Route route : routes) {
+            route.getNodes().forEach((id, node) -> register(id, node, indexById, ids, nodes));
+        }
+
+        Set<Long> seenEdges = new HashSet<>();
+        int[] edgeFrom = new int[16];
+        int[] edgeTo = new int[16];
+        RouteLink[] edgeLinks = new RouteLink[16];
+        int edgeCount = 0;
+        for (Route route : routes) {
+            for (RouteLink link : route.getLinks()) {
+                int from = register(link.getFromId(), null, indexById, ids, nodes);
+                int to = register(link.getToId(), null, indexById, ids, nodes);
+                if (!seenEdges.add(((long) from << 32) | to)) {
+                    continue;
+                }
+                if (edgeCount == edgeFrom.length) {
+                    int capacity = edgeCount * 2;
+                    edgeFrom = Arrays.copyOf(edgeFrom, capacity);
+                    edgeTo = Arrays.copyOf(edgeTo, capacity);
+                    edgeLinks = Arrays.copyOf(edgeLinks, capacity);
+                }
+                edgeFrom[edgeCount] = from;
+                edgeTo[edgeCount] = to;
+                edgeLinks[edgeCount] = link;
+                edgeCount++;
+            }
+        }
+        return new MeshGraph(
+                version,
+                ids.toArray(String[]::new),
+                nodes.toArray(RouteNode[]::new),
+                indexById,
+                Arrays.copyOf(edgeFrom, edgeCount),
+                Arrays.copyOf(edgeTo, edgeCount),
+                Arrays.copyOf(edgeLinks, edgeCount));
+    }
+
+    private static int register(String id, RouteNode node, Map<String, Integer> indexById,
+                                List<String> ids, List<RouteNode> nodes) {
+        Integer index = indexById.get(id);
+        if (index == null) {
+            index = ids.size();
+            indexById.put(id, index);
+            ids.add(id);
+            nodes.add(node);
+        } else if (node != null && nodes.get(index) == null) {
+            nodes.set(index, node);
+        }
+        return index;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int nodeCount() {
+        return ids.length;
+    }
+
+    public int linkCount() {
+        return outTargets.length;
+    }
+
+    public boolean contains(String id) {
+        return indexById.containsKey(id);
+    }
+
+    public RouteNode node(String id) {
+        Integer index = indexById.get(id);
+        return index == null ? null : nodes[index];
+    }
+
+    /**
+     * Breadth-first traversal from {@code origin}. {@link TraversalDirection#REVERSE} walks links
+     * backwards and answers "who can reach this node". The origin itself is not part of the result.
+     */
+    public List<GraphNodeHit> reachable(String origin, TraversalDirection direction, int maxDepth) {
+        int start = indexOf(origin);
+        return cached(new ReachQuery(start, direction, maxDepth), () -> bfs(start, direction, maxDepth));
+    }
+
+    /**
+     * Up to {@code k} loop-free paths from {@code from} to {@code to}, ordered by hop count
+     * (Yen's algorithm over breadth-first shortest paths).
+     */
+    public List<GraphPath> shortestPaths(String from, String to, int k) {
+        int source = indexOf(from);
+        int target = indexOf(to);
+        return cached(new ShortestPathsQuery(source, target, k), () -> yen(source, target, k));
+    }
+
+    /**
+     * Depth-first enumeration of loop-free paths from {@code from} to {@code to} no longer than
+     * {@code maxDepth} hops, stopping after {@code limit} paths or once the search has entered a million
+     * nodes, whichever comes first.
+     */
+    public List<GraphPath> allPaths(String from, String to, int maxDepth, int limit) {
+        int source = indexOf(from);
+        int target = indexOf(to);
+        return cached(new AllPathsQuery(source, target, maxDepth, limit), () -> dfs(source, target, maxDepth, limit));
+    }
+
+    private int indexOf(String id) {
+        Integer index = indexById.get(id);
+        if (index == null) {
+            throw new InvalidRequestException("Node " + id + " is not part of the graph");
+        }
+        return index;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T cached(Object key, Supplier<T> query) {
+        Object result = queryCache.get(key);
+        if (result == null) {
+            result = query.get();
+            if (queryCache.size() >= QUERY_CACHE_LIMIT) {
+                queryCache.clear();
+            }
+            queryCache.put(key, result);
+        }
+        return (T) result;
+    }
+
+    private List<GraphNodeHit> bfs(int start, TraversalDirection direction, int maxDepth) {
+        int[] offsets = direction == TraversalDirection.FORWARD ? outOffsets : inOffsets;
+        int[] adjacent = direction == TraversalDirection.FORWARD ? outTargets : inSources;
+        int[] depth = new int[ids.length];
+        Arrays.fill(depth, -1);
+        int[] queue = new int[ids.length];
+        int head = 0;
+        int tail = 0;
+        depth[start] = 0;
+        queue[tail++] = start;
+        List<GraphNodeHit> result = new ArrayList<>();
+        while (head < tail) {
+            int current = queue[head++];
+            if (depth[current] >= maxDepth) {
+                continue;
+            }
+            for (int e = offsets[current]; e < offsets[current + 1]; e++) {
+                int next = adjacent[e];
+                if (depth[next] < 0) {
+                    depth[next] = depth[current] + 1;
+                    queue[tail++] = next;
+                    result.add(hit(next, depth[next]));
+                }
+            }
+        }
+        return List.copyOf(result);
+    }
+
+    private GraphNodeHit hit(int index, int depth) {
+        RouteNode node = nodes[index];
+        return node == null
+                ? new GraphNodeHit(ids[index], ids[index], RouteNode.Type.UNKNOWN, depth)
+                : new GraphNodeHit(ids[index], node.getName(), node.getType(), depth);
+    }
+
+    /**
+     * Iterative so that long chains cannot overflow the stack: {@code path[d]} is the node at depth {@code d}
+     * and {@code cursor[d]} its next outgoing edge to try. Paths end at the first arrival at the target.
+     */
+    private List<GraphPath> dfs(int source, int target, int maxDepth, int limit) {
+        List<GraphPath> result = new ArrayList<>();
+        // a loop-free path has at most one hop per node
+        int depthLimit = Math.min(maxDepth, ids.length);
+        if (limit <= 0 || depthLimit <= 0) {
+            return result;
+        }
+        boolean[] onPath = new boolean[ids.length];
+        int[] path = new int[depthLimit + 1];
+        int[] cursor = new int[depthLimit + 1];
+        int[] edges = new int[depthLimit];
+        int depth = 0;
+        path[0] = source;
+        cursor[0] = outOffsets[source];
+        onPath[source] = true;
+        int visits = 0;
+        while (depth >= 0 && result.size() < limit) {
+            int current = path[depth];
+            if (depth == depthLimit || cursor[depth] == outOffsets[current + 1]) {
+                onPath[current] = false;
+                depth--;
+                continue;
+            }
+            int e = cursor[depth]++;
+            int next = outTargets[e];
+            edges[depth] = e;
+            if (next == target) {
+                result.add(toPath(edges, depth + 1));
+            } else if (!onPath[next]) {
+                if (++visits > PATH_VISIT_BUDGET) {
+                    break;
+                }
+                depth++;
+                path[depth] = next;
+                cursor[depth] = outOffsets[next];
+                onPath[next] = true;
+            }
+        }
+        return result;
+    }
+
+    private List<GraphPath> yen(int source, int target, int k) {
+        List<List<Integer>> accepted = new ArrayList<>();
+        if (k <= 0) {
+            return List.of();
+        }
+        List<Integer> first = shortestPath(source, target, new boolean[ids.length], Set.of());
+        if (first == null) {
+            return List.of();
+        }
+        accepted.add(first);
+        PriorityQueue<List<Integer>> candidates = new PriorityQueue<>(Comparator.comparingInt(List::size));
+        Set<List<Integer>> known = new HashSet<>(accepted);
+        while (accepted.size() < k) {
+            List<Integer> previous = accepted.get(accepted.size() - 1);
+            for (int spur = 0; spur < previous.size(); spur++) {
+                List<Integer> rootEdges = previous.subList(0, spur);
+                int spurNode = spur == 0 ? source : outTargets[previous.get(spur - 1)];
+                Set<Integer> blockedEdges = new HashSet<>();
+                for (List<Integer> path : accepted) {
+                    if (path.size() > spur && path.subList(0, spur).equals(rootEdges)) {
+                        blockedEdges.add(path.get(spur));
+                    }
+                }
+                boolean[] blockedNodes = new boolean[ids.length];
+                int node = source;
+                for (int edge : rootEdges) {
+                    blockedNodes[node] = true;
+                    node = outTargets[edge];
+                }
+                List<Integer> spurPath = shortestPath(spurNode, target, blockedNodes, blockedEdges);
+                if (spurPath != null) {
+                    List<Integer> candidate = new ArrayList<>(rootEdges);
+                    candidate.addAll(spurPath);
+                    if (known.add(candidate)) {
+                        candidates.add(candidate);
+                    }
+                }
+            }
+            if (candidates.isEmpty()) {
+                break;
+            }
+            accepted.add(candidates.poll());
+        }
+        return accepted.stream().map(this::toPath).toList();
+    }
+
+    /**
+     * Fewest-hop path as a list of edge indexes, or {@code null} when the target is unreachable.
+     */
+    private List<Integer> shortestPath(int source, int target, boolean[] blockedNodes, Set<Integer> blockedEdges) {
+        int[] viaEdge = new int[ids.length];
+        Arrays.fill(viaEdge, -1);
+        boolean[] visited = new boolean[ids.length];
+        int[] queue = new int[ids.length];
+        int head = 0;
+        int tail = 0;
+        visited[source] = true;
+        queue[tail++] = source;
+        while (head < tail && !visited[target]) {
+            int current = queue[head++];
+            for (int e = outOffsets[current]; e < outOffsets[current + 1]; e++) {
+                int next = outTargets[e];
+                if (visited[next] || blockedNodes[next] || blockedEdges.contains(e)) {
+                    continue;
+                }
+                visited[next] = true;
+                viaEdge[next] = e;
+                queue[tail++] = next;
+            }
+        }
+        if (!visited[target] || source == target) {
+            return null;
+        }
+        LinkedList<Integer> edges = new LinkedList<>();
+        for (int node = target; node != source; ) {
+            int edge = viaEdge[node];
+            edges.addFirst(edge);
+            node = sourceOf(edge);
+        }
+        return edges;
+    }
+
+    private int sourceOf(int edge) {
+        // outOffsets is sorted, so the owning node is found by binary search
+        int low = 0;
+        int high = ids.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (outOffsets[mid] <= edge) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private GraphPath toPath(int[] edges, int length) {
+        List<Integer> taken = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            taken.add(edges[i]);
+        }
+        return toPath(taken);
+    }
+
+    private GraphPath toPath(List<Integer> edges) {
+        List<String> nodeIds = new ArrayList<>(edges.size() + 1);
+        List<RouteLink> links = new ArrayList<>(edges.size());
+        nodeIds.add(ids[sourceOf(edges.get(0))]);
+        for (int edge : edges) {
+            nodeIds.add(ids[outTargets[edge]]);
+            links.add(outLinks[edge]);
+        }
+        return new GraphPath(List.copyOf(nodeIds), List.copyOf(links));
+    }
+
+    private record ReachQuery(int start, TraversalDirection direction, int maxDepth) {
+    }
+
+    private record ShortestPathsQuery(int source, int target, int k) {
+    }
+
+    private record AllPathsQuery(int source, int target, int maxDepth, int limit) {
+    }
+}
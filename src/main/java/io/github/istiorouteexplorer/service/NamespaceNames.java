@@ -0,0 +1,56 @@
+package io.github.istiorouteexplorer.service;
+
+import io.github.istiorouteexplorer.kube.ResourceLoader;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.regex.Pattern;
+
+/**
+ * Validates namespace names taken from requests before they reach the cluster or name files on disk.
+ */
+public final class NamespaceNames {
+
+    private static final Pattern DNS_1123_LABEL = Pattern.compile("[a-z0-9]([-a-z0-9]{0,61}[a-z0-9])?");
+
+    private NamespaceNames() {
+    }
+
+    /**
+     * Whether {@code namespace} is a DNS-1123 label, as Kubernetes requires of namespaces, or the
+     * all-namespaces token {@value ResourceLoader#ALL_NAMESPACES}.
+     */
+    public static boolean isValid(String namespace) {
+        return ResourceLoader.ALL_NAMESPACES.equals(namespace)
+                || namespace != null && DNS_1123_LABEL.matcher(namespace).matches();
+    }
+
+    /**
+     * Returns {@code namespace} when it is valid.
+     *
+     * @throws InvalidRequestException when it is not
+     */
+    public static String requireValid(String namespace) {
+        if (!isValid(namespace)) {
+            throw new InvalidRequestException("Invalid namespace " + namespace + ", expected a DNS-1123 label");
+        }
+        return namespace;
+    }
+
+    /**
+     * The file or directory named {@code namespace + suffix} inside {@code directory}.
+     *
+     * @throws IOException when the namespace is invalid or the path would leave the directory
+     */
+    static Path resolve(Path directory, String namespace, String suffix) throws IOException {
+        if (!isValid(namespace)) {
+            throw new IOException("Invalid namespace " + namespace);
+        }
+        Path base = directory.toAbsolutePath().normalize();
+        Path target = base.resolve(namespace + suffix).normalize();
+        if (!target.startsWith(base) || target.equals(base)) {
+            throw new IOException("Namespace " + namespace + " resolves outside of " + base);
+        }
+        return target;
+    }
+}
@@ -0,0 +1,13 @@
+package io.github.istiorouteexplorer.service;
+
+import io.github.istiorouteexplorer.model.ResourceCollection;
+import io.github.istiorouteexplorer.model.RoutesResponse;
+
+import java.time.Instant;
+
+/**
+ * What {@link SnapshotStore} keeps per namespace: the loaded resources, including their resourceVersions,
+ * and the routes built from them at {@code builtAt}.
+ */
+public record PersistedSnapshot(String namespace, Instant builtAt, ResourceCollection resources, RoutesResponse routes) {
+}
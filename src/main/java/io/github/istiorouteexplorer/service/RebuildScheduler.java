@@ -0,0 +1,241 @@
+package io.github.istiorouteexplorer.service;
+
+import io.github.istiorouteexplorer.config.AppProperties;
+import io.github.istiorouteexplorer.telemetry.RouteExplorerMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces bursts of change notifications into few graph rebuilds. A rebuild of a namespace starts once no
+ * request arrived for {@code app.rebuild-debounce}, but never later than {@code app.rebuild-max-delay} after the
+ * first request it covers, so a rollout that keeps emitting events still gets periodic rebuilds. At most
+ * {@code app.max-concurrent-rebuilds} rebuilds run at once; due rebuilds wait in a queue ordered by priority and
+ * then by age. A namespace has at most one rebuild running, and requests arriving meanwhile schedule one more
+ * after it. A failing rebuild is retried after {@code app.rebuild-retry-delay}, doubled after every further
+ * failure up to {@code app.rebuild-max-retry-delay}, unless a new request comes first; after
+ * {@code app.rebuild-max-attempts} attempts it is given up until the next request.
+ */
+@Slf4j
+@Component
+public class RebuildScheduler {
+
+    /**
+     * Order in which due rebuilds are started; namespaces someone is watching go first.
+     */
+    public enum Priority {
+        INTERACTIVE,
+        BACKGROUND
+    }
+
+    private final AppProperties properties;
+    private final RouteExplorerMetrics metrics;
+    private final Map<String, Pending> pending = new HashMap<>();
+    private final PriorityQueue<Pending> due = new PriorityQueue<>(Comparator
+            .comparing((Pending rebuild) -> rebuild.priority)
+            .thenComparingLong(rebuild -> rebuild.firstRequestNanos));
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().daemon().name("rebuild-scheduler").factory());
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+    private int running;
+
+    public RebuildScheduler(AppProperties properties, RouteExplorerMetrics metrics) {
+        this.properties = properties;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Requests a rebuild of the namespace. {@code rebuild} replaces the task of an earlier pending request and
+     * the higher of both priorities is kept.
+     */
+    public synchronized void request(String namespace, Priority priority, Runnable rebuild) {
+        Pending entry = pending.computeIfAbsent(namespace, Pending::new);
+        entry.rebuild = rebuild;
+        entry.requests++;
+        entry.cancelled = false;
+        if (entry.priority == null || priority.compareTo(entry.priority) < 0) {
+            if (entry.state == State.DUE) {
+                due.remove(entry);
+                entry.priority = priority;
+                due.add(entry);
+            } else {
+                entry.priority = priority;
+            }
+        }
+        if (entry.firstRequestNanos == 0) {
+            entry.firstRequestNanos = System.nanoTime();
+        }
+        switch (entry.state) {
+            case IDLE, WAITING -> arm(entry, debounce(), true);
+            case RUNNING -> entry.rerun = true;
+            case DUE -> {
+            }
+        }
+    }
+
+    /**
+     * Drops a pending rebuild of the namespace; a running one completes.
+     */
+    public synchronized void cancel(String namespace) {
+        Pending entry = pending.get(namespace);
+        if (entry == null) {
+            return;
+        }
+        if (entry.state == State.RUNNING) {
+            entry.rerun = false;
+            entry.cancelled = true;
+            return;
+        }
+        if (entry.timer != null) {
+            entry.timer.cancel(false);
+        }
+        due.remove(entry);
+        pending.remove(namespace);
+    }
+
+    @PreDestroy
+    public void close() {
+        timer.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    /**
+     * Starts the timer of the entry. A {@code bounded} delay ends no later than {@code app.rebuild-max-delay}
+     * after the first request of the entry; retry delays are not bounded.
+     */
+    private void arm(Pending entry, Duration delay, boolean bounded) {
+        long now = System.nanoTime();
+        long maxDelay = bounded ? nanos(properties.getRebuildMaxDelay(), Long.MAX_VALUE) : Long.MAX_VALUE;
+        long latest = maxDelay == Long.MAX_VALUE ? Long.MAX_VALUE : entry.firstRequestNanos + maxDelay;
+        long wait = Math.max(0, Math.min(nanos(delay, 0), latest - now));
+        if (entry.timer != null) {
+            entry.timer.cancel(false);
+        }
+        entry.state = State.WAITING;
+        try {
+            entry.timer = timer.schedule(() -> fire(entry), wait, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            pending.remove(entry.namespace);
+        }
+    }
+
+    private synchronized void fire(Pending entry) {
+        if (entry.state != State.WAITING || pending.get(entry.namespace) != entry) {
+            return;
+        }
+        entry.timer = null;
+        entry.state = State.DUE;
+        due.add(entry);
+        dispatch();
+    }
+
+    private void dispatch() {
+        int limit = Math.max(1, properties.getMaxConcurrentRebuilds());
+        while (running < limit && !due.isEmpty()) {
+            Pending entry = due.poll();
+            entry.state = State.RUNNING;
+            Runnable rebuild = entry.rebuild;
+            Priority priority = entry.priority;
+            long lag = System.nanoTime() - entry.firstRequestNanos;
+            int requests = entry.requests;
+            entry.priority = null;
+            entry.firstRequestNanos = 0;
+            entry.requests = 0;
+            running++;
+            try {
+                workers.execute(() -> run(entry, rebuild, priority, lag, requests));
+            } catch (RejectedExecutionException e) {
+                running--;
+                pending.remove(entry.namespace);
+            }
+        }
+    }
+
+    private void run(Pending entry, Runnable rebuild, Priority priority, long lag, int requests) {
+        boolean success = false;
+        try {
+            rebuild.run();
+            success = true;
+        } catch (RuntimeException e) {
+            log.warn("Rebuilding namespace {} failed: {}", entry.namespace, e.getMessage());
+        }
+        metrics.recordRebuild(entry.namespace, priority.name().toLowerCase(Locale.ROOT), lag, requests, success);
+        synchronized (this) {
+            running--;
+            entry.failures = success ? 0 : entry.failures + 1;
+            if (entry.rerun) {
+                entry.rerun = false;
+                arm(entry, debounce(), true);
+            } else if (!success && !entry.cancelled && entry.failures < properties.getRebuildMaxAttempts()) {
+                entry.priority = priority;
+                entry.firstRequestNanos = System.nanoTime();
+                arm(entry, retryDelay(properties, entry.failures), false);
+            } else {
+                if (!success && !entry.cancelled) {
+                    log.warn("Giving up rebuilding namespace {} after {} attempts", entry.namespace, entry.failures);
+                }
+                entry.state = State.IDLE;
+                pending.remove(entry.namespace, entry);
+            }
+            dispatch();
+        }
+    }
+
+    /**
+     * Delay before the retry following the given number of consecutive failures: {@code app.rebuild-retry-delay}
+     * doubled for every failure after the first, up to {@code app.rebuild-max-retry-delay}.
+     */
+    static Duration retryDelay(AppProperties properties, int failures) {
+        long initial = nanos(properties.getRebuildRetryDelay(), 0);
+        long max = nanos(properties.getRebuildMaxRetryDelay(), Long.MAX_VALUE);
+        int doublings = Math.min(failures - 1, Long.numberOfLeadingZeros(Math.max(1, initial)) - 1);
+        return Duration.ofNanos(Math.min(initial << doublings, max));
+    }
+
+    private Duration debounce() {
+        Duration debounce = properties.getRebuildDebounce();
+        return debounce == null ? Duration.ZERO : debounce;
+    }
+
+    private static long nanos(Duration duration, long fallback) {
+        return duration == null || duration.isNegative() || duration.isZero() ? fallback : duration.toNanos();
+    }
+
+    private enum State {
+        IDLE,
+        WAITING,
+        DUE,
+        RUNNING
+    }
+
+    private static final class Pending {
+
+        private final String namespace;
+        private State state = State.IDLE;
+        private Priority priority;
+        private Runnable rebuild;
+        private long firstRequestNanos;
+        private int requests;
+        private int failures;
+        private boolean rerun;
+        private boolean cancelled;
+        private ScheduledFuture<?> timer;
+
+        Pending(String namespace) {
+            this.namespace = namespace;
+        }
+    }
+}
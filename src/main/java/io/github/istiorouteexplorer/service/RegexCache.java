@@ -0,0 +1,250 @@
+package io.github.istiorouteexplorer.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Bounded cache of compiled regular expressions from Istio match conditions, keyed by regex source.
+ * <p>
+ * Envoy evaluates these expressions with RE2 and requires a full match, so patterns are validated against the
+ * RE2 syntax before compilation: constructs RE2 rejects (backreferences, lookarounds, atomic groups, possessive
+ * quantifiers) make the pattern invalid here as well, and RE2 named groups {@code (?P<name>...)} are accepted.
+ * RE2 evaluates in linear time while {@link Pattern} backtracks, so every evaluation runs with a step budget
+ * proportional to the input length and gives up instead of stalling the request thread.
+ * <p>
+ * Once full, the cache evicts the least recently used pattern. Lookups take a short lock; compilation runs
+ * outside of it.
+ */
+@Slf4j
+public final class RegexCache {
+
+    private static final int DEFAULT_MAX_ENTRIES = 1024;
+    private static final long BASE_STEP_BUDGET = 10_000;
+    private static final long STEPS_PER_CHAR = 256;
+    private static final int MAX_REPEAT = 1000;
+    private static final RegexCache SHARED = new RegexCache(DEFAULT_MAX_ENTRIES);
+
+    private final Map<String, CompiledRegex> cache;
+
+    public RegexCache(int maxEntries) {
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompiledRegex> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public static RegexCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Compiled form of a regex, or the reason why Envoy would reject it.
+     */
+    public record CompiledRegex(String source, Pattern pattern, String error) {
+
+        public boolean isValid() {
+            return pattern != null;
+        }
+    }
+
+    /**
+     * Compiled form of {@code regex}. An invalid pattern is logged once, when its entry is built.
+     */
+    public CompiledRegex compile(String regex) {
+        CompiledRegex compiled;
+        synchronized (cache) {
+            compiled = cache.get(regex);
+        }
+        if (compiled == null) {
+            compiled = doCompile(regex);
+            CompiledRegex previous;
+            synchronized (cache) {
+                previous = cache.putIfAbsent(regex, compiled);
+            }
+            if (previous != null) {
+                return previous;
+            }
+            if (!compiled.isValid()) {
+                log.warn("Ignoring invalid regex {}: {}", regex, compiled.error());
+            }
+        }
+        return compiled;
+    }
+
+    /**
+     * Full match of {@code input} against {@code regex}, as Envoy evaluates it. Invalid patterns and
+     * evaluations that exceed the step budget never match.
+     */
+    public boolean matches(String regex, CharSequence input) {
+        CompiledRegex compiled = compile(regex);
+        if (!compiled.isValid()) {
+            return false;
+        }
+        long budget = BASE_STEP_BUDGET + STEPS_PER_CHAR * input.length();
+        try {
+            return compiled.pattern().matcher(new BudgetedCharSequence(input, new long[] { budget })).matches();
+        } catch (BudgetExceededException e) {
+            log.warn("Regex {} exceeded its evaluation budget on input of length {}", regex, input.length());
+            return false;
+        }
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private static CompiledRegex doCompile(String regex) {
+        if (regex == null) {
+            return new CompiledRegex(null, null, "regex is missing");
+        }
+        Translation translation = translate(regex);
+        if (translation.error() != null) {
+            return new CompiledRegex(regex, null, translation.error());
+        }
+        try {
+            return new CompiledRegex(regex, Pattern.compile(translation.pattern()), null);
+        } catch (PatternSyntaxException e) {
+            return new CompiledRegex(regex, null, e.getDescription());
+        }
+    }
+
+    /**
+     * Returns the first construct RE2 does not support, or {@code null} when the syntax is acceptable.
+     */
+    static String validateRe2(String regex) {
+        return translate(regex).error();
+    }
+
+    /**
+     * RE2 pattern rewritten into {@link Pattern} syntax, or the first construct RE2 does not support.
+     */
+    private record Translation(String pattern, String error) {
+
+        static Translation invalid(String error) {
+            return new Translation(null, error);
+        }
+    }
+
+    /**
+     * Scans {@code regex} token by token, rejecting constructs RE2 does not support and rewriting named groups
+     * {@code (?P<name>...)} to {@code (?<name>...)}. Escaped characters and character classes are copied as they are.
+     */
+    private static Translation translate(String regex) {
+        StringBuilder pattern = new StringBuilder(regex.length());
+        boolean inClass = false;
+        boolean afterQuantifier = false;
+        for (int i = 0; i < regex.length(); i++) {
+            int start = i;
+            char c = regex.charAt(i);
+            boolean quantifier = false;
+            if (c == '\\') {
+                if (i + 1 >= regex.length()) {
+                    return Translation.invalid("trailing backslash");
+                }
+                char next = regex.charAt(++i);
+                if (!inClass && next >= '1' && next <= '9') {
+                    return Translation.invalid("backreference \\" + next + " is not supported");
+                }
+                if (!inClass && next == 'k') {
+                    return Translation.invalid("named backreference is not supported");
+                }
+                if (next == 'G' || next == 'Z') {
+                    return Translation.invalid("\\" + next + " is not supported");
+                }
+            } else if (inClass) {
+                if (c == ']') {
+                    inClass = false;
+                }
+            } else if (c == '[') {
+                inClass = true;
+                // a leading ']' or '^]' is a literal inside the class
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == '^') {
+                    i++;
+                }
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == ']') {
+                    i++;
+                }
+            } else if (c == '(' && regex.startsWith("(?", i)) {
+                String rest = regex.substring(i + 2);
+                if (rest.startsWith("=") || rest.startsWith("!") || rest.startsWith("<=") || rest.startsWith("<!")) {
+                    return Translation.invalid("lookaround is not supported");
+                }
+                if (rest.startsWith(">")) {
+                    return Translation.invalid("atomic group is not supported");
+                }
+                if (rest.startsWith("(")) {
+                    return Translation.invalid("conditional group is not supported");
+                }
+                if (rest.startsWith("P<")) {
+                    pattern.append("(?");
+                    i += 3;
+                    start = i;
+                }
+            } else if (c == '*' || c == '+' || c == '?') {
+                if (afterQuantifier && c == '+') {
+                    return Translation.invalid("possessive quantifier is not supported");
+                }
+                quantifier = !afterQuantifier;
+            } else if (c == '{') {
+                int end = regex.indexOf('}', i);
+                if (end > 0 && regex.substring(i + 1, end).matches("\\d+(,\\d*)?")) {
+                    for (String bound : regex.substring(i + 1, end).split(",")) {
+                        if (!bound.isEmpty() && (bound.length() > 4 || Integer.parseInt(bound) > MAX_REPEAT)) {
+                            return Translation.invalid("repeat count exceeds " + MAX_REPEAT);
+                        }
+                    }
+                    i = end;
+                    quantifier = true;
+                }
+            }
+            afterQuantifier = quantifier;
+            pattern.append(regex, start, i + 1);
+        }
+        return inClass ? Translation.invalid("missing closing ]") : new Translation(pattern.toString(), null);
+    }
+
+    /**
+     * Counts character reads of the matcher, which grow with backtracking, and aborts the evaluation
+     * once the shared budget is spent.
+     */
+    private record BudgetedCharSequence(CharSequence delegate, long[] budget) implements CharSequence {
+
+        @Override
+        public int length() {
+            return delegate.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (--budget[0] < 0) {
+                throw new BudgetExceededException();
+            }
+            return delegate.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new BudgetedCharSequence(delegate.subSequence(start, end), budget);
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+    }
+
+    private static final class BudgetExceededException extends RuntimeException {
+
+        BudgetExceededException() {
+            super(null, null, false, false);
+        }
+    }
+}
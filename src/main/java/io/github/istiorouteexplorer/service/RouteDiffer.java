@@ -0,0 +1,156 @@
+package io.github.istiorouteexplorer.service;
+
+import io.github.istiorouteexplorer.model.Route;
+import io.github.istiorouteexplorer.model.RouteLink;
+import io.github.istiorouteexplorer.model.RouteNode;
+import io.github.istiorouteexplorer.model.diff.ChangeType;
+import io.github.istiorouteexplorer.model.diff.LinkChange;
+import io.github.istiorouteexplorer.model.diff.NodeChange;
+import io.github.istiorouteexplorer.model.diff.RouteChange;
+import io.github.istiorouteexplorer.model.diff.RouteDiffResponse;
+
+import java.util.*;
+
+/**
+ * Structural diff of two route snapshots. Routes whose content hashes match are skipped without being
+ * inspected, so the cost is proportional to the number of changed routes.
+ */
+public final class RouteDiffer {
+
+    private RouteDiffer() {
+    }
+
+    public static RouteDiffResponse diff(String namespace, RouteSnapshot from, RouteSnapshot to) {
+        List<RouteChange> changes = new ArrayList<>();
+        int unchanged = 0;
+        if (from.getHash() != to.getHash()) {
+            for (Map.Entry<String, Long> entry : to.getRouteHashes().entrySet()) {
+                String host = entry.getKey();
+                Long previousHash = from.getRouteHashes().get(host);
+                if (entry.getValue().equals(previousHash)) {
+                    unchanged++;
+                } else {
+                    changes.add(diff(host, from.getRoutesByHost().get(host), to.getRoutesByHost().get(host)));
+                }
+            }
+            for (String host : from.getRouteHashes().keySet()) {
+                if (!to.getRouteHashes().containsKey(host)) {
+                    changes.add(diff(host, from.getRoutesByHost().get(host), null));
+                }
+            }
+        } else {
+            unchanged = to.getRouteHashes().size();
+        }
+        changes.sort(Comparator.comparing(RouteChange::destinationHost));
+        return new RouteDiffResponse(namespace, from.getVersion(), to.getVersion(),
+                from.getGeneratedAt(), to.getGeneratedAt(), unchanged, changes);
+    }
+
+    static RouteChange diff(String host, Route before, Route after) {
+        ChangeType type = before == null ? ChangeType.ADDED : after == null ? ChangeType.REMOVED : ChangeType.MODIFIED;
+        Map<String, RouteNode> nodesBefore = before == null ? Map.of() : before.getNodes();
+        Map<String, RouteNode> nodesAfter = after == null ? Map.of() : after.getNodes();
+        List<RouteLink> linksBefore = before == null ? List.of() : before.getLinks();
+        List<RouteLink> linksAfter = after == null ? List.of() : after.getLinks();
+        return new RouteChange(
+                host,
+                type,
+                before == null ? null : before.getDestinationPorts(),
+                after == null ? null : after.getDestinationPorts(),
+                diffNodes(nodesBefore, nodesAfter),
+                diffLinks(linksBefore, linksAfter));
+    }
+
+    private static List<NodeChange> diffNodes(Map<String, RouteNode> before, Map<String, RouteNode> after) {
+        List<NodeChange> changes = new ArrayList<>();
+        after.forEach((id, node) -> {
+            RouteNode previous = before.get(id);
+            if (previous == null) {
+                changes.add(new NodeChange(id, ChangeType.ADDED, List.of(), null, node));
+            } else if (RouteHasher.hash(previous) != RouteHasher.hash(node)) {
+                changes.add(new NodeChange(id, ChangeType.MODIFIED, changedFields(previous, node), previous, node));
+            }
+        });
+        before.forEach((id, node) -> {
+            if (!after.containsKey(id)) {
+                changes.add(new NodeChange(id, ChangeType.REMOVED, List.of(), node, null));
+            }
+        });
+        changes.sort(Comparator.comparing(NodeChange::id));
+        return changes;
+    }
+
+    private static List<String> changedFields(RouteNode before, RouteNode after) {
+        List<String> fields = new ArrayList<>();
+        if (!Objects.equals(before.getName(), after.getName())) {
+            fields.add("name");
+        }
+        if (before.getType() != after.getType()) {
+            fields.add("type");
+        }
+        if (!Objects.equals(before.getMetadata(), after.getMetadata())) {
+            fields.add("metadata");
+        }
+        if (!Objects.equals(before.getTrafficPolicy(), after.getTrafficPolicy())) {
+            fields.add("trafficPolicy");
+        }
+        if (!Objects.equals(before.getWorkloadSelector(), after.getWorkloadSelector())) {
+            fields.add("workloadSelector");
+        }
+        if (!Objects.equals(before.getComments(), after.getComments())) {
+            fields.add("comments");
+        }
+        return fields;
+    }
+
+    /**
+     * Links are compared as multisets of their content hashes. A removed and an added link between the same
+     * nodes with the same protocol and port are paired into one modification of their match conditions.
+     * Added and modified links are reported in the order of the new route, removed ones in the order of the old.
+     */
+    private static List<LinkChange> diffLinks(List<RouteLink> linksBefore, List<RouteLink> after) {
+        List<RouteLink> before = new ArrayList<>(linksBefore);
+        Map<Long, Deque<Integer>> remaining = new HashMap<>();
+        for (int i = 0; i < before.size(); i++) {
+            remaining.computeIfAbsent(RouteHasher.hash(before.get(i)), h -> new ArrayDeque<>()).add(i);
+        }
+        List<RouteLink> added = new ArrayList<>();
+        for (RouteLink link : after) {
+            Deque<Integer> same = remaining.get(RouteHasher.hash(link));
+            if (same != null && !same.isEmpty()) {
+                same.poll();
+            } else {
+                added.add(link);
+            }
+        }
+        int[] unmatched = remaining.values().stream().flatMap(Deque::stream).mapToInt(Integer::intValue).sorted().toArray();
+        Map<LinkKey, Deque<RouteLink>> removedByKey = new LinkedHashMap<>();
+        for (int index : unmatched) {
+            RouteLink link = before.get(index);
+            removedByKey.computeIfAbsent(LinkKey.of(link), k -> new ArrayDeque<>()).add(link);
+        }
+
+        List<LinkChange> changes = new ArrayList<>();
+        for (RouteLink link : added) {
+            Deque<RouteLink> removed = removedByKey.get(LinkKey.of(link));
+            if (removed != null && !removed.isEmpty()) {
+                changes.add(new LinkChange(ChangeType.MODIFIED, removed.poll(), link));
+            } else {
+                changes.add(new LinkChange(ChangeType.ADDED, null, link));
+            }
+        }
+        for (int index : unmatched) {
+            RouteLink link = before.get(index);
+            if (removedByKey.get(LinkKey.of(link)).remove(link)) {
+                changes.add(new LinkChange(ChangeType.REMOVED, link, null));
+            }
+        }
+        return changes;
+    }
+
+    private record LinkKey(String fromId, String toId, String protocol, Long port) {
+        static LinkKey of(RouteLink link) {
+            return new LinkKey(link.getFromId(), link.getToId(), link.getProtocol(), link.getPort());
+        }
+    }
+}
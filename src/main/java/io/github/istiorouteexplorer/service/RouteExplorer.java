@@ -3,6 +3,7 @@ package io.github.istiorouteexplorer.service;
 import io.github.istiorouteexplorer.model.*;
 import io.github.istiorouteexplorer.model.istio.*;
 import io.github.istiorouteexplorer.model.kubernetes.*;
+import io.github.istiorouteexplorer.telemetry.RouteBuildEvent;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.*;
@@ -16,9 +17,17 @@ public class RouteExplorer {
     private final ResourceCollection resources;
     private final Map<String, ServiceEntryDto> serviceEntriesByHost;
 //    private final List<RouteNode> meshNodes;
-    private final Map<String, List<RouteNode>> gatewaysWithNodes;
+    private final Map<String, List<DeploymentDto>> gatewaysWithDeployments;
+    // canonical nodes of the current build; hosts resolved before the first build start the registry it uses
+    private RouteNodeRegistry registry;
+    private boolean registryBuilt;
+    // destination host -> canonical node, resolved once per build
+    private Map<String, RouteNode> nodesByHost;
+    private final EnumMap<BuildPhase, Long> phaseNanos = new EnumMap<>(BuildPhase.class);
+    private long nodeResolutionNanos;
 
     public RouteExplorer(ResourceCollection resources) {
+        long started = System.nanoTime();
         this.resources = resources;
         this.serviceEntriesByHost = resources.primary().getServiceEntries().stream()
                 .flatMap(se -> se.getSpec().getHosts().stream()
@@ -29,15 +38,33 @@ public class RouteExplorer {
                         (se1, se2) -> se1
                 ));
 //        this.meshNodes = findMeshNodes();
-        this.gatewaysWithNodes = resources.primary().getGateways().stream()
+        this.gatewaysWithDeployments = resources.primary().getGateways().stream()
                 .collect(Collectors.toMap(
                         gw -> gw.getMetadata().getName(),
-                        this::findNodeLinkedToGateway
+                        this::findDeploymentsLinkedToGateway
                 ));
+        phaseNanos.put(BuildPhase.INDEXING, System.nanoTime() - started);
+    }
+
+    /**
+     * Time spent in each phase by the constructor and the last {@link #buildRoutes()} call. Link creation
+     * excludes the node resolution it triggers.
+     */
+    public Map<BuildPhase, Long> getPhaseNanos() {
+        return Collections.unmodifiableMap(phaseNanos);
     }
 
     public List<Route> buildRoutes() {
         // all nodes inside istio service mesh (also deployments, which didn't run pods)
+        if (registry == null || registryBuilt) {
+            registry = new RouteNodeRegistry();
+        }
+        registryBuilt = true;
+        nodesByHost = new HashMap<>();
+        nodeResolutionNanos = 0;
+        RouteBuildEvent event = new RouteBuildEvent();
+        event.begin();
+        long started = System.nanoTime();
 
         Map<String, Route> routeMap = new HashMap<>();
         for (VirtualServiceDto vs : resources.primary().getVirtualServices()) {
@@ -59,35 +86,18 @@ public class RouteExplorer {
             }
         }
 
-        // collect all nodes by hosts
-        Map<String, List<RouteNode>> nodeMap = routeMap.values().stream()
-                .flatMap(route -> route.getNodes().values().stream())
-                .collect(Collectors.toMap(
-                        node -> {
-                            if (node.getId().contains(":")) {
-                                return node.getId().substring(node.getId().indexOf(":") + 1);
-                            }
-                            return node.getId();
-                        },
-                        node -> {
-                            List<RouteNode> result = new ArrayList<>();
-                            result.add(node);
-                            return result;
-                        },
-                        (nodeList1, nodeList2) -> {
-                            nodeList1.addAll(nodeList2);
-                            return nodeList1;
-                        }
-                ));
+        long routesBuilt = System.nanoTime();
+        phaseNanos.put(BuildPhase.NODE_RESOLUTION, nodeResolutionNanos);
+        phaseNanos.put(BuildPhase.LINK_CREATION, routesBuilt - started - nodeResolutionNanos);
 
-        // add destination traffic policy and workload selector to nodes
+        // add destination traffic policy and workload selector to nodes, each canonical node is visited once
         resources.primary().getDestinationRules().forEach(dr -> {
             String host = normalizeHost(dr.getSpec().getHost(), resources.primary().getNamespace());
-            List<RouteNode> nodes = nodeMap.get(host);
+            List<RouteNode> nodes = registry.byHostKey(host);
             if (nodes == null) {
                 // if not found, try to find by host without cluster.local
                 host = hostOnly(host);
-                nodes = nodeMap.get(host);
+                nodes = registry.byHostKey(host);
             }
             if (nodes != null) {
                 nodes.stream()
@@ -102,8 +112,22 @@ public class RouteExplorer {
                 });
             }
         });
+        phaseNanos.put(BuildPhase.DESTINATION_RULES, System.nanoTime() - routesBuilt);
 
-        return routeMap.values().stream().toList();
+        List<Route> routes = routeMap.values().stream().toList();
+        event.end();
+        if (event.shouldCommit()) {
+            event.namespace = resources.primary().getNamespace();
+            event.routes = routes.size();
+            event.nodes = registry.nodes().size();
+            event.links = routes.stream().mapToInt(route -> route.getLinks().size()).sum();
+            event.indexing = phaseNanos.get(BuildPhase.INDEXING);
+            event.nodeResolution = phaseNanos.get(BuildPhase.NODE_RESOLUTION);
+            event.linkCreation = phaseNanos.get(BuildPhase.LINK_CREATION);
+            event.destinationRules = phaseNanos.get(BuildPhase.DESTINATION_RULES);
+            event.commit();
+        }
+        return routes;
     }
 
     private void processRoutes(IstioRoute routeDto, VirtualServiceDto virtualService, Map<String, Route> routes) {
@@ -130,7 +154,7 @@ public class RouteExplorer {
                 // if gateway is mesh, add all nodes from mesh
 //                sourceNodes.addAll(meshNodes);
                 // use one mesh mode for all istio service mesh
-                RouteNode sourceNode = new RouteNode("mesh","mesh", RouteNode.Type.MESH, new ObjectMetadataDto());
+                RouteNode sourceNode = registry.mesh();
                 // create routes for all destinations and for all source nodes
                 destinations.forEach(destination -> {
                     Route route = routes.computeIfAbsent(destination, v -> new Route(destination, matchPorts));
@@ -138,7 +162,7 @@ public class RouteExplorer {
                     sourceIds.add(sourceNode.getId());
                 });
             } else {
-                gatewaysWithNodes.get(gateway).forEach(node ->
+                gatewaysWithDeployments.get(gateway).stream().map(this::deploymentNode).forEach(node ->
                     destinations.forEach(destination -> {
                         Route route = routes.computeIfAbsent(destination, v -> new Route(destination, matchPorts));
                         route.addNode(node);
@@ -151,11 +175,7 @@ public class RouteExplorer {
             routeDto.getRoute().forEach(r -> {
                 // find destination node from virtual service http route
                 String host = normalizeHost(r.getHost(), resources.primary().getNamespace());
-                RouteNode destinationNode = findNodeByHost(host);
-                if (destinationNode == null) {
-                    // if not found node, create pseudo node
-                    destinationNode = new RouteNode(ResourcePrefix.UNKNOWN.getPrefix() + host, host, RouteNode.Type.UNKNOWN, new ObjectMetadataDto());
-                }
+                RouteNode destinationNode = nodesByHost.computeIfAbsent(host, this::resolveNodeByHost);
                 destinationNodes.add(destinationNode);
                 destinations.forEach(destination -> {
                     Route route = routes.get(destination);
@@ -175,6 +195,19 @@ public class RouteExplorer {
         });
     }
 
+    /**
+     * Node of the FQDN {@code host} among the resources of the primary namespace, or {@code null} when nothing
+     * there serves it. Used to resolve hosts that routes of other namespaces and clusters point at. The node is
+     * the canonical one of the last {@link #buildRoutes()}, or of the next one when no build ran yet, so it is
+     * the instance the built routes share.
+     */
+    RouteNode resolveHost(String host) {
+        if (registry == null) {
+            registry = new RouteNodeRegistry();
+        }
+        return findNodeByHost(host);
+    }
+
     private String protocol(IstioRoute route) {
         return switch (route) {
             case HttpRouteDto ignored -> "HTTP";
@@ -184,25 +217,41 @@ public class RouteExplorer {
         };
     }
 
-    private List<RouteNode> findNodeLinkedToGateway(GatewayDto gateway) {
+    private List<DeploymentDto> findDeploymentsLinkedToGateway(GatewayDto gateway) {
         // create nodes by deployments to combine all pods
         return resources.primary().getDeployments().stream()
                     .filter(deployment -> matchLabelsToSelector(deployment.getMetadata().getLabels(), gateway.getSpec().getSelector()))
-                .map(deployment -> new RouteNode(
-                                ResourcePrefix.DEPLOYMENT.getPrefix() + deployment.getMetadata().getName(),
-                                deployment.getMetadata().getName(),
-                                RouteNode.Type.DEPLOYMENT,
-                                deployment.getMetadata()
-                        )
-                )
                 .toList();
     }
 
+    private RouteNode deploymentNode(DeploymentDto deployment) {
+        String id = ResourcePrefix.DEPLOYMENT.getPrefix() + deployment.getMetadata().getName();
+        return registry.canonical(id, () -> new RouteNode(
+                id,
+                deployment.getMetadata().getName(),
+                RouteNode.Type.DEPLOYMENT,
+                deployment.getMetadata()
+        ));
+    }
+
+    private RouteNode resolveNodeByHost(String host) {
+        long started = System.nanoTime();
+        RouteNode node = findNodeByHost(host);
+        if (node == null) {
+            // if not found node, create pseudo node
+            String id = ResourcePrefix.UNKNOWN.getPrefix() + host;
+            node = registry.canonical(id, () -> new RouteNode(id, host, RouteNode.Type.UNKNOWN, new ObjectMetadataDto()));
+        }
+        nodeResolutionNanos += System.nanoTime() - started;
+        return node;
+    }
+
     private RouteNode findNodeByHost(String host) {
         // find service entry by host from destination
         ServiceEntryDto serviceEntryDto = serviceEntriesByHost.get(host);
         if (serviceEntryDto != null) {
-            return new RouteNode(ResourcePrefix.SERVICE_ENTRY.getPrefix() + host, serviceEntryDto.getMetadata().getName(), RouteNode.Type.SERVICE_ENTRY, serviceEntryDto.getMetadata());
+            String id = ResourcePrefix.SERVICE_ENTRY.getPrefix() + host;
+            return registry.canonical(id, () -> new RouteNode(id, serviceEntryDto.getMetadata().getName(), RouteNode.Type.SERVICE_ENTRY, serviceEntryDto.getMetadata()));
         } else {
             // if not found service entry, it might be a service
             ServiceDto service = findServiceByHost(host);
@@ -213,7 +262,8 @@ public class RouteExplorer {
             // trying to find deployment
             DeploymentDto deployment = findDeploymentByService(service);
             if (deployment != null) {
-                return new RouteNode(ResourcePrefix.DEPLOYMENT.getPrefix() + host, deployment.getMetadata().getName(), RouteNode.Type.DEPLOYMENT, deployment.getMetadata());
+                String id = ResourcePrefix.DEPLOYMENT.getPrefix() + host;
+                return registry.canonical(id, () -> new RouteNode(id, deployment.getMetadata().getName(), RouteNode.Type.DEPLOYMENT, deployment.getMetadata()));
             } else {
                 log.warn("Not found resource for Service: {}", service.getMetadata().getName());
                 return null;
@@ -331,7 +381,7 @@ public class RouteExplorer {
         } else if (matchDto.getPrefix() != null) {
             return serviceEntry.getSpec().getHosts().stream().allMatch(host -> host.startsWith(matchDto.getPrefix()));
         } else if (matchDto.getRegex() != null) {
-            return serviceEntry.getSpec().getHosts().stream().allMatch(host -> host.matches(matchDto.getRegex()));
+            return serviceEntry.getSpec().getHosts().stream().allMatch(host -> RegexCache.shared().matches(matchDto.getRegex(), host));
         } else {
             return false;
         }
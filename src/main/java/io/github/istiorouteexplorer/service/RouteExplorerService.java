@@ -1,49 +1,619 @@
 package io.github.istiorouteexplorer.service;
 
 import io.github.istiorouteexplorer.config.AppProperties;
-import io.github.istiorouteexplorer.kube.IstioResourceLoader;
+import io.github.istiorouteexplorer.kube.ResourceLoader;
 import io.github.istiorouteexplorer.model.ResourceCollection;
+import io.github.istiorouteexplorer.model.Route;
 import io.github.istiorouteexplorer.model.RoutesResponse;
-import lombok.AllArgsConstructor;
+import io.github.istiorouteexplorer.model.analysis.MatchAnalysisResponse;
+import io.github.istiorouteexplorer.model.analysis.MatchFinding;
+import io.github.istiorouteexplorer.model.diff.GraphVersion;
+import io.github.istiorouteexplorer.model.diff.RouteDiffResponse;
+import io.github.istiorouteexplorer.model.footprint.FootprintReport;
+import io.github.istiorouteexplorer.model.footprint.NamespaceFootprint;
+import io.github.istiorouteexplorer.model.footprint.SnapshotFootprint;
+import io.github.istiorouteexplorer.model.query.RouteQuery;
+import io.github.istiorouteexplorer.model.search.SearchResponse;
+import io.github.istiorouteexplorer.telemetry.CacheLookupEvent;
+import io.github.istiorouteexplorer.telemetry.RouteExplorerMetrics;
+import io.github.istiorouteexplorer.telemetry.ServerTiming;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.LongFunction;
+import java.util.stream.Stream;
 
+@Slf4j
 @Service
-@AllArgsConstructor
 public class RouteExplorerService {
 
+    private static final int REVALIDATION_THREADS = 4;
+
     private final AppProperties properties;
-    private final IstioResourceLoader loader;
+    private final ResourceLoader loader;
+    private final RouteExplorerMetrics metrics;
+    private final SnapshotStore store;
+    private final HistoryStore historyStore;
+    private final RebuildScheduler rebuilds;
+    private final List<BiConsumer<String, RouteSnapshot>> buildListeners = new CopyOnWriteArrayList<>();
     private final Map<String, CacheEntry> cache = new ConcurrentHashMap<>();
+    private final Map<String, Deque<RouteSnapshot>> history = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, String>> resourceVersions = new ConcurrentHashMap<>();
+    private final Map<String, SearchIndex> searchIndexes = new ConcurrentHashMap<>();
+    private final AtomicLong graphVersions = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final Object evictionLock = new Object();
+    private final Bulkhead loads;
+
+    public RouteExplorerService(AppProperties properties, ResourceLoader loader, RouteExplorerMetrics metrics,
+                                SnapshotStore store, HistoryStore historyStore, RebuildScheduler rebuilds) {
+        this.properties = properties;
+        this.loader = loader;
+        this.metrics = metrics;
+        this.store = store;
+        this.historyStore = historyStore;
+        this.rebuilds = rebuilds;
+        this.loads = new Bulkhead("load", properties.getLoadBulkhead(), metrics);
+    }
 
     public RoutesResponse buildRoutes(String namespace) {
-        String ns = (namespace == null || namespace.isBlank()) ? properties.getNamespace() : namespace;
+        return snapshot(namespace).getResponse();
+    }
+
+    /**
+     * Routes as recorded in the on-disk history at {@code at}; a missing {@code at} means the current routes.
+     */
+    public RoutesResponse buildRoutes(String namespace, Instant at) {
+        return at == null ? buildRoutes(namespace) : stateAt(namespace, at).routes();
+    }
+
+    /**
+     * Routes selected, sorted and paged by {@code query}, answered from the query indexes of the graph. An
+     * empty query returns the same response as {@link #buildRoutes(String, Instant)}.
+     */
+    public RoutesResponse queryRoutes(String namespace, Instant at, RouteQuery query) {
+        if (query == null || query.isEmpty()) {
+            return buildRoutes(namespace, at);
+        }
+        RouteIndex index = at == null
+                ? snapshot(namespace).getIndex()
+                : new RouteIndex(stateAt(namespace, at).routes().getRoutes());
+        return ServerTiming.time("query", () -> index.query(query));
+    }
+
+    /**
+     * Typeahead search over the names, hosts, labels and match values of all resources and routes of the
+     * namespace, answered from its search index. The index is kept up to date by every build; a namespace
+     * without one is built first.
+     */
+    public SearchResponse search(String namespace, String query, int limit) {
+        String ns = resolveNamespace(namespace);
+        SearchIndex index = searchIndexes.get(ns);
+        if (index == null) {
+            snapshot(ns);
+            index = searchIndexes.computeIfAbsent(ns, key -> new SearchIndex());
+        }
+        long start = System.nanoTime();
+        SearchIndex searched = index;
+        SearchIndex.Result result = ServerTiming.time("search", () -> searched.search(query, limit));
+        metrics.recordSearch(ns, System.nanoTime() - start);
+        return new SearchResponse(ns, query, result.total(), result.hits());
+    }
+
+    /**
+     * Namespace-wide graph merged from the routes of {@link #buildRoutes(String)}. The graph shares the
+     * cache entry of the routes, so it is built at most once per graph version.
+     */
+    public MeshGraph graph(String namespace) {
+        return snapshot(namespace).getGraph();
+    }
+
+    /**
+     * Shadowed, unreachable and overlapping http routes found when the current graph was built.
+     */
+    public MatchAnalysisResponse analyzeMatches(String namespace) {
+        RouteSnapshot snapshot = snapshot(namespace);
+        return new MatchAnalysisResponse(resolveNamespace(namespace), snapshot.getVersion(), snapshot.getMatchFindings());
+    }
+
+    /**
+     * Match findings of the resources recorded in the on-disk history at {@code at}, or of the current graph
+     * when {@code at} is missing.
+     */
+    public MatchAnalysisResponse analyzeMatches(String namespace, Instant at) {
+        if (at == null) {
+            return analyzeMatches(namespace);
+        }
+        HistoricalState state = stateAt(namespace, at);
+        return new MatchAnalysisResponse(state.namespace(), state.version(),
+                analyze(state.namespace(), state.resources()));
+    }
+
+    /**
+     * Current graph of the namespace, served from the cache when it holds one.
+     */
+    public RouteSnapshot currentSnapshot(String namespace) {
+        return snapshot(namespace);
+    }
+
+    /**
+     * Rebuilds the graph of the namespace from freshly loaded resources, bypassing and then renewing the
+     * cache; used when a watched resource changed.
+     */
+    public RouteSnapshot refresh(String namespace) {
+        String ns = resolveNamespace(namespace);
+        Instant requested = Instant.now();
+        cache.remove(ns);
+        return snapshot(ns, requested);
+    }
+
+    /**
+     * Schedules a {@link #refresh(String)} of the namespace through the {@link RebuildScheduler}, which
+     * coalesces requests arriving in bursts.
+     */
+    public void requestRebuild(String namespace, RebuildScheduler.Priority priority) {
+        String ns = resolveNamespace(namespace);
+        rebuilds.request(ns, priority, () -> refresh(ns));
+    }
+
+    /**
+     * Drops a pending rebuild of the namespace, including retries of a failed one.
+     */
+    public void cancelRebuild(String namespace) {
+        rebuilds.cancel(resolveNamespace(namespace));
+    }
+
+    /**
+     * Registers a listener called with every graph built from freshly loaded resources, on the building thread.
+     */
+    public void addBuildListener(BiConsumer<String, RouteSnapshot> listener) {
+        buildListeners.add(listener);
+    }
+
+    /**
+     * resourceVersions per kind that {@code namespace} was last loaded at, as primary or extra namespace;
+     * empty when it has not been loaded.
+     */
+    public Map<String, String> resourceVersions(String namespace) {
+        return resourceVersions.getOrDefault(namespace, Map.of());
+    }
+
+    /**
+     * Recent graph versions of the namespace, oldest first.
+     */
+    public List<GraphVersion> versions(String namespace) {
+        Deque<RouteSnapshot> snapshots = history.get(resolveNamespace(namespace));
+        if (snapshots == null) {
+            return List.of();
+        }
+        synchronized (snapshots) {
+            return snapshots.stream().map(RouteSnapshot::describe).toList();
+        }
+    }
+
+    /**
+     * Diff between two retained graph versions. A missing {@code fromVersion} means the version preceding
+     * {@code toVersion}; a missing {@code toVersion} means the current graph.
+     */
+    public RouteDiffResponse diff(String namespace, Long fromVersion, Long toVersion) {
+        String ns = resolveNamespace(namespace);
+        RouteSnapshot to = toVersion == null ? snapshot(ns) : retained(ns, toVersion);
+        RouteSnapshot from = fromVersion == null ? previous(ns, to) : retained(ns, fromVersion);
+        return RouteDiffer.diff(ns, from, to);
+    }
+
+    /**
+     * Estimated heap retained by cached and historical graphs, per namespace and graph version.
+     */
+    public FootprintReport footprint() {
+        Instant now = Instant.now();
+        List<NamespaceFootprint> namespaces = new ArrayList<>();
+        history.forEach((namespace, snapshots) -> {
+            CacheEntry entry = cache.get(namespace);
+            RouteSnapshot cached = entry != null && !entry.expiresAt().isBefore(now) ? entry.snapshot() : null;
+            List<SnapshotFootprint> retained = new ArrayList<>();
+            Map<String, Long> bytesByKind = new TreeMap<>();
+            synchronized (snapshots) {
+                for (RouteSnapshot snapshot : snapshots) {
+                    Map<String, Long> bytes = snapshot.footprint();
+                    bytes.forEach((kind, size) -> bytesByKind.merge(kind, size, Long::sum));
+                    retained.add(new SnapshotFootprint(snapshot.getVersion(), snapshot.getGeneratedAt(),
+                            Duration.between(snapshot.getGeneratedAt(), now).toSeconds(),
+                            snapshot.getRoutesByHost().size(), snapshot == cached,
+                            snapshot.estimatedBytes(), bytes));
+                }
+            }
+            long total = retained.stream().mapToLong(SnapshotFootprint::retainedBytes).sum();
+            namespaces.add(new NamespaceFootprint(namespace, total, bytesByKind,
+                    cached != null ? entry.expiresAt() : null, retained));
+        });
+        namespaces.sort(Comparator.comparingLong(NamespaceFootprint::retainedBytes).reversed());
+        return new FootprintReport(namespaces.stream().mapToLong(NamespaceFootprint::retainedBytes).sum(),
+                maxRetainedBytes(), Math.max(0, properties.getMaxRetainedNamespaces()), evictions.get(), namespaces);
+    }
+
+    /**
+     * Serves persisted snapshots right after startup: each one becomes the cached graph of its namespace and
+     * is then revalidated in the background against the resourceVersions it was loaded at. A current snapshot
+     * gets a fresh cache TTL; a stale one is dropped and rebuilt.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmStart() {
+        List<PersistedSnapshot> persisted = store.loadAll();
+        if (persisted.isEmpty()) {
+            return;
+        }
+        ExecutorService revalidation = Executors.newFixedThreadPool(REVALIDATION_THREADS,
+                Thread.ofPlatform().daemon().name("snapshot-revalidation-", 0).factory());
+        for (PersistedSnapshot snapshot : persisted) {
+            RouteSnapshot restored = restore(snapshot);
+            revalidation.execute(() -> revalidate(snapshot, restored));
+        }
+        revalidation.shutdown();
+        log.info("Restored {} persisted namespace snapshots", persisted.size());
+    }
+
+    private RouteSnapshot restore(PersistedSnapshot persisted) {
+        String ns = persisted.namespace();
+        List<MatchFinding> findings = analyze(ns, persisted.resources());
+        RouteSnapshot snapshot = record(ns, version -> new RouteSnapshot(version, persisted.builtAt(),
+                persisted.routes(), findings));
+        rememberVersions(ns, persisted.resources());
+        updateSearchIndex(ns, snapshot.getVersion(), persisted.resources(), persisted.routes().getRoutes());
+        if (isPositive(properties.getCacheTtl())) {
+            cache.put(ns, new CacheEntry(snapshot, Instant.now().plus(properties.getCacheTtl()), Instant.MIN));
+        }
+        enforceLimits(ns, snapshot);
+        return snapshot;
+    }
+
+    private void revalidate(PersistedSnapshot persisted, RouteSnapshot restored) {
+        String ns = persisted.namespace();
+        ResourceCollection resources = persisted.resources();
+        boolean current = loader.unchangedSince(ns, resources.primary().getResourceVersions())
+                && (partitioned(ns, resources) || resources.extras().entrySet().stream()
+                .allMatch(extra -> loader.unchangedSince(extra.getKey(), extra.getValue().getResourceVersions())));
+        if (current) {
+            if (isPositive(properties.getCacheTtl())) {
+                cache.computeIfPresent(ns, (key, entry) -> entry.snapshot() == restored
+                        ? new CacheEntry(restored, Instant.now().plus(properties.getCacheTtl()), entry.loadStarted())
+                        : entry);
+            }
+            log.debug("Persisted snapshot of namespace {} is current", ns);
+            return;
+        }
+        log.info("Persisted snapshot of namespace {} is stale, rebuilding", ns);
+        cache.computeIfPresent(ns, (key, entry) -> entry.snapshot() == restored ? null : entry);
+        requestRebuild(ns, RebuildScheduler.Priority.BACKGROUND);
+    }
+
+    private HistoricalState stateAt(String namespace, Instant at) {
+        String ns = resolveNamespace(namespace);
+        if (!historyStore.isEnabled()) {
+            throw new InvalidRequestException("Route history is disabled, set app.history-dir to record it");
+        }
+        try {
+            return ServerTiming.time("history", () -> {
+                try {
+                    return historyStore.stateAt(ns, at);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).orElseThrow(() -> new InvalidRequestException("No history of namespace " + ns + " at " + at));
+        } catch (UncheckedIOException e) {
+            throw new RouteExplorerException("Failed to read history of namespace " + ns, e.getCause());
+        }
+    }
+
+    /**
+     * The namespace a request names, or the configured one when it names none.
+     *
+     * @throws InvalidRequestException when the name is not a valid namespace
+     */
+    public String resolveNamespace(String namespace) {
+        return NamespaceNames.requireValid((namespace == null || namespace.isBlank()) ? properties.getNamespace() : namespace);
+    }
+
+    private RouteSnapshot snapshot(String namespace) {
+        return snapshot(namespace, Instant.MIN);
+    }
+
+    /**
+     * Cached or freshly loaded graph of the namespace. A request that waited for a load slot takes the graph
+     * another request loaded meanwhile, provided that load started no earlier than {@code notLoadedBefore}.
+     */
+    private RouteSnapshot snapshot(String namespace, Instant notLoadedBefore) {
+        String ns = resolveNamespace(namespace);
         Duration ttl = properties.getCacheTtl();
         if (isPositive(ttl)) {
-            RoutesResponse cached = lookupCache(ns);
+            CacheLookupEvent event = new CacheLookupEvent();
+            event.begin();
+            RouteSnapshot cached = lookupCache(ns);
+            event.end();
+            metrics.recordCacheLookup(ns, cached != null);
+            ServerTiming.describe("cache", cached != null ? "hit" : "miss");
+            if (event.shouldCommit()) {
+                event.namespace = ns;
+                event.hit = cached != null;
+                event.graphVersion = cached != null ? cached.getVersion() : 0;
+                event.commit();
+            }
             if (cached != null) {
                 return cached;
             }
         }
+        return loads.call(() -> {
+            RouteSnapshot loaded = loadedSince(ns, notLoadedBefore);
+            return loaded != null ? loaded : load(ns, ttl);
+        });
+    }
+
+    /**
+     * Loads the resources of the namespace and builds, records and caches its graph; runs in a slot of the
+     * load bulkhead.
+     */
+    private RouteSnapshot load(String ns, Duration ttl) {
+        Instant started = Instant.now();
         try {
-            ResourceCollection collection = loader.load(ns, properties.getExtraNamespaces());
-            RouteExplorer routeExplorer = new RouteExplorer(collection);
-            RoutesResponse response = new RoutesResponse(routeExplorer.buildRoutes());
+            boolean cluster = ResourceLoader.ALL_NAMESPACES.equals(ns);
+            ResourceCollection collection = cluster
+                    ? loader.loadCluster()
+                    : loader.load(ns, properties.getExtraNamespaces());
+            rememberVersions(ns, collection);
+            List<Route> routes;
+            Map<BuildPhase, Long> phaseNanos;
+            if (partitioned(ns, collection)) {
+                ClusterRouteBuilder builder = new ClusterRouteBuilder(collection.extras().values(),
+                        cluster ? null : ns, properties.getClusterBuildParallelism());
+                routes = ServerTiming.time("build", builder::buildRoutes);
+                phaseNanos = builder.getPhaseNanos();
+                ServerTiming.add("build-cross-namespace", builder.getLinkingNanos());
+            } else {
+                RouteExplorer routeExplorer = new RouteExplorer(collection);
+                routes = ServerTiming.time("build", routeExplorer::buildRoutes);
+                phaseNanos = routeExplorer.getPhaseNanos();
+            }
+            metrics.recordBuildPhases(ns, phaseNanos);
+            phaseNanos.forEach((phase, nanos) -> ServerTiming.add("build-" + phase.getKey(), nanos));
+            List<MatchFinding> findings = ServerTiming.time("analysis", () -> analyze(ns, collection));
+            RoutesResponse response = new RoutesResponse(routes);
+            RouteSnapshot snapshot = record(ns, version -> new RouteSnapshot(version, Instant.now(), response, findings));
+            updateSearchIndex(ns, snapshot.getVersion(), collection, routes);
+            if (hasResources(collection)) {
+                store.save(new PersistedSnapshot(ns, snapshot.getGeneratedAt(), collection, response));
+            }
+            historyStore.append(ns, Instant.now(), snapshot.getVersion(), collection, response);
             if (isPositive(ttl)) {
-                cache.put(ns, new CacheEntry(response, Instant.now().plus(ttl)));
+                cache.put(ns, new CacheEntry(snapshot, Instant.now().plus(ttl), started));
             }
-            return response;
+            enforceLimits(ns, snapshot);
+            buildListeners.forEach(listener -> listener.accept(ns, snapshot));
+            return snapshot;
         } catch (IOException e) {
             throw new RouteExplorerException("Failed to load resources for namespace " + ns, e);
         }
     }
 
-    private RoutesResponse lookupCache(String namespace) {
+    /**
+     * Whether the load found any object, so namespaces that do not exist leave no snapshot behind.
+     */
+    private static boolean hasResources(ResourceCollection collection) {
+        return Stream.concat(Stream.of(collection.primary()), collection.extras().values().stream())
+                .flatMap(resources -> Stream.of(resources.getVirtualServices(), resources.getDestinationRules(),
+                        resources.getGateways(), resources.getServiceEntries(), resources.getEnvoyFilters(),
+                        resources.getWorkloadEntries(), resources.getServices(), resources.getEndpoints(),
+                        resources.getDeployments(), resources.getReplicaSets(), resources.getPods()))
+                .anyMatch(objects -> objects != null && !objects.isEmpty());
+    }
+
+    /**
+     * Whether the resources are partitioned by namespace and cluster, as loaded for the all-namespaces view or
+     * from a multi-cluster mesh, with an empty primary namespace carrying the resourceVersions of the load.
+     */
+    private static boolean partitioned(String namespace, ResourceCollection collection) {
+        return ResourceLoader.ALL_NAMESPACES.equals(namespace)
+                || collection.extras().values().stream().anyMatch(resources -> resources.getCluster() != null);
+    }
+
+    /**
+     * Match findings of the primary namespace. Partitioned resources are analysed per routed partition, and
+     * each VirtualService is named with its cluster and namespace.
+     */
+    private static List<MatchFinding> analyze(String namespace, ResourceCollection collection) {
+        if (!partitioned(namespace, collection)) {
+            return MatchAnalyzer.analyze(collection.primary());
+        }
+        return collection.extras().values().stream()
+                .filter(resources -> ResourceLoader.ALL_NAMESPACES.equals(namespace)
+                        || namespace.equals(resources.getNamespace()))
+                .map(resources -> Map.entry(resources.getCluster() == null
+                        ? resources.getNamespace()
+                        : resources.getCluster() + "/" + resources.getNamespace(), resources))
+                .sorted(Map.Entry.comparingByKey())
+                .flatMap(partition -> MatchAnalyzer.analyze(partition.getValue()).stream()
+                        .map(finding -> new MatchFinding(finding.type(),
+                                partition.getKey() + "/" + finding.virtualService(), finding.hosts(),
+                                finding.rule(), finding.ruleName(), finding.byRule(), finding.byRuleName(),
+                                finding.detail())))
+                .toList();
+    }
+
+    /**
+     * Records the resourceVersions of a load. Partitions carry none the loader could watch by namespace, so
+     * only the versions of the whole load are kept for partitioned resources.
+     */
+    private void rememberVersions(String namespace, ResourceCollection collection) {
+        if (!partitioned(namespace, collection)) {
+            collection.extras().forEach((extra, resources) -> resourceVersions.put(extra,
+                    Objects.requireNonNullElse(resources.getResourceVersions(), Map.of())));
+        }
+        resourceVersions.put(namespace, Objects.requireNonNullElse(collection.primary().getResourceVersions(), Map.of()));
+    }
+
+    private void updateSearchIndex(String namespace, long version, ResourceCollection collection, List<Route> routes) {
+        int changed = ServerTiming.time("search-index", () -> searchIndexes
+                .computeIfAbsent(namespace, ns -> new SearchIndex())
+                .update(version, SearchIndex.documents(collection, routes)));
+        metrics.recordSearchIndexUpdate(namespace, changed);
+    }
+
+    /**
+     * Appends a freshly built graph to the namespace history. When nothing changed since the latest
+     * retained version that version is reused, so graph versions only advance on real changes.
+     */
+    private RouteSnapshot record(String namespace, LongFunction<RouteSnapshot> snapshotOfVersion) {
+        RouteSnapshot built = snapshotOfVersion.apply(0);
+        Deque<RouteSnapshot> snapshots = history.computeIfAbsent(namespace, ns -> new ArrayDeque<>());
+        synchronized (snapshots) {
+            RouteSnapshot latest = snapshots.peekLast();
+            if (latest != null && latest.getHash() == built.getHash()
+                    && latest.getMatchFindings().equals(built.getMatchFindings())) {
+                return latest;
+            }
+            RouteSnapshot candidate = built.withVersion(graphVersions.incrementAndGet());
+            snapshots.addLast(candidate);
+            while (snapshots.size() > Math.max(1, properties.getGraphHistorySize())) {
+                snapshots.removeFirst();
+            }
+            return candidate;
+        }
+    }
+
+    /**
+     * Evicts retained graphs until the configured limits hold again. Whole namespaces go first, least
+     * recently built first; then the oldest graph versions across all namespaces. The snapshot that was just
+     * served is never evicted.
+     */
+    private void enforceLimits(String namespace, RouteSnapshot current) {
+        synchronized (evictionLock) {
+            int maxNamespaces = properties.getMaxRetainedNamespaces();
+            while (maxNamespaces > 0 && history.size() > maxNamespaces) {
+                String oldest = null;
+                Instant oldestBuild = null;
+                for (Map.Entry<String, Deque<RouteSnapshot>> entry : history.entrySet()) {
+                    Instant built = latestBuild(entry.getValue());
+                    if (!entry.getKey().equals(namespace) && (oldestBuild == null || built.isBefore(oldestBuild))) {
+                        oldest = entry.getKey();
+                        oldestBuild = built;
+                    }
+                }
+                if (oldest == null) {
+                    break;
+                }
+                history.remove(oldest);
+                cache.remove(oldest);
+                searchIndexes.remove(oldest);
+                loader.forget(oldest);
+                evicted(oldest, "namespaces");
+            }
+
+            long maxBytes = maxRetainedBytes();
+            if (maxBytes <= 0) {
+                return;
+            }
+            long retained = 0;
+            List<Map.Entry<String, RouteSnapshot>> candidates = new ArrayList<>();
+            for (Map.Entry<String, Deque<RouteSnapshot>> entry : history.entrySet()) {
+                synchronized (entry.getValue()) {
+                    for (RouteSnapshot snapshot : entry.getValue()) {
+                        retained += snapshot.estimatedBytes();
+                        if (snapshot != current) {
+                            candidates.add(Map.entry(entry.getKey(), snapshot));
+                        }
+                    }
+                }
+            }
+            candidates.sort(Comparator.comparing(candidate -> candidate.getValue().getGeneratedAt()));
+            for (Map.Entry<String, RouteSnapshot> candidate : candidates) {
+                if (retained <= maxBytes) {
+                    break;
+                }
+                RouteSnapshot snapshot = candidate.getValue();
+                Deque<RouteSnapshot> snapshots = history.get(candidate.getKey());
+                if (snapshots == null) {
+                    continue;
+                }
+                synchronized (snapshots) {
+                    if (!snapshots.remove(snapshot)) {
+                        continue;
+                    }
+                    if (snapshots.isEmpty()) {
+                        history.remove(candidate.getKey(), snapshots);
+                        searchIndexes.remove(candidate.getKey());
+                        loader.forget(candidate.getKey());
+                    }
+                }
+                cache.computeIfPresent(candidate.getKey(), (key, entry) -> entry.snapshot() == snapshot ? null : entry);
+                retained -= snapshot.estimatedBytes();
+                evicted(candidate.getKey(), "size");
+            }
+        }
+    }
+
+    private Instant latestBuild(Deque<RouteSnapshot> snapshots) {
+        synchronized (snapshots) {
+            RouteSnapshot latest = snapshots.peekLast();
+            return latest != null ? latest.getGeneratedAt() : Instant.MIN;
+        }
+    }
+
+    private void evicted(String namespace, String reason) {
+        evictions.incrementAndGet();
+        metrics.recordEviction(namespace, reason);
+    }
+
+    private long maxRetainedBytes() {
+        DataSize limit = properties.getMaxRetainedSize();
+        return limit == null ? 0 : Math.max(0, limit.toBytes());
+    }
+
+    private RouteSnapshot retained(String namespace, long version) {
+        Deque<RouteSnapshot> snapshots = history.getOrDefault(namespace, new ArrayDeque<>());
+        synchronized (snapshots) {
+            return snapshots.stream()
+                    .filter(snapshot -> snapshot.getVersion() == version)
+                    .findFirst()
+                    .orElseThrow(() -> new InvalidRequestException(
+                            "Graph version " + version + " is not retained for namespace " + namespace));
+        }
+    }
+
+    private RouteSnapshot previous(String namespace, RouteSnapshot snapshot) {
+        Deque<RouteSnapshot> snapshots = history.getOrDefault(namespace, new ArrayDeque<>());
+        synchronized (snapshots) {
+            RouteSnapshot previous = snapshot;
+            for (RouteSnapshot candidate : snapshots) {
+                if (candidate.getVersion() >= snapshot.getVersion()) {
+                    break;
+                }
+                previous = candidate;
+            }
+            return previous;
+        }
+    }
+
+    private RouteSnapshot lookupCache(String namespace) {
         CacheEntry entry = cache.get(namespace);
         if (entry == null) {
             return null;
@@ -52,13 +622,29 @@ public class RouteExplorerService {
             cache.remove(namespace, entry);
             return null;
         }
-        return entry.response();
+        return entry.snapshot();
+    }
+
+    /**
+     * Cached graph of the namespace whose load started no earlier than {@code notLoadedBefore}.
+     */
+    private RouteSnapshot loadedSince(String namespace, Instant notLoadedBefore) {
+        CacheEntry entry = cache.get(namespace);
+        if (entry == null || entry.loadStarted().isBefore(notLoadedBefore) || entry.expiresAt().isBefore(Instant.now())) {
+            return null;
+        }
+        ServerTiming.describe("cache", "coalesced");
+        return entry.snapshot();
     }
 
     private boolean isPositive(Duration duration) {
         return duration == null || duration.isPositive();
     }
 
-    private record CacheEntry(RoutesResponse response, Instant expiresAt) {
+    /**
+     * Cached graph, with the time its load started; graphs restored from disk count as loaded at
+     * {@link Instant#MIN}.
+     */
+    private record CacheEntry(RouteSnapshot snapshot, Instant expiresAt, Instant loadStarted) {
     }
 }
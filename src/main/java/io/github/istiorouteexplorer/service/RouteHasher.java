@@ -0,0 +1,155 @@
+package io.github.istiorouteexplorer.service;
+
+import io.github.istiorouteexplorer.model.MatchCondition;
+import io.github.istiorouteexplorer.model.Route;
+import io.github.istiorouteexplorer.model.RouteLink;
+import io.github.istiorouteexplorer.model.RouteNode;
+import io.github.istiorouteexplorer.model.istio.ClientTlsSettingsDto;
+import io.github.istiorouteexplorer.model.istio.TrafficPolicyDto;
+import io.github.istiorouteexplorer.model.istio.WorkLoadSelectorDto;
+import io.github.istiorouteexplorer.model.kubernetes.ObjectMetadataDto;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Stable 64-bit content hashes (FNV-1a) of routes and their parts.
+ * Only strings and numbers are fed into the hash, maps are visited in key order and links are
+ * combined independently of their order, so equal routes hash equally across builds and restarts.
+ * Node metadata contributes its name, namespace, labels and annotations (the latter as already narrowed by
+ * the annotation filter), matching the fields the differ compares.
+ */
+public final class RouteHasher {
+
+    private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+
+    private long hash = OFFSET_BASIS;
+
+    private RouteHasher() {
+    }
+
+    public static long hash(Route route) {
+        RouteHasher hasher = new RouteHasher()
+                .add(route.getDestinationHost())
+                .add(route.getDestinationPorts() == null ? List.of() : route.getDestinationPorts().stream().sorted().toList());
+        route.getNodes().values().stream()
+                .sorted((a, b) -> a.getId().compareTo(b.getId()))
+                .forEach(node -> hasher.add(hash(node)));
+        long[] links = route.getLinks().stream().mapToLong(RouteHasher::hash).toArray();
+        Arrays.sort(links);
+        for (long link : links) {
+            hasher.add(link);
+        }
+        return hasher.hash;
+    }
+
+    public static long hash(RouteNode node) {
+        return new RouteHasher()
+                .add(node.getId())
+                .add(node.getName())
+                .add(node.getType() == null ? null : node.getType().name())
+                .add(node.getMetadata())
+                .add(node.getTrafficPolicy())
+                .add(node.getWorkloadSelector())
+                .add(node.getComments())
+                .hash;
+    }
+
+    public static long hash(RouteLink link) {
+        RouteHasher hasher = new RouteHasher()
+                .add(link.getFromId())
+                .add(link.getToId())
+                .add(link.getProtocol())
+                .add(link.getPort() == null ? null : link.getPort().toString());
+        if (link.getMatches() != null) {
+            for (MatchCondition match : link.getMatches()) {
+                if (match != null) {
+                    hasher.add(match.getField()).add(match.getKind()).add(match.getValue());
+                }
+            }
+        }
+        return hasher.hash;
+    }
+
+    /**
+     * Order-independent hash of a whole graph version computed from its route hashes.
+     */
+    public static long combine(Map<String, Long> routeHashes) {
+        RouteHasher hasher = new RouteHasher();
+        new TreeMap<>(routeHashes).forEach((host, hash) -> hasher.add(host).add(hash));
+        return hasher.hash;
+    }
+
+    private RouteHasher add(ObjectMetadataDto metadata) {
+        if (metadata == null) {
+            return add((String) null);
+        }
+        return add(metadata.getName())
+                .add(metadata.getNamespace())
+                .add(metadata.getLabels())
+                .add(metadata.getAnnotations());
+    }
+
+    private RouteHasher add(TrafficPolicyDto trafficPolicy) {
+        if (trafficPolicy == null || trafficPolicy.getTls() == null) {
+            return add((String) null);
+        }
+        ClientTlsSettingsDto tls = trafficPolicy.getTls();
+        return add(tls.getMode() == null ? null : tls.getMode().name())
+                .add(tls.getSni())
+                .add(tls.getCredentialName())
+                .add(tls.getCaCertificates())
+                .add(tls.getCaCrl())
+                .add(tls.getClientCertificate())
+                .add(tls.getPrivateKey())
+                .add(tls.getInsecureSkipVerify() == null ? null : tls.getInsecureSkipVerify().toString())
+                .add(tls.getSubjectAltNames());
+    }
+
+    private RouteHasher add(WorkLoadSelectorDto selector) {
+        return add(selector == null ? null : selector.getMatchLabels());
+    }
+
+    private RouteHasher add(Map<String, String> map) {
+        if (map == null) {
+            return add((String) null);
+        }
+        add((long) map.size());
+        new TreeMap<>(map).forEach((key, value) -> add(key).add(value));
+        return this;
+    }
+
+    private RouteHasher add(List<?> values) {
+        if (values == null) {
+            return add((String) null);
+        }
+        add((long) values.size());
+        values.forEach(value -> add(value == null ? null : value.toString()));
+        return this;
+    }
+
+    private RouteHasher add(long value) {
+        for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+            hash = (hash ^ ((value >>> shift) & 0xff)) * PRIME;
+        }
+        return this;
+    }
+
+    private RouteHasher add(String value) {
+        if (value == null) {
+            hash = (hash ^ 0xff) * PRIME;
+            return this;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            hash = (hash ^ (c & 0xff)) * PRIME;
+            hash = (hash ^ (c >>> 8)) * PRIME;
+        }
+        // terminator keeps ("ab", "c") and ("a", "bc") apart
+        hash = (hash ^ 0xfe) * PRIME;
+        return this;
+    }
+}
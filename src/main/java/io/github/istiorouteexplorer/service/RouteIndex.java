@@ -0,0 +1,309 @@
+package io.github.istiorouteexplorer.service;
+
+import io.github.istiorouteexplorer.model.Route;
+import io.github.istiorouteexplorer.model.RouteLink;
+import io.github.istiorouteexplorer.model.RouteNode;
+import io.github.istiorouteexplorer.model.RoutesResponse;
+import io.github.istiorouteexplorer.model.query.RouteQuery;
+import io.github.istiorouteexplorer.model.query.RouteSort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+/**
+ * Secondary indexes over the routes of one graph, answering {@link RouteQuery} requests without scanning.
+ * Routes are numbered in host order. Protocols, ports, gateways (link source nodes) and node types map to
+ * bitsets of route numbers, hosts are kept sorted for prefix ranges, and lowercase host trigrams map to
+ * posting lists for substring and wildcard matches; only host patterns without a three-character literal fall
+ * back to scanning the hosts. Each sort key has a precomputed order, so a page starts with a binary search for
+ * the cursor and then walks the order, testing the filter bitset, until the page is full.
+ * <p>
+ * Cursors name the sort key and the sort value and host of the last returned route, so they stay valid when
+ * the graph changes between pages.
+ */
+final class RouteIndex {
+
+    private final Route[] routes;
+    private final String[] hosts;
+    private final Map<String, BitSet> byProtocol = new HashMap<>();
+    private final Map<Long, BitSet> byPort = new HashMap<>();
+    private final Map<String, BitSet> byGateway = new HashMap<>();
+    private final Map<RouteNode.Type, BitSet> byNodeType = new HashMap<>();
+    private final Map<String, int[]> byTrigram;
+    private final int[] nodeCounts;
+    private final int[] linkCounts;
+    private final Map<RouteSort, int[]> orders = new HashMap<>();
+
+    RouteIndex(List<Route> source) {
+        routes = source.stream()
+                .sorted(Comparator.comparing(RouteIndex::hostKey))
+                .toArray(Route[]::new);
+        hosts = Arrays.stream(routes).map(RouteIndex::hostKey).toArray(String[]::new);
+        nodeCounts = new int[routes.length];
+        linkCounts = new int[routes.length];
+        Map<String, List<Integer>> trigrams = new HashMap<>();
+        for (int i = 0; i < routes.length; i++) {
+            Route route = routes[i];
+            nodeCounts[i] = route.getNodes().size();
+            linkCounts[i] = route.getLinks().size();
+            if (route.getDestinationPorts() != null) {
+                for (Long port : route.getDestinationPorts()) {
+                    mark(byPort, port, i);
+                }
+            }
+            for (RouteLink link : route.getLinks()) {
+                mark(byProtocol, link.getProtocol() == null ? null : link.getProtocol().toUpperCase(Locale.ROOT), i);
+                mark(byPort, link.getPort(), i);
+                RouteNode from = route.getNodes().get(link.getFromId());
+                mark(byGateway, from != null ? from.getName() : link.getFromId(), i);
+            }
+            for (RouteNode node : route.getNodes().values()) {
+                mark(byNodeType, node.getType() == null ? RouteNode.Type.UNKNOWN : node.getType(), i);
+            }
+            String host = hosts[i];
+            for (int start = 0; start + 3 <= host.length(); start++) {
+                List<Integer> postings = trigrams.computeIfAbsent(host.substring(start, start + 3), key -> new ArrayList<>());
+                if (postings.isEmpty() || postings.get(postings.size() - 1) != i) {
+                    postings.add(i);
+                }
+            }
+        }
+        byTrigram = new HashMap<>(trigrams.size());
+        trigrams.forEach((trigram, postings) ->
+                byTrigram.put(trigram, postings.stream().mapToInt(Integer::intValue).toArray()));
+        orders.put(RouteSort.HOST, IntStream.range(0, routes.length).toArray());
+        orders.put(RouteSort.NODES, sortedBy(nodeCounts));
+        orders.put(RouteSort.LINKS, sortedBy(linkCounts));
+    }
+
+    RoutesResponse query(RouteQuery query) {
+        BitSet matches = filter(query);
+        int total = matches == null ? routes.length : matches.cardinality();
+        int[] order = orders.get(query.sort());
+        int limit = query.limit() == null ? Integer.MAX_VALUE : query.limit();
+        List<Route> page = new ArrayList<>(Math.min(limit, total));
+        int position = start(query);
+        int step = query.descending() ? -1 : 1;
+        int last = -1;
+        for (; position >= 0 && position < order.length; position += step) {
+            int route = order[position];
+            if (matches != null && !matches.get(route)) {
+                if (query.sort() == RouteSort.HOST) {
+                    int next = query.descending() ? matches.previousSetBit(position) : matches.nextSetBit(position);
+                    position = (next >= 0 ? next : query.descending() ? -1 : order.length) - step;
+                }
+                continue;
+            }
+            if (page.size() == limit) {
+                break;
+            }
+            page.add(routes[route]);
+            last = route;
+        }
+        boolean more = position >= 0 && position < order.length;
+        return new RoutesResponse(page, total, more && last >= 0 ? cursor(query.sort(), last) : null);
+    }
+
+    private BitSet filter(RouteQuery query) {
+        BitSet result = null;
+        result = and(result, any(byProtocol, query.protocols().stream()
+                .map(protocol -> protocol.toUpperCase(Locale.ROOT)).toList()));
+        result = and(result, any(byPort, query.ports()));
+        result = and(result, any(byGateway, query.gateways()));
+        result = and(result, any(byNodeType, query.nodeTypes()));
+        if (query.host() != null) {
+            result = and(result, hosts(query));
+        }
+        return result;
+    }
+
+    private BitSet hosts(RouteQuery query) {
+        String pattern = query.host().toLowerCase(Locale.ROOT);
+        BitSet result = new BitSet(routes.length);
+        switch (query.hostMatch()) {
+            case PREFIX -> result.set(lowerBound(pattern), lowerBound(pattern + Character.MAX_VALUE));
+            case SUBSTRING -> candidates(pattern).forEach(i -> {
+                if (hosts[i].contains(pattern)) {
+                    result.set(i);
+                }
+            });
+            case WILDCARD -> {
+                Pattern glob = glob(pattern);
+                String literal = Arrays.stream(pattern.split("[*?]"))
+                        .max(Comparator.comparingInt(String::length))
+                        .orElse("");
+                candidates(literal).forEach(i -> {
+                    if (glob.matcher(hosts[i]).matches()) {
+                        result.set(i);
+                    }
+                });
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Routes whose host may contain {@code literal}: the intersection of the postings of its trigrams, or all
+     * routes when it is shorter than a trigram.
+     */
+    private IntStream candidates(String literal) {
+        if (literal.length() < 3) {
+            return IntStream.range(0, routes.length);
+        }
+        int[] result = null;
+        for (int start = 0; start + 3 <= literal.length(); start++) {
+            int[] postings = byTrigram.get(literal.substring(start, start + 3));
+            if (postings == null) {
+                return IntStream.empty();
+            }
+            result = result == null ? postings : intersect(result, postings);
+        }
+        return Arrays.stream(result);
+    }
+
+    private int start(RouteQuery query) {
+        if (query.cursor() == null) {
+            return query.descending() ? routes.length - 1 : 0;
+        }
+        String[] parts = decode(query.cursor());
+        if (!parts[0].equals(query.sort().name())) {
+            throw new InvalidRequestException("Cursor was issued for sort " + parts[0].toLowerCase(Locale.ROOT));
+        }
+        long value;
+        try {
+            value = Long.parseLong(parts[1]);
+        } catch (NumberFormatException e) {
+            throw new InvalidRequestException("Malformed cursor");
+        }
+        String host = parts[2];
+        int[] order = orders.get(query.sort());
+        int low = 0;
+        int high = order.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int compared = compare(query.sort(), order[middle], value, host);
+            if (query.descending() ? compared < 0 : compared <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return query.descending() ? low - 1 : low;
+    }
+
+    private int compare(RouteSort sort, int route, long value, String host) {
+        int compared = Long.compare(sortValue(sort, route), value);
+        return compared != 0 ? compared : hosts[route].compareTo(host);
+    }
+
+    private long sortValue(RouteSort sort, int route) {
+        return switch (sort) {
+            case HOST -> 0;
+            case NODES -> nodeCounts[route];
+            case LINKS -> linkCounts[route];
+        };
+    }
+
+    private String cursor(RouteSort sort, int route) {
+        String raw = sort.name() + ":" + sortValue(sort, route) + ":" + hosts[route];
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decode(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", 3);
+            if (parts.length == 3) {
+                return parts;
+            }
+        } catch (IllegalArgumentException e) {
+            // reported below
+        }
+        throw new InvalidRequestException("Malformed cursor");
+    }
+
+    private int lowerBound(String key) {
+        int index = Arrays.binarySearch(hosts, key);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private int[] sortedBy(int[] values) {
+        return IntStream.range(0, routes.length).boxed()
+                .sorted(Comparator.<Integer>comparingInt(i -> values[i]).thenComparing(i -> hosts[i]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private static <K> void mark(Map<K, BitSet> index, K key, int route) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> new BitSet()).set(route);
+        }
+    }
+
+    private static <K> BitSet any(Map<K, BitSet> index, List<K> keys) {
+        if (keys.isEmpty()) {
+            return null;
+        }
+        BitSet result = new BitSet();
+        for (K key : keys) {
+            BitSet routes = index.get(key);
+            if (routes != null) {
+                result.or(routes);
+            }
+        }
+        return result;
+    }
+
+    private static BitSet and(BitSet result, BitSet other) {
+        if (other == null) {
+            return result;
+        }
+        if (result == null) {
+            return other;
+        }
+        result.and(other);
+        return result;
+    }
+
+    private static int[] intersect(int[] left, int[] right) {
+        int[] result = new int[Math.min(left.length, right.length)];
+        int size = 0;
+        for (int i = 0, j = 0; i < left.length && j < right.length; ) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[size++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static Pattern glob(String pattern) {
+        StringBuilder regex = new StringBuilder();
+        for (String part : pattern.split("(?=[*?])|(?<=[*?])")) {
+            switch (part) {
+                case "*" -> regex.append(".*");
+                case "?" -> regex.append('.');
+                default -> regex.append(Pattern.quote(part));
+            }
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    private static String hostKey(Route route) {
+        return route.getDestinationHost() == null ? "" : route.getDestinationHost().toLowerCase(Locale.ROOT);
+    }
+}
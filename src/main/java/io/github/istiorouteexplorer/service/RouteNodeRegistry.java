@@ -0,0 +1,51 @@
+package io.github.istiorouteexplorer.service;
+
+import io.github.istiorouteexplorer.model.RouteNode;
+import io.github.istiorouteexplorer.model.kubernetes.ObjectMetadataDto;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Canonical {@link RouteNode} instances of one route build. Every node id maps to exactly one instance that is
+ * shared by all routes, so per-node state such as traffic policies is applied once and seen consistently.
+ * Nodes are additionally indexed by host key (the id without its resource prefix) for DestinationRule lookup.
+ */
+final class RouteNodeRegistry {
+
+    static final String MESH_ID = "mesh";
+
+    private final Map<String, RouteNode> nodesById = new HashMap<>();
+    private final Map<String, List<RouteNode>> nodesByHostKey = new HashMap<>();
+
+    RouteNode mesh() {
+        return canonical(MESH_ID, () -> new RouteNode(MESH_ID, MESH_ID, RouteNode.Type.MESH, new ObjectMetadataDto()));
+    }
+
+    RouteNode canonical(String id, Supplier<RouteNode> factory) {
+        RouteNode node = nodesById.get(id);
+        if (node == null) {
+            node = factory.get();
+            nodesById.put(id, node);
+            nodesByHostKey.computeIfAbsent(hostKey(id), key -> new ArrayList<>(1)).add(node);
+        }
+        return node;
+    }
+
+    List<RouteNode> byHostKey(String hostKey) {
+        return nodesByHostKey.get(hostKey);
+    }
+
+    Collection<RouteNode> nodes() {
+        return nodesById.values();
+    }
+
+    private static String hostKey(String id) {
+        int separator = id.indexOf(':');
+        return separator >= 0 ? id.substring(separator + 1) : id;
+    }
+}
@@ -0,0 +1,185 @@
+package io.github.istiorouteexplorer.service;
+
+import io.github.istiorouteexplorer.model.Route;
+import io.github.istiorouteexplorer.model.RouteNode;
+import io.github.istiorouteexplorer.model.RoutesResponse;
+import io.github.istiorouteexplorer.model.analysis.MatchFinding;
+import io.github.istiorouteexplorer.model.diff.GraphVersion;
+import io.github.istiorouteexplorer.telemetry.SizeEstimator;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Routes of one build tagged with a monotonic graph version. Per-route content hashes are computed once
+ * when the snapshot is created; the merged {@link MeshGraph} is built lazily on first use.
+ */
+public final class RouteSnapshot {
+
+    private final long version;
+    private final Instant generatedAt;
+    private final RoutesResponse response;
+    private final Map<String, Route> routesByHost;
+    private final Map<String, Long> routeHashes;
+    private final long hash;
+    private final List<MatchFinding> matchFindings;
+    private volatile MeshGraph graph;
+    private volatile RouteIndex index;
+    private volatile Footprint footprint;
+
+    public RouteSnapshot(long version, Instant generatedAt, RoutesResponse response) {
+        this(version, generatedAt, response, List.of());
+    }
+
+    public RouteSnapshot(long version, Instant generatedAt, RoutesResponse response, List<MatchFinding> matchFindings) {
+        this.version = version;
+        this.generatedAt = generatedAt;
+        this.response = response;
+        this.matchFindings = List.copyOf(matchFindings);
+        Map<String, Route> routes = new LinkedHashMap<>();
+        Map<String, Long> hashes = new LinkedHashMap<>();
+        for (Route route : response.getRoutes()) {
+            routes.put(route.getDestinationHost(), route);
+            hashes.put(route.getDestinationHost(), RouteHasher.hash(route));
+        }
+        this.routesByHost = Collections.unmodifiableMap(routes);
+        this.routeHashes = Collections.unmodifiableMap(hashes);
+        this.hash = RouteHasher.combine(hashes);
+    }
+
+    private RouteSnapshot(long version, RouteSnapshot snapshot) {
+        this.version = version;
+        this.generatedAt = snapshot.generatedAt;
+        this.response = snapshot.response;
+        this.matchFindings = snapshot.matchFindings;
+        this.routesByHost = snapshot.routesByHost;
+        this.routeHashes = snapshot.routeHashes;
+        this.hash = snapshot.hash;
+    }
+
+    /**
+     * The same routes tagged with {@code version}, reusing the route hashes of this snapshot.
+     */
+    RouteSnapshot withVersion(long version) {
+        return new RouteSnapshot(version, this);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Instant getGeneratedAt() {
+        return generatedAt;
+    }
+
+    public RoutesResponse getResponse() {
+        return response;
+    }
+
+    public Map<String, Route> getRoutesByHost() {
+        return routesByHost;
+    }
+
+    public Map<String, Long> getRouteHashes() {
+        return routeHashes;
+    }
+
+    public long getHash() {
+        return hash;
+    }
+
+    public List<MatchFinding> getMatchFindings() {
+        return matchFindings;
+    }
+
+    public GraphVersion describe() {
+        return new GraphVersion(version, generatedAt, routesByHost.size(), Long.toHexString(hash));
+    }
+
+    /**
+     * Estimated retained bytes per part of the snapshot: route nodes by node type, links, the remaining
+     * route structure, match findings, the host index and, once built, the merged graph and the query
+     * indexes. The estimate is computed on first use and again after the graph or the query indexes have been
+     * built.
+     */
+    public Map<String, Long> footprint() {
+        Footprint result = footprint;
+        MeshGraph built = graph;
+        RouteIndex indexed = index;
+        if (result == null || (built != null && !result.graphIncluded()) || (indexed != null && !result.indexIncluded())) {
+            result = measure(built, indexed);
+            footprint = result;
+        }
+        return result.bytesByKind();
+    }
+
+    public long estimatedBytes() {
+        return footprint().values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    private Footprint measure(MeshGraph built, RouteIndex indexed) {
+        SizeEstimator estimator = new SizeEstimator();
+        Map<String, Long> bytes = new LinkedHashMap<>();
+        for (Route route : response.getRoutes()) {
+            route.getNodes().values().forEach(node -> bytes.merge(nodeKind(node), estimator.add(node), Long::sum));
+        }
+        long links = 0;
+        for (Route route : response.getRoutes()) {
+            links += estimator.add(route.getLinks());
+        }
+        bytes.put("links", links);
+        bytes.put("routes", estimator.add(response));
+        bytes.put("findings", estimator.add(matchFindings));
+        bytes.put("index", estimator.add(routesByHost) + estimator.add(routeHashes));
+        if (built != null) {
+            bytes.put("graph", estimator.add(built));
+        }
+        if (indexed != null) {
+            bytes.put("query-index", estimator.add(indexed));
+        }
+        return new Footprint(Collections.unmodifiableMap(bytes), built != null, indexed != null);
+    }
+
+    private static String nodeKind(RouteNode node) {
+        RouteNode.Type type = node.getType() == null ? RouteNode.Type.UNKNOWN : node.getType();
+        return "nodes:" + type.name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    public MeshGraph getGraph() {
+        MeshGraph result = graph;
+        if (result == null) {
+            synchronized (this) {
+                result = graph;
+                if (result == null) {
+                    result = MeshGraph.build(version, response.getRoutes());
+                    graph = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Secondary indexes answering filtered and paged route queries, built on first use.
+     */
+    RouteIndex getIndex() {
+        RouteIndex result = index;
+        if (result == null) {
+            synchronized (this) {
+                result = index;
+                if (result == null) {
+                    result = new RouteIndex(response.getRoutes());
+                    index = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private record Footprint(Map<String, Long> bytesByKind, boolean graphIncluded, boolean indexIncluded) {
+    }
+}
@@ -0,0 +1,438 @@
+package io.github.istiorouteexplorer.service;
+
+import io.github.istiorouteexplorer.model.NamespaceResources;
+import io.github.istiorouteexplorer.model.ResourceCollection;
+import io.github.istiorouteexplorer.model.Route;
+import io.github.istiorouteexplorer.model.istio.DestinationRuleDto;
+import io.github.istiorouteexplorer.model.istio.GatewayDto;
+import io.github.istiorouteexplorer.model.istio.HttpMatchRequestDto;
+import io.github.istiorouteexplorer.model.istio.HttpRouteDto;
+import io.github.istiorouteexplorer.model.istio.ServerDto;
+import io.github.istiorouteexplorer.model.istio.ServiceEntryDto;
+import io.github.istiorouteexplorer.model.istio.StringMatchDto;
+import io.github.istiorouteexplorer.model.istio.SubsetDto;
+import io.github.istiorouteexplorer.model.istio.TlsMatchRequestDto;
+import io.github.istiorouteexplorer.model.istio.TlsRouteDto;
+import io.github.istiorouteexplorer.model.istio.VirtualServiceDto;
+import io.github.istiorouteexplorer.model.kubernetes.ObjectMetadataDto;
+import io.github.istiorouteexplorer.model.search.SearchHit;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typeahead index over the resources and routes of one namespace and its extra namespaces. Every resource is a
+ * document of short fields: its name, hosts, labels, gateways, subsets and match values. Field values are
+ * lowercased and indexed under each of their alphanumeric tokens and under every suffix starting at a token,
+ * so {@code bench.svc} finds {@code reviews.bench.svc.cluster.local}. Index terms are kept in a sorted map to
+ * bitsets of documents, which makes a query term one range lookup over the terms it prefixes, like a walk down
+ * a prefix trie. All terms of a query must match; hits are ranked by how well and in which field they matched.
+ * <p>
+ * {@link #update} compares the documents of a new build with the indexed ones and only touches the postings of
+ * added, changed and removed documents, so rebuilding after a small change costs little.
+ */
+final class SearchIndex {
+
+    private static final int EXACT = 100;
+    private static final int VALUE_PREFIX = 60;
+    private static final int TOKEN = 40;
+    private static final int TOKEN_PREFIX = 20;
+    private static final Map<String, Integer> FIELD_WEIGHTS = Map.of(
+            "name", 10, "host", 10, "label", 5, "gateway", 5, "subset", 5, "match", 0);
+
+    record Field(String name, String value) {
+    }
+
+    record Document(String kind, String namespace, String name, List<Field> fields) {
+    }
+
+    record Result(int total, List<SearchHit> hits) {
+    }
+
+    private record Key(String kind, String namespace, String name) {
+    }
+
+    private record Indexed(Document document, String[] values) {
+    }
+
+    private record Candidate(Indexed indexed, int score, Field field) {
+    }
+
+    private static final Comparator<Candidate> RANKING = Comparator.comparingInt(Candidate::score).reversed()
+            .thenComparingInt(candidate -> candidate.field().value().length())
+            .thenComparing(candidate -> candidate.indexed().document().kind())
+            .thenComparing(candidate -> candidate.indexed().document().name());
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Key, Integer> ids = new HashMap<>();
+    private final List<Indexed> documents = new ArrayList<>();
+    private final Deque<Integer> free = new ArrayDeque<>();
+    private final NavigableMap<String, int[]> postings = new TreeMap<>();
+    private long version = Long.MIN_VALUE;
+
+    /**
+     * Replaces the indexed documents with {@code next}, taken from graph {@code version}, and returns the number
+     * of documents added, changed or removed. Builds may finish out of order, so documents of a version older
+     * than the indexed one are ignored.
+     */
+    int update(long version, Collection<Document> next) {
+        lock.writeLock().lock();
+        try {
+            if (version < this.version) {
+                return 0;
+            }
+            this.version = version;
+            Map<String, List<Integer>> removed = new HashMap<>();
+            Map<String, List<Integer>> added = new HashMap<>();
+            int changed = 0;
+            Set<Key> seen = new HashSet<>();
+            for (Document document : next) {
+                Key key = new Key(document.kind(), document.namespace(), document.name());
+                if (!seen.add(key)) {
+                    continue;
+                }
+                Integer id = ids.get(key);
+                if (id != null && documents.get(id).document().equals(document)) {
+                    continue;
+                }
+                if (id != null) {
+                    unindex(id, removed);
+                } else {
+                    id = free.isEmpty() ? documents.size() : free.pop();
+                    if (id == documents.size()) {
+                        documents.add(null);
+                    }
+                    ids.put(key, id);
+                }
+                index(id, document, added);
+                changed++;
+            }
+            for (Iterator<Map.Entry<Key, Integer>> entries = ids.entrySet().iterator(); entries.hasNext(); ) {
+                Map.Entry<Key, Integer> entry = entries.next();
+                if (!seen.contains(entry.getKey())) {
+                    unindex(entry.getValue(), removed);
+                    documents.set(entry.getValue(), null);
+                    free.push(entry.getValue());
+                    entries.remove();
+                    changed++;
+                }
+            }
+            applyPostings(removed, added);
+            return changed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The {@code limit} best documents matching every whitespace-separated term of {@code query}.
+     */
+    Result search(String query, int limit) {
+        String[] terms = query == null ? new String[0] : query.trim().toLowerCase(Locale.ROOT).split("\\s+");
+        if (terms.length == 0 || terms[0].isEmpty()) {
+            return new Result(0, List.of());
+        }
+        lock.readLock().lock();
+        try {
+            BitSet matches = null;
+            for (String term : terms) {
+                BitSet termMatches = new BitSet(documents.size());
+                for (int[] ids : postings.subMap(term, true, term + Character.MAX_VALUE, false).values()) {
+                    for (int id : ids) {
+                        termMatches.set(id);
+                    }
+                }
+                if (matches == null) {
+                    matches = termMatches;
+                } else {
+                    matches.and(termMatches);
+                }
+            }
+            PriorityQueue<Candidate> best = new PriorityQueue<>(RANKING.reversed());
+            for (int id = matches.nextSetBit(0); id >= 0; id = matches.nextSetBit(id + 1)) {
+                Candidate candidate = score(documents.get(id), terms);
+                if (best.size() < limit) {
+                    best.add(candidate);
+                } else if (RANKING.compare(candidate, best.peek()) < 0) {
+                    best.poll();
+                    best.add(candidate);
+                }
+            }
+            List<Candidate> ranked = new ArrayList<>(best);
+            ranked.sort(RANKING);
+            return new Result(matches.cardinality(), ranked.stream()
+                    .map(candidate -> {
+                        Document document = candidate.indexed().document();
+                        return new SearchHit(document.kind(), document.namespace(), document.name(),
+                                candidate.field().name(), candidate.field().value(), candidate.score());
+                    })
+                    .toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Search documents of the resources of {@code collection} and of the destination hosts of {@code routes}.
+     */
+    static List<Document> documents(ResourceCollection collection, List<Route> routes) {
+        List<Document> result = new ArrayList<>();
+        String primary = collection.primary().getNamespace();
+        for (Route route : routes) {
+            if (route.getDestinationHost() != null) {
+                result.add(new Document("Route", primary, route.getDestinationHost(),
+                        List.of(new Field("host", route.getDestinationHost()))));
+            }
+        }
+        addResources(result, collection.primary());
+        collection.extras().values().forEach(resources -> addResources(result, resources));
+        return result;
+    }
+
+    private static void addResources(List<Document> result, NamespaceResources resources) {
+        String namespace = resources.getCluster() == null
+                ? resources.getNamespace()
+                : resources.getCluster() + "/" + resources.getNamespace();
+        for (VirtualServiceDto virtualService : nullToEmpty(resources.getVirtualServices())) {
+            Fields fields = new Fields(virtualService.getMetadata());
+            if (virtualService.getSpec() != null) {
+                fields.addAll("host", virtualService.getSpec().getHosts());
+                fields.addAll("gateway", virtualService.getSpec().getGateways());
+                for (HttpRouteDto http : nullToEmpty(virtualService.getSpec().getHttp())) {
+                    fields.add("match", http.getName());
+                    for (HttpMatchRequestDto match : nullToEmpty(http.getMatch())) {
+                        fields.add("match", match.getName());
+                        fields.add("match", value(match.getUri()));
+                        fields.add("match", value(match.getAuthority()));
+                        if (match.getHeaders() != null) {
+                            match.getHeaders().values().forEach(header -> fields.add("match", value(header)));
+                        }
+                        fields.addLabels("match", match.getSourceLabels());
+                    }
+                }
+                for (TlsRouteDto tls : nullToEmpty(virtualService.getSpec().getTls())) {
+                    for (TlsMatchRequestDto match : nullToEmpty(tls.getMatch())) {
+                        fields.addAll("match", match.getSniHosts());
+                    }
+                }
+            }
+            fields.addTo(result, "VirtualService", namespace);
+        }
+        for (DestinationRuleDto destinationRule : nullToEmpty(resources.getDestinationRules())) {
+            Fields fields = new Fields(destinationRule.getMetadata());
+            if (destinationRule.getSpec() != null) {
+                fields.add("host", destinationRule.getSpec().getHost());
+                for (SubsetDto subset : nullToEmpty(destinationRule.getSpec().getSubsets())) {
+                    fields.add("subset", subset.getName());
+                    fields.addLabels("label", subset.getLabels());
+                }
+            }
+            fields.addTo(result, "DestinationRule", namespace);
+        }
+        for (GatewayDto gateway : nullToEmpty(resources.getGateways())) {
+            Fields fields = new Fields(gateway.getMetadata());
+            if (gateway.getSpec() != null) {
+                for (ServerDto server : nullToEmpty(gateway.getSpec().getServers())) {
+                    fields.addAll("host", server.getHosts());
+                }
+                fields.addLabels("label", gateway.getSpec().getSelector());
+            }
+            fields.addTo(result, "Gateway", namespace);
+        }
+        for (ServiceEntryDto serviceEntry : nullToEmpty(resources.getServiceEntries())) {
+            Fields fields = new Fields(serviceEntry.getMetadata());
+            if (serviceEntry.getSpec() != null) {
+                fields.addAll("host", serviceEntry.getSpec().getHosts());
+            }
+            fields.addTo(result, "ServiceEntry", namespace);
+        }
+        nullToEmpty(resources.getWorkloadEntries()).forEach(entry ->
+                new Fields(entry.getMetadata()).addTo(result, "WorkloadEntry", namespace));
+        nullToEmpty(resources.getEnvoyFilters()).forEach(filter ->
+                new Fields(filter.getMetadata()).addTo(result, "EnvoyFilter", namespace));
+        nullToEmpty(resources.getServices()).forEach(service ->
+                new Fields(service.getMetadata()).addTo(result, "Service", namespace));
+        nullToEmpty(resources.getDeployments()).forEach(deployment ->
+                new Fields(deployment.getMetadata()).addTo(result, "Deployment", namespace));
+        nullToEmpty(resources.getReplicaSets()).forEach(replicaSet ->
+                new Fields(replicaSet.getMetadata()).addTo(result, "ReplicaSet", namespace));
+        nullToEmpty(resources.getPods()).forEach(pod ->
+                new Fields(pod.getMetadata()).addTo(result, "Pod", namespace));
+    }
+
+    private void index(int id, Document document, Map<String, List<Integer>> added) {
+        Indexed indexed = new Indexed(document, document.fields().stream()
+                .map(field -> field.value().toLowerCase(Locale.ROOT))
+                .toArray(String[]::new));
+        documents.set(id, indexed);
+        for (String value : indexed.values()) {
+            for (String term : terms(value)) {
+                added.computeIfAbsent(term, key -> new ArrayList<>()).add(id);
+            }
+        }
+    }
+
+    private void unindex(int id, Map<String, List<Integer>> removed) {
+        for (String value : documents.get(id).values()) {
+            for (String term : terms(value)) {
+                removed.computeIfAbsent(term, key -> new ArrayList<>()).add(id);
+            }
+        }
+    }
+
+    /**
+     * Applies the postings collected by one update. Posting lists are sorted arrays of document numbers; most
+     * terms name a single resource, so arrays stay far smaller than bitsets over all documents would be.
+     */
+    private void applyPostings(Map<String, List<Integer>> removed, Map<String, List<Integer>> added) {
+        removed.forEach((term, ids) -> postings.computeIfPresent(term, (key, current) -> {
+            Set<Integer> gone = new HashSet<>(ids);
+            int[] kept = Arrays.stream(current).filter(id -> !gone.contains(id)).toArray();
+            return kept.length == 0 ? null : kept;
+        }));
+        added.forEach((term, ids) -> postings.merge(term, ids.stream().mapToInt(Integer::intValue).sorted().toArray(),
+                (current, more) -> Arrays.stream(concat(current, more)).sorted().distinct().toArray()));
+    }
+
+    private static int[] concat(int[] left, int[] right) {
+        int[] result = Arrays.copyOf(left, left.length + right.length);
+        System.arraycopy(right, 0, result, left.length, right.length);
+        return result;
+    }
+
+    /**
+     * Index terms of a lowercase value: every token and every suffix starting at a token.
+     */
+    static Set<String> terms(String value) {
+        Set<String> terms = new LinkedHashSet<>();
+        int start = -1;
+        for (int i = 0; i <= value.length(); i++) {
+            boolean alphanumeric = i < value.length() && Character.isLetterOrDigit(value.charAt(i));
+            if (alphanumeric && start < 0) {
+                start = i;
+                terms.add(value.substring(i));
+            } else if (!alphanumeric && start >= 0) {
+                terms.add(value.substring(start, i));
+                start = -1;
+            }
+        }
+        terms.add(value);
+        return terms;
+    }
+
+    private static Candidate score(Indexed indexed, String[] terms) {
+        List<Field> fields = indexed.document().fields();
+        int total = 0;
+        int bestScore = -1;
+        Field bestField = fields.get(0);
+        for (String term : terms) {
+            int termBest = 0;
+            for (int i = 0; i < fields.size(); i++) {
+                int quality = quality(indexed.values()[i], term);
+                if (quality == 0) {
+                    continue;
+                }
+                int score = quality + FIELD_WEIGHTS.getOrDefault(fields.get(i).name(), 0);
+                termBest = Math.max(termBest, score);
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestField = fields.get(i);
+                }
+            }
+            total += termBest;
+        }
+        return new Candidate(indexed, total, bestField);
+    }
+
+    private static int quality(String value, String term) {
+        if (value.equals(term)) {
+            return EXACT;
+        }
+        if (value.startsWith(term)) {
+            return VALUE_PREFIX;
+        }
+        int best = 0;
+        for (int at = value.indexOf(term); at >= 0 && best < TOKEN; at = value.indexOf(term, at + 1)) {
+            if (at > 0 && Character.isLetterOrDigit(value.charAt(at - 1))) {
+                continue;
+            }
+            int end = at + term.length();
+            best = Math.max(best, end == value.length() || !Character.isLetterOrDigit(value.charAt(end))
+                    ? TOKEN : TOKEN_PREFIX);
+        }
+        return best;
+    }
+
+    private static String value(StringMatchDto match) {
+        if (match == null) {
+            return null;
+        }
+        if (match.getExact() != null) {
+            return match.getExact();
+        }
+        return match.getPrefix() != null ? match.getPrefix() : match.getRegex();
+    }
+
+    private static <T> List<T> nullToEmpty(List<T> list) {
+        return list == null ? List.of() : list;
+    }
+
+    /**
+     * Fields of one resource, starting with its name and labels; blank values are skipped.
+     */
+    private static final class Fields {
+
+        private final String name;
+        private final String namespace;
+        private final List<Field> fields = new ArrayList<>();
+
+        Fields(ObjectMetadataDto metadata) {
+            name = metadata == null ? null : metadata.getName();
+            namespace = metadata == null ? null : metadata.getNamespace();
+            add("name", name);
+            if (metadata != null) {
+                addLabels("label", metadata.getLabels());
+            }
+        }
+
+        void add(String field, String value) {
+            if (value != null && !value.isBlank()) {
+                fields.add(new Field(field, value));
+            }
+        }
+
+        void addAll(String field, List<String> values) {
+            nullToEmpty(values).forEach(value -> add(field, value));
+        }
+
+        void addLabels(String field, Map<String, String> labels) {
+            if (labels != null) {
+                new TreeMap<>(labels).forEach((key, value) -> add(field, key + "=" + value));
+            }
+        }
+
+        void addTo(List<Document> result, String kind, String defaultNamespace) {
+            if (name != null && !fields.isEmpty()) {
+                result.add(new Document(kind, namespace != null ? namespace : defaultNamespace, name, List.copyOf(fields)));
+            }
+        }
+    }
+}
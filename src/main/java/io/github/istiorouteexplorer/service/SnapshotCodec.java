@@ -0,0 +1,211 @@
+package io.github.istiorouteexplorer.service;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compact binary encoding of JSON trees used by {@link SnapshotStore} and {@link HistoryStore}. An encoded
+ * tree starts with a magic number and the schema version, followed by a table of every distinct string (field
+ * names and text values, in order of first use) and the tree itself, in which strings are table indexes. Hosts, labels and field names repeat
+ * across routes and resources, so the table keeps files small and decoded strings shared. Integers are
+ * zig-zag varints. Decoding reads straight from a {@link ByteBuffer}, typically a mapped file.
+ */
+final class SnapshotCodec {
+
+    static final int MAGIC = 0x49525853;
+
+    /**
+     * Binds persisted objects by their fields, so derived getters are not written and DTOs without setters
+     * can be read back.
+     */
+    static final ObjectMapper MAPPER = JsonMapper.builder()
+            .findAndAddModules()
+            .visibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE)
+            .visibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
+            .visibility(PropertyAccessor.CREATOR, JsonAutoDetect.Visibility.ANY)
+            .serializationInclusion(JsonInclude.Include.NON_NULL)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    private static final byte NULL = 0;
+    private static final byte FALSE = 1;
+    private static final byte TRUE = 2;
+    private static final byte LONG = 3;
+    private static final byte DOUBLE = 4;
+    private static final byte STRING = 5;
+    private static final byte ARRAY = 6;
+    private static final byte OBJECT = 7;
+
+    private SnapshotCodec() {
+    }
+
+    static void write(JsonNode root, int schemaVersion, OutputStream target) throws IOException {
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        collect(root, strings);
+        DataOutputStream out = new DataOutputStream(target);
+        out.writeInt(MAGIC);
+        out.writeInt(schemaVersion);
+        writeVarint(out, strings.size());
+        for (String string : strings.keySet()) {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            writeVarint(out, bytes.length);
+            out.write(bytes);
+        }
+        writeNode(out, root, strings);
+        out.flush();
+    }
+
+    /**
+     * Schema version of an encoded tree, or {@code -1} when {@code buffer} does not start with the magic number.
+     */
+    static int schemaVersion(ByteBuffer buffer) {
+        if (buffer.remaining() < 8 || buffer.getInt(buffer.position()) != MAGIC) {
+            return -1;
+        }
+        return buffer.getInt(buffer.position() + 4);
+    }
+
+    static JsonNode read(ByteBuffer buffer) throws IOException {
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a snapshot file");
+            }
+            buffer.getInt();
+            String[] strings = new String[(int) readVarint(buffer)];
+            for (int i = 0; i < strings.length; i++) {
+                byte[] bytes = new byte[(int) readVarint(buffer)];
+                buffer.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+            return readNode(buffer, strings);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new IOException("Truncated or corrupt snapshot file", e);
+        }
+    }
+
+    private static void collect(JsonNode node, Map<String, Integer> strings) {
+        if (node.isTextual()) {
+            strings.putIfAbsent(node.textValue(), strings.size());
+        } else if (node.isObject()) {
+            for (Iterator<Map.Entry<String, JsonNode>> fields = node.fields(); fields.hasNext(); ) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                strings.putIfAbsent(field.getKey(), strings.size());
+                collect(field.getValue(), strings);
+            }
+        } else if (node.isArray()) {
+            node.forEach(item -> collect(item, strings));
+        }
+    }
+
+    private static void writeNode(DataOutputStream out, JsonNode node, Map<String, Integer> strings) throws IOException {
+        if (node == null || node.isNull() || node.isMissingNode()) {
+            out.writeByte(NULL);
+        } else if (node.isBoolean()) {
+            out.writeByte(node.booleanValue() ? TRUE : FALSE);
+        } else if (node.isIntegralNumber() && node.canConvertToLong()) {
+            out.writeByte(LONG);
+            long value = node.longValue();
+            writeVarint(out, (value << 1) ^ (value >> 63));
+        } else if (node.isNumber()) {
+            out.writeByte(DOUBLE);
+            out.writeDouble(node.doubleValue());
+        } else if (node.isTextual()) {
+            out.writeByte(STRING);
+            writeVarint(out, strings.get(node.textValue()));
+        } else if (node.isArray()) {
+            out.writeByte(ARRAY);
+            writeVarint(out, node.size());
+            for (JsonNode item : node) {
+                writeNode(out, item, strings);
+            }
+        } else if (node.isObject()) {
+            out.writeByte(OBJECT);
+            writeVarint(out, node.size());
+            for (Iterator<Map.Entry<String, JsonNode>> fields = node.fields(); fields.hasNext(); ) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                writeVarint(out, strings.get(field.getKey()));
+                writeNode(out, field.getValue(), strings);
+            }
+        } else {
+            throw new IOException("Unsupported node type " + node.getNodeType());
+        }
+    }
+
+    private static JsonNode readNode(ByteBuffer buffer, String[] strings) throws IOException {
+        JsonNodeFactory factory = JsonNodeFactory.instance;
+        byte tag = buffer.get();
+        switch (tag) {
+            case NULL:
+                return factory.nullNode();
+            case FALSE:
+                return factory.booleanNode(false);
+            case TRUE:
+                return factory.booleanNode(true);
+            case LONG: {
+                long encoded = readVarint(buffer);
+                return factory.numberNode((encoded >>> 1) ^ -(encoded & 1));
+            }
+            case DOUBLE:
+                return factory.numberNode(buffer.getDouble());
+            case STRING:
+                return factory.textNode(strings[(int) readVarint(buffer)]);
+            case ARRAY: {
+                int size = (int) readVarint(buffer);
+                ArrayNode array = factory.arrayNode(size);
+                for (int i = 0; i < size; i++) {
+                    array.add(readNode(buffer, strings));
+                }
+                return array;
+            }
+            case OBJECT: {
+                int size = (int) readVarint(buffer);
+                ObjectNode object = factory.objectNode();
+                for (int i = 0; i < size; i++) {
+                    String name = strings[(int) readVarint(buffer)];
+                    object.set(name, readNode(buffer, strings));
+                }
+                return object;
+            }
+            default:
+                throw new IOException("Unknown tag " + tag + " at offset " + (buffer.position() - 1));
+        }
+    }
+
+    private static void writeVarint(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarint(ByteBuffer buffer) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+}
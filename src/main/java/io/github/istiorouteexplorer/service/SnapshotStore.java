@@ -0,0 +1,145 @@
+package io.github.istiorouteexplorer.service;
+
+import io.github.istiorouteexplorer.config.AppProperties;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persists the latest {@link PersistedSnapshot} of every namespace under {@code app.snapshot-dir}, one
+ * {@code <namespace>.snap} file each, so a restarted explorer can serve graphs before reloading them. Files
+ * are written by a background thread; saves of a namespace that queue up while a write is pending collapse
+ * into the latest one. Files are replaced atomically and read through a memory mapping. Bumping
+ * {@link #SCHEMA_VERSION} on incompatible DTO changes makes old files be ignored.
+ */
+@Component
+public class SnapshotStore {
+
+    static final int SCHEMA_VERSION = 1;
+    private static final String SUFFIX = ".snap";
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotStore.class);
+
+    private final AppProperties properties;
+    private final Map<String, PersistedSnapshot> pending = new ConcurrentHashMap<>();
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().daemon().name("snapshot-writer").factory());
+
+    public SnapshotStore(AppProperties properties) {
+        this.properties = properties;
+    }
+
+    public boolean isEnabled() {
+        return properties.getSnapshotDir() != null && !properties.getSnapshotDir().isBlank();
+    }
+
+    /**
+     * Queues {@code snapshot} to be written; a no-op when persistence is disabled.
+     */
+    public void save(PersistedSnapshot snapshot) {
+        if (!isEnabled() || pending.put(snapshot.namespace(), snapshot) != null) {
+            return;
+        }
+        try {
+            writer.execute(() -> {
+                PersistedSnapshot latest = pending.remove(snapshot.namespace());
+                if (latest != null) {
+                    write(latest);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(snapshot.namespace());
+        }
+    }
+
+    /**
+     * Every readable snapshot of the current schema. Unreadable files are skipped and logged.
+     */
+    public List<PersistedSnapshot> loadAll() {
+        List<PersistedSnapshot> snapshots = new ArrayList<>();
+        if (!isEnabled() || !Files.isDirectory(directory())) {
+            return snapshots;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory(), "*" + SUFFIX)) {
+            for (Path file : files) {
+                try {
+                    PersistedSnapshot snapshot = read(file);
+                    if (snapshot != null) {
+                        snapshots.add(snapshot);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Skipping unreadable snapshot {}: {}", file, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to list snapshots in {}: {}", directory(), e.getMessage());
+        }
+        return snapshots;
+    }
+
+    /**
+     * Waits until queued snapshots are written and stops the writer.
+     */
+    @PreDestroy
+    public void close() throws InterruptedException {
+        writer.shutdown();
+        writer.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private PersistedSnapshot read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot exceeds 2 GiB");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int version = SnapshotCodec.schemaVersion(buffer);
+            if (version != SCHEMA_VERSION) {
+                log.info("Ignoring snapshot {} with schema version {}, expected {}", file, version, SCHEMA_VERSION);
+                return null;
+            }
+            return SnapshotCodec.MAPPER.treeToValue(SnapshotCodec.read(buffer), PersistedSnapshot.class);
+        }
+    }
+
+    private void write(PersistedSnapshot snapshot) {
+        try {
+            Path target = NamespaceNames.resolve(directory(), snapshot.namespace(), SUFFIX);
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), snapshot.namespace(), ".tmp");
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                SnapshotCodec.write(SnapshotCodec.MAPPER.valueToTree(snapshot), SCHEMA_VERSION, out);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Persisted snapshot of namespace {} ({} bytes)", snapshot.namespace(), Files.size(target));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to persist snapshot of namespace {}: {}", snapshot.namespace(), e.getMessage());
+        }
+    }
+
+    private Path directory() {
+        return Path.of(properties.getSnapshotDir());
+    }
+}
@@ -0,0 +1,26 @@
+package io.github.istiorouteexplorer.telemetry;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Lookup of the route cache of a namespace.
+ */
+@Name("io.github.istiorouteexplorer.CacheLookup")
+@Label("Route Cache Lookup")
+@Category({"Istio Route Explorer", "Routes"})
+@Description("Lookup of cached routes of a namespace")
+public class CacheLookupEvent extends Event {
+
+    @Label("Namespace")
+    public String namespace;
+
+    @Label("Hit")
+    public boolean hit;
+
+    @Label("Graph Version")
+    public long graphVersion;
+}
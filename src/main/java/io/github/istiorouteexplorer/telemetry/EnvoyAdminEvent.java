@@ -0,0 +1,34 @@
+package io.github.istiorouteexplorer.telemetry;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Envoy admin call executed with curl inside the istio-proxy container of a pod.
+ */
+@Name("io.github.istiorouteexplorer.EnvoyAdmin")
+@Label("Envoy Admin Fetch")
+@Category({"Istio Route Explorer", "Envoy"})
+@Description("Envoy admin call through pod exec")
+public class EnvoyAdminEvent extends Event {
+
+    @Label("Namespace")
+    public String namespace;
+
+    @Label("Pod")
+    public String pod;
+
+    @Label("Admin Path")
+    public String path;
+
+    @Label("Payload Bytes")
+    @DataAmount
+    public long bytes;
+
+    @Label("Success")
+    public boolean success;
+}
@@ -0,0 +1,24 @@
+package io.github.istiorouteexplorer.telemetry;
+
+import io.github.istiorouteexplorer.model.footprint.FootprintReport;
+import io.github.istiorouteexplorer.service.RouteExplorerService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code /actuator/footprint}: estimated heap retained by cached and historical graphs per namespace.
+ */
+@Component
+@Endpoint(id = "footprint")
+@RequiredArgsConstructor
+public class FootprintEndpoint {
+
+    private final RouteExplorerService routeExplorerService;
+
+    @ReadOperation
+    public FootprintReport footprint() {
+        return routeExplorerService.footprint();
+    }
+}
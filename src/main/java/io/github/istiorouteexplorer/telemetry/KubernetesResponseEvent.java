@@ -0,0 +1,31 @@
+package io.github.istiorouteexplorer.telemetry;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Body of one Kubernetes API response, from the first received bytes until the body is complete.
+ */
+@Name("io.github.istiorouteexplorer.KubernetesResponse")
+@Label("Kubernetes Response")
+@Category({"Istio Route Explorer", "Kubernetes"})
+@Description("Transfer of a Kubernetes API response body")
+public class KubernetesResponseEvent extends Event {
+
+    @Label("Method")
+    public String method;
+
+    @Label("Path")
+    public String path;
+
+    @Label("Namespace")
+    public String namespace;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+}
@@ -0,0 +1,56 @@
+package io.github.istiorouteexplorer.telemetry;
+
+import io.fabric8.kubernetes.client.http.AsyncBody;
+import io.fabric8.kubernetes.client.http.HttpRequest;
+import io.fabric8.kubernetes.client.http.Interceptor;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * HTTP interceptor of the Kubernetes client that emits a {@link KubernetesResponseEvent} per response body.
+ * The body consumer is only wrapped while the event is enabled in a running recording.
+ */
+public class KubernetesResponseRecorder implements Interceptor {
+
+    public static final String NAME = "jfr-response-recorder";
+
+    @Override
+    public AsyncBody.Consumer<List<ByteBuffer>> consumer(AsyncBody.Consumer<List<ByteBuffer>> consumer, HttpRequest request) {
+        KubernetesResponseEvent event = new KubernetesResponseEvent();
+        if (!event.isEnabled()) {
+            return consumer;
+        }
+        event.begin();
+        AtomicBoolean completionHooked = new AtomicBoolean();
+        return (buffers, body) -> {
+            if (completionHooked.compareAndSet(false, true)) {
+                body.done().whenComplete((ignored, failure) -> {
+                    event.end();
+                    if (event.shouldCommit()) {
+                        event.method = request.method();
+                        event.path = request.uri().getRawPath();
+                        event.namespace = namespaceOf(event.path);
+                        event.commit();
+                    }
+                });
+            }
+            for (ByteBuffer buffer : buffers) {
+                event.bytes += buffer.remaining();
+            }
+            consumer.consume(buffers, body);
+        };
+    }
+
+    static String namespaceOf(String path) {
+        String marker = "/namespaces/";
+        int start = path.indexOf(marker);
+        if (start < 0) {
+            return null;
+        }
+        start += marker.length();
+        int end = path.indexOf('/', start);
+        return end < 0 ? path.substring(start) : path.substring(start, end);
+    }
+}
@@ -0,0 +1,26 @@
+package io.github.istiorouteexplorer.telemetry;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * LIST and DTO mapping of one resource kind while loading a namespace.
+ */
+@Name("io.github.istiorouteexplorer.NamespaceLoad")
+@Label("Namespace Load")
+@Category({"Istio Route Explorer", "Kubernetes"})
+@Description("LIST call and DTO mapping of one resource kind")
+public class NamespaceLoadEvent extends Event {
+
+    @Label("Namespace")
+    public String namespace;
+
+    @Label("Kind")
+    public String kind;
+
+    @Label("Object Count")
+    public int objectCount;
+}
@@ -0,0 +1,46 @@
+package io.github.istiorouteexplorer.telemetry;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * One {@code RouteExplorer.buildRoutes()} call with the time spent in each build phase.
+ */
+@Name("io.github.istiorouteexplorer.RouteBuild")
+@Label("Route Build")
+@Category({"Istio Route Explorer", "Routes"})
+@Description("Route build of a namespace with per-phase durations")
+public class RouteBuildEvent extends Event {
+
+    @Label("Namespace")
+    public String namespace;
+
+    @Label("Routes")
+    public int routes;
+
+    @Label("Nodes")
+    public int nodes;
+
+    @Label("Links")
+    public int links;
+
+    @Label("Indexing")
+    @Timespan
+    public long indexing;
+
+    @Label("Node Resolution")
+    @Timespan
+    public long nodeResolution;
+
+    @Label("Link Creation")
+    @Timespan
+    public long linkCreation;
+
+    @Label("Destination Rules")
+    @Timespan
+    public long destinationRules;
+}
@@ -0,0 +1,239 @@
+package io.github.istiorouteexplorer.telemetry;
+
+import io.github.istiorouteexplorer.config.AppProperties;
+import io.github.istiorouteexplorer.kube.ResourceLoader;
+import io.github.istiorouteexplorer.service.BuildPhase;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer meters of the loading, graph building and Envoy inspection hot paths. Meters are tagged by
+ * namespace and, where it applies, by resource kind, build phase or admin endpoint.
+ * <p>
+ * Namespaces come from requests, so the namespace tag is bounded: the configured namespaces, extra namespaces
+ * and the all-namespaces view keep their name, as do the first {@code app.metrics-max-namespaces} other
+ * namespaces recorded; any further namespace is tagged {@value #OTHER_NAMESPACE}.
+ */
+@Component
+public class RouteExplorerMetrics {
+
+    static final String KUBE_LIST = "route.explorer.kube.list";
+    static final String KUBE_MAPPING = "route.explorer.kube.mapping";
+    static final String KUBE_OBJECTS = "route.explorer.kube.objects";
+    static final String BUILD_PHASE = "route.explorer.build.phase";
+    static final String CACHE = "route.explorer.cache";
+    static final String ENVOY_ADMIN = "route.explorer.envoy.admin";
+    static final String ENVOY_ADMIN_PAYLOAD = "route.explorer.envoy.admin.payload";
+    static final String EVICTIONS = "route.explorer.footprint.evictions";
+    static final String LIVE_RESYNCS = "route.explorer.live.resyncs";
+    static final String WATCH_EVENTS = "route.explorer.watch.events";
+    static final String REBUILDS = "route.explorer.rebuilds";
+    static final String REBUILD_LAG = "route.explorer.rebuild.lag";
+    static final String REBUILD_EVENTS = "route.explorer.rebuild.events";
+    static final String SEARCH = "route.explorer.search";
+    static final String SEARCH_INDEX_CHANGES = "route.explorer.search.index.changes";
+    static final String CLUSTER_LOADS = "route.explorer.cluster.loads";
+    static final String BULKHEAD = "route.explorer.bulkhead";
+    static final String OTHER_NAMESPACE = "other";
+
+    private final MeterRegistry registry;
+    private final AppProperties properties;
+    // namespaces tagged by name besides the configured ones; additions are made holding its monitor
+    private final Set<String> taggedNamespaces = ConcurrentHashMap.newKeySet();
+
+    public RouteExplorerMetrics(MeterRegistry registry, AppProperties properties) {
+        this.registry = registry;
+        this.properties = properties;
+    }
+
+    /**
+     * Times a LIST call against the Kubernetes API; paginated lists record one sample per page.
+     */
+    public <T> T timeList(String namespace, String kind, Supplier<T> list) {
+        return Timer.builder(KUBE_LIST)
+                .description("Latency of Kubernetes LIST calls")
+                .tags("namespace", namespaceTag(namespace), "kind", kind)
+                .register(registry)
+                .record(list);
+    }
+
+    /**
+     * Times the mapping of listed objects into DTOs and counts the mapped objects.
+     */
+    public <T> List<T> timeMapping(String namespace, String kind, Supplier<List<T>> mapping) {
+        List<T> mapped = Timer.builder(KUBE_MAPPING)
+                .description("Time spent mapping Kubernetes objects into DTOs")
+                .tags("namespace", namespaceTag(namespace), "kind", kind)
+                .register(registry)
+                .record(mapping);
+        Counter.builder(KUBE_OBJECTS)
+                .description("Kubernetes objects mapped into DTOs")
+                .tags("namespace", namespaceTag(namespace), "kind", kind)
+                .register(registry)
+                .increment(mapped == null ? 0 : mapped.size());
+        return mapped;
+    }
+
+    public void recordBuildPhases(String namespace, Map<BuildPhase, Long> phaseNanos) {
+        phaseNanos.forEach((phase, nanos) -> Timer.builder(BUILD_PHASE)
+                .description("Time spent in route build phases")
+                .tags("namespace", namespaceTag(namespace), "phase", phase.getKey())
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS));
+    }
+
+    public void recordCacheLookup(String namespace, boolean hit) {
+        Counter.builder(CACHE)
+                .description("Route cache lookups")
+                .tags("namespace", namespaceTag(namespace), "result", hit ? "hit" : "miss")
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Records one Envoy admin call made through exec. {@code path} is the admin path without query string.
+     */
+    public void recordEnvoyAdmin(String namespace, String path, long nanos, long payloadBytes, boolean success) {
+        Timer.builder(ENVOY_ADMIN)
+                .description("Latency of Envoy admin calls through pod exec")
+                .tags("namespace", namespaceTag(namespace), "path", path, "outcome", success ? "success" : "error")
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        if (success) {
+            DistributionSummary.builder(ENVOY_ADMIN_PAYLOAD)
+                    .description("Size of Envoy admin payloads")
+                    .baseUnit("bytes")
+                    .tags("namespace", namespaceTag(namespace), "path", path)
+                    .register(registry)
+                    .record(payloadBytes);
+        }
+    }
+
+    /**
+     * Counts a retained graph evicted because the footprint limit named by {@code reason} was reached.
+     */
+    public void recordEviction(String namespace, String reason) {
+        Counter.builder(EVICTIONS)
+                .description("Retained graphs evicted by footprint limits")
+                .tags("namespace", namespaceTag(namespace), "reason", reason)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Counts a live subscriber whose queued deltas were dropped for a full graph because it fell behind.
+     */
+    public void recordLiveResync(String namespace) {
+        Counter.builder(LIVE_RESYNCS)
+                .description("Live graph subscribers resynchronised after falling behind")
+                .tags("namespace", namespaceTag(namespace))
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Counts a watch event, {@code relevant} or ignored because it cannot change routing.
+     */
+    public void recordWatchEvent(String namespace, String kind, boolean relevant) {
+        Counter.builder(WATCH_EVENTS)
+                .description("Kubernetes watch events by routing relevance")
+                .tags("namespace", namespaceTag(namespace), "kind", kind, "result", relevant ? "relevant" : "ignored")
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Records a scheduled rebuild: its lag from the first change it covers to its start, the number of change
+     * requests coalesced into it and its outcome.
+     */
+    public void recordRebuild(String namespace, String priority, long lagNanos, int requests, boolean success) {
+        Counter.builder(REBUILDS)
+                .description("Scheduled graph rebuilds")
+                .tags("namespace", namespaceTag(namespace), "priority", priority,
+                        "outcome", success ? "success" : "error")
+                .register(registry)
+                .increment();
+        Timer.builder(REBUILD_LAG)
+                .description("Delay from the first change to the start of its rebuild")
+                .tags("namespace", namespaceTag(namespace), "priority", priority)
+                .register(registry)
+                .record(lagNanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder(REBUILD_EVENTS)
+                .description("Change requests coalesced into one rebuild")
+                .tags("namespace", namespaceTag(namespace), "priority", priority)
+                .register(registry)
+                .record(requests);
+    }
+
+    public void recordSearch(String namespace, long nanos) {
+        Timer.builder(SEARCH)
+                .description("Latency of typeahead searches")
+                .tags("namespace", namespaceTag(namespace))
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records how many search documents a rebuild added, changed or removed.
+     */
+    public void recordSearchIndexUpdate(String namespace, int changedDocuments) {
+        DistributionSummary.builder(SEARCH_INDEX_CHANGES)
+                .description("Search documents updated per graph build")
+                .tags("namespace", namespaceTag(namespace))
+                .register(registry)
+                .record(changedDocuments);
+    }
+
+    /**
+     * Times the load of one member cluster of a multi-cluster mesh; {@code outcome} is {@code ok},
+     * {@code stale} when its last loaded resources stood in, or {@code failed} when it was left out.
+     */
+    public void recordClusterLoad(String cluster, String outcome, long nanos) {
+        Timer.builder(CLUSTER_LOADS)
+                .description("Loads of member clusters by outcome")
+                .tags("cluster", cluster, "outcome", outcome)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Times how long a request waited for a slot of a bulkhead; {@code outcome} is {@code admitted} or
+     * {@code rejected}.
+     */
+    public void recordBulkhead(String bulkhead, String outcome, long waitNanos) {
+        Timer.builder(BULKHEAD)
+                .description("Wait for a bulkhead slot by outcome")
+                .tags("bulkhead", bulkhead, "outcome", outcome)
+                .register(registry)
+                .record(waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Value of the namespace tag for {@code namespace}.
+     */
+    String namespaceTag(String namespace) {
+        if (namespace.equals(properties.getNamespace()) || ResourceLoader.ALL_NAMESPACES.equals(namespace)
+                || (properties.getExtraNamespaces() != null && properties.getExtraNamespaces().contains(namespace))
+                || taggedNamespaces.contains(namespace)) {
+            return namespace;
+        }
+        synchronized (taggedNamespaces) {
+            if (taggedNamespaces.contains(namespace)
+                    || taggedNamespaces.size() < properties.getMetricsMaxNamespaces()) {
+                taggedNamespaces.add(namespace);
+                return namespace;
+            }
+        }
+        return OTHER_NAMESPACE;
+    }
+}
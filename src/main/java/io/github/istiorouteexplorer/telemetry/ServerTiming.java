@@ -0,0 +1,104 @@
+package io.github.istiorouteexplorer.telemetry;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Per-request phase durations rendered as a {@code Server-Timing} header. The recorder is bound to the
+ * request thread by {@link ServerTimingInterceptor}; outside of a recorded request every method is a no-op,
+ * so services can report phases unconditionally. Durations of the same metric are summed.
+ */
+public final class ServerTiming {
+
+    public static final String HEADER = "Server-Timing";
+
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+
+    private final long startedAt = System.nanoTime();
+    private final Map<String, Long> durations = new LinkedHashMap<>();
+    private final Map<String, String> descriptions = new LinkedHashMap<>();
+
+    private ServerTiming() {
+    }
+
+    static ServerTiming start() {
+        ServerTiming timing = new ServerTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    static ServerTiming current() {
+        return CURRENT.get();
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Header value of the current request so far, or {@code null} outside of a recorded request. Used by
+     * responses written after the handler returned, which bypass {@link ServerTimingAdvice}.
+     */
+    public static String currentHeader() {
+        ServerTiming timing = CURRENT.get();
+        return timing != null ? timing.header() : null;
+    }
+
+    /**
+     * Adds {@code nanos} to {@code metric} of the current request.
+     */
+    public static void add(String metric, long nanos) {
+        ServerTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.durations.merge(metric, nanos, Long::sum);
+        }
+    }
+
+    /**
+     * Attaches a description without duration, e.g. {@code cache;desc="hit"}.
+     */
+    public static void describe(String metric, String description) {
+        ServerTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.descriptions.put(metric, description);
+        }
+    }
+
+    public static <T> T time(String metric, Supplier<T> action) {
+        if (CURRENT.get() == null) {
+            return action.get();
+        }
+        long started = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            add(metric, System.nanoTime() - started);
+        }
+    }
+
+    /**
+     * Header value with all recorded metrics followed by {@code total}, the time since the request was
+     * bound. Serialization of the response body happens after the header is written and is not included.
+     */
+    String header() {
+        StringBuilder header = new StringBuilder();
+        descriptions.forEach((metric, description) ->
+                append(header, metric).append(";desc=\"").append(description.replace("\"", "'")).append('"'));
+        durations.forEach((metric, nanos) -> appendDuration(header, metric, nanos));
+        appendDuration(header, "total", System.nanoTime() - startedAt);
+        return header.toString();
+    }
+
+    private static void appendDuration(StringBuilder header, String metric, long nanos) {
+        append(header, metric).append(";dur=").append(String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0));
+    }
+
+    private static StringBuilder append(StringBuilder header, String metric) {
+        if (!header.isEmpty()) {
+            header.append(", ");
+        }
+        return header.append(metric);
+    }
+}
@@ -0,0 +1,177 @@
+package io.github.istiorouteexplorer.telemetry;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Estimates retained heap bytes of object graphs by walking their fields, assuming a 64-bit JVM with
+ * compressed oops (12 byte headers, 4 byte references, 8 byte alignment). Objects are counted once per
+ * estimator, so consecutive {@link #add(Object)} calls attribute shared objects to the first root that
+ * reached them. Common JDK collections, strings and value types are sized from their shape instead of their
+ * internals; other JDK objects are counted shallowly. Enums and classes are treated as shared.
+ */
+public final class SizeEstimator {
+
+    private static final int HEADER = 12;
+    private static final int ARRAY_HEADER = 16;
+    private static final int REFERENCE = 4;
+    private static final int HASH_MAP = 48;
+    private static final int HASH_MAP_ENTRY = 32;
+    private static final int LINKED_LIST_NODE = 24;
+
+    private static final ClassValue<Layout> LAYOUTS = new ClassValue<>() {
+        @Override
+        protected Layout computeValue(Class<?> type) {
+            return Layout.of(type);
+        }
+    };
+
+    private final Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * Bytes reachable from {@code root} that were not reached by earlier calls of this estimator.
+     */
+    public long add(Object root) {
+        long total = 0;
+        Deque<Object> pending = new ArrayDeque<>();
+        push(pending, root);
+        while (!pending.isEmpty()) {
+            total += visit(pending.pop(), pending);
+        }
+        return total;
+    }
+
+    public static long estimate(Object root) {
+        return new SizeEstimator().add(root);
+    }
+
+    private void push(Deque<Object> pending, Object value) {
+        if (value != null && !(value instanceof Enum<?>) && !(value instanceof Class<?>) && seen.add(value)) {
+            pending.push(value);
+        }
+    }
+
+    private long visit(Object value, Deque<Object> pending) {
+        if (value instanceof String string) {
+            return stringSize(string);
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof Character) {
+            return align(HEADER + 8);
+        }
+        if (value instanceof Instant || value instanceof Duration) {
+            return align(HEADER + 12);
+        }
+        Class<?> type = value.getClass();
+        if (type.isArray()) {
+            return arraySize(value, type.getComponentType(), pending);
+        }
+        if (value instanceof Map<?, ?> map) {
+            map.forEach((key, item) -> {
+                push(pending, key);
+                push(pending, item);
+            });
+            return hashSize(map.size());
+        }
+        if (value instanceof Collection<?> collection) {
+            collection.forEach(item -> push(pending, item));
+            if (value instanceof Set<?>) {
+                return align(HEADER + REFERENCE) + hashSize(collection.size());
+            }
+            if (value instanceof LinkedList<?>) {
+                return align(HEADER + 12) + (long) collection.size() * LINKED_LIST_NODE;
+            }
+            return align(HEADER + 8) + align(ARRAY_HEADER + (long) REFERENCE * collection.size());
+        }
+        Layout layout = LAYOUTS.get(type);
+        for (Field field : layout.references()) {
+            try {
+                push(pending, field.get(value));
+            } catch (IllegalAccessException e) {
+                // counted shallowly
+            }
+        }
+        return layout.shallowSize();
+    }
+
+    private long arraySize(Object array, Class<?> componentType, Deque<Object> pending) {
+        if (componentType.isPrimitive()) {
+            int length = Array.getLength(array);
+            return align(ARRAY_HEADER + (long) length * primitiveSize(componentType));
+        }
+        Object[] items = (Object[]) array;
+        for (Object item : items) {
+            push(pending, item);
+        }
+        return align(ARRAY_HEADER + (long) REFERENCE * items.length);
+    }
+
+    private static long stringSize(String string) {
+        boolean latin1 = string.chars().allMatch(c -> c < 256);
+        return align(HEADER + 12) + align(ARRAY_HEADER + (long) string.length() * (latin1 ? 1 : 2));
+    }
+
+    private static long hashSize(int entries) {
+        int capacity = Integer.highestOneBit(Math.max(1, (int) (entries / 0.75f)) * 2 - 1);
+        return HASH_MAP + align(ARRAY_HEADER + (long) REFERENCE * Math.max(16, capacity)) + (long) entries * HASH_MAP_ENTRY;
+    }
+
+    private static int primitiveSize(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+        if (type == int.class || type == float.class) {
+            return 4;
+        }
+        if (type == short.class || type == char.class) {
+            return 2;
+        }
+        return 1;
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    /**
+     * Shallow size of a class and its reference fields that can be followed. Fields of JDK classes are
+     * not accessible from this module and are only counted shallowly.
+     */
+    private record Layout(long shallowSize, List<Field> references) {
+
+        static Layout of(Class<?> type) {
+            long size = HEADER;
+            List<Field> references = new ArrayList<>();
+            String module = type.getModule().getName();
+            boolean jdk = module != null && (module.startsWith("java.") || module.startsWith("jdk."));
+            for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+                    if (field.getType().isPrimitive()) {
+                        size += primitiveSize(field.getType());
+                        continue;
+                    }
+                    size += REFERENCE;
+                    if (!jdk && field.trySetAccessible()) {
+                        references.add(field);
+                    }
+                }
+            }
+            return new Layout(align(size), List.copyOf(references));
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package io.github.istiorouteexplorer;
+
+import io.github.istiorouteexplorer.SyntheticMeshGenerator.Shape;
+import io.github.istiorouteexplorer.config.AppProperties;
+import io.github.istiorouteexplorer.config.KubernetesClientConfig;
+import io.github.istiorouteexplorer.controller.BulkheadExceptionHandler;
+import io.github.istiorouteexplorer.kube.ResourceLoader;
+import io.github.istiorouteexplorer.model.ResourceCollection;
+import io.github.istiorouteexplorer.service.Bulkhead;
+import io.github.istiorouteexplorer.service.BulkheadFullException;
+import io.github.istiorouteexplorer.service.HistoryStore;
+import io.github.istiorouteexplorer.service.RebuildScheduler;
+import io.github.istiorouteexplorer.service.RouteExplorerService;
+import io.github.istiorouteexplorer.service.SnapshotStore;
+import io.github.istiorouteexplorer.telemetry.RouteExplorerMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RouteExplorerMetrics metrics = new RouteExplorerMetrics(registry, new AppProperties());
+
+    @Test
+    void queuesUpToTheLimitAndRejectsTheRest() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("test", new AppProperties.BulkheadLimits(1, 1, Duration.ofSeconds(2)), metrics);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> holder = threads.submit(() -> bulkhead.call(() -> {
+                running.countDown();
+                release.await();
+                return "held";
+            }));
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+            Future<String> waiting = threads.submit(() -> bulkhead.call(() -> "waited"));
+            while (bulkhead.queued() == 0) {
+                Thread.onSpinWait();
+            }
+
+            long started = System.nanoTime();
+            BulkheadFullException rejected = assertThrows(BulkheadFullException.class, () -> bulkhead.call(() -> "rejected"));
+            assertTrue(System.nanoTime() - started < TimeUnit.MILLISECONDS.toNanos(200));
+            assertEquals(Duration.ofSeconds(2), rejected.getRetryAfter());
+
+            release.countDown();
+            assertEquals("held", holder.get(5, TimeUnit.SECONDS));
+            assertEquals("waited", waiting.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals("free", bulkhead.call(() -> "free"));
+        assertEquals(1, registry.find("route.explorer.bulkhead").tags("bulkhead", "test", "outcome", "rejected").timer().count());
+        assertEquals(3, registry.find("route.explorer.bulkhead").tags("bulkhead", "test", "outcome", "admitted").timer().count());
+    }
+
+    @Test
+    void answersRejectedRequestsWithRetryAfter() {
+        ResponseEntity<Map<String, String>> response = new BulkheadExceptionHandler()
+                .handleBulkheadFull(new BulkheadFullException("busy", Duration.ofMillis(4200)));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("5", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals("busy", response.getBody().get("error"));
+    }
+
+    @Test
+    void queuedRequestsReuseTheGraphLoadedWhileTheyWaited() throws Exception {
+        AppProperties properties = new AppProperties();
+        properties.setCacheTtl(Duration.ofMinutes(1));
+        properties.setLoadBulkhead(new AppProperties.BulkheadLimits(1, 8, Duration.ofSeconds(10)));
+        ModelMapper modelMapper = new KubernetesClientConfig().modelMapper();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ResourceLoader loader = new ResourceLoader() {
+            @Override
+            public ResourceCollection load(String namespace, List<String> extraNamespaces) {
+                loads.incrementAndGet();
+                loading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return new ResourceCollection(SyntheticMeshGenerator.generate(namespace, Shape.small(), 1L)
+                        .toNamespaceResources(modelMapper), Map.of());
+            }
+
+            @Override
+            public boolean unchangedSince(String namespace, Map<String, String> resourceVersions) {
+                return true;
+            }
+        };
+        RouteExplorerService service = new RouteExplorerService(properties, loader, metrics, new SnapshotStore(properties),
+                new HistoryStore(properties), new RebuildScheduler(properties, metrics));
+
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Integer>> requests = new ArrayList<>();
+            requests.add(threads.submit(() -> service.buildRoutes("slow").getRoutes().size()));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 4; i++) {
+                requests.add(threads.submit(() -> service.buildRoutes("slow").getRoutes().size()));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (registry.counter("route.explorer.cache", "namespace", "slow", "result", "miss").count() < 5) {
+                assertTrue(System.nanoTime() < deadline, "requests did not miss the cache");
+                Thread.onSpinWait();
+            }
+            release.countDown();
+            for (Future<Integer> request : requests) {
+                assertTrue(request.get(5, TimeUnit.SECONDS) > 0);
+            }
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void servesCachedGraphsWhileLoadsAreBusy() throws Exception {
+        AppProperties properties = new AppProperties();
+        properties.setCacheTtl(Duration.ofMinutes(1));
+        properties.setLoadBulkhead(new AppProperties.BulkheadLimits(1, 0, Duration.ZERO));
+        ModelMapper modelMapper = new KubernetesClientConfig().modelMapper();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ResourceLoader loader = new ResourceLoader() {
+            @Override
+            public ResourceCollection load(String namespace, List<String> extraNamespaces) {
+                if (namespace.equals("slow")) {
+                    loading.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return new ResourceCollection(SyntheticMeshGenerator.generate(namespace, Shape.small(), 1L)
+                        .toNamespaceResources(modelMapper), Map.of());
+            }
+
+            @Override
+            public boolean unchangedSince(String namespace, Map<String, String> resourceVersions) {
+                return true;
+            }
+        };
+        RouteExplorerService service = new RouteExplorerService(properties, loader, metrics, new SnapshotStore(properties),
+                new HistoryStore(properties), new RebuildScheduler(properties, metrics));
+        int cached = service.buildRoutes("fast").getRoutes().size();
+
+        CompletableFuture<Integer> slow = CompletableFuture.supplyAsync(() -> service.buildRoutes("slow").getRoutes().size());
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        assertThrows(BulkheadFullException.class, () -> service.buildRoutes("other"));
+        assertEquals(cached, service.buildRoutes("fast").getRoutes().size());
+        release.countDown();
+        assertTrue(slow.get(5, TimeUnit.SECONDS) > 0);
+        assertFalse(service.buildRoutes("other").getRoutes().isEmpty());
+    }
+}
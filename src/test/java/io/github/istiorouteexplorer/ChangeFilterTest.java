@@ -0,0 +1,60 @@
+package io.github.istiorouteexplorer;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.ServiceBuilder;
+import io.fabric8.kubernetes.client.Watcher.Action;
+import io.github.istiorouteexplorer.kube.ChangeFilter;
+import io.github.istiorouteexplorer.kube.MetadataProjection;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeFilterTest {
+
+    private final MetadataProjection projection = new MetadataProjection(List.of(), List.of("kubectl.kubernetes.io/*"));
+
+    @Test
+    void ignoresPodStatusAndBookkeepingChanges() {
+        ChangeFilter filter = new ChangeFilter(true, projection);
+
+        assertTrue(filter.relevant(Action.ADDED, pod("1", "Pending", "v1", null)));
+        assertFalse(filter.relevant(Action.MODIFIED, pod("2", "Running", "v1", null)));
+        assertFalse(filter.relevant(Action.MODIFIED, pod("3", "Running", "v1", "2026-10-19T10:00:00Z")));
+        assertFalse(filter.relevant(Action.ADDED, pod("4", "Running", "v1", null)));
+        assertTrue(filter.relevant(Action.MODIFIED, pod("5", "Running", "v2", null)));
+        assertTrue(filter.relevant(Action.DELETED, pod("6", "Running", "v2", null)));
+    }
+
+    @Test
+    void treatsSpecChangesAndUnknownObjectsAsRelevant() {
+        ChangeFilter filter = new ChangeFilter(false, projection);
+
+        assertTrue(filter.relevant(Action.MODIFIED, service("1", 8080, "10.0.0.1")));
+        assertFalse(filter.relevant(Action.MODIFIED, service("2", 8080, "10.0.0.2")));
+        assertTrue(filter.relevant(Action.MODIFIED, service("3", 9090, "10.0.0.2")));
+    }
+
+    private static Pod pod(String resourceVersion, String phase, String version, String restartedAt) {
+        return new PodBuilder()
+                .withNewMetadata()
+                .withName("reviews-1").withUid("uid-pod").withResourceVersion(resourceVersion)
+                .addToLabels("app", "reviews").addToLabels("version", version)
+                .addToAnnotations("kubectl.kubernetes.io/restartedAt", restartedAt)
+                .endMetadata()
+                .withNewStatus().withPhase(phase).endStatus()
+                .build();
+    }
+
+    private static Service service(String resourceVersion, int port, String loadBalancerIp) {
+        return new ServiceBuilder()
+                .withNewMetadata().withName("reviews").withUid("uid-svc").withResourceVersion(resourceVersion).endMetadata()
+                .withNewSpec().addNewPort().withPort(port).endPort().endSpec()
+                .withNewStatus().withNewLoadBalancer().addNewIngress().withIp(loadBalancerIp).endIngress()
+                .endLoadBalancer().endStatus()
+                .build();
+    }
+}
@@ -0,0 +1,149 @@
+package io.github.istiorouteexplorer;
+
+import io.github.istiorouteexplorer.SyntheticMeshGenerator.Shape;
+import io.github.istiorouteexplorer.config.AppProperties;
+import io.github.istiorouteexplorer.config.KubernetesClientConfig;
+import io.github.istiorouteexplorer.kube.ResourceLoader;
+import io.github.istiorouteexplorer.model.NamespaceResources;
+import io.github.istiorouteexplorer.model.ResourceCollection;
+import io.github.istiorouteexplorer.model.Route;
+import io.github.istiorouteexplorer.model.RouteLink;
+import io.github.istiorouteexplorer.model.RouteNode;
+import io.github.istiorouteexplorer.service.HistoryStore;
+import io.github.istiorouteexplorer.service.RebuildScheduler;
+import io.github.istiorouteexplorer.service.RouteExplorer;
+import io.github.istiorouteexplorer.service.RouteExplorerService;
+import io.github.istiorouteexplorer.service.SnapshotStore;
+import io.github.istiorouteexplorer.telemetry.RouteExplorerMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClusterRoutesTest {
+
+    private static final List<String> NAMESPACES = List.of("alpha", "beta", "gamma");
+    private static final String REMOTE_HOST = "service-1.beta.svc.cluster.local";
+
+    private final ModelMapper modelMapper = new KubernetesClientConfig().modelMapper();
+    private final AtomicInteger clusterLoads = new AtomicInteger();
+    private RouteExplorerService service;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties properties = new AppProperties();
+        properties.setCacheTtl(Duration.ofMinutes(1));
+        properties.setClusterBuildParallelism(2);
+        RouteExplorerMetrics metrics = new RouteExplorerMetrics(new SimpleMeterRegistry(), properties);
+        ResourceLoader loader = new ResourceLoader() {
+            @Override
+            public ResourceCollection load(String namespace, List<String> extraNamespaces) {
+                return new ResourceCollection(namespace(namespace), Map.of());
+            }
+
+            @Override
+            public ResourceCollection loadCluster() {
+                clusterLoads.incrementAndGet();
+                Map<String, NamespaceResources> partitions = NAMESPACES.stream()
+                        .collect(Collectors.toMap(namespace -> namespace, ClusterRoutesTest.this::namespace));
+                return new ResourceCollection(NamespaceResources.empty(ALL_NAMESPACES), partitions);
+            }
+
+            @Override
+            public boolean unchangedSince(String namespace, Map<String, String> resourceVersions) {
+                return false;
+            }
+        };
+        service = new RouteExplorerService(properties, loader, metrics, new SnapshotStore(properties),
+                new HistoryStore(properties), new RebuildScheduler(properties, metrics));
+    }
+
+    @Test
+    void mergesEveryNamespaceIntoOneView() {
+        List<Route> routes = service.buildRoutes(ResourceLoader.ALL_NAMESPACES).getRoutes();
+
+        Set<String> expected = NAMESPACES.stream()
+                .filter(namespace -> !namespace.equals("gamma"))
+                .flatMap(namespace -> new RouteExplorer(new ResourceCollection(namespace(namespace), Map.of()))
+                        .buildRoutes().stream()
+                        .map(route -> route.getDestinationHost().contains(".") ? route.getDestinationHost()
+                                : route.getDestinationHost() + "." + namespace + ".svc.cluster.local"))
+                .collect(Collectors.toSet());
+        assertEquals(expected, routes.stream().map(Route::getDestinationHost).collect(Collectors.toSet()));
+        assertEquals(expected.size(), routes.size());
+        for (Route route : routes) {
+            for (RouteLink link : route.getLinks()) {
+                assertTrue(route.getNodes().containsKey(link.getFromId()), link.getFromId());
+                assertTrue(route.getNodes().containsKey(link.getToId()), link.getToId());
+            }
+            route.getNodes().forEach((id, node) -> {
+                assertEquals(id, node.getId());
+                if (node.getType() == RouteNode.Type.DEPLOYMENT) {
+                    assertTrue(id.startsWith(node.getMetadata().getNamespace() + "/"), id);
+                }
+            });
+        }
+        assertTrue(routes.stream().flatMap(route -> route.getNodes().keySet().stream())
+                .filter(id -> id.endsWith("/deployment:ingressgateway-0"))
+                .distinct().count() >= 2);
+
+        service.buildRoutes(ResourceLoader.ALL_NAMESPACES);
+        assertEquals(1, clusterLoads.get());
+    }
+
+    @Test
+    void linksDestinationsOfOtherNamespaces() {
+        RouteNode local = new RouteExplorer(new ResourceCollection(namespace("alpha"), Map.of())).buildRoutes().stream()
+                .flatMap(route -> route.getNodes().values().stream())
+                .filter(node -> node.getName().equals(REMOTE_HOST))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(RouteNode.Type.UNKNOWN, local.getType());
+
+        List<Route> routes = service.buildRoutes(ResourceLoader.ALL_NAMESPACES).getRoutes();
+
+        String remoteId = "beta/deployment:" + REMOTE_HOST;
+        Route route = routes.stream()
+                .filter(candidate -> candidate.getLinks().stream().anyMatch(link -> link.getToId().equals(remoteId)))
+                .findFirst()
+                .orElseThrow();
+        assertTrue(route.getDestinationHost().endsWith(".alpha.svc.cluster.local"), route.getDestinationHost());
+        assertEquals(RouteNode.Type.DEPLOYMENT, route.getNodes().get(remoteId).getType());
+        assertTrue(routes.stream().flatMap(candidate -> candidate.getNodes().values().stream())
+                .noneMatch(node -> node.getType() == RouteNode.Type.UNKNOWN && node.getName().equals(REMOTE_HOST)));
+    }
+
+    @Test
+    void leavesOutNamespacesThatFailToBuild() {
+        List<Route> routes = service.buildRoutes(ResourceLoader.ALL_NAMESPACES).getRoutes();
+
+        assertTrue(routes.stream().anyMatch(route -> route.getDestinationHost().endsWith(".alpha.svc.cluster.local")));
+        assertTrue(routes.stream().anyMatch(route -> route.getDestinationHost().endsWith(".beta.svc.cluster.local")));
+        assertTrue(routes.stream().noneMatch(route -> route.getDestinationHost().endsWith(".gamma.svc.cluster.local")));
+    }
+
+    /**
+     * A small synthetic namespace; alpha routes one destination to a service of beta, and gamma references a
+     * gateway of another namespace, which its build cannot resolve.
+     */
+    private NamespaceResources namespace(String namespace) {
+        NamespaceResources resources = SyntheticMeshGenerator.generate(namespace, Shape.small(), NAMESPACES.indexOf(namespace))
+                .toNamespaceResources(modelMapper);
+        if (namespace.equals("alpha")) {
+            resources.getVirtualServices().get(0).getSpec().getHttp().get(0).getRoute().get(0).getDestination()
+                    .setHost(REMOTE_HOST);
+        } else if (namespace.equals("gamma")) {
+            resources.getVirtualServices().get(1).getSpec().setGateways(List.of("istio-system/ingress"));
+        }
+        return resources;
+    }
+}
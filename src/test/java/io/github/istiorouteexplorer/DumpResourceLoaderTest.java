@@ -0,0 +1,137 @@
+package io.github.istiorouteexplorer;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.KubernetesListBuilder;
+import io.fabric8.kubernetes.client.utils.KubernetesSerialization;
+import io.github.istiorouteexplorer.SyntheticMeshGenerator.Shape;
+import io.github.istiorouteexplorer.SyntheticMeshGenerator.SyntheticMesh;
+import io.github.istiorouteexplorer.config.AppProperties;
+import io.github.istiorouteexplorer.config.KubernetesClientConfig;
+import io.github.istiorouteexplorer.kube.DumpResourceLoader;
+import io.github.istiorouteexplorer.model.NamespaceResources;
+import io.github.istiorouteexplorer.model.ResourceCollection;
+import io.github.istiorouteexplorer.service.RouteExplorer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.modelmapper.ModelMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DumpResourceLoaderTest {
+
+    private final ModelMapper modelMapper = new KubernetesClientConfig().modelMapper();
+    private final KubernetesSerialization serialization = new KubernetesSerialization();
+    private final SyntheticMesh mesh = SyntheticMeshGenerator.generate("bench", Shape.small(), 1L);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void loadsMultiDocumentYamlAndJsonListsFromDirectory() throws IOException {
+        writeDump(dir);
+
+        ResourceCollection resources = loader(dir).load("bench", List.of("istio-system"));
+
+        NamespaceResources loaded = resources.primary();
+        assertEquals(mesh.virtualServices().size(), loaded.getVirtualServices().size());
+        assertEquals(mesh.destinationRules().size(), loaded.getDestinationRules().size());
+        assertEquals(mesh.gateways().size(), loaded.getGateways().size());
+        assertEquals(mesh.services().size(), loaded.getServices().size());
+        assertEquals(mesh.deployments().size(), loaded.getDeployments().size());
+        assertEquals(mesh.replicaSets().size(), loaded.getReplicaSets().size());
+        assertEquals(mesh.pods().size(), loaded.getPods().size());
+        assertTrue(resources.extras().get("istio-system").getVirtualServices().isEmpty());
+
+        int expectedRoutes = new RouteExplorer(new ResourceCollection(mesh.toNamespaceResources(modelMapper), Map.of()))
+                .buildRoutes().size();
+        assertEquals(expectedRoutes, new RouteExplorer(resources).buildRoutes().size());
+    }
+
+    @Test
+    void loadsZipArchive() throws IOException {
+        Path files = Files.createDirectory(dir.resolve("files"));
+        writeDump(files);
+        Path archive = dir.resolve("dump.zip");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(archive));
+             Stream<Path> paths = Files.walk(files)) {
+            for (Path file : paths.filter(Files::isRegularFile).toList()) {
+                zip.putNextEntry(new ZipEntry(files.relativize(file).toString()));
+                Files.copy(file, zip);
+                zip.closeEntry();
+            }
+        }
+
+        NamespaceResources loaded = loader(archive).load("bench", List.of()).primary();
+
+        assertEquals(mesh.virtualServices().size(), loaded.getVirtualServices().size());
+        assertEquals(mesh.pods().size(), loaded.getPods().size());
+    }
+
+    @Test
+    void reusesParsedDumpUntilAFileChanges() throws IOException {
+        writeDump(dir);
+        DumpResourceLoader loader = loader(dir);
+
+        NamespaceResources first = loader.load("bench", List.of()).primary();
+        assertSame(first, loader.load("bench", List.of()).primary());
+
+        Files.writeString(dir.resolve("extra.yaml"), """
+                apiVersion: v1
+                kind: Service
+                metadata:
+                  name: added
+                  namespace: bench
+                spec:
+                  ports:
+                  - port: 80
+                """);
+        NamespaceResources reloaded = loader.load("bench", List.of()).primary();
+
+        assertNotSame(first, reloaded);
+        assertEquals(first.getServices().size() + 1, reloaded.getServices().size());
+    }
+
+    private DumpResourceLoader loader(Path dump) {
+        AppProperties properties = new AppProperties();
+        properties.setOfflineDump(dump.toString());
+        return new DumpResourceLoader(properties, modelMapper);
+    }
+
+    /**
+     * Istio resources as one multi-document YAML file, Kubernetes resources as {@code kubectl get -o json}
+     * lists in a subdirectory, plus a Gateway API gateway that must not be read as an Istio gateway.
+     */
+    private void writeDump(Path target) throws IOException {
+        String istio = Stream.of(mesh.virtualServices(), mesh.destinationRules(), mesh.gateways(), mesh.serviceEntries())
+                .flatMap(List::stream)
+                .map(serialization::asYaml)
+                .collect(Collectors.joining("\n"));
+        Files.writeString(target.resolve("istio.yaml"), istio + """
+                ---
+                apiVersion: gateway.networking.k8s.io/v1
+                kind: Gateway
+                metadata:
+                  name: waypoint
+                  namespace: bench
+                """);
+        Path workloads = Files.createDirectory(target.resolve("workloads"));
+        writeList(workloads.resolve("services.json"), mesh.services());
+        writeList(workloads.resolve("deployments.json"), mesh.deployments());
+        writeList(workloads.resolve("replicasets.json"), mesh.replicaSets());
+        writeList(workloads.resolve("pods.json"), mesh.pods());
+    }
+
+    private void writeList(Path file, List<? extends HasMetadata> items) throws IOException {
+        Files.writeString(file, serialization.asJson(new KubernetesListBuilder().withItems(List.copyOf(items)).build()));
+    }
+}
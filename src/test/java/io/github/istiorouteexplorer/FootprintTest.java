@@ -0,0 +1,117 @@
+package io.github.istiorouteexplorer;
+
+import io.github.istiorouteexplorer.SyntheticMeshGenerator.Shape;
+import io.github.istiorouteexplorer.config.AppProperties;
+import io.github.istiorouteexplorer.config.KubernetesClientConfig;
+import io.github.istiorouteexplorer.kube.IstioResourceLoader;
+import io.github.istiorouteexplorer.model.ResourceCollection;
+import io.github.istiorouteexplorer.model.RoutesResponse;
+import io.github.istiorouteexplorer.model.footprint.FootprintReport;
+import io.github.istiorouteexplorer.model.footprint.NamespaceFootprint;
+import io.github.istiorouteexplorer.service.HistoryStore;
+import io.github.istiorouteexplorer.service.RebuildScheduler;
+import io.github.istiorouteexplorer.service.RouteExplorer;
+import io.github.istiorouteexplorer.service.RouteExplorerService;
+import io.github.istiorouteexplorer.service.RouteSnapshot;
+import io.github.istiorouteexplorer.service.SnapshotStore;
+import io.github.istiorouteexplorer.telemetry.RouteExplorerMetrics;
+import io.github.istiorouteexplorer.telemetry.SizeEstimator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FootprintTest {
+
+    private final ModelMapper modelMapper = new KubernetesClientConfig().modelMapper();
+
+    @Test
+    void countsSharedObjectsOnce() {
+        String shared = "abcdefgh";
+        SizeEstimator estimator = new SizeEstimator();
+
+        long first = estimator.add(new ArrayList<>(List.of(shared)));
+        long second = estimator.add(new ArrayList<>(List.of(shared)));
+
+        assertEquals(48, SizeEstimator.estimate(shared));
+        assertEquals(first - 48, second);
+    }
+
+    @Test
+    void splitsSnapshotByKindAndAddsGraphOnceBuilt() {
+        RouteExplorer explorer = new RouteExplorer(new ResourceCollection(SyntheticMeshGenerator
+                .generate("bench", Shape.small(), 1L).toNamespaceResources(modelMapper), Map.of()));
+        RouteSnapshot snapshot = new RouteSnapshot(1, Instant.now(), new RoutesResponse(explorer.buildRoutes()));
+
+        Map<String, Long> bytes = snapshot.footprint();
+        assertTrue(bytes.keySet().stream().anyMatch(kind -> kind.startsWith("nodes:")), bytes.toString());
+        assertTrue(bytes.get("links") > 0, bytes.toString());
+        assertFalse(bytes.containsKey("graph"));
+
+        snapshot.getGraph();
+        assertTrue(snapshot.footprint().get("graph") > 0);
+        assertEquals(snapshot.footprint().values().stream().mapToLong(Long::longValue).sum(), snapshot.estimatedBytes());
+    }
+
+    @Test
+    void evictsOldestVersionsWhenSizeLimitIsReached() {
+        AppProperties properties = properties();
+        properties.setMaxRetainedSize(DataSize.ofBytes(1));
+        RouteExplorerService service = service(properties);
+
+        service.buildRoutes("a");
+        service.buildRoutes("a");
+        service.buildRoutes("b");
+
+        FootprintReport report = service.footprint();
+        assertEquals(2, report.evictions());
+        assertEquals(List.of("b"), report.namespaces().stream().map(NamespaceFootprint::namespace).toList());
+        assertEquals(1, report.namespaces().get(0).snapshots().size());
+        assertTrue(report.retainedBytes() > 0);
+    }
+
+    @Test
+    void evictsLeastRecentlyBuiltNamespace() {
+        AppProperties properties = properties();
+        properties.setMaxRetainedNamespaces(2);
+        RouteExplorerService service = service(properties);
+
+        service.buildRoutes("a");
+        service.buildRoutes("b");
+        service.buildRoutes("c");
+
+        FootprintReport report = service.footprint();
+        assertEquals(1, report.evictions());
+        assertEquals(List.of("b", "c"), report.namespaces().stream().map(NamespaceFootprint::namespace).sorted().toList());
+    }
+
+    private AppProperties properties() {
+        AppProperties properties = new AppProperties();
+        properties.setCacheTtl(Duration.ZERO);
+        return properties;
+    }
+
+    private RouteExplorerService service(AppProperties properties) {
+        RouteExplorerMetrics metrics = new RouteExplorerMetrics(new SimpleMeterRegistry(), properties);
+        AtomicLong seeds = new AtomicLong();
+        IstioResourceLoader loader = new IstioResourceLoader(properties, null, null, modelMapper, metrics) {
+            @Override
+            public ResourceCollection load(String namespace, List<String> extraNamespaces) {
+                return new ResourceCollection(SyntheticMeshGenerator
+                        .generate(namespace, Shape.small(), seeds.incrementAndGet())
+                        .toNamespaceResources(modelMapper), Map.of());
+            }
+        };
+        return new RouteExplorerService(properties, loader, metrics, new SnapshotStore(properties), new HistoryStore(properties),
+                new RebuildScheduler(properties, metrics));
+    }
+}
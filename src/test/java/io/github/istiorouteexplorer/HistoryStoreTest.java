@@ -0,0 +1,130 @@
+package io.github.istiorouteexplorer;
+
+import io.github.istiorouteexplorer.SyntheticMeshGenerator.Shape;
+import io.github.istiorouteexplorer.config.AppProperties;
+import io.github.istiorouteexplorer.config.KubernetesClientConfig;
+import io.github.istiorouteexplorer.model.ResourceCollection;
+import io.github.istiorouteexplorer.model.Route;
+import io.github.istiorouteexplorer.model.RoutesResponse;
+import io.github.istiorouteexplorer.service.HistoricalState;
+import io.github.istiorouteexplorer.service.HistoryStore;
+import io.github.istiorouteexplorer.service.RouteExplorer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.modelmapper.ModelMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistoryStoreTest {
+
+    private final ModelMapper modelMapper = new KubernetesClientConfig().modelMapper();
+    private final Instant start = Instant.parse("2026-03-01T14:00:00Z");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void replaysFullStatesAndDeltasAtAnyTime() throws Exception {
+        HistoryStore store = new HistoryStore(properties(2, Duration.ZERO));
+        ResourceCollection first = resources(1L);
+        ResourceCollection second = resources(2L);
+        store.append("bench", start, 1, first, routes(first));
+        store.append("bench", start.plusSeconds(60), 2, second, routes(second));
+        store.append("bench", start.plusSeconds(120), 3, first, routes(first));
+        store.close();
+
+        assertTrue(store.stateAt("bench", start.minusSeconds(1)).isEmpty());
+        HistoricalState atFirst = store.stateAt("bench", start.plusSeconds(30)).orElseThrow();
+        assertEquals(start, atFirst.recordedAt());
+        assertEquals(sorted(routes(first)), sorted(atFirst.routes()));
+        assertEquals(first.primary().getPods().size(), atFirst.resources().primary().getPods().size());
+
+        HistoricalState atSecond = store.stateAt("bench", start.plusSeconds(90)).orElseThrow();
+        assertEquals(2, atSecond.version());
+        assertEquals(sorted(routes(second)), sorted(atSecond.routes()));
+        assertEquals(second.primary().getVirtualServices(), atSecond.resources().primary().getVirtualServices());
+
+        assertEquals(sorted(routes(first)), sorted(store.stateAt("bench", start.plusSeconds(500)).orElseThrow().routes()));
+        assertEquals(2, segmentCount());
+    }
+
+    @Test
+    void skipsBuildsWithoutChanges() throws Exception {
+        HistoryStore store = new HistoryStore(properties(64, Duration.ZERO));
+        ResourceCollection resources = resources(1L);
+        store.append("bench", start, 1, resources, routes(resources));
+        store.append("bench", start.plusSeconds(15), 1, resources, routes(resources));
+        store.close();
+
+        assertEquals(start, store.stateAt("bench", start.plusSeconds(30)).orElseThrow().recordedAt());
+    }
+
+    @Test
+    void deletesSegmentsPastRetention() throws Exception {
+        HistoryStore store = new HistoryStore(properties(1, Duration.ofHours(1)));
+        ResourceCollection first = resources(1L);
+        ResourceCollection second = resources(2L);
+        store.append("bench", start, 1, first, routes(first));
+        store.append("bench", start.plus(Duration.ofHours(1)), 2, second, routes(second));
+        store.append("bench", start.plus(Duration.ofHours(3)), 3, first, routes(first));
+        store.close();
+
+        assertEquals(2, segmentCount());
+        assertTrue(store.stateAt("bench", start.plusSeconds(60)).isEmpty());
+        assertEquals(2, store.stateAt("bench", start.plus(Duration.ofHours(2))).orElseThrow().version());
+    }
+
+    @Test
+    void neverLeavesTheHistoryDirectory() throws Exception {
+        Path outside = Files.createDirectories(dir.resolve("outside"));
+        AppProperties properties = properties(64, Duration.ZERO);
+        properties.setHistoryDir(Files.createDirectories(dir.resolve("history")).toString());
+        HistoryStore store = new HistoryStore(properties);
+        ResourceCollection resources = resources(1L);
+        store.append("../outside", start, 1, resources, routes(resources));
+        store.close();
+
+        try (Stream<Path> files = Files.list(outside)) {
+            assertEquals(0, files.count());
+        }
+        assertThrows(IOException.class, () -> store.stateAt("../outside", start.plusSeconds(30)));
+        assertThrows(IOException.class, () -> store.stateAt("/etc", start.plusSeconds(30)));
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(dir.resolve("bench"))) {
+            return files.count();
+        }
+    }
+
+    private ResourceCollection resources(long seed) {
+        return new ResourceCollection(SyntheticMeshGenerator.generate("bench", Shape.small(), seed)
+                .toNamespaceResources(modelMapper), Map.of());
+    }
+
+    private static RoutesResponse routes(ResourceCollection resources) {
+        return new RoutesResponse(new RouteExplorer(resources).buildRoutes());
+    }
+
+    private static List<Route> sorted(RoutesResponse routes) {
+        return routes.getRoutes().stream().sorted(Comparator.comparing(Route::getDestinationHost)).toList();
+    }
+
+    private AppProperties properties(int segmentRecords, Duration retention) {
+        AppProperties properties = new AppProperties();
+        properties.setHistoryDir(dir.toString());
+        properties.setHistorySegmentRecords(segmentRecords);
+        properties.setHistoryRetention(retention);
+        return properties;
+    }
+}
@@ -7,12 +7,15 @@ import io.fabric8.istio.client.IstioClient;
 import io.fabric8.kubernetes.client.Config;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.KubernetesClientBuilder;
+import io.github.istiorouteexplorer.config.AppProperties;
 import io.github.istiorouteexplorer.config.KubernetesClientConfig;
 import io.github.istiorouteexplorer.kube.IstioResourceLoader;
 import io.github.istiorouteexplorer.model.ResourceCollection;
 import io.github.istiorouteexplorer.model.Route;
 import io.github.istiorouteexplorer.model.RouteNode;
 import io.github.istiorouteexplorer.service.RouteExplorer;
+import io.github.istiorouteexplorer.telemetry.RouteExplorerMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.Test;
@@ -37,7 +40,8 @@ class IstioClientTest {
         IstioClient istioClient = new DefaultIstioClient(kubernetesClient);
 
         ModelMapper modelMapper = new KubernetesClientConfig().modelMapper();
-        IstioResourceLoader loader = new IstioResourceLoader(kubernetesClient, istioClient, modelMapper);
+        IstioResourceLoader loader = new IstioResourceLoader(new AppProperties(), kubernetesClient, istioClient, modelMapper,
+                new RouteExplorerMetrics(new SimpleMeterRegistry(), new AppProperties()));
         ResourceCollection resourceCollection = loader.load("fort-istio", List.of());
 
         RouteExplorer explorer = new RouteExplorer(resourceCollection);
@@ -0,0 +1,164 @@
+package io.github.istiorouteexplorer;
+
+import io.fabric8.istio.client.DefaultIstioClient;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.server.mock.KubernetesMockServer;
+import io.fabric8.mockwebserver.http.Headers;
+import io.fabric8.mockwebserver.http.RecordedRequest;
+import io.fabric8.mockwebserver.utils.ResponseProvider;
+import io.github.istiorouteexplorer.SyntheticMeshGenerator.Shape;
+import io.github.istiorouteexplorer.config.AppProperties;
+import io.github.istiorouteexplorer.config.KubernetesClientConfig;
+import io.github.istiorouteexplorer.kube.IstioResourceLoader;
+import io.github.istiorouteexplorer.model.NamespaceResources;
+import io.github.istiorouteexplorer.model.kubernetes.PodDto;
+import io.github.istiorouteexplorer.telemetry.RouteExplorerMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IstioResourceLoaderTest {
+
+    private static final String NAMESPACE = "mesh";
+
+    private final AppProperties properties = new AppProperties();
+    private KubernetesMockServer server;
+    private KubernetesClient client;
+
+    @BeforeEach
+    void setUp() {
+        server = MockApiServer.start();
+        client = server.createClient();
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.destroy();
+    }
+
+    @Test
+    void listsPodsAndReplicaSetsAsMetadataOnly() throws Exception {
+        MockApiServer.seed(server, SyntheticMeshGenerator.generate(NAMESPACE, Shape.small(), 1L));
+        drainRequests();
+
+        NamespaceResources resources = loader().load(NAMESPACE, List.of()).primary();
+
+        PodDto pod = resources.getPods().get(0);
+        assertEquals("ReplicaSet", pod.getMetadata().getOwnerReferences().get(0).getKind());
+        assertEquals("true", pod.getMetadata().getAnnotations().get("sidecar.istio.io/inject"));
+        assertNull(pod.getSpec());
+        assertFalse(resources.getReplicaSets().isEmpty());
+        assertEquals("Deployment", resources.getReplicaSets().get(0).getMetadata().getOwnerReferences().get(0).getKind());
+
+        List<RecordedRequest> metadataLists = drainRequests().stream()
+                .filter(request -> request.getPath().contains("/pods") || request.getPath().contains("/replicasets"))
+                .toList();
+        assertEquals(2, metadataLists.size());
+        metadataLists.forEach(request ->
+                assertTrue(request.getHeader("Accept").contains("as=PartialObjectMetadataList"), request.getPath()));
+    }
+
+    @Test
+    void readsPartialObjectMetadataLists() throws Exception {
+        properties.setListPageSize(0);
+        server.expect().get().withPath("/api/v1/namespaces/" + NAMESPACE + "/pods")
+                .andReturn(200, """
+                        {"kind":"PartialObjectMetadataList","apiVersion":"meta.k8s.io/v1","metadata":{},
+                         "items":[{"kind":"PartialObjectMetadata","apiVersion":"meta.k8s.io/v1",
+                                   "metadata":{"name":"web-1","namespace":"mesh","labels":{"app":"web"},
+                                               "ownerReferences":[{"kind":"ReplicaSet","name":"web-5f7c9d"}]}}]}
+                        """)
+                .always();
+
+        List<PodDto> pods = loader().load(NAMESPACE, List.of()).primary().getPods();
+
+        assertEquals(1, pods.size());
+        assertEquals("web-1", pods.get(0).getMetadata().getName());
+        assertEquals("web", pods.get(0).getMetadata().getLabels().get("app"));
+        assertEquals("web-5f7c9d", pods.get(0).getMetadata().getOwnerReferences().get(0).getName());
+    }
+
+    @Test
+    void appliesPodLabelSelectorServerSide() throws Exception {
+        MockApiServer.seed(server, SyntheticMeshGenerator.generate(NAMESPACE, Shape.small(), 1L));
+        properties.setPodLabelSelector("app=workload-0");
+        properties.setListPageSize(0);
+
+        List<PodDto> pods = loader().load(NAMESPACE, List.of()).primary().getPods();
+
+        assertFalse(pods.isEmpty());
+        pods.forEach(pod -> assertEquals("workload-0", pod.getMetadata().getLabels().get("app")));
+    }
+
+    @Test
+    void followsContinueTokensAndRestartsWhenTheyExpire() throws Exception {
+        String pods = "/api/v1/namespaces/" + NAMESPACE + "/pods";
+        server.expect().get().withPath(pods + "?limit=2").andReturn(200, podPage("t1", "web-1", "web-2")).times(2);
+        AtomicInteger continued = new AtomicInteger();
+        server.expect().get().withPath(pods + "?limit=2&continue=t1").andReply(new ResponseProvider<Object>() {
+            private Headers headers = new Headers.Builder().build();
+
+            @Override
+            public int getStatusCode(RecordedRequest request) {
+                return continued.get() == 0 ? 410 : 200;
+            }
+
+            @Override
+            public Object getBody(RecordedRequest request) {
+                return continued.getAndIncrement() == 0
+                        ? "{\"kind\":\"Status\",\"apiVersion\":\"v1\",\"status\":\"Failure\",\"reason\":\"Expired\",\"code\":410}"
+                        : podPage(null, "web-3");
+            }
+
+            @Override
+            public Headers getHeaders() {
+                return headers;
+            }
+
+            @Override
+            public void setHeaders(Headers headers) {
+                this.headers = headers;
+            }
+        }).always();
+        properties.setListPageSize(2);
+
+        List<PodDto> result = loader().load(NAMESPACE, List.of()).primary().getPods();
+
+        assertEquals(List.of("web-1", "web-2", "web-3"), result.stream().map(pod -> pod.getMetadata().getName()).toList());
+    }
+
+    private static String podPage(String continueToken, String... names) {
+        String items = Arrays.stream(names)
+                .map(name -> "{\"metadata\":{\"name\":\"" + name + "\",\"namespace\":\"" + NAMESPACE + "\"}}")
+                .collect(Collectors.joining(","));
+        String metadata = continueToken == null ? "{}" : "{\"continue\":\"" + continueToken + "\"}";
+        return "{\"kind\":\"PartialObjectMetadataList\",\"apiVersion\":\"meta.k8s.io/v1\",\"metadata\":" + metadata
+                + ",\"items\":[" + items + "]}";
+    }
+
+    private IstioResourceLoader loader() {
+        return new IstioResourceLoader(properties, client, new DefaultIstioClient(client),
+                new KubernetesClientConfig().modelMapper(),
+                new RouteExplorerMetrics(new SimpleMeterRegistry(), properties));
+    }
+
+    private List<RecordedRequest> drainRequests() throws InterruptedException {
+        List<RecordedRequest> requests = new ArrayList<>();
+        RecordedRequest request;
+        while ((request = server.takeRequest(10, TimeUnit.MILLISECONDS)) != null) {
+            requests.add(request);
+        }
+        return requests;
+    }
+}
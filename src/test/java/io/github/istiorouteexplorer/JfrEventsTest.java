@@ -0,0 +1,46 @@
+package io.github.istiorouteexplorer;
+
+import io.github.istiorouteexplorer.SyntheticMeshGenerator.Shape;
+import io.github.istiorouteexplorer.config.KubernetesClientConfig;
+import io.github.istiorouteexplorer.model.ResourceCollection;
+import io.github.istiorouteexplorer.service.RouteExplorer;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JfrEventsTest {
+
+    @Test
+    void recordsRouteBuildWithPhases(@TempDir Path dir) throws Exception {
+        RouteExplorer explorer = new RouteExplorer(new ResourceCollection(SyntheticMeshGenerator
+                .generate("bench", Shape.small(), 1L)
+                .toNamespaceResources(new KubernetesClientConfig().modelMapper()), Map.of()));
+
+        Path file = dir.resolve("build.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("io.github.istiorouteexplorer.RouteBuild");
+            recording.start();
+            explorer.buildRoutes();
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals("io.github.istiorouteexplorer.RouteBuild"))
+                .toList();
+        assertEquals(1, events.size());
+        RecordedEvent event = events.get(0);
+        assertEquals("bench", event.getString("namespace"));
+        assertEquals(Shape.small().virtualServices(), event.getInt("routes"));
+        assertTrue(event.getInt("links") > 0);
+        assertTrue(event.getDuration("linkCreation").toNanos() > 0);
+    }
+}
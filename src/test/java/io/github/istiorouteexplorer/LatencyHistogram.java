@@ -0,0 +1,56 @@
+package io.github.istiorouteexplorer;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Thread-safe latency recorder for load tests. Keeps every sample so percentiles are exact and renders a
+ * power-of-two millisecond histogram for the report.
+ */
+final class LatencyHistogram {
+
+    private long[] samples = new long[1024];
+    private int count;
+
+    synchronized void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    synchronized int count() {
+        return count;
+    }
+
+    /**
+     * Latency at quantile {@code q} (0..1) in milliseconds.
+     */
+    synchronized double percentileMillis(double q) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.min(count - 1, Math.max(0, Math.ceil(q * count) - 1));
+        return sorted[index] / 1_000_000.0;
+    }
+
+    synchronized String render() {
+        int[] buckets = new int[32];
+        for (int i = 0; i < count; i++) {
+            long millis = samples[i] / 1_000_000;
+            buckets[Math.min(buckets.length - 1, 64 - Long.numberOfLeadingZeros(millis))]++;
+        }
+        StringBuilder out = new StringBuilder();
+        for (int bucket = 0; bucket < buckets.length; bucket++) {
+            if (buckets[bucket] == 0) {
+                continue;
+            }
+            long upper = bucket == 0 ? 1 : 1L << bucket;
+            int width = (int) Math.round(50.0 * buckets[bucket] / count);
+            out.append(String.format(Locale.ROOT, "  < %6d ms %7d %s%n", upper, buckets[bucket], "#".repeat(width)));
+        }
+        return out.toString();
+    }
+}
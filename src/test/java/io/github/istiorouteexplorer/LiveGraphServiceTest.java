@@ -0,0 +1,248 @@
+package io.github.istiorouteexplorer;
+
+import io.github.istiorouteexplorer.SyntheticMeshGenerator.Shape;
+import io.github.istiorouteexplorer.config.AppProperties;
+import io.github.istiorouteexplorer.config.KubernetesClientConfig;
+import io.github.istiorouteexplorer.kube.ResourceLoader;
+import io.github.istiorouteexplorer.model.ResourceCollection;
+import io.github.istiorouteexplorer.model.Route;
+import io.github.istiorouteexplorer.model.live.GraphDelta;
+import io.github.istiorouteexplorer.model.live.LiveGraph;
+import io.github.istiorouteexplorer.service.HistoryStore;
+import io.github.istiorouteexplorer.service.LiveGraphService.Subscription;
+import io.github.istiorouteexplorer.service.LiveGraphService;
+import io.github.istiorouteexplorer.service.RebuildScheduler;
+import io.github.istiorouteexplorer.service.RouteExplorerService;
+import io.github.istiorouteexplorer.service.SnapshotStore;
+import io.github.istiorouteexplorer.telemetry.RouteExplorerMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LiveGraphServiceTest {
+
+    private final ModelMapper modelMapper = new KubernetesClientConfig().modelMapper();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicLong seed = new AtomicLong(1);
+    private final AtomicInteger loads = new AtomicInteger();
+    private final List<Runnable> watchers = new CopyOnWriteArrayList<>();
+    private final List<Runnable> closers = new CopyOnWriteArrayList<>();
+    private final AtomicInteger failingWatches = new AtomicInteger();
+    private volatile boolean failingLoads;
+    private final AtomicInteger openWatches = new AtomicInteger();
+    private final AtomicInteger watchCalls = new AtomicInteger();
+    private volatile CountDownLatch watchGate = new CountDownLatch(0);
+    private final AppProperties properties = new AppProperties();
+    private RouteExplorerService routes;
+    private LiveGraphService live;
+
+    @AfterEach
+    void tearDown() {
+        if (live != null) {
+            live.close();
+        }
+    }
+
+    @Test
+    void sendsGraphThenOneDeltaPerCoalescedBurst() throws InterruptedException {
+        properties.setRebuildDebounce(Duration.ofMillis(200));
+        start();
+        List<Event> events = new CopyOnWriteArrayList<>();
+        Subscription subscription = live.subscribe("bench", (event, version, data) -> events.add(new Event(event, data)));
+        await(() -> events.size() == 1);
+        assertEquals(1, openWatches.get());
+
+        seed.set(2);
+        watchers.forEach(Runnable::run);
+        watchers.forEach(Runnable::run);
+        watchers.forEach(Runnable::run);
+        await(() -> events.size() == 2);
+        Thread.sleep(300);
+
+        assertEquals(2, loads.get());
+        assertEquals(List.of("graph", "delta"), events.stream().map(Event::name).toList());
+        GraphDelta delta = (GraphDelta) events.get(1).data();
+        assertEquals(((LiveGraph) events.get(0).data()).version(), delta.fromVersion());
+        assertFalse(delta.changes().isEmpty());
+        assertEquals(sorted(routes.buildRoutes("bench").getRoutes()), apply(events));
+
+        subscription.close();
+        assertEquals(0, live.subscribers("bench"));
+        assertEquals(0, openWatches.get());
+    }
+
+    @Test
+    void resyncsSlowSubscriberWithFullGraph() throws InterruptedException {
+        properties.setRebuildDebounce(Duration.ZERO);
+        properties.setLiveMaxPendingEvents(2);
+        start();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Event> events = new CopyOnWriteArrayList<>();
+        live.subscribe("bench", (event, version, data) -> {
+            events.add(new Event(event, data));
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        await(() -> events.size() == 1);
+
+        for (int build = 2; build <= 6; build++) {
+            seed.set(build);
+            watchers.forEach(Runnable::run);
+            int expected = build;
+            await(() -> loads.get() == expected);
+        }
+        release.countDown();
+        await(() -> events.size() >= 2 && sorted(routes.buildRoutes("bench").getRoutes()).equals(apply(events)));
+
+        assertEquals("graph", events.get(1).name());
+        assertTrue(registry.counter("route.explorer.live.resyncs", "namespace", "bench").count() >= 1);
+    }
+
+    @Test
+    void keepsServingSubscribersWhileAWatchIsOpening() throws Exception {
+        start();
+        watchGate = new CountDownLatch(1);
+        List<Event> first = new CopyOnWriteArrayList<>();
+        CompletableFuture<Subscription> opening = CompletableFuture.supplyAsync(
+                () -> live.subscribe("bench", (event, version, data) -> first.add(new Event(event, data))));
+        await(() -> watchCalls.get() == 1);
+
+        List<Event> second = new CopyOnWriteArrayList<>();
+        CompletableFuture.supplyAsync(
+                () -> live.subscribe("bench", (event, version, data) -> second.add(new Event(event, data))))
+                .get(2, TimeUnit.SECONDS);
+        await(() -> first.size() == 1 && second.size() == 1);
+        assertEquals(2, live.subscribers("bench"));
+
+        watchGate.countDown();
+        opening.get(5, TimeUnit.SECONDS);
+        assertEquals(1, watchCalls.get());
+        assertEquals(1, openWatches.get());
+    }
+
+    @Test
+    void retriesOpeningWatchesThatFailed() throws InterruptedException {
+        properties.setRebuildRetryDelay(Duration.ofMillis(50));
+        failingWatches.set(2);
+        start();
+        List<Event> events = new CopyOnWriteArrayList<>();
+        live.subscribe("bench", (event, version, data) -> events.add(new Event(event, data)));
+
+        await(() -> openWatches.get() == 1);
+        assertEquals(3, watchCalls.get());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void reopensClosedWatchEvenWhenItsRebuildFails() throws InterruptedException {
+        properties.setRebuildDebounce(Duration.ZERO);
+        properties.setRebuildRetryDelay(Duration.ofMillis(50));
+        start();
+        List<Event> events = new CopyOnWriteArrayList<>();
+        live.subscribe("bench", (event, version, data) -> events.add(new Event(event, data)));
+        await(() -> openWatches.get() == 1);
+
+        failingLoads = true;
+        closers.forEach(Runnable::run);
+
+        await(() -> watchCalls.get() == 2 && openWatches.get() == 1);
+        assertTrue(loads.get() >= 2, "loads: " + loads.get());
+        assertEquals(1, events.size());
+    }
+
+    private void start() {
+        properties.setCacheTtl(Duration.ofMinutes(1));
+        RouteExplorerMetrics metrics = new RouteExplorerMetrics(registry, properties);
+        ResourceLoader loader = new ResourceLoader() {
+            @Override
+            public ResourceCollection load(String namespace, List<String> extraNamespaces) {
+                loads.incrementAndGet();
+                if (failingLoads) {
+                    throw new IllegalStateException("api server unavailable");
+                }
+                return new ResourceCollection(SyntheticMeshGenerator.generate(namespace, Shape.small(), seed.get())
+                        .toNamespaceResources(modelMapper), Map.of());
+            }
+
+            @Override
+            public boolean unchangedSince(String namespace, Map<String, String> resourceVersions) {
+                return false;
+            }
+
+            @Override
+            public ResourceWatch watch(String namespace, Map<String, String> resourceVersions,
+                                       Runnable onChange, Runnable onClose) throws IOException {
+                watchCalls.incrementAndGet();
+                if (failingWatches.getAndUpdate(left -> Math.max(0, left - 1)) > 0) {
+                    throw new IOException("connection refused");
+                }
+                try {
+                    watchGate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                watchers.add(onChange);
+                closers.add(onClose);
+                openWatches.incrementAndGet();
+                return () -> {
+                    watchers.remove(onChange);
+                    closers.remove(onClose);
+                    openWatches.decrementAndGet();
+                };
+            }
+        };
+        routes = new RouteExplorerService(properties, loader, metrics, new SnapshotStore(properties),
+                new HistoryStore(properties), new RebuildScheduler(properties, metrics));
+        live = new LiveGraphService(properties, routes, loader, metrics);
+    }
+
+    private static List<Route> apply(List<Event> events) {
+        Map<String, Route> graph = new TreeMap<>();
+        for (Event event : new ArrayList<>(events)) {
+            if (event.data() instanceof LiveGraph full) {
+                graph.clear();
+                full.routes().forEach(route -> graph.put(route.getDestinationHost(), route));
+            } else if (event.data() instanceof GraphDelta delta) {
+                delta.upserted().forEach(route -> graph.put(route.getDestinationHost(), route));
+                delta.removed().forEach(graph::remove);
+            }
+        }
+        return new ArrayList<>(graph.values());
+    }
+
+    private static List<Route> sorted(List<Route> routes) {
+        return routes.stream().sorted(Comparator.comparing(Route::getDestinationHost)).toList();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out");
+            Thread.sleep(10);
+        }
+    }
+
+    private record Event(String name, Object data) {
+    }
+}
@@ -1,12 +1,17 @@
 package io.github.istiorouteexplorer;
 
 import io.fabric8.istio.api.api.networking.v1alpha3.Destination;
+import io.fabric8.istio.api.api.networking.v1alpha3.HTTPMatchRequest;
 import io.fabric8.istio.api.api.networking.v1alpha3.HTTPRoute;
 import io.fabric8.istio.api.api.networking.v1alpha3.HTTPRouteDestination;
 import io.fabric8.istio.api.api.networking.v1alpha3.PortSelector;
+import io.fabric8.istio.api.api.networking.v1alpha3.StringMatch;
+import io.fabric8.istio.api.api.networking.v1alpha3.StringMatchExact;
+import io.fabric8.istio.api.api.networking.v1alpha3.StringMatchPrefix;
 import io.fabric8.istio.api.networking.v1beta1.VirtualService;
 import io.fabric8.kubernetes.api.model.ObjectMeta;
 import io.github.istiorouteexplorer.config.KubernetesClientConfig;
+import io.github.istiorouteexplorer.model.istio.HttpMatchRequestDto;
 import io.github.istiorouteexplorer.model.istio.HttpRouteDestinationDto;
 import io.github.istiorouteexplorer.model.istio.HttpRouteDto;
 import io.github.istiorouteexplorer.model.istio.VirtualServiceDto;
@@ -14,6 +19,7 @@ import org.junit.jupiter.api.Test;
 import org.modelmapper.ModelMapper;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -71,4 +77,20 @@ class MapperTest {
         assertEquals("v1", mappedDestination.getDestination().getSubset());
         assertEquals(80, mappedDestination.getWeight());
     }
+
+    @Test
+    void mapsStringMatchesByMatchType() {
+        ModelMapper mapper = new KubernetesClientConfig().modelMapper();
+
+        HTTPMatchRequest match = new HTTPMatchRequest();
+        match.setUri(new StringMatch(new StringMatchPrefix("/api")));
+        match.setHeaders(Map.of("x-canary", new StringMatch(new StringMatchExact("true"))));
+
+        HttpMatchRequestDto dto = mapper.map(match, HttpMatchRequestDto.class);
+
+        assertEquals("/api", dto.getUri().getPrefix());
+        assertTrue(dto.getUri().isPrefixMatch());
+        assertEquals("true", dto.getHeaders().get("x-canary").getExact());
+        assertTrue(dto.getHeaders().get("x-canary").isExactMatch());
+    }
 }
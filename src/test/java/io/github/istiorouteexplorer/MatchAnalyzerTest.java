@@ -0,0 +1,197 @@
+package io.github.istiorouteexplorer;
+
+import io.github.istiorouteexplorer.model.analysis.MatchFinding;
+import io.github.istiorouteexplorer.model.analysis.MatchFindingType;
+import io.github.istiorouteexplorer.model.istio.HttpMatchRequestDto;
+import io.github.istiorouteexplorer.model.istio.HttpRouteDto;
+import io.github.istiorouteexplorer.model.istio.StringMatchDto;
+import io.github.istiorouteexplorer.model.istio.VirtualServiceDto;
+import io.github.istiorouteexplorer.model.istio.VirtualServiceSpecDto;
+import io.github.istiorouteexplorer.model.kubernetes.ObjectMetadataDto;
+import io.github.istiorouteexplorer.service.MatchAnalyzer;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatchAnalyzerTest {
+
+    @Test
+    void detectsShadowedOverlappingAndUnreachableRules() {
+        VirtualServiceDto virtualService = virtualService(
+                rule("api", uri(StringMatchDto.fromPrefix("/api"))),
+                rule("api-v1", uri(StringMatchDto.fromPrefix("/api/v1"))),
+                rule("health", uri(StringMatchDto.fromRegex("/health[a-z]*"))),
+                rule("healthz", uri(StringMatchDto.fromExact("/healthz"))),
+                rule("canary", header("/web/admin", "x-canary", StringMatchDto.fromExact("true"))),
+                rule("web", uri(StringMatchDto.fromPrefix("/web"))),
+                rule("beta", header("/shop", "x-beta", StringMatchDto.fromExact("1"))),
+                rule("shop-user", header("/shop/cart", "x-user", StringMatchDto.fromExact("a"))),
+                rule("default"),
+                rule("after-default", uri(StringMatchDto.fromPrefix("/other"))));
+
+        List<MatchFinding> findings = MatchAnalyzer.analyze(virtualService);
+
+        assertEquals(List.of(
+                        "SHADOWED api-v1 by api",
+                        "SHADOWED healthz by health",
+                        "OVERLAPPING shop-user by beta",
+                        "UNREACHABLE after-default by default"),
+                findings.stream().map(f -> f.type() + " " + f.ruleName() + " by " + f.byRuleName()).toList());
+        assertEquals(List.of("reviews"), findings.get(0).hosts());
+        assertTrue(findings.stream().noneMatch(f -> f.type() == MatchFindingType.OVERLAPPING && "web".equals(f.ruleName())));
+    }
+
+    @Test
+    void ruleIsShadowedOnlyWhenAllMatchesAreCovered() {
+        VirtualServiceDto virtualService = virtualService(
+                rule("first", uri(StringMatchDto.fromPrefix("/a"))),
+                rule("second", uri(StringMatchDto.fromPrefix("/a/b")), uri(StringMatchDto.fromPrefix("/c"))),
+                rule("third", uri(StringMatchDto.fromExact("/c/d")), uri(StringMatchDto.fromExact("/a"))));
+
+        List<MatchFinding> findings = MatchAnalyzer.analyze(virtualService);
+
+        assertEquals(1, findings.size());
+        assertEquals("third", findings.get(0).ruleName());
+        assertEquals(MatchFindingType.SHADOWED, findings.get(0).type());
+        assertEquals(1, findings.get(0).byRule());
+    }
+
+    @Test
+    void comparesMatchesWithoutUriWithEveryEarlierRule() {
+        VirtualServiceDto catchAllFirst = virtualService(
+                rule("canary", header(null, "x-canary", StringMatchDto.fromExact("true"))),
+                rule("api-canary", header("/api", "x-canary", StringMatchDto.fromExact("true"))));
+        VirtualServiceDto catchAllLast = virtualService(
+                rule("login", uri(StringMatchDto.fromExact("/login"))),
+                rule("api", header("/api", "x-canary", StringMatchDto.fromExact("true"))),
+                rule("user", header(null, "x-user", StringMatchDto.fromExact("a"))));
+
+        assertEquals(List.of("SHADOWED api-canary by canary"), MatchAnalyzer.analyze(catchAllFirst).stream()
+                .map(f -> f.type() + " " + f.ruleName() + " by " + f.byRuleName()).toList());
+        assertEquals(List.of("OVERLAPPING user by login"), MatchAnalyzer.analyze(catchAllLast).stream()
+                .map(f -> f.type() + " " + f.ruleName() + " by " + f.byRuleName()).toList());
+    }
+
+    @Test
+    void comparesMatchesWithoutUriOncePerConditionSet() {
+        int paths = 40_000;
+        HttpRouteDto[] rules = new HttpRouteDto[2 * paths];
+        for (int i = 0; i < paths; i++) {
+            rules[i] = rule("path-" + i, uri(StringMatchDto.fromExact("/p" + i)));
+            rules[paths + i] = rule("canary-" + i, header(null, "x-canary", StringMatchDto.fromExact("true")));
+        }
+        VirtualServiceDto virtualService = virtualService(rules);
+
+        List<MatchFinding> findings = assertTimeout(Duration.ofSeconds(5),
+                () -> MatchAnalyzer.analyze(virtualService));
+
+        assertEquals("OVERLAPPING canary-0 by path-0", describe(findings.get(0)));
+        assertEquals(paths - 1, findings.stream().filter(f -> f.type() == MatchFindingType.SHADOWED
+                && f.byRule() == paths).count());
+        assertEquals(paths, findings.size());
+    }
+
+    @Test
+    void rootPrefixAndLiteralStartCoverLaterRegex() {
+        VirtualServiceDto rootFirst = virtualService(
+                rule("root", uri(StringMatchDto.fromPrefix("/"))),
+                rule("versioned", uri(StringMatchDto.fromRegex("/api/v[0-9]+"))));
+        VirtualServiceDto emptyFirst = virtualService(
+                rule("everything", uri(StringMatchDto.fromPrefix(""))),
+                rule("any", uri(StringMatchDto.fromRegex(".*\\.css"))));
+        VirtualServiceDto apiFirst = virtualService(
+                rule("api", uri(StringMatchDto.fromPrefix("/api"))),
+                rule("versioned", uri(StringMatchDto.fromRegex("/api/v[0-9]+"))),
+                rule("assets", uri(StringMatchDto.fromRegex("/assets/.*"))));
+
+        assertEquals(List.of("SHADOWED versioned by root"), describe(MatchAnalyzer.analyze(rootFirst)));
+        assertEquals(List.of("SHADOWED any by everything"), describe(MatchAnalyzer.analyze(emptyFirst)));
+        assertEquals(List.of("SHADOWED versioned by api"), describe(MatchAnalyzer.analyze(apiFirst)));
+    }
+
+    @Test
+    void comparesUriCaseFlagsOfBothRules() {
+        VirtualServiceDto sensitiveFirst = virtualService(
+                rule("api", uri(StringMatchDto.fromPrefix("/api"))),
+                rule("api-v1", ignoringCase(uri(StringMatchDto.fromPrefix("/api/v1")))));
+        VirtualServiceDto insensitiveFirst = virtualService(
+                rule("api", ignoringCase(uri(StringMatchDto.fromPrefix("/API")))),
+                rule("api-v1", uri(StringMatchDto.fromPrefix("/api/v1"))));
+        VirtualServiceDto rootFirst = virtualService(
+                rule("root", uri(StringMatchDto.fromPrefix("/"))),
+                rule("login", ignoringCase(uri(StringMatchDto.fromExact("/Login")))));
+
+        assertEquals(List.of("OVERLAPPING api-v1 by api"), describe(MatchAnalyzer.analyze(sensitiveFirst)));
+        assertEquals(List.of("SHADOWED api-v1 by api"), describe(MatchAnalyzer.analyze(insensitiveFirst)));
+        assertEquals(List.of("SHADOWED login by root"), describe(MatchAnalyzer.analyze(rootFirst)));
+    }
+
+    @Test
+    void comparesLaterPrefixWithEarlierExactAndRegexRules() {
+        VirtualServiceDto exactFirst = virtualService(
+                rule("cart", header("/shop/cart", "x-user", StringMatchDto.fromExact("a"))),
+                rule("shop", header("/shop", "x-beta", StringMatchDto.fromExact("1"))));
+        VirtualServiceDto regexFirst = virtualService(
+                rule("item", regexHeader("/shop/item-[0-9]+", "x-user", StringMatchDto.fromExact("a"))),
+                rule("health", uri(StringMatchDto.fromRegex("/health[a-z]*"))),
+                rule("shop", header("/shop", "x-beta", StringMatchDto.fromExact("1"))),
+                rule("web", uri(StringMatchDto.fromPrefix("/web"))));
+
+        assertEquals(List.of("OVERLAPPING shop by cart"), describe(MatchAnalyzer.analyze(exactFirst)));
+        assertEquals(List.of("OVERLAPPING shop by item"), describe(MatchAnalyzer.analyze(regexFirst)));
+    }
+
+    private static List<String> describe(List<MatchFinding> findings) {
+        return findings.stream().map(MatchAnalyzerTest::describe).toList();
+    }
+
+    private static String describe(MatchFinding finding) {
+        return finding.type() + " " + finding.ruleName() + " by " + finding.byRuleName();
+    }
+
+    private VirtualServiceDto virtualService(HttpRouteDto... rules) {
+        VirtualServiceSpecDto spec = new VirtualServiceSpecDto();
+        spec.setHosts(List.of("reviews"));
+        spec.setHttp(Arrays.asList(rules));
+        VirtualServiceDto virtualService = new VirtualServiceDto();
+        virtualService.setMetadata(new ObjectMetadataDto("reviews", "bookinfo", Map.of(), Map.of()));
+        virtualService.setSpec(spec);
+        return virtualService;
+    }
+
+    private HttpRouteDto rule(String name, HttpMatchRequestDto... matches) {
+        HttpRouteDto route = new HttpRouteDto();
+        route.setName(name);
+        route.setMatch(matches.length == 0 ? null : new ArrayList<>(Arrays.asList(matches)));
+        return route;
+    }
+
+    private HttpMatchRequestDto uri(StringMatchDto uri) {
+        HttpMatchRequestDto match = new HttpMatchRequestDto();
+        match.setUri(uri);
+        return match;
+    }
+
+    private HttpMatchRequestDto ignoringCase(HttpMatchRequestDto match) {
+        match.setIgnoreUriCase(true);
+        return match;
+    }
+
+    private HttpMatchRequestDto regexHeader(String regex, String header, StringMatchDto value) {
+        HttpMatchRequestDto match = uri(StringMatchDto.fromRegex(regex));
+        match.getHeaders().put(header, value);
+        return match;
+    }
+
+    private HttpMatchRequestDto header(String prefix, String header, StringMatchDto value) {
+        HttpMatchRequestDto match = uri(StringMatchDto.fromPrefix(prefix));
+        match.getHeaders().put(header, value);
+        return match;
+    }
+}
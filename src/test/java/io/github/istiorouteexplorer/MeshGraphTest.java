@@ -0,0 +1,113 @@
+package io.github.istiorouteexplorer;
+
+import io.github.istiorouteexplorer.model.Route;
+import io.github.istiorouteexplorer.model.RouteNode;
+import io.github.istiorouteexplorer.model.graph.GraphNodeHit;
+import io.github.istiorouteexplorer.model.graph.GraphPath;
+import io.github.istiorouteexplorer.model.graph.TraversalDirection;
+import io.github.istiorouteexplorer.model.kubernetes.ObjectMetadataDto;
+import io.github.istiorouteexplorer.service.InvalidRequestException;
+import io.github.istiorouteexplorer.service.MeshGraph;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MeshGraphTest {
+
+    @Test
+    void answersReachabilityAndPathQueries() {
+        // ingress -> frontend -> backend -> db, ingress -> backend, mesh -> backend
+        Route frontend = new Route("frontend", List.of());
+        frontend.addNode(node("ingress", RouteNode.Type.DEPLOYMENT));
+        frontend.addLink("ingress", node("frontend", RouteNode.Type.DEPLOYMENT), "HTTP", 80L, List.of());
+        Route backend = new Route("backend", List.of());
+        backend.addNode(node("frontend", RouteNode.Type.DEPLOYMENT));
+        backend.addLink("frontend", node("backend", RouteNode.Type.DEPLOYMENT), "HTTP", 8080L, List.of());
+        backend.getNodes().put("ingress", node("ingress", RouteNode.Type.DEPLOYMENT));
+        backend.addLink("ingress", node("backend", RouteNode.Type.DEPLOYMENT), "HTTP", 8080L, List.of());
+        backend.getNodes().put("mesh", node("mesh", RouteNode.Type.MESH));
+        backend.addLink("mesh", node("backend", RouteNode.Type.DEPLOYMENT), "HTTP", 8080L, List.of());
+        Route db = new Route("db", List.of());
+        db.addNode(node("backend", RouteNode.Type.DEPLOYMENT));
+        db.addLink("backend", node("db", RouteNode.Type.SERVICE_ENTRY), "TCP", 5432L, List.of());
+
+        MeshGraph graph = MeshGraph.build(7, List.of(frontend, backend, db));
+
+        assertEquals(7, graph.getVersion());
+        assertEquals(5, graph.nodeCount());
+        assertEquals(5, graph.linkCount());
+
+        List<String> downstream = graph.reachable("ingress", TraversalDirection.FORWARD, Integer.MAX_VALUE).stream()
+                .map(GraphNodeHit::id)
+                .toList();
+        assertEquals(List.of("frontend", "backend", "db"), downstream);
+
+        List<GraphNodeHit> upstream = graph.reachable("db", TraversalDirection.REVERSE, Integer.MAX_VALUE);
+        assertEquals(List.of("backend", "frontend", "ingress", "mesh"), upstream.stream().map(GraphNodeHit::id).toList());
+        assertEquals(1, graph.reachable("db", TraversalDirection.REVERSE, 1).size());
+
+        List<GraphPath> shortest = graph.shortestPaths("ingress", "db", 5);
+        assertEquals(2, shortest.size());
+        assertEquals(List.of("ingress", "backend", "db"), shortest.get(0).nodeIds());
+        assertEquals(List.of("ingress", "frontend", "backend", "db"), shortest.get(1).nodeIds());
+        assertEquals(5432L, shortest.get(0).links().get(1).getPort());
+
+        assertEquals(2, graph.allPaths("ingress", "db", 16, 100).size());
+        assertEquals(1, graph.allPaths("ingress", "db", 2, 100).size());
+        assertTrue(graph.shortestPaths("db", "ingress", 3).isEmpty());
+        assertSame(shortest, graph.shortestPaths("ingress", "db", 5));
+        assertThrows(InvalidRequestException.class, () -> graph.reachable("missing", TraversalDirection.FORWARD, 1));
+    }
+
+    @Test
+    void enumeratesPathsAlongLongChainsWithoutRecursion() {
+        int length = 100_000;
+        Route chain = new Route("chain", List.of());
+        chain.addNode(node("n0", RouteNode.Type.DEPLOYMENT));
+        for (int i = 1; i < length; i++) {
+            chain.addLink("n" + (i - 1), node("n" + i, RouteNode.Type.DEPLOYMENT), "HTTP", 80L, List.of());
+        }
+        MeshGraph graph = MeshGraph.build(1, List.of(chain));
+
+        List<GraphPath> paths = graph.allPaths("n0", "n" + (length - 1), Integer.MAX_VALUE, 10);
+
+        assertEquals(1, paths.size());
+        assertEquals(length, paths.get(0).nodeIds().size());
+        assertTrue(graph.allPaths("n0", "n" + (length - 1), length - 2, 10).isEmpty());
+    }
+
+    @Test
+    void stopsEnumeratingPathsAfterVisitBudget() {
+        // 24 fully connected layers of 4 nodes: 4^24 paths to the last layer, none to the isolated node
+        int layers = 24;
+        int width = 4;
+        Route mesh = new Route("layers", List.of());
+        mesh.addNode(node("source", RouteNode.Type.DEPLOYMENT));
+        mesh.addNode(node("isolated", RouteNode.Type.DEPLOYMENT));
+        for (int layer = 0; layer < layers; layer++) {
+            for (int to = 0; to < width; to++) {
+                RouteNode target = node("l" + layer + "-" + to, RouteNode.Type.DEPLOYMENT);
+                if (layer == 0) {
+                    mesh.addLink("source", target, "HTTP", 80L, List.of());
+                }
+                for (int from = 0; layer > 0 && from < width; from++) {
+                    mesh.addLink("l" + (layer - 1) + "-" + from, target, "HTTP", 80L, List.of());
+                }
+            }
+        }
+        MeshGraph graph = MeshGraph.build(1, List.of(mesh));
+
+        List<GraphPath> paths = assertTimeout(Duration.ofSeconds(5),
+                () -> graph.allPaths("source", "isolated", Integer.MAX_VALUE, 100));
+
+        assertTrue(paths.isEmpty());
+        assertEquals(100, graph.allPaths("source", "l23-0", Integer.MAX_VALUE, 100).size());
+    }
+
+    private RouteNode node(String id, RouteNode.Type type) {
+        return new RouteNode(id, id, type, new ObjectMetadataDto());
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.istiorouteexplorer;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.github.istiorouteexplorer.SyntheticMeshGenerator.Shape;
+import io.github.istiorouteexplorer.config.AppProperties;
+import io.github.istiorouteexplorer.config.KubernetesClientConfig;
+import io.github.istiorouteexplorer.kube.MetadataProjection;
+import io.github.istiorouteexplorer.model.kubernetes.ObjectMetadataDto;
+import io.github.istiorouteexplorer.model.kubernetes.PodDto;
+import io.github.istiorouteexplorer.telemetry.SizeEstimator;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetadataProjectionTest {
+
+    private final ModelMapper modelMapper = new KubernetesClientConfig().modelMapper();
+
+    @Test
+    void filtersAnnotationsWithAllowAndDenyLists() {
+        MetadataProjection projection = new MetadataProjection(List.of("sidecar.istio.io/*", "team"),
+                List.of("sidecar.istio.io/status"));
+        ObjectMetadataDto metadata = new ObjectMetadataDto("pod", "default", Map.of("app", "web"), Map.of(
+                "sidecar.istio.io/inject", "true",
+                "sidecar.istio.io/status", "{}",
+                "kubectl.kubernetes.io/last-applied-configuration", "{}",
+                "team", "payments",
+                "team.example.com/owner", "someone"));
+
+        projection.apply(metadata);
+
+        assertEquals(Map.of("sidecar.istio.io/inject", "true", "team", "payments"), metadata.getAnnotations());
+        assertEquals(Map.of("app", "web"), metadata.getLabels());
+    }
+
+    @Test
+    void sharesIdenticalMetadataMaps() {
+        MetadataProjection projection = new MetadataProjection(List.of(), List.of());
+        ObjectMetadataDto first = new ObjectMetadataDto("a", "default", new HashMap<>(Map.of("app", "web")), null);
+        ObjectMetadataDto second = new ObjectMetadataDto("b", "default", new HashMap<>(Map.of("app", "web")), new HashMap<>());
+
+        projection.apply(first);
+        projection.apply(second);
+
+        assertSame(first.getLabels(), second.getLabels());
+        assertNull(first.getAnnotations());
+        assertEquals(Map.of(), second.getAnnotations());
+    }
+
+    @Test
+    void reducesRetainedHeapOfTenThousandPods() {
+        List<Pod> pods = SyntheticMeshGenerator.generate("bench", new Shape(0, 0, 0, 100, 10_000, 0, 0), 1L).pods();
+        pods.forEach(pod -> {
+            Map<String, String> annotations = new HashMap<>(pod.getMetadata().getAnnotations());
+            annotations.put("sidecar.istio.io/status", "{\"initContainers\":[\"istio-init\"],\"containers\":[\"istio-proxy\"],"
+                    + "\"volumes\":[\"workload-socket\",\"credential-socket\",\"workload-certs\",\"istio-envoy\",\"istio-data\","
+                    + "\"istio-podinfo\",\"istio-token\",\"istiod-ca-cert\"],\"imagePullSecrets\":null,"
+                    + "\"revision\":\"default\"}");
+            annotations.put("prometheus.io/scrape", "true");
+            annotations.put("prometheus.io/port", "15020");
+            annotations.put("prometheus.io/path", "/stats/prometheus");
+            annotations.put("kubectl.kubernetes.io/restartedAt", "2024-05-01T10:00:00Z");
+            pod.getMetadata().setAnnotations(annotations);
+        });
+        List<PodDto> before = pods.stream().map(pod -> modelMapper.map(pod, PodDto.class)).toList();
+        List<PodDto> after = pods.stream().map(pod -> modelMapper.map(pod, PodDto.class)).toList();
+        AppProperties defaults = new AppProperties();
+        MetadataProjection projection = new MetadataProjection(defaults.getAnnotationAllowList(), defaults.getAnnotationDenyList());
+        after.forEach(pod -> projection.apply(pod.getMetadata()));
+
+        long beforeBytes = SizeEstimator.estimate(before);
+        long afterBytes = SizeEstimator.estimate(after);
+        assertTrue(afterBytes < beforeBytes / 2, beforeBytes + " -> " + afterBytes);
+        assertEquals("true", after.get(0).getMetadata().getAnnotations().get("sidecar.istio.io/inject"));
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.istiorouteexplorer;
+
+import io.fabric8.istio.api.networking.v1alpha3.EnvoyFilter;
+import io.fabric8.istio.api.networking.v1beta1.DestinationRule;
+import io.fabric8.istio.api.networking.v1beta1.Gateway;
+import io.fabric8.istio.api.networking.v1beta1.ServiceEntry;
+import io.fabric8.istio.api.networking.v1beta1.VirtualService;
+import io.fabric8.istio.api.networking.v1beta1.WorkloadEntry;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.apiextensions.v1.CustomResourceDefinition;
+import io.fabric8.kubernetes.api.model.apiextensions.v1.CustomResourceDefinitionBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.server.mock.KubernetesMixedDispatcher;
+import io.fabric8.kubernetes.client.server.mock.KubernetesMockServer;
+import io.fabric8.mockwebserver.Context;
+import io.fabric8.mockwebserver.MockWebServer;
+import io.fabric8.mockwebserver.ServerRequest;
+import io.fabric8.mockwebserver.ServerResponse;
+import io.github.istiorouteexplorer.SyntheticMeshGenerator.SyntheticMesh;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.stream.Stream;
+
+/**
+ * fabric8 mock API server in CRUD mode with the Istio CRDs registered. Expectations added through
+ * {@code expect()} take precedence over the stored objects.
+ */
+final class MockApiServer {
+
+    private MockApiServer() {
+    }
+
+    static KubernetesMockServer start() {
+        Map<ServerRequest, Queue<ServerResponse>> expectations = new HashMap<>();
+        KubernetesMockServer server = new KubernetesMockServer(new Context(), new MockWebServer(), expectations,
+                new KubernetesMixedDispatcher(expectations), false);
+        server.init();
+        try (KubernetesClient client = server.createClient()) {
+            Stream.of(VirtualService.class, DestinationRule.class, Gateway.class, ServiceEntry.class,
+                            WorkloadEntry.class, EnvoyFilter.class)
+                    .forEach(type -> client.apiextensions().v1().customResourceDefinitions()
+                            .resource(customResourceDefinition(type)).create());
+        }
+        return server;
+    }
+
+    static void seed(KubernetesMockServer server, SyntheticMesh mesh) {
+        try (KubernetesClient client = server.createClient()) {
+            Stream.of(mesh.virtualServices(), mesh.destinationRules(), mesh.gateways(), mesh.serviceEntries(),
+                            mesh.services(), mesh.deployments(), mesh.replicaSets(), mesh.pods())
+                    .flatMap(List::stream)
+                    .forEach(resource -> client.resource((HasMetadata) resource).create());
+        }
+    }
+
+    private static CustomResourceDefinition customResourceDefinition(Class<? extends HasMetadata> type) {
+        return new CustomResourceDefinitionBuilder()
+                .withNewMetadata().withName(HasMetadata.getFullResourceName(type)).endMetadata()
+                .withNewSpec()
+                .withGroup(HasMetadata.getGroup(type))
+                .withScope("Namespaced")
+                .withNewNames()
+                .withKind(HasMetadata.getKind(type))
+                .withPlural(HasMetadata.getPlural(type))
+                .withSingular(HasMetadata.getSingular(type))
+                .endNames()
+                .addNewVersion().withName(HasMetadata.getVersion(type)).withServed(true).withStorage(true).endVersion()
+                .endSpec()
+                .build();
+    }
+}
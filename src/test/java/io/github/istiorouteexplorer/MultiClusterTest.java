@@ -0,0 +1,231 @@
+package io.github.istiorouteexplorer;
+
+import io.github.istiorouteexplorer.SyntheticMeshGenerator.Shape;
+import io.github.istiorouteexplorer.config.AppProperties;
+import io.github.istiorouteexplorer.config.KubernetesClientConfig;
+import io.github.istiorouteexplorer.kube.MultiClusterResourceLoader;
+import io.github.istiorouteexplorer.kube.ResourceLoader;
+import io.github.istiorouteexplorer.model.NamespaceResources;
+import io.github.istiorouteexplorer.model.ResourceCollection;
+import io.github.istiorouteexplorer.model.Route;
+import io.github.istiorouteexplorer.model.RouteLink;
+import io.github.istiorouteexplorer.model.RouteNode;
+import io.github.istiorouteexplorer.model.istio.PortDto;
+import io.github.istiorouteexplorer.model.istio.ServerDto;
+import io.github.istiorouteexplorer.model.istio.ServerTlsMode;
+import io.github.istiorouteexplorer.model.istio.ServerTlsSettingsDto;
+import io.github.istiorouteexplorer.service.HistoryStore;
+import io.github.istiorouteexplorer.service.RebuildScheduler;
+import io.github.istiorouteexplorer.service.RouteExplorerService;
+import io.github.istiorouteexplorer.service.SnapshotStore;
+import io.github.istiorouteexplorer.telemetry.RouteExplorerMetrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MultiClusterTest {
+
+    private static final String REMOTE_HOST = "service-1.beta.svc.cluster.local";
+    private static final String GATEWAY_ID = "west/beta/deployment:ingressgateway-0";
+
+    private final ModelMapper modelMapper = new KubernetesClientConfig().modelMapper();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicReference<String> west = new AtomicReference<>("ok");
+    private final AtomicInteger westLoads = new AtomicInteger();
+    private final CountDownLatch cancelled = new CountDownLatch(1);
+    private final CountDownLatch stuck = new CountDownLatch(1);
+    private MultiClusterResourceLoader loader;
+    private RouteExplorerService service;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties properties = new AppProperties();
+        properties.setCacheTtl(Duration.ofMinutes(1));
+        properties.setMaxRetainedNamespaces(2);
+        RouteExplorerMetrics metrics = new RouteExplorerMetrics(registry, properties);
+        ResourceLoader eastLoader = new FakeLoader() {
+            @Override
+            public ResourceCollection load(String namespace, List<String> extraNamespaces) {
+                NamespaceResources alpha = namespace(namespace, 0);
+                alpha.getVirtualServices().get(0).getSpec().getHttp().get(0).getRoute().get(0).getDestination()
+                        .setHost(REMOTE_HOST);
+                return new ResourceCollection(alpha, Map.of());
+            }
+        };
+        NamespaceResources beta = namespace("beta", 1);
+        ServerDto server = new ServerDto();
+        PortDto port = new PortDto();
+        port.setNumber(15443L);
+        server.setPort(port);
+        ServerTlsSettingsDto tls = new ServerTlsSettingsDto();
+        tls.setMode(ServerTlsMode.AUTO_PASSTHROUGH);
+        server.setTls(tls);
+        beta.getGateways().get(0).getSpec().setServers(List.of(server));
+        ResourceLoader westLoader = new FakeLoader() {
+            @Override
+            public ResourceCollection load(String namespace, List<String> extraNamespaces) throws IOException {
+                westLoads.incrementAndGet();
+                if (west.get().equals("slow")) {
+                    try {
+                        Thread.sleep(5_000);
+                    } catch (InterruptedException e) {
+                        cancelled.countDown();
+                        Thread.currentThread().interrupt();
+                    }
+                } else if (west.get().equals("stuck")) {
+                    while (stuck.getCount() > 0) {
+                        try {
+                            stuck.await();
+                        } catch (InterruptedException e) {
+                            // ignores cancellation like a blocking call that cannot be interrupted
+                        }
+                    }
+                } else if (west.get().equals("failing")) {
+                    throw new IOException("connection refused");
+                }
+                return new ResourceCollection(NamespaceResources.empty(namespace), Map.of("beta", beta));
+            }
+        };
+        loader = new MultiClusterResourceLoader(List.of(
+                new MultiClusterResourceLoader.Member("east", eastLoader, Duration.ofSeconds(5), null),
+                new MultiClusterResourceLoader.Member("west", westLoader, Duration.ofSeconds(1), null)), metrics);
+        service = new RouteExplorerService(properties, loader, metrics, new SnapshotStore(properties),
+                new HistoryStore(properties), new RebuildScheduler(properties, metrics));
+    }
+
+    @AfterEach
+    void tearDown() {
+        stuck.countDown();
+        loader.close();
+    }
+
+    @Test
+    void linksClustersThroughTheEastWestGateway() {
+        List<Route> routes = service.buildRoutes("alpha").getRoutes();
+
+        for (Route route : routes) {
+            route.getNodes().forEach((id, node) -> {
+                assertEquals(id, node.getId());
+                if (node.getType() == RouteNode.Type.DEPLOYMENT) {
+                    assertTrue(id.startsWith("east/alpha/") || id.startsWith("west/beta/"), id);
+                }
+            });
+        }
+        String remoteId = "west/beta/deployment:" + REMOTE_HOST;
+        Route route = routes.stream()
+                .filter(candidate -> candidate.getNodes().containsKey(remoteId))
+                .findFirst()
+                .orElseThrow();
+        RouteLink toGateway = route.getLinks().stream()
+                .filter(link -> link.getToId().equals(GATEWAY_ID))
+                .findFirst()
+                .orElseThrow();
+        assertTrue(toGateway.getFromId().startsWith("east/alpha/") || !toGateway.getFromId().contains("/"),
+                toGateway.getFromId());
+        assertEquals("TLS", toGateway.getProtocol());
+        assertEquals(15443L, toGateway.getPort());
+        assertTrue(route.getLinks().stream()
+                .anyMatch(link -> link.getFromId().equals(GATEWAY_ID) && link.getToId().equals(remoteId)));
+        assertTrue(route.getLinks().stream().noneMatch(link -> link.getToId().equals(remoteId)
+                && !link.getFromId().equals(GATEWAY_ID)));
+        assertEquals(1, loads("west", "ok"));
+    }
+
+    @Test
+    void servesTheLastLoadedResourcesOfASlowCluster() {
+        service.buildRoutes("alpha");
+        west.set("slow");
+
+        long started = System.nanoTime();
+        List<Route> routes = service.refresh("alpha").getResponse().getRoutes();
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - started).compareTo(Duration.ofSeconds(4)) < 0);
+        assertTrue(routes.stream().anyMatch(route -> route.getNodes().containsKey(GATEWAY_ID)));
+        assertEquals(1, loads("west", "stale"));
+        assertEquals(2, loads("east", "ok"));
+    }
+
+    @Test
+    void cancelsLoadsThatTimeOut() throws InterruptedException {
+        service.buildRoutes("alpha");
+        west.set("slow");
+
+        service.refresh("alpha");
+
+        assertTrue(cancelled.await(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void skipsClustersWhoseLastLoadIsStillRunning() {
+        service.buildRoutes("alpha");
+        west.set("stuck");
+        service.refresh("alpha");
+
+        long started = System.nanoTime();
+        List<Route> routes = service.refresh("alpha").getResponse().getRoutes();
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - started).compareTo(Duration.ofMillis(500)) < 0);
+        assertTrue(routes.stream().anyMatch(route -> route.getNodes().containsKey(GATEWAY_ID)));
+        assertEquals(2, westLoads.get());
+        assertEquals(2, loads("west", "stale"));
+    }
+
+    @Test
+    void forgetsTheLastLoadedResourcesOfEvictedNamespaces() {
+        service.buildRoutes("alpha");
+        service.buildRoutes("gamma");
+        service.buildRoutes("delta");
+        west.set("slow");
+
+        List<Route> routes = service.refresh("alpha").getResponse().getRoutes();
+
+        assertTrue(routes.stream().noneMatch(route -> route.getNodes().containsKey(GATEWAY_ID)));
+        assertEquals(0, loads("west", "stale"));
+        assertEquals(1, loads("west", "failed"));
+    }
+
+    @Test
+    void leavesOutClustersThatNeverAnswered() {
+        west.set("failing");
+
+        List<Route> routes = service.buildRoutes("alpha").getRoutes();
+
+        assertFalse(routes.isEmpty());
+        assertTrue(routes.stream().flatMap(route -> route.getNodes().keySet().stream())
+                .noneMatch(id -> id.startsWith("west/")));
+        assertTrue(routes.stream().flatMap(route -> route.getNodes().values().stream())
+                .anyMatch(node -> node.getType() == RouteNode.Type.UNKNOWN && node.getName().equals(REMOTE_HOST)));
+        assertEquals(1, loads("west", "failed"));
+    }
+
+    private long loads(String cluster, String outcome) {
+        Timer timer = registry.find("route.explorer.cluster.loads").tags("cluster", cluster, "outcome", outcome).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private NamespaceResources namespace(String namespace, long seed) {
+        return SyntheticMeshGenerator.generate(namespace, Shape.small(), seed).toNamespaceResources(modelMapper);
+    }
+
+    private abstract static class FakeLoader implements ResourceLoader {
+
+        @Override
+        public boolean unchangedSince(String namespace, Map<String, String> resourceVersions) {
+            return false;
+        }
+    }
+}
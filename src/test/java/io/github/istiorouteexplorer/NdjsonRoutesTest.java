@@ -0,0 +1,149 @@
+package io.github.istiorouteexplorer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.istiorouteexplorer.SyntheticMeshGenerator.Shape;
+import io.github.istiorouteexplorer.config.AppProperties;
+import io.github.istiorouteexplorer.config.KubernetesClientConfig;
+import io.github.istiorouteexplorer.controller.InvalidRequestExceptionHandler;
+import io.github.istiorouteexplorer.controller.RouteExplorerController;
+import io.github.istiorouteexplorer.kube.ResourceLoader;
+import io.github.istiorouteexplorer.model.ResourceCollection;
+import io.github.istiorouteexplorer.model.Route;
+import io.github.istiorouteexplorer.service.HistoryStore;
+import io.github.istiorouteexplorer.service.LiveGraphService;
+import io.github.istiorouteexplorer.service.RebuildScheduler;
+import io.github.istiorouteexplorer.service.RouteExplorerService;
+import io.github.istiorouteexplorer.service.SnapshotStore;
+import io.github.istiorouteexplorer.telemetry.RouteExplorerMetrics;
+import io.github.istiorouteexplorer.telemetry.ServerTiming;
+import io.github.istiorouteexplorer.telemetry.ServerTimingInterceptor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class NdjsonRoutesTest {
+
+    private final ModelMapper modelMapper = new KubernetesClientConfig().modelMapper();
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private RouteExplorerService service;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties properties = new AppProperties();
+        properties.setCacheTtl(Duration.ofMinutes(1));
+        RouteExplorerMetrics metrics = new RouteExplorerMetrics(new SimpleMeterRegistry(), properties);
+        ResourceLoader loader = new ResourceLoader() {
+            @Override
+            public ResourceCollection load(String namespace, List<String> extraNamespaces) {
+                return new ResourceCollection(SyntheticMeshGenerator.generate(namespace, Shape.small(), 1L)
+                        .toNamespaceResources(modelMapper), Map.of());
+            }
+
+            @Override
+            public boolean unchangedSince(String namespace, Map<String, String> resourceVersions) {
+                return false;
+            }
+        };
+        service = new RouteExplorerService(properties, loader, metrics, new SnapshotStore(properties),
+                new HistoryStore(properties), new RebuildScheduler(properties, metrics));
+        RouteExplorerController controller = new RouteExplorerController(service,
+                new LiveGraphService(properties, service, loader, metrics), objectMapper);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .addMappedInterceptors(new String[]{"/api/routes/**"}, new ServerTimingInterceptor())
+                .setControllerAdvice(new InvalidRequestExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void streamsOneRoutePerLine() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/routes").param("namespace", "bench")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andExpect(header().exists(ServerTiming.HEADER))
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertTrue(body.endsWith("\n"));
+        List<Route> expected = sorted(service.buildRoutes("bench").getRoutes());
+        assertEquals(expected.size(), lines.length);
+        List<Route> streamed = new ArrayList<>();
+        for (String line : lines) {
+            streamed.add(objectMapper.readValue(line, Route.class));
+        }
+        assertEquals(expected.stream().map(Route::getDestinationHost).toList(),
+                sorted(streamed).stream().map(Route::getDestinationHost).toList());
+    }
+
+    @Test
+    void appliesFiltersSortAndPaging() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/routes").param("namespace", "bench")
+                        .param("sort", "-host").param("limit", "2")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andExpect(header().string("X-Total-Count", String.valueOf(service.buildRoutes("bench").getRoutes().size())))
+                .andExpect(header().exists("X-Next-Cursor"))
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> hosts = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            hosts.add(objectMapper.readValue(line, Route.class).getDestinationHost());
+        }
+        List<String> expected = sorted(service.buildRoutes("bench").getRoutes()).stream()
+                .map(Route::getDestinationHost).toList().reversed();
+        assertEquals(expected.subList(0, 2), hosts);
+
+        mockMvc.perform(get("/api/routes").param("namespace", "bench").param("sort", "size")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void answersInvalidParametersWithJsonError() throws Exception {
+        mockMvc.perform(get("/api/routes").param("namespace", "Not_A_Namespace")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.error").value(containsString("Not_A_Namespace")));
+    }
+
+    @Test
+    void keepsJsonDocumentAsDefault() throws Exception {
+        mockMvc.perform(get("/api/routes").param("namespace", "bench"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.routes").isArray());
+    }
+
+    private static List<Route> sorted(List<Route> routes) {
+        return routes.stream().sorted(Comparator.comparing(Route::getDestinationHost)).toList();
+    }
+}
@@ -0,0 +1,143 @@
+package io.github.istiorouteexplorer;
+
+import io.github.istiorouteexplorer.config.AppProperties;
+import io.github.istiorouteexplorer.service.RebuildScheduler;
+import io.github.istiorouteexplorer.service.RebuildScheduler.Priority;
+import io.github.istiorouteexplorer.telemetry.RouteExplorerMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RebuildSchedulerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AppProperties properties = new AppProperties();
+    private RebuildScheduler scheduler;
+
+    @AfterEach
+    void tearDown() {
+        scheduler.close();
+    }
+
+    @Test
+    void coalescesBurstIntoOneRebuild() throws InterruptedException {
+        properties.setRebuildDebounce(Duration.ofMillis(100));
+        scheduler = new RebuildScheduler(properties, new RouteExplorerMetrics(registry, properties));
+        AtomicInteger rebuilds = new AtomicInteger();
+
+        for (int i = 0; i < 200; i++) {
+            scheduler.request("bench", Priority.INTERACTIVE, rebuilds::incrementAndGet);
+        }
+        Thread.sleep(500);
+
+        assertEquals(1, rebuilds.get());
+        assertEquals(1, registry.counter("route.explorer.rebuilds", "namespace", "bench",
+                "priority", "interactive", "outcome", "success").count());
+        assertEquals(200, registry.find("route.explorer.rebuild.events").summary().totalAmount());
+    }
+
+    @Test
+    void rebuildsWithinMaxDelayWhileEventsKeepArriving() throws InterruptedException {
+        properties.setRebuildDebounce(Duration.ofMillis(200));
+        properties.setRebuildMaxDelay(Duration.ofMillis(300));
+        scheduler = new RebuildScheduler(properties, new RouteExplorerMetrics(registry, properties));
+        AtomicInteger rebuilds = new AtomicInteger();
+
+        long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(1000);
+        while (System.nanoTime() < end) {
+            scheduler.request("bench", Priority.INTERACTIVE, rebuilds::incrementAndGet);
+            Thread.sleep(20);
+        }
+
+        assertTrue(rebuilds.get() >= 2, "rebuilds: " + rebuilds.get());
+    }
+
+    @Test
+    void startsInteractiveRebuildsFirstWithinConcurrencyCap() throws InterruptedException {
+        properties.setRebuildDebounce(Duration.ZERO);
+        properties.setMaxConcurrentRebuilds(1);
+        scheduler = new RebuildScheduler(properties, new RouteExplorerMetrics(registry, properties));
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        scheduler.request("blocking", Priority.BACKGROUND, () -> {
+            started.countDown();
+            await(release);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        scheduler.request("background", Priority.BACKGROUND, () -> order.add("background"));
+        Thread.sleep(50);
+        scheduler.request("interactive", Priority.INTERACTIVE, () -> order.add("interactive"));
+        Thread.sleep(50);
+        assertTrue(order.isEmpty());
+        release.countDown();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (order.size() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(List.of("interactive", "background"), order);
+    }
+
+    @Test
+    void retriesFailedRebuildWithGrowingDelaysUpToMaxAttempts() throws InterruptedException {
+        properties.setRebuildDebounce(Duration.ZERO);
+        properties.setRebuildRetryDelay(Duration.ofMillis(50));
+        properties.setRebuildMaxAttempts(4);
+        scheduler = new RebuildScheduler(properties, new RouteExplorerMetrics(registry, properties));
+        List<Long> attempts = new CopyOnWriteArrayList<>();
+
+        scheduler.request("failing", Priority.BACKGROUND, () -> {
+            attempts.add(System.nanoTime());
+            throw new IllegalStateException("api server unavailable");
+        });
+        Thread.sleep(1200);
+
+        assertEquals(4, attempts.size());
+        assertEquals(4, registry.counter("route.explorer.rebuilds", "namespace", "failing",
+                "priority", "background", "outcome", "error").count());
+        for (int i = 1; i < attempts.size(); i++) {
+            long gap = TimeUnit.NANOSECONDS.toMillis(attempts.get(i) - attempts.get(i - 1));
+            assertTrue(gap >= 50L << (i - 1), "gap before attempt " + (i + 1) + ": " + gap + "ms");
+        }
+    }
+
+    @Test
+    void cancelStopsRetries() throws InterruptedException {
+        properties.setRebuildDebounce(Duration.ZERO);
+        properties.setRebuildRetryDelay(Duration.ofMillis(100));
+        scheduler = new RebuildScheduler(properties, new RouteExplorerMetrics(registry, properties));
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch failed = new CountDownLatch(1);
+
+        scheduler.request("failing", Priority.INTERACTIVE, () -> {
+            attempts.incrementAndGet();
+            failed.countDown();
+            throw new IllegalStateException("api server unavailable");
+        });
+        assertTrue(failed.await(5, TimeUnit.SECONDS));
+        Thread.sleep(20);
+        scheduler.cancel("failing");
+        Thread.sleep(400);
+
+        assertEquals(1, attempts.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.istiorouteexplorer;
+
+import io.github.istiorouteexplorer.service.RegexCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegexCacheTest {
+
+    @Test
+    void rejectsConstructsUnsupportedByRe2() {
+        RegexCache cache = new RegexCache(16);
+
+        assertTrue(cache.compile("/api/v[0-9]+/.*").isValid());
+        assertTrue(cache.compile("(?P<version>v[12])").isValid());
+        assertTrue(cache.compile("a*?b{2,5}[+*]\\+").isValid());
+        assertFalse(cache.compile("(a)\\1").isValid());
+        assertFalse(cache.compile("foo(?=bar)").isValid());
+        assertFalse(cache.compile("(?>a+)b").isValid());
+        assertFalse(cache.compile("a++").isValid());
+        assertFalse(cache.compile("a{1001}").isValid());
+        assertFalse(cache.compile("[a-").isValid());
+    }
+
+    @Test
+    void matchesWholeInputAndReusesCompiledPatterns() {
+        RegexCache cache = new RegexCache(2);
+
+        assertTrue(cache.matches("/api/v[0-9]+", "/api/v2"));
+        assertFalse(cache.matches("/api/v[0-9]+", "/api/v2/users"));
+        assertSame(cache.compile("/api/v[0-9]+"), cache.compile("/api/v[0-9]+"));
+        assertTrue(cache.matches("(?P<id>[a-z]+)", "abc"));
+        assertFalse(cache.matches("(a)\\1", "aa"));
+
+        cache.compile("x");
+        cache.compile("y");
+        assertTrue(cache.size() <= 2);
+    }
+
+    @Test
+    void rewritesOnlyNamedGroupsOutsideEscapesAndClasses() {
+        RegexCache cache = new RegexCache(16);
+
+        assertTrue(cache.matches("/(?P<id>[0-9]+)", "/42"));
+        assertTrue(cache.matches("\\(?P<x>", "P<x>"));
+        assertTrue(cache.matches("\\(?P<x>", "(P<x>"));
+        assertTrue(cache.matches("[(?P<]+", "P<?("));
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedPattern() {
+        RegexCache cache = new RegexCache(2);
+        RegexCache.CompiledRegex a = cache.compile("a");
+        RegexCache.CompiledRegex b = cache.compile("b");
+
+        assertSame(a, cache.compile("a"));
+        cache.compile("c");
+
+        assertEquals(2, cache.size());
+        assertSame(a, cache.compile("a"));
+        assertNotSame(b, cache.compile("b"));
+    }
+
+    @Test
+    @Timeout(5)
+    void stopsCatastrophicBacktracking() {
+        RegexCache cache = new RegexCache(16);
+        String input = "a".repeat(40) + "!";
+
+        assertFalse(cache.matches("(a+)+b", input));
+    }
+}
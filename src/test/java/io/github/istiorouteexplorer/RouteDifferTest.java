@@ -0,0 +1,160 @@
+package io.github.istiorouteexplorer;
+
+import io.github.istiorouteexplorer.SyntheticMeshGenerator.Shape;
+import io.github.istiorouteexplorer.config.AppProperties;
+import io.github.istiorouteexplorer.config.KubernetesClientConfig;
+import io.github.istiorouteexplorer.kube.ResourceLoader;
+import io.github.istiorouteexplorer.model.MatchCondition;
+import io.github.istiorouteexplorer.model.ResourceCollection;
+import io.github.istiorouteexplorer.model.Route;
+import io.github.istiorouteexplorer.model.RouteNode;
+import io.github.istiorouteexplorer.model.RoutesResponse;
+import io.github.istiorouteexplorer.model.diff.ChangeType;
+import io.github.istiorouteexplorer.model.diff.GraphVersion;
+import io.github.istiorouteexplorer.model.diff.RouteChange;
+import io.github.istiorouteexplorer.model.diff.RouteDiffResponse;
+import io.github.istiorouteexplorer.model.kubernetes.ObjectMetadataDto;
+import io.github.istiorouteexplorer.service.HistoryStore;
+import io.github.istiorouteexplorer.service.RebuildScheduler;
+import io.github.istiorouteexplorer.service.RouteDiffer;
+import io.github.istiorouteexplorer.service.RouteExplorerService;
+import io.github.istiorouteexplorer.service.RouteHasher;
+import io.github.istiorouteexplorer.service.RouteSnapshot;
+import io.github.istiorouteexplorer.service.SnapshotStore;
+import io.github.istiorouteexplorer.telemetry.RouteExplorerMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteDifferTest {
+
+    @Test
+    void reportsOnlyChangedRoutes() {
+        RouteSnapshot before = new RouteSnapshot(1, Instant.now(), new RoutesResponse(List.of(
+                route("reviews", "/v1"),
+                route("ratings", "/"),
+                route("details", "/"))));
+        RouteSnapshot after = new RouteSnapshot(2, Instant.now(), new RoutesResponse(List.of(
+                route("reviews", "/v2"),
+                route("ratings", "/"),
+                route("payments", "/"))));
+
+        RouteDiffResponse diff = RouteDiffer.diff("bookinfo", before, after);
+
+        assertEquals(1, diff.unchangedRoutes());
+        assertEquals(List.of("details", "payments", "reviews"),
+                diff.changes().stream().map(RouteChange::destinationHost).toList());
+        RouteChange reviews = diff.changes().get(2);
+        assertEquals(ChangeType.MODIFIED, reviews.type());
+        assertTrue(reviews.nodes().isEmpty());
+        assertEquals(1, reviews.links().size());
+        assertEquals(ChangeType.MODIFIED, reviews.links().get(0).type());
+        assertEquals("/v1", reviews.links().get(0).before().getMatches().get(0).getValue());
+        assertEquals("/v2", reviews.links().get(0).after().getMatches().get(0).getValue());
+        assertEquals(ChangeType.REMOVED, diff.changes().get(0).type());
+        assertEquals(ChangeType.ADDED, diff.changes().get(1).type());
+    }
+
+    @Test
+    void hashesAreIndependentOfLinkOrder() {
+        Route first = route("reviews", "/a");
+        first.addLink("mesh", node("reviews"), "HTTP", 9080L, List.of(new MatchCondition("uri", "prefix", "/b")));
+        Route second = new Route("reviews", List.of(9080L));
+        second.addNode(node("mesh"));
+        second.addLink("mesh", node("reviews"), "HTTP", 9080L, List.of(new MatchCondition("uri", "prefix", "/b")));
+        second.addLink("mesh", node("reviews"), "HTTP", 9080L, List.of(new MatchCondition("uri", "prefix", "/a")));
+
+        assertEquals(RouteHasher.hash(first), RouteHasher.hash(second));
+        assertNotEquals(RouteHasher.hash(first), RouteHasher.hash(route("reviews", "/a")));
+    }
+
+    @Test
+    void reportsRemovedLinksInTheirOriginalOrder() {
+        Route before = new Route("reviews", List.of(9080L));
+        before.addNode(node("mesh"));
+        List<String> prefixes = List.of("/e", "/a", "/d", "/b", "/c", "/g", "/f");
+        for (int i = 0; i < prefixes.size(); i++) {
+            before.addLink("mesh", node("reviews-v" + i), "HTTP", 9080L,
+                    List.of(new MatchCondition("uri", "prefix", prefixes.get(i))));
+        }
+        Route after = new Route("reviews", List.of(9080L));
+        after.addNode(node("mesh"));
+
+        RouteChange change = RouteDiffer.diff("bookinfo",
+                new RouteSnapshot(1, Instant.now(), new RoutesResponse(List.of(before))),
+                new RouteSnapshot(2, Instant.now(), new RoutesResponse(List.of(after)))).changes().get(0);
+
+        assertTrue(change.links().stream().allMatch(link -> link.type() == ChangeType.REMOVED));
+        assertEquals(prefixes, change.links().stream()
+                .map(link -> link.before().getMatches().get(0).getValue()).toList());
+    }
+
+    @Test
+    void detectsAnnotationChangesOfNodes() {
+        Route before = route("reviews", "/");
+        Route after = route("reviews", "/");
+        before.getNodes().get("reviews").setMetadata(
+                new ObjectMetadataDto("reviews", "bookinfo", Map.of(), Map.of("team", "a")));
+        after.getNodes().get("reviews").setMetadata(
+                new ObjectMetadataDto("reviews", "bookinfo", Map.of(), Map.of("team", "b")));
+
+        RouteChange change = RouteDiffer.diff("bookinfo",
+                new RouteSnapshot(1, Instant.now(), new RoutesResponse(List.of(before))),
+                new RouteSnapshot(2, Instant.now(), new RoutesResponse(List.of(after)))).changes().get(0);
+
+        assertEquals(1, change.nodes().size());
+        assertEquals(ChangeType.MODIFIED, change.nodes().get(0).type());
+        assertEquals(List.of("metadata"), change.nodes().get(0).fields());
+    }
+
+    @Test
+    void advancesGraphVersionsOnlyOnChanges() {
+        AppProperties properties = new AppProperties();
+        properties.setCacheTtl(Duration.ZERO);
+        ModelMapper modelMapper = new KubernetesClientConfig().modelMapper();
+        AtomicLong seed = new AtomicLong(1);
+        ResourceLoader loader = new ResourceLoader() {
+            @Override
+            public ResourceCollection load(String namespace, List<String> extraNamespaces) {
+                return new ResourceCollection(SyntheticMeshGenerator.generate(namespace, Shape.small(), seed.get())
+                        .toNamespaceResources(modelMapper), Map.of());
+            }
+
+            @Override
+            public boolean unchangedSince(String namespace, Map<String, String> resourceVersions) {
+                return false;
+            }
+        };
+        RouteExplorerMetrics metrics = new RouteExplorerMetrics(new SimpleMeterRegistry(), properties);
+        RouteExplorerService service = new RouteExplorerService(properties, loader, metrics,
+                new SnapshotStore(properties), new HistoryStore(properties), new RebuildScheduler(properties, metrics));
+
+        long first = service.refresh("bench").getVersion();
+        assertEquals(first, service.refresh("bench").getVersion());
+        assertEquals(first, service.refresh("bench").getVersion());
+        seed.set(2);
+
+        assertEquals(first + 1, service.refresh("bench").getVersion());
+        assertEquals(List.of(first, first + 1),
+                service.versions("bench").stream().map(GraphVersion::version).toList());
+    }
+
+    private Route route(String host, String prefix) {
+        Route route = new Route(host, List.of(9080L));
+        route.addNode(node("mesh"));
+        route.addLink("mesh", node(host), "HTTP", 9080L, List.of(new MatchCondition("uri", "prefix", prefix)));
+        return route;
+    }
+
+    private RouteNode node(String id) {
+        return new RouteNode(id, id, RouteNode.Type.DEPLOYMENT, new ObjectMetadataDto());
+    }
+}
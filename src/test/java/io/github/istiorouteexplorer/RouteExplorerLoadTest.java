@@ -0,0 +1,242 @@
+package io.github.istiorouteexplorer;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.client.server.mock.KubernetesMockServer;
+import io.fabric8.kubernetes.client.server.mock.OutputStreamMessage;
+import io.fabric8.mockwebserver.http.RecordedRequest;
+import io.github.istiorouteexplorer.SyntheticMeshGenerator.Shape;
+import io.github.istiorouteexplorer.SyntheticMeshGenerator.SyntheticMesh;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives the REST API with concurrent clients while the application talks to a fabric8 mock API server seeded
+ * with a synthetic namespace. Envoy admin calls are answered by a stubbed exec endpoint replaying recorded
+ * config dumps. Excluded from the default build; run with {@code mvn -Ploadtest test} and tune with
+ * {@code -Dload.shape}, {@code -Dload.concurrency}, {@code -Dload.requests} and {@code -Dload.cache-ttl}.
+ */
+@Slf4j
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class RouteExplorerLoadTest {
+
+    private static final String NAMESPACE = "load";
+    private static final int STUBBED_ENVOY_PODS = 16;
+    private static final Shape SHAPE = Shape.named(System.getProperty("load.shape", "medium"));
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 16);
+    private static final int REQUESTS = Integer.getInteger("load.requests", 400);
+    private static final int WARMUP_REQUESTS = Integer.getInteger("load.warmup", 20);
+
+    private static KubernetesMockServer server;
+    private static SyntheticMesh mesh;
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    @DynamicPropertySource
+    static void mockApiServer(DynamicPropertyRegistry registry) throws IOException {
+        server = MockApiServer.start();
+        mesh = SyntheticMeshGenerator.generate(NAMESPACE, SHAPE, 42L);
+        MockApiServer.seed(server, mesh);
+        String configDump = fixture("envoy/config_dump.json");
+        String stats = fixture("envoy/stats.json");
+        mesh.pods().stream().limit(STUBBED_ENVOY_PODS).forEach(pod -> {
+            stubEnvoyAdmin(pod, "/config_dump", configDump);
+            stubEnvoyAdmin(pod, "/stats?format=json", stats);
+        });
+
+        Path kubeConfig = Files.createTempFile("load-test-kubeconfig", ".yaml");
+        kubeConfig.toFile().deleteOnExit();
+        Files.writeString(kubeConfig, """
+                apiVersion: v1
+                kind: Config
+                clusters:
+                - name: mock
+                  cluster:
+                    server: %s
+                contexts:
+                - name: mock
+                  context:
+                    cluster: mock
+                    namespace: %s
+                current-context: mock
+                users: []
+                """.formatted(server.url("/").replaceAll("/$", ""), NAMESPACE));
+        registry.add("app.kube-config", kubeConfig::toString);
+        registry.add("app.namespace", () -> NAMESPACE);
+        registry.add("app.cache-ttl", () -> System.getProperty("load.cache-ttl", "0s"));
+        // every client may wait for a slot, so the scenarios measure queueing rather than load shedding
+        registry.add("app.load-bulkhead.max-queued", () -> CONCURRENCY);
+        registry.add("app.load-bulkhead.max-wait", () -> "60s");
+        registry.add("app.envoy-bulkhead.max-queued", () -> CONCURRENCY);
+        registry.add("app.envoy-bulkhead.max-wait", () -> "60s");
+    }
+
+    @AfterAll
+    static void stopApiServer() {
+        if (server != null) {
+            server.destroy();
+        }
+    }
+
+    @Test
+    void routes() throws Exception {
+        runScenario("GET /api/routes", i -> "/api/routes?namespace=" + NAMESPACE);
+    }
+
+    @Test
+    void envoyPods() throws Exception {
+        runScenario("GET /api/envoy/pods", i -> "/api/envoy/pods?namespace=" + NAMESPACE);
+    }
+
+    @Test
+    void envoyConfig() throws Exception {
+        String pod = mesh.pods().get(0).getMetadata().getName();
+        String body = httpClient.send(HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/api/envoy/pods/" + pod + "?namespace=" + NAMESPACE)).build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+        assertTrue(body.contains("listenersFromConfigDump"), "stubbed config_dump was not served: " + body);
+
+        runScenario("GET /api/envoy/pods/{pod}", i -> "/api/envoy/pods/"
+                + mesh.pods().get(i % STUBBED_ENVOY_PODS).getMetadata().getName() + "?namespace=" + NAMESPACE);
+    }
+
+    private void runScenario(String name, IntFunction<String> paths) throws Exception {
+        for (int i = 0; i < WARMUP_REQUESTS; i++) {
+            send(paths.apply(i));
+        }
+        drainApiServerRequests();
+
+        LatencyHistogram latencies = new LatencyHistogram();
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        ExecutorService clients = Executors.newFixedThreadPool(CONCURRENCY);
+        List<Future<?>> workers = new ArrayList<>();
+        long started = System.nanoTime();
+        for (int c = 0; c < CONCURRENCY; c++) {
+            workers.add(clients.submit(() -> {
+                for (int i = next.getAndIncrement(); i < REQUESTS; i = next.getAndIncrement()) {
+                    long requestStarted = System.nanoTime();
+                    try {
+                        if (send(paths.apply(i)) != 200) {
+                            failures.incrementAndGet();
+                        }
+                    } catch (IOException e) {
+                        log.warn("{} request {} failed: {}", name, i, e.toString());
+                        errors.incrementAndGet();
+                    }
+                    latencies.record(System.nanoTime() - requestStarted);
+                }
+                return null;
+            }));
+        }
+        clients.shutdown();
+        assertTrue(clients.awaitTermination(10, TimeUnit.MINUTES), name + " did not finish in time");
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        Map<String, Long> apiCalls = drainApiServerRequests();
+        log.info(String.format(Locale.ROOT, """
+
+                        %s: shape=%s concurrency=%d requests=%d failures=%d errors=%d
+                          throughput %.1f req/s
+                          latency p50=%.1f ms p90=%.1f ms p99=%.1f ms max=%.1f ms
+                        %s  API server calls %d (%.2f per request)
+                        %s""",
+                name, SHAPE, CONCURRENCY, latencies.count(), failures.get(), errors.get(), latencies.count() / seconds,
+                latencies.percentileMillis(0.5), latencies.percentileMillis(0.9), latencies.percentileMillis(0.99),
+                latencies.percentileMillis(1.0), latencies.render(),
+                apiCalls.values().stream().mapToLong(Long::longValue).sum(),
+                apiCalls.values().stream().mapToLong(Long::longValue).sum() / (double) Math.max(1, latencies.count()),
+                apiCalls.entrySet().stream()
+                        .map(entry -> String.format(Locale.ROOT, "    %7d %s", entry.getValue(), entry.getKey()))
+                        .collect(Collectors.joining("\n"))));
+        assertEquals(0, errors.get(), name + " had requests without a response");
+        assertEquals(0, failures.get(), name + " had failed requests");
+    }
+
+    private int send(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    /**
+     * Counts requests the mock API server received since the last call, grouped by method and path without
+     * query string or object name.
+     */
+    private static Map<String, Long> drainApiServerRequests() throws InterruptedException {
+        Map<String, Long> counts = new TreeMap<>();
+        RecordedRequest request;
+        while ((request = server.takeRequest(1, TimeUnit.MILLISECONDS)) != null) {
+            String path = request.getPath().replaceAll("\\?.*$", "").replaceAll("/pods/[^/]+", "/pods/{name}");
+            counts.merge(request.getMethod() + " " + path, 1L, Long::sum);
+        }
+        return counts;
+    }
+
+    private static void stubEnvoyAdmin(Pod pod, String adminPath, String payload) {
+        String command = Stream.of("curl", "-sS", "-f", "-H", "Accept: application/json",
+                        "http://127.0.0.1:15000" + adminPath)
+                .map(argument -> "command=" + URLEncoder.encode(argument, StandardCharsets.UTF_8).replace("+", "%20"))
+                .collect(Collectors.joining("&"));
+        server.expect()
+                .get()
+                .withPath("/api/v1/namespaces/" + NAMESPACE + "/pods/" + pod.getMetadata().getName()
+                        + "/exec?" + command + "&container=istio-proxy&stdout=true&stderr=true")
+                .andUpgradeToWebSocket()
+                .open(new OutputStreamMessage(payload))
+                .done()
+                .always();
+    }
+
+    private static String fixture(String resource) {
+        try (InputStream in = RouteExplorerLoadTest.class.getClassLoader().getResourceAsStream(resource)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package io.github.istiorouteexplorer;
+
+import io.github.istiorouteexplorer.SyntheticMeshGenerator.Shape;
+import io.github.istiorouteexplorer.config.AppProperties;
+import io.github.istiorouteexplorer.config.KubernetesClientConfig;
+import io.github.istiorouteexplorer.model.ResourceCollection;
+import io.github.istiorouteexplorer.service.BuildPhase;
+import io.github.istiorouteexplorer.service.RouteExplorer;
+import io.github.istiorouteexplorer.telemetry.RouteExplorerMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteExplorerMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AppProperties properties = new AppProperties();
+    private final RouteExplorerMetrics metrics = new RouteExplorerMetrics(registry, properties);
+
+    @Test
+    void recordsEveryBuildPhase() {
+        RouteExplorer explorer = new RouteExplorer(new ResourceCollection(SyntheticMeshGenerator
+                .generate("bench", Shape.small(), 1L)
+                .toNamespaceResources(new KubernetesClientConfig().modelMapper()), Map.of()));
+        explorer.buildRoutes();
+
+        metrics.recordBuildPhases("bench", explorer.getPhaseNanos());
+
+        for (BuildPhase phase : BuildPhase.values()) {
+            assertEquals(1, registry.get("route.explorer.build.phase")
+                    .tags("namespace", "bench", "phase", phase.getKey()).timer().count(), phase.getKey());
+        }
+    }
+
+    @Test
+    void countsMappedObjectsPerKind() {
+        List<String> pods = metrics.timeList("bench", "Pod", () -> List.of("a", "b", "c"));
+        metrics.timeMapping("bench", "Pod", () -> pods);
+        metrics.recordCacheLookup("bench", true);
+        metrics.recordCacheLookup("bench", false);
+        metrics.recordEnvoyAdmin("bench", "/config_dump", 1_000_000, 2048, true);
+
+        assertEquals(1, registry.get("route.explorer.kube.list").tags("kind", "Pod").timer().count());
+        assertEquals(3, registry.get("route.explorer.kube.objects").tags("kind", "Pod").counter().count());
+        assertEquals(1, registry.get("route.explorer.cache").tags("result", "hit").counter().count());
+        assertEquals(1, registry.get("route.explorer.cache").tags("result", "miss").counter().count());
+        assertEquals(2048, registry.get("route.explorer.envoy.admin.payload").summary().totalAmount());
+    }
+
+    @Test
+    void collapsesNamespacesBeyondTheLimitIntoOther() {
+        properties.setExtraNamespaces(List.of("shared"));
+        properties.setMetricsMaxNamespaces(2);
+
+        for (String namespace : List.of("team-a", "team-b", "team-c", "default", "shared", "*", "team-d", "team-a")) {
+            metrics.recordCacheLookup(namespace, false);
+        }
+
+        assertEquals(List.of("*", "default", "other", "shared", "team-a", "team-b"),
+                registry.get("route.explorer.cache").counters().stream()
+                        .map(counter -> counter.getId().getTag("namespace"))
+                        .sorted()
+                        .toList());
+        assertEquals(2, registry.get("route.explorer.cache").tags("namespace", "other").counter().count());
+        assertEquals(2, registry.get("route.explorer.cache").tags("namespace", "team-a").counter().count());
+    }
+}
@@ -0,0 +1,93 @@
+package io.github.istiorouteexplorer;
+
+import io.github.istiorouteexplorer.model.NamespaceResources;
+import io.github.istiorouteexplorer.model.ResourceCollection;
+import io.github.istiorouteexplorer.model.Route;
+import io.github.istiorouteexplorer.model.RouteNode;
+import io.github.istiorouteexplorer.model.istio.*;
+import io.github.istiorouteexplorer.model.kubernetes.DeploymentDto;
+import io.github.istiorouteexplorer.model.kubernetes.ObjectMetadataDto;
+import io.github.istiorouteexplorer.model.kubernetes.ServiceDto;
+import io.github.istiorouteexplorer.model.kubernetes.ServiceSpecDto;
+import io.github.istiorouteexplorer.service.RouteExplorer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteExplorerTest {
+
+    @Test
+    void sharesOneNodeInstancePerHostAcrossRoutes() {
+        DestinationRuleDto destinationRule = new DestinationRuleDto();
+        destinationRule.setMetadata(new ObjectMetadataDto("ratings", "bookinfo", Map.of(), Map.of()));
+        TrafficPolicyDto trafficPolicy = new TrafficPolicyDto();
+        trafficPolicy.setTls(new ClientTlsSettingsDto());
+        trafficPolicy.getTls().setMode(ClientTlsMode.ISTIO_MUTUAL);
+        destinationRule.setSpec(new DestinationRuleSpecDto(List.of(), List.of(), "ratings", trafficPolicy, null));
+
+        NamespaceResources namespace = new NamespaceResources(
+                "bookinfo",
+                List.of(virtualService("reviews", "ratings"), virtualService("details", "ratings"),
+                        virtualService("ratings", "ratings.bookinfo.svc.cluster.local")),
+                List.of(destinationRule),
+                List.of(),
+                List.of(),
+                List.of(),
+                List.of(),
+                List.of(service("ratings")),
+                List.of(),
+                List.of(deployment("ratings-v1", "ratings")),
+                List.of(),
+                List.of());
+
+        List<Route> routes = new RouteExplorer(new ResourceCollection(namespace, Map.of())).buildRoutes();
+
+        assertEquals(3, routes.size());
+        String ratingsId = "deployment:ratings.bookinfo.svc.cluster.local";
+        RouteNode ratings = routes.get(0).getNodes().get(ratingsId);
+        assertNotNull(ratings);
+        assertEquals("ratings-v1", ratings.getName());
+        assertSame(trafficPolicy, ratings.getTrafficPolicy());
+        assertTrue(ratings.getComments().isEmpty());
+        routes.forEach(route -> {
+            assertSame(ratings, route.getNodes().get(ratingsId));
+            assertSame(routes.get(0).getNodes().get("mesh"), route.getNodes().get("mesh"));
+        });
+    }
+
+    private VirtualServiceDto virtualService(String host, String destinationHost) {
+        DestinationDto destination = new DestinationDto(destinationHost, 9080L, null);
+        HttpRouteDestinationDto routeDestination = new HttpRouteDestinationDto();
+        routeDestination.setDestination(destination);
+        HttpRouteDto httpRoute = new HttpRouteDto();
+        httpRoute.setMatch(new ArrayList<>());
+        httpRoute.setRoute(List.of(routeDestination));
+        VirtualServiceSpecDto spec = new VirtualServiceSpecDto();
+        spec.setHosts(List.of(host));
+        spec.setGateways(new ArrayList<>(List.of("mesh")));
+        spec.setHttp(List.of(httpRoute));
+        VirtualServiceDto virtualService = new VirtualServiceDto();
+        virtualService.setMetadata(new ObjectMetadataDto(host, "bookinfo", Map.of(), Map.of()));
+        virtualService.setSpec(spec);
+        return virtualService;
+    }
+
+    private ServiceDto service(String name) {
+        ServiceSpecDto spec = new ServiceSpecDto();
+        spec.setSelector(Map.of("app", name));
+        ServiceDto service = new ServiceDto();
+        service.setMetadata(new ObjectMetadataDto(name, "bookinfo", Map.of(), Map.of()));
+        service.setSpec(spec);
+        return service;
+    }
+
+    private DeploymentDto deployment(String name, String app) {
+        DeploymentDto deployment = new DeploymentDto();
+        deployment.setMetadata(new ObjectMetadataDto(name, "bookinfo", Map.of("app", app), Map.of()));
+        return deployment;
+    }
+}
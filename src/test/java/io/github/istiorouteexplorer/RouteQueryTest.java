@@ -0,0 +1,140 @@
+package io.github.istiorouteexplorer;
+
+import io.github.istiorouteexplorer.SyntheticMeshGenerator.Shape;
+import io.github.istiorouteexplorer.config.AppProperties;
+import io.github.istiorouteexplorer.config.KubernetesClientConfig;
+import io.github.istiorouteexplorer.kube.ResourceLoader;
+import io.github.istiorouteexplorer.model.ResourceCollection;
+import io.github.istiorouteexplorer.model.Route;
+import io.github.istiorouteexplorer.model.RouteLink;
+import io.github.istiorouteexplorer.model.RouteNode;
+import io.github.istiorouteexplorer.model.RoutesResponse;
+import io.github.istiorouteexplorer.model.query.RouteQuery;
+import io.github.istiorouteexplorer.service.HistoryStore;
+import io.github.istiorouteexplorer.service.InvalidRequestException;
+import io.github.istiorouteexplorer.service.RebuildScheduler;
+import io.github.istiorouteexplorer.service.RouteExplorerService;
+import io.github.istiorouteexplorer.service.SnapshotStore;
+import io.github.istiorouteexplorer.telemetry.RouteExplorerMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteQueryTest {
+
+    private final ModelMapper modelMapper = new KubernetesClientConfig().modelMapper();
+    private RouteExplorerService service;
+    private List<Route> all;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties properties = new AppProperties();
+        properties.setCacheTtl(Duration.ofMinutes(1));
+        RouteExplorerMetrics metrics = new RouteExplorerMetrics(new SimpleMeterRegistry(), properties);
+        ResourceLoader loader = new ResourceLoader() {
+            @Override
+            public ResourceCollection load(String namespace, List<String> extraNamespaces) {
+                return new ResourceCollection(SyntheticMeshGenerator.generate(namespace, Shape.medium(), 3L)
+                        .toNamespaceResources(modelMapper), Map.of());
+            }
+
+            @Override
+            public boolean unchangedSince(String namespace, Map<String, String> resourceVersions) {
+                return false;
+            }
+        };
+        service = new RouteExplorerService(properties, loader, metrics, new SnapshotStore(properties),
+                new HistoryStore(properties), new RebuildScheduler(properties, metrics));
+        all = service.buildRoutes("bench").getRoutes();
+    }
+
+    @Test
+    void filtersMatchAScanOfAllRoutes() {
+        assertTrue(assertQuery(query("service-1", null),
+                route -> route.getDestinationHost().contains("service-1")) > 0);
+        assertTrue(assertQuery(query("SERVICE-1", "prefix"),
+                route -> route.getDestinationHost().startsWith("service-1")) > 0);
+        assertTrue(assertQuery(query("*ice-1?", "wildcard"),
+                route -> route.getDestinationHost().matches(".*ice-1.")) > 0);
+        assertTrue(assertQuery(RouteQuery.of("service-1", null, List.of("http"), List.of(8084L, 9999L), List.of("mesh"),
+                        List.of(RouteNode.Type.DEPLOYMENT, RouteNode.Type.POD), null, null, null),
+                route -> route.getDestinationHost().contains("service-1")
+                        && route.getLinks().stream().anyMatch(link -> "HTTP".equalsIgnoreCase(link.getProtocol()))
+                        && (hasPort(route, 8084L) || hasPort(route, 9999L))
+                        && route.getNodes().values().stream().anyMatch(node -> node.getName().equals("mesh"))
+                        && route.getNodes().values().stream().anyMatch(node -> node.getType() == RouteNode.Type.DEPLOYMENT
+                        || node.getType() == RouteNode.Type.POD)) > 0);
+        assertEquals(0, assertQuery(RouteQuery.of(null, null, null, List.of(9999L), null, null, null, null, null),
+                route -> false));
+        assertEquals(0, assertQuery(query("no-such-host", null), route -> false));
+    }
+
+    @Test
+    void pagesCoverEveryRouteOnceInSortOrder() {
+        List<Route> expected = all.stream()
+                .sorted(Comparator.comparingInt((Route route) -> route.getLinks().size())
+                        .thenComparing(Route::getDestinationHost)
+                        .reversed())
+                .toList();
+        List<Route> paged = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            RoutesResponse page = service.queryRoutes("bench", null,
+                    RouteQuery.of(null, null, null, null, null, null, "-links", 7, cursor));
+            assertEquals(all.size(), page.getTotal());
+            assertTrue(page.getRoutes().size() <= 7);
+            paged.addAll(page.getRoutes());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(hosts(expected), hosts(paged));
+        assertEquals((all.size() + 6) / 7, pages);
+    }
+
+    @Test
+    void rejectsCursorOfAnotherSort() {
+        String cursor = service.queryRoutes("bench", null,
+                RouteQuery.of(null, null, null, null, null, null, "nodes", 2, null)).getNextCursor();
+        assertNotNull(cursor);
+
+        assertThrows(InvalidRequestException.class, () -> service.queryRoutes("bench", null,
+                RouteQuery.of(null, null, null, null, null, null, "links", 2, cursor)));
+        assertThrows(InvalidRequestException.class, () -> service.queryRoutes("bench", null,
+                RouteQuery.of(null, null, null, null, null, null, null, 2, "not a cursor")));
+        assertThrows(IllegalArgumentException.class, () -> RouteQuery.of(null, null, null, null, null, null, "size", null, null));
+    }
+
+    private int assertQuery(RouteQuery query, Predicate<Route> expected) {
+        List<String> hosts = hosts(all.stream().filter(expected).sorted(Comparator.comparing(Route::getDestinationHost)).toList());
+        RoutesResponse response = service.queryRoutes("bench", null, query);
+        assertEquals(hosts, hosts(response.getRoutes()), query.toString());
+        assertEquals(hosts.size(), response.getTotal());
+        assertNull(response.getNextCursor());
+        return hosts.size();
+    }
+
+    private static RouteQuery query(String host, String hostMatch) {
+        return RouteQuery.of(host, hostMatch, null, null, null, null, null, null, null);
+    }
+
+    private static boolean hasPort(Route route, long port) {
+        return (route.getDestinationPorts() != null && route.getDestinationPorts().contains(port))
+                || route.getLinks().stream().map(RouteLink::getPort).anyMatch(p -> p != null && p == port);
+    }
+
+    private static List<String> hosts(List<Route> routes) {
+        return routes.stream().map(Route::getDestinationHost).toList();
+    }
+}
@@ -0,0 +1,124 @@
+package io.github.istiorouteexplorer;
+
+import io.github.istiorouteexplorer.SyntheticMeshGenerator.Shape;
+import io.github.istiorouteexplorer.config.AppProperties;
+import io.github.istiorouteexplorer.config.KubernetesClientConfig;
+import io.github.istiorouteexplorer.controller.InvalidRequestExceptionHandler;
+import io.github.istiorouteexplorer.controller.SearchController;
+import io.github.istiorouteexplorer.kube.ResourceLoader;
+import io.github.istiorouteexplorer.model.NamespaceResources;
+import io.github.istiorouteexplorer.model.ResourceCollection;
+import io.github.istiorouteexplorer.model.search.SearchHit;
+import io.github.istiorouteexplorer.model.search.SearchResponse;
+import io.github.istiorouteexplorer.service.HistoryStore;
+import io.github.istiorouteexplorer.service.RebuildScheduler;
+import io.github.istiorouteexplorer.service.RouteExplorerService;
+import io.github.istiorouteexplorer.service.SnapshotStore;
+import io.github.istiorouteexplorer.telemetry.RouteExplorerMetrics;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class SearchTest {
+
+    private final ModelMapper modelMapper = new KubernetesClientConfig().modelMapper();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger droppedPods = new AtomicInteger();
+    private RouteExplorerService service;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties properties = new AppProperties();
+        properties.setCacheTtl(Duration.ofMinutes(1));
+        RouteExplorerMetrics metrics = new RouteExplorerMetrics(registry, properties);
+        ResourceLoader loader = new ResourceLoader() {
+            @Override
+            public ResourceCollection load(String namespace, List<String> extraNamespaces) {
+                NamespaceResources resources = SyntheticMeshGenerator.generate(namespace, Shape.small(), 1L)
+                        .toNamespaceResources(modelMapper);
+                resources.setPods(resources.getPods().subList(droppedPods.get(), resources.getPods().size()));
+                return new ResourceCollection(resources, Map.of());
+            }
+
+            @Override
+            public boolean unchangedSince(String namespace, Map<String, String> resourceVersions) {
+                return false;
+            }
+        };
+        service = new RouteExplorerService(properties, loader, metrics, new SnapshotStore(properties),
+                new HistoryStore(properties), new RebuildScheduler(properties, metrics));
+    }
+
+    @Test
+    void ranksExactMatchesFirstAcrossKinds() {
+        SearchResponse response = service.search("bench", "service-3", 10);
+
+        assertEquals("bench", response.namespace());
+        assertFalse(response.hits().isEmpty());
+        assertTrue(response.total() >= response.hits().size());
+        SearchHit best = response.hits().get(0);
+        assertEquals("service-3", best.value());
+        assertTrue(response.hits().stream().map(SearchHit::kind).distinct().count() > 1);
+        for (int i = 1; i < response.hits().size(); i++) {
+            assertTrue(response.hits().get(i - 1).score() >= response.hits().get(i).score());
+        }
+
+        assertEquals("routes-1", service.search("bench", "ROUTES-1", 1).hits().get(0).name());
+        assertTrue(service.search("bench", "example.com", 50).hits().stream()
+                .anyMatch(hit -> hit.kind().equals("ServiceEntry") && hit.field().equals("host")));
+        assertTrue(service.search("bench", "/api/v1", 5).hits().stream()
+                .allMatch(hit -> hit.kind().equals("VirtualService") && hit.field().equals("match")));
+        assertTrue(service.search("bench", "no-such-thing", 5).hits().isEmpty());
+    }
+
+    @Test
+    void requiresEveryTerm() {
+        List<SearchHit> hits = service.search("bench", "workload-2 app=", 50).hits();
+
+        assertFalse(hits.isEmpty());
+        assertTrue(hits.stream().allMatch(hit -> hit.name().toLowerCase(Locale.ROOT).startsWith("workload-2")
+                || hit.value().startsWith("app=workload-2")));
+        assertTrue(hits.stream().anyMatch(hit -> hit.kind().equals("Pod")));
+    }
+
+    @Test
+    void updatesOnlyChangedDocuments() {
+        String pod = service.search("bench", "workload-0-5f7c9d-0", 1).hits().get(0).name();
+        assertEquals("workload-0-5f7c9d-0", pod);
+        DistributionSummary changes = registry.find("route.explorer.search.index.changes").summary();
+        double indexed = changes.totalAmount();
+
+        droppedPods.set(1);
+        service.refresh("bench");
+
+        assertEquals(2, changes.count());
+        assertEquals(indexed + 1, changes.totalAmount());
+        assertTrue(service.search("bench", pod, 10).hits().stream().noneMatch(hit -> hit.name().equals(pod)));
+    }
+
+    @Test
+    void rejectsInvalidNamespaceWithBadRequest() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new SearchController(service))
+                .setControllerAdvice(new InvalidRequestExceptionHandler())
+                .build();
+
+        mockMvc.perform(get("/api/search").param("namespace", "Not_A_Namespace").param("q", "web"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").exists());
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.istiorouteexplorer;
+
+import io.github.istiorouteexplorer.telemetry.ServerTiming;
+import io.github.istiorouteexplorer.telemetry.ServerTimingAdvice;
+import io.github.istiorouteexplorer.telemetry.ServerTimingInterceptor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ServerTimingTest {
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new TimedController())
+                .addMappedInterceptors(new String[]{"/api/routes/**"}, new ServerTimingInterceptor())
+                .setControllerAdvice(new ServerTimingAdvice())
+                .build();
+    }
+
+    @Test
+    void writesRecordedPhasesAndCacheFlag() throws Exception {
+        String value = mockMvc.perform(get("/api/routes"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(ServerTiming.HEADER);
+
+        assertNotNull(value);
+        assertTrue(value.startsWith("cache;desc=\"miss\", kube-list;dur=3.0, build;dur=1.5"), value);
+        assertTrue(value.matches(".*, total;dur=\\d+\\.\\d$"), value);
+    }
+
+    @Test
+    void leavesUnmappedEndpointsAlone() throws Exception {
+        mockMvc.perform(get("/api/graph"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(ServerTiming.HEADER));
+    }
+
+    @Test
+    void isNoOpOutsideOfRequests() {
+        ServerTiming.add("kube-list", 1);
+        assertEquals("value", ServerTiming.time("build", () -> "value"));
+    }
+
+    @RestController
+    static class TimedController {
+
+        @GetMapping("/api/routes")
+        Map<String, String> routes() {
+            ServerTiming.describe("cache", "miss");
+            ServerTiming.add("kube-list", 1_000_000);
+            ServerTiming.add("kube-list", 2_000_000);
+            ServerTiming.add("build", 1_500_000);
+            return Map.of("status", "ok");
+        }
+
+        @GetMapping("/api/graph")
+        Map<String, String> graph() {
+            ServerTiming.add("build", 1_500_000);
+            return Map.of("status", "ok");
+        }
+    }
+}
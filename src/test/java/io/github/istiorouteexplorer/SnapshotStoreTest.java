@@ -0,0 +1,168 @@
+package io.github.istiorouteexplorer;
+
+import io.github.istiorouteexplorer.SyntheticMeshGenerator.Shape;
+import io.github.istiorouteexplorer.config.AppProperties;
+import io.github.istiorouteexplorer.config.KubernetesClientConfig;
+import io.github.istiorouteexplorer.kube.ResourceLoader;
+import io.github.istiorouteexplorer.model.NamespaceResources;
+import io.github.istiorouteexplorer.model.ResourceCollection;
+import io.github.istiorouteexplorer.model.RoutesResponse;
+import io.github.istiorouteexplorer.service.HistoryStore;
+import io.github.istiorouteexplorer.service.InvalidRequestException;
+import io.github.istiorouteexplorer.service.PersistedSnapshot;
+import io.github.istiorouteexplorer.service.RebuildScheduler;
+import io.github.istiorouteexplorer.service.RouteExplorer;
+import io.github.istiorouteexplorer.service.RouteExplorerService;
+import io.github.istiorouteexplorer.service.SnapshotStore;
+import io.github.istiorouteexplorer.telemetry.RouteExplorerMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.modelmapper.ModelMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotStoreTest {
+
+    private final ModelMapper modelMapper = new KubernetesClientConfig().modelMapper();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripsResourcesAndRoutes() throws InterruptedException {
+        ResourceCollection resources = resources("bench");
+        RoutesResponse routes = new RoutesResponse(new RouteExplorer(resources).buildRoutes());
+        Instant builtAt = Instant.parse("2026-01-02T03:04:05Z");
+
+        SnapshotStore store = new SnapshotStore(properties());
+        store.save(new PersistedSnapshot("bench", builtAt, resources, routes));
+        store.close();
+        List<PersistedSnapshot> loaded = new SnapshotStore(properties()).loadAll();
+
+        assertEquals(1, loaded.size());
+        PersistedSnapshot snapshot = loaded.get(0);
+        assertEquals("bench", snapshot.namespace());
+        assertEquals(builtAt, snapshot.builtAt());
+        assertEquals(routes, snapshot.routes());
+        NamespaceResources primary = snapshot.resources().primary();
+        assertEquals(resources.primary().getVirtualServices(), primary.getVirtualServices());
+        assertEquals(resources.primary().getPods(), primary.getPods());
+        assertEquals(Map.of("VirtualService", "42"), primary.getResourceVersions());
+    }
+
+    @Test
+    void ignoresFilesOfOtherSchemasAndCorruptFiles() throws IOException {
+        Files.write(dir.resolve("old.snap"), new byte[]{0x49, 0x52, 0x58, 0x53, 0, 0, 0, 0});
+        Files.write(dir.resolve("corrupt.snap"), new byte[]{0x49, 0x52, 0x58, 0x53, 0, 0, 0, 1, 5});
+
+        assertTrue(new SnapshotStore(properties()).loadAll().isEmpty());
+    }
+
+    @Test
+    void servesRestoredSnapshotWithoutLoadingWhenCurrent() throws InterruptedException {
+        seed();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch revalidated = new CountDownLatch(1);
+        RouteExplorerService service = service(loads, namespace -> {
+            revalidated.countDown();
+            return true;
+        });
+
+        service.warmStart();
+
+        assertEquals(new RouteExplorer(resources("bench")).buildRoutes().size(), service.buildRoutes("bench").getRoutes().size());
+        assertTrue(revalidated.await(5, TimeUnit.SECONDS));
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    void rebuildsStaleSnapshotInBackground() throws InterruptedException {
+        seed();
+        AtomicInteger loads = new AtomicInteger();
+        RouteExplorerService service = service(loads, namespace -> false);
+
+        service.warmStart();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (loads.get() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void neverWritesOutsideTheSnapshotDirectory() throws InterruptedException, IOException {
+        AtomicInteger loads = new AtomicInteger();
+        RouteExplorerService service = service(loads, namespace -> false);
+
+        assertThrows(InvalidRequestException.class, () -> service.buildRoutes("../../tmp/x"));
+        assertThrows(InvalidRequestException.class, () -> service.buildRoutes("Bench"));
+        assertEquals(0, loads.get());
+
+        ResourceCollection resources = resources("bench");
+        SnapshotStore store = new SnapshotStore(properties());
+        store.save(new PersistedSnapshot("../escaped", Instant.now(), resources,
+                new RoutesResponse(new RouteExplorer(resources).buildRoutes())));
+        store.close();
+
+        assertFalse(Files.exists(dir.resolveSibling("escaped.snap")));
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    private void seed() throws InterruptedException {
+        ResourceCollection resources = resources("bench");
+        SnapshotStore store = new SnapshotStore(properties());
+        store.save(new PersistedSnapshot("bench", Instant.now(), resources,
+                new RoutesResponse(new RouteExplorer(resources).buildRoutes())));
+        store.close();
+    }
+
+    private RouteExplorerService service(AtomicInteger loads, Predicate<String> unchanged) {
+        AppProperties properties = properties();
+        ResourceLoader loader = new ResourceLoader() {
+            @Override
+            public ResourceCollection load(String namespace, List<String> extraNamespaces) {
+                loads.incrementAndGet();
+                return resources(namespace);
+            }
+
+            @Override
+            public boolean unchangedSince(String namespace, Map<String, String> resourceVersions) {
+                return resourceVersions.equals(Map.of("VirtualService", "42")) && unchanged.test(namespace);
+            }
+        };
+        RouteExplorerMetrics metrics = new RouteExplorerMetrics(new SimpleMeterRegistry(), properties);
+        return new RouteExplorerService(properties, loader, metrics, new SnapshotStore(properties),
+                new HistoryStore(properties), new RebuildScheduler(properties, metrics));
+    }
+
+    private ResourceCollection resources(String namespace) {
+        NamespaceResources primary = SyntheticMeshGenerator.generate(namespace, Shape.small(), 1L)
+                .toNamespaceResources(modelMapper);
+        primary.setResourceVersions(Map.of("VirtualService", "42"));
+        return new ResourceCollection(primary, Map.of());
+    }
+
+    private AppProperties properties() {
+        AppProperties properties = new AppProperties();
+        properties.setSnapshotDir(dir.toString());
+        properties.setCacheTtl(Duration.ofMinutes(1));
+        return properties;
+    }
+}
@@ -0,0 +1,281 @@
+package io.github.istiorouteexplorer;
+
+import io.fabric8.istio.api.api.networking.v1alpha3.ClientTLSSettings;
+import io.fabric8.istio.api.api.networking.v1alpha3.ClientTLSSettingsTLSmode;
+import io.fabric8.istio.api.api.networking.v1alpha3.Destination;
+import io.fabric8.istio.api.api.networking.v1alpha3.HTTPMatchRequest;
+import io.fabric8.istio.api.api.networking.v1alpha3.HTTPRoute;
+import io.fabric8.istio.api.api.networking.v1alpha3.HTTPRouteDestination;
+import io.fabric8.istio.api.api.networking.v1alpha3.PortSelector;
+import io.fabric8.istio.api.api.networking.v1alpha3.StringMatch;
+import io.fabric8.istio.api.api.networking.v1alpha3.StringMatchPrefix;
+import io.fabric8.istio.api.api.networking.v1alpha3.TrafficPolicy;
+import io.fabric8.istio.api.networking.v1beta1.DestinationRule;
+import io.fabric8.istio.api.networking.v1beta1.Gateway;
+import io.fabric8.istio.api.networking.v1beta1.ServiceEntry;
+import io.fabric8.istio.api.networking.v1beta1.VirtualService;
+import io.fabric8.kubernetes.api.model.Container;
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.fabric8.kubernetes.api.model.OwnerReference;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodSpec;
+import io.fabric8.kubernetes.api.model.PodStatus;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.ServiceSpec;
+import io.fabric8.kubernetes.api.model.apps.Deployment;
+import io.fabric8.kubernetes.api.model.apps.ReplicaSet;
+import io.github.istiorouteexplorer.model.NamespaceResources;
+import io.github.istiorouteexplorer.model.istio.DestinationRuleDto;
+import io.github.istiorouteexplorer.model.istio.GatewayDto;
+import io.github.istiorouteexplorer.model.istio.ServiceEntryDto;
+import io.github.istiorouteexplorer.model.istio.VirtualServiceDto;
+import io.github.istiorouteexplorer.model.kubernetes.DeploymentDto;
+import io.github.istiorouteexplorer.model.kubernetes.PodDto;
+import io.github.istiorouteexplorer.model.kubernetes.ReplicaSetDto;
+import io.github.istiorouteexplorer.model.kubernetes.ServiceDto;
+import org.modelmapper.ModelMapper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Deterministic generator of synthetic namespaces for benchmarks and load tests. The same shape and seed
+ * always produce the same fabric8 resources, which can be served by a mock API server or mapped straight
+ * into {@link NamespaceResources}.
+ */
+public final class SyntheticMeshGenerator {
+
+    private SyntheticMeshGenerator() {
+    }
+
+    /**
+     * Size of a synthetic namespace. {@code hosts} is the number of Kubernetes Services; pods are spread
+     * round-robin over deployments.
+     */
+    public record Shape(int virtualServices, int hosts, int routesPerVirtualService, int deployments, int pods,
+                        int serviceEntries, int gateways) {
+
+        public static Shape small() {
+            return new Shape(20, 20, 3, 20, 60, 5, 1);
+        }
+
+        public static Shape medium() {
+            return new Shape(200, 150, 5, 150, 1_000, 30, 2);
+        }
+
+        public static Shape large() {
+            return new Shape(2_000, 1_000, 10, 1_000, 10_000, 200, 4);
+        }
+
+        public static Shape named(String name) {
+            return switch (name) {
+                case "small" -> small();
+                case "medium" -> medium();
+                case "large" -> large();
+                default -> throw new IllegalArgumentException("Unknown shape " + name);
+            };
+        }
+    }
+
+    public record SyntheticMesh(
+            String namespace,
+            List<VirtualService> virtualServices,
+            List<DestinationRule> destinationRules,
+            List<Gateway> gateways,
+            List<ServiceEntry> serviceEntries,
+            List<Service> services,
+            List<Deployment> deployments,
+            List<ReplicaSet> replicaSets,
+            List<Pod> pods
+    ) {
+
+        public NamespaceResources toNamespaceResources(ModelMapper mapper) {
+            return new NamespaceResources(
+                    namespace,
+                    map(mapper, virtualServices, VirtualServiceDto.class),
+                    map(mapper, destinationRules, DestinationRuleDto.class),
+                    map(mapper, gateways, GatewayDto.class),
+                    map(mapper, serviceEntries, ServiceEntryDto.class),
+                    List.of(),
+                    List.of(),
+                    map(mapper, services, ServiceDto.class),
+                    List.of(),
+                    map(mapper, deployments, DeploymentDto.class),
+                    map(mapper, replicaSets, ReplicaSetDto.class),
+                    map(mapper, pods, PodDto.class));
+        }
+
+        private static <T, R> List<R> map(ModelMapper mapper, List<T> items, Class<R> target) {
+            return items.stream().map(item -> mapper.map(item, target)).toList();
+        }
+    }
+
+    public static SyntheticMesh generate(String namespace, Shape shape, long seed) {
+        Random random = new Random(seed);
+
+        List<Gateway> gateways = new ArrayList<>();
+        List<Deployment> deployments = new ArrayList<>();
+        for (int g = 0; g < shape.gateways(); g++) {
+            Map<String, String> selector = Map.of("istio", "ingressgateway-" + g);
+            Gateway gateway = new Gateway();
+            gateway.setMetadata(meta("gateway-" + g, namespace, Map.of()));
+            io.fabric8.istio.api.api.networking.v1alpha3.Gateway spec = new io.fabric8.istio.api.api.networking.v1alpha3.Gateway();
+            spec.setSelector(selector);
+            gateway.setSpec(spec);
+            gateways.add(gateway);
+            deployments.add(deployment("ingressgateway-" + g, namespace, selector));
+        }
+
+        List<ReplicaSet> replicaSets = new ArrayList<>();
+        List<Pod> pods = new ArrayList<>();
+        for (int d = 0; d < shape.deployments(); d++) {
+            String name = "workload-" + d;
+            deployments.add(deployment(name, namespace, Map.of("app", name, "version", "v1")));
+            ReplicaSet replicaSet = new ReplicaSet();
+            replicaSet.setMetadata(meta(name + "-5f7c9d", namespace, Map.of("app", name)));
+            replicaSet.getMetadata().setOwnerReferences(List.of(owner("Deployment", name)));
+            replicaSets.add(replicaSet);
+        }
+        for (int p = 0; p < shape.pods() && shape.deployments() > 0; p++) {
+            String workload = "workload-" + (p % shape.deployments());
+            Pod pod = new Pod();
+            pod.setMetadata(meta(workload + "-5f7c9d-" + Integer.toString(p, 36), namespace,
+                    Map.of("app", workload, "version", "v1", "pod-template-hash", "5f7c9d")));
+            pod.getMetadata().setAnnotations(Map.of(
+                    "sidecar.istio.io/inject", "true",
+                    "sidecar.istio.io/status", "{\"initContainers\":[\"istio-init\"],\"containers\":[\"istio-proxy\"]}"));
+            pod.getMetadata().setOwnerReferences(List.of(owner("ReplicaSet", workload + "-5f7c9d")));
+            PodSpec spec = new PodSpec();
+            spec.setContainers(List.of(container("app", "registry.local/" + workload + ":1.0"),
+                    container("istio-proxy", "docker.io/istio/proxyv2:1.22.0")));
+            pod.setSpec(spec);
+            PodStatus status = new PodStatus();
+            status.setPhase("Running");
+            pod.setStatus(status);
+            pods.add(pod);
+        }
+
+        List<Service> services = new ArrayList<>();
+        List<DestinationRule> destinationRules = new ArrayList<>();
+        for (int h = 0; h < shape.hosts(); h++) {
+            String name = "service-" + h;
+            Service service = new Service();
+            service.setMetadata(meta(name, namespace, Map.of("app", name)));
+            ServiceSpec spec = new ServiceSpec();
+            spec.setSelector(Map.of("app", "workload-" + (shape.deployments() == 0 ? 0 : h % shape.deployments())));
+            service.setSpec(spec);
+            services.add(service);
+            destinationRules.add(destinationRule(name, namespace));
+        }
+
+        List<ServiceEntry> serviceEntries = new ArrayList<>();
+        for (int s = 0; s < shape.serviceEntries(); s++) {
+            ServiceEntry serviceEntry = new ServiceEntry();
+            serviceEntry.setMetadata(meta("external-" + s, namespace, Map.of()));
+            io.fabric8.istio.api.api.networking.v1alpha3.ServiceEntry spec = new io.fabric8.istio.api.api.networking.v1alpha3.ServiceEntry();
+            spec.setHosts(List.of("external-" + s + ".example.com"));
+            serviceEntry.setSpec(spec);
+            serviceEntries.add(serviceEntry);
+        }
+
+        List<VirtualService> virtualServices = new ArrayList<>();
+        for (int v = 0; v < shape.virtualServices(); v++) {
+            VirtualService virtualService = new VirtualService();
+            virtualService.setMetadata(meta("routes-" + v, namespace, Map.of()));
+            io.fabric8.istio.api.api.networking.v1alpha3.VirtualService spec = new io.fabric8.istio.api.api.networking.v1alpha3.VirtualService();
+            spec.setHosts(List.of(shape.hosts() == 0 ? "service-0" : "service-" + (v % shape.hosts())));
+            List<String> vsGateways = new ArrayList<>(List.of("mesh"));
+            if (shape.gateways() > 0 && v % 10 == 0) {
+                vsGateways.add("gateway-" + random.nextInt(shape.gateways()));
+            }
+            spec.setGateways(vsGateways);
+            List<HTTPRoute> http = new ArrayList<>();
+            for (int r = 0; r < shape.routesPerVirtualService(); r++) {
+                http.add(httpRoute("/api/v" + r, destinationHost(random, shape, namespace), 8080L + r));
+            }
+            spec.setHttp(http);
+            virtualService.setSpec(spec);
+            virtualServices.add(virtualService);
+        }
+
+        return new SyntheticMesh(namespace, virtualServices, destinationRules, gateways, serviceEntries, services,
+                deployments, replicaSets, pods);
+    }
+
+    private static String destinationHost(Random random, Shape shape, String namespace) {
+        if (shape.serviceEntries() > 0 && random.nextInt(10) == 0) {
+            return "external-" + random.nextInt(shape.serviceEntries()) + ".example.com";
+        }
+        int host = shape.hosts() == 0 ? 0 : random.nextInt(shape.hosts());
+        // mix short names and fully qualified names like real configurations do
+        return random.nextBoolean() ? "service-" + host : "service-" + host + "." + namespace + ".svc.cluster.local";
+    }
+
+    private static HTTPRoute httpRoute(String prefix, String host, long port) {
+        HTTPMatchRequest match = new HTTPMatchRequest();
+        match.setUri(new StringMatch(new StringMatchPrefix(prefix)));
+        Destination destination = new Destination();
+        destination.setHost(host);
+        PortSelector portSelector = new PortSelector();
+        portSelector.setNumber(port);
+        destination.setPort(portSelector);
+        HTTPRouteDestination routeDestination = new HTTPRouteDestination();
+        routeDestination.setDestination(destination);
+        routeDestination.setWeight(100);
+        HTTPRoute route = new HTTPRoute();
+        route.setMatch(List.of(match));
+        route.setRoute(List.of(routeDestination));
+        return route;
+    }
+
+    private static DestinationRule destinationRule(String host, String namespace) {
+        ClientTLSSettings tls = new ClientTLSSettings();
+        tls.setMode(ClientTLSSettingsTLSmode.ISTIO_MUTUAL);
+        TrafficPolicy trafficPolicy = new TrafficPolicy();
+        trafficPolicy.setTls(tls);
+        io.fabric8.istio.api.api.networking.v1alpha3.DestinationRule spec = new io.fabric8.istio.api.api.networking.v1alpha3.DestinationRule();
+        spec.setHost(host);
+        spec.setTrafficPolicy(trafficPolicy);
+        DestinationRule destinationRule = new DestinationRule();
+        destinationRule.setMetadata(meta(host, namespace, Map.of()));
+        destinationRule.setSpec(spec);
+        return destinationRule;
+    }
+
+    private static Deployment deployment(String name, String namespace, Map<String, String> labels) {
+        Deployment deployment = new Deployment();
+        deployment.setMetadata(meta(name, namespace, labels));
+        deployment.getMetadata().setAnnotations(Map.of(
+                "kubectl.kubernetes.io/last-applied-configuration",
+                "{\"apiVersion\":\"apps/v1\",\"kind\":\"Deployment\",\"metadata\":{\"name\":\"" + name + "\"}}"));
+        return deployment;
+    }
+
+    private static ObjectMeta meta(String name, String namespace, Map<String, String> labels) {
+        ObjectMeta meta = new ObjectMeta();
+        meta.setName(name);
+        meta.setNamespace(namespace);
+        meta.setLabels(new HashMap<>(labels));
+        meta.setAnnotations(new HashMap<>());
+        meta.setResourceVersion("1");
+        return meta;
+    }
+
+    private static OwnerReference owner(String kind, String name) {
+        OwnerReference owner = new OwnerReference();
+        owner.setKind(kind);
+        owner.setName(name);
+        owner.setController(true);
+        return owner;
+    }
+
+    private static Container container(String name, String image) {
+        Container container = new Container();
+        container.setName(name);
+        container.setImage(image);
+        return container;
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.istiorouteexplorer;
+
+import io.github.istiorouteexplorer.SyntheticMeshGenerator.Shape;
+import io.github.istiorouteexplorer.config.KubernetesClientConfig;
+import io.github.istiorouteexplorer.model.NamespaceResources;
+import io.github.istiorouteexplorer.model.ResourceCollection;
+import io.github.istiorouteexplorer.model.Route;
+import io.github.istiorouteexplorer.service.RouteExplorer;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyntheticMeshGeneratorTest {
+
+    @Test
+    void generatesSameNamespaceForSameSeed() {
+        ModelMapper mapper = new KubernetesClientConfig().modelMapper();
+        NamespaceResources first = SyntheticMeshGenerator.generate("bench", Shape.small(), 7L).toNamespaceResources(mapper);
+        NamespaceResources second = SyntheticMeshGenerator.generate("bench", Shape.small(), 7L).toNamespaceResources(mapper);
+
+        assertEquals(first, second);
+        assertEquals(Shape.small().virtualServices(), first.getVirtualServices().size());
+        assertEquals(Shape.small().pods(), first.getPods().size());
+        assertEquals(Shape.small().deployments() + Shape.small().gateways(), first.getDeployments().size());
+    }
+
+    @Test
+    void generatedNamespaceBuildsRoutes() {
+        NamespaceResources namespace = SyntheticMeshGenerator.generate("bench", Shape.small(), 42L)
+                .toNamespaceResources(new KubernetesClientConfig().modelMapper());
+
+        List<Route> routes = new RouteExplorer(new ResourceCollection(namespace, Map.of())).buildRoutes();
+
+        assertEquals(Shape.small().virtualServices(), routes.size());
+        assertTrue(routes.stream().allMatch(route -> route.getLinks().size() >= Shape.small().routesPerVirtualService()));
+    }
+}